@@ -1,7 +1,9 @@
 package com.example.miapp;
 
 import com.example.miapp.persistence.DataManagerPersistence;
+import com.example.miapp.persistence.DataManagerSnapshot;
 import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.BinaryGraphFile;
 import com.example.miapp.service.ConflictGraphLoader;
 import com.example.miapp.service.GraphExporter;
 import com.example.miapp.exception.DomainException;
@@ -21,7 +23,8 @@ public class Main {
      * Punto de entrada de la aplicación.
      * Uso: java -jar app.jar [<ruta_data.json> <ruta_graph.json>]
      * - Entrada: archivo JSON con asignaciones (por defecto: data.json).
-     * - Salida: archivo JSON para grafo de conflictos (por defecto: graph.json).
+     * - Salida: archivo JSON para grafo de conflictos (por defecto: graph.json) y su versión
+     *   binaria compacta junto a él (por defecto: graph.bin).
      */
     public static void main(String[] args) {
         // Procesar argumentos de línea de comandos
@@ -41,9 +44,8 @@ public class Main {
         }
 
         try {
-            // Cargar datos desde JSON
-            DataManagerPersistence persistence = new DataManagerPersistence();
-            persistence.loadFromNestedJson(dataFile);
+            // Cargar datos: snapshot binario si está al día, si no JSON (y se regenera el snapshot)
+            loadData(dataFile, dataPath);
 
             // Mostrar resumen de datos
             DataManager dataManager = DataManager.getInstance();
@@ -66,13 +68,15 @@ public class Main {
                 Files.createDirectories(graphPath.getParent());
             }
 
-            // Exportar grafo a JSON
+            // Exportar grafo a JSON y, junto a él, en formato binario compacto
             GraphExporter exporter = new GraphExporter(loader);
             exporter.exportToJson(graphFile);
+            String binaryGraphFile = binaryGraphPath(graphFile);
+            exporter.exportToBinary(binaryGraphFile);
 
             // Mostrar estadísticas de conflictos
             int totalConflicts = loader.getTotalConflictsCount();
-            System.out.println("Grafo de conflictos creado en: " + graphFile);
+            System.out.println("Grafo de conflictos creado en: " + graphFile + " y " + binaryGraphFile);
             System.out.println("Total de conflictos detectados: " + totalConflicts);
             
             // Opcional: mostrar estadísticas más detalladas
@@ -91,4 +95,43 @@ public class Main {
             System.exit(1);
         }
     }
+
+    /**
+     * Obtiene la ruta del grafo binario que acompaña al JSON: misma ruta con la extensión
+     * .json sustituida (o añadida) por la del formato binario.
+     */
+    private static String binaryGraphPath(String graphFile) {
+        String base = graphFile.endsWith(".json")
+            ? graphFile.substring(0, graphFile.length() - ".json".length())
+            : graphFile;
+        return base + BinaryGraphFile.FILE_EXTENSION;
+    }
+
+    /**
+     * Carga el estado desde el snapshot binario junto al JSON si existe y no es más antiguo
+     * que él; en otro caso, o si el snapshot no es válido, carga el JSON y regenera el snapshot.
+     */
+    private static void loadData(String dataFile, Path dataPath) throws IOException {
+        String snapshotFile = dataFile + DataManagerSnapshot.FILE_EXTENSION;
+        DataManagerSnapshot snapshot = new DataManagerSnapshot();
+
+        if (DataManagerSnapshot.isUpToDate(Paths.get(snapshotFile), dataPath)) {
+            try {
+                snapshot.load(snapshotFile);
+                logger.info("Datos cargados desde el snapshot: " + snapshotFile);
+                return;
+            } catch (IOException | DomainException e) {
+                logger.warning("Snapshot no válido, se carga el JSON: " + e.getMessage());
+            }
+        }
+
+        DataManagerPersistence persistence = new DataManagerPersistence();
+        persistence.loadFromNestedJson(dataFile);
+
+        try {
+            snapshot.save(snapshotFile);
+        } catch (IOException e) {
+            logger.warning("No se pudo guardar el snapshot " + snapshotFile + ": " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import com.example.miapp.domain.conflict.ConflictType;
 import com.example.miapp.exception.AssignmentConflictException;
 import com.example.miapp.exception.BlockedSlotConflictException;
 import com.example.miapp.exception.DomainException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import org.slf4j.Logger;
@@ -45,6 +46,12 @@ public class Assignment {
     private final LocalTime endTime;
     private final String sessionType;    // "D"=Diurno, "N"=Nocturno
     
+    // Horario precalculado como enteros para las comparaciones frecuentes
+    private final DayOfWeek dayOfWeek;   // Día normalizado, sea cual sea su escritura
+    private final short startMinute;     // Minuto del día de inicio
+    private final short endMinute;       // Minuto del día de fin
+    private final boolean wholeMinutes;  // false si alguna hora tiene segundos
+    
     // Información adicional
     private final int enrolledStudents;
 
@@ -72,8 +79,14 @@ public class Assignment {
         // Información adicional
         this.enrolledStudents = b.enrolledStudents;
         
-        // Realizar todas las validaciones estructurales y semánticas
-        validateAssignment();
+        // Realizar todas las validaciones estructurales y semánticas,
+        // normalizando el día una única vez
+        this.dayOfWeek = validateAssignment();
+        
+        // Representación primitiva del horario
+        this.startMinute = (short) TimeSlot.toMinuteOfDay(this.startTime);
+        this.endMinute = (short) TimeSlot.toMinuteOfDay(this.endTime);
+        this.wholeMinutes = TimeSlot.isWholeMinute(this.startTime) && TimeSlot.isWholeMinute(this.endTime);
         
         if (logger.isDebugEnabled()) {
             logger.debug("Assignment created: id={}, professor={}, room={}, day={}, time={}-{}",
@@ -84,32 +97,35 @@ public class Assignment {
     /**
      * Valida que los datos de la asignación sean coherentes.
      * Incluye validaciones estructurales y semánticas según las reglas de negocio.
+     * @return Día de la semana normalizado
      * @throws DomainException si los datos son incoherentes o violan alguna regla
      */
-    private void validateAssignment() {
+    private DayOfWeek validateAssignment() {
         // Validación estructural: el tiempo debe ser coherente
         if (!endTime.isAfter(startTime)) {
             throw new DomainException("endTime debe ser posterior a startTime");
         }
         
         // Validación de día de la semana válido
-        validateDay();
+        DayOfWeek dayOfWeek = validateDay();
         
         // Validación de franja horaria según reglas institucionales
-        validateTimeSlot();
+        validateTimeSlot(dayOfWeek);
         
         // Las siguientes validaciones se han convertido en métodos de detección de conflictos
         // en lugar de lanzar excepciones durante la creación del objeto
+        return dayOfWeek;
     }
     
     /**
      * Valida que el día de la semana sea válido.
+     * @return Día de la semana correspondiente
      * @throws DomainException si el día no es válido
      */
-    private void validateDay() {
+    private DayOfWeek validateDay() {
         try {
-            // Intentar parsear el día para validarlo
-            TimeSlot.parseDayOfWeek(this.day);
+            // Parsear el día para validarlo
+            return TimeSlot.parseDayOfWeek(this.day);
         } catch (DomainException e) {
             throw new DomainException("Día de la semana no válido: " + this.day);
         }
@@ -117,13 +133,11 @@ public class Assignment {
     
     /**
      * Valida que el horario esté dentro de las franjas permitidas según el día.
+     * @param dayOfWeek Día de la semana ya validado
      * @throws DomainException si el horario está fuera de las franjas válidas
      */
-    private void validateTimeSlot() {
+    private void validateTimeSlot(DayOfWeek dayOfWeek) {
         try {
-            // Convertir el día a DayOfWeek
-            DayOfWeek dayOfWeek = TimeSlot.parseDayOfWeek(this.day);
-            
             // Verificar si el horario está dentro de las franjas válidas
             if (!TimeSlot.isValidTimeRange(dayOfWeek, this.startTime, this.endTime)) {
                 // Obtener las franjas válidas para incluirlas en el mensaje de error
@@ -191,7 +205,9 @@ public class Assignment {
      * @throws BlockedSlotConflictException si hay conflicto y throwExceptionOnConflict es true
      */
     public boolean hasBlockedSlotConflict(boolean throwExceptionOnConflict) {
-        boolean hasConflict = professor.hasBlockedSlotConflict(this.day, this.startTime, this.endTime);
+        boolean hasConflict = wholeMinutes
+            ? professor.hasBlockedSlotConflict(dayOfWeek.ordinal(), startMinute, endMinute)
+            : professor.hasBlockedSlotConflict(this.day, this.startTime, this.endTime);
         
         if (hasConflict && throwExceptionOnConflict) {
             throw new BlockedSlotConflictException(
@@ -247,12 +263,13 @@ public class Assignment {
     public boolean overlapsTimeWith(Assignment other) {
         Objects.requireNonNull(other, "La asignación a comparar no puede ser null");
         
-        if (!this.day.equals(other.day)) {
+        if (this.dayOfWeek != other.dayOfWeek) {
             return false;
         }
         
-        boolean overlaps = !this.endTime.isBefore(other.startTime) && 
-                          !this.startTime.isAfter(other.endTime);
+        boolean overlaps = (this.wholeMinutes && other.wholeMinutes)
+            ? TimeSlot.overlapsMinutes(this.startMinute, this.endMinute, other.startMinute, other.endMinute)
+            : !this.endTime.isBefore(other.startTime) && !this.startTime.isAfter(other.endTime);
         
         if (overlaps && logger.isTraceEnabled()) {
             logger.trace("Time overlap between id={} ({}-{}) and id={} ({}-{})",
@@ -276,14 +293,14 @@ public class Assignment {
         Objects.requireNonNull(other, "La asignación a comparar no puede ser null");
         
         // Solo verificar si son el mismo día y mismo profesor
-        if (!this.day.equals(other.day) || this.professor.getId() != other.professor.getId()) {
+        if (this.dayOfWeek != other.dayOfWeek || this.professor.getId() != other.professor.getId()) {
             return false;
         }
         
         // Usar la clase TimeSlot para verificar el conflicto específico
-        boolean hasConflict = TimeSlot.hasWorkloadConflict(
-            this.startTime, this.endTime,
-            other.startTime, other.endTime);
+        boolean hasConflict = (this.wholeMinutes && other.wholeMinutes)
+            ? TimeSlot.hasWorkloadConflict(this.startMinute, this.endMinute, other.startMinute, other.endMinute)
+            : TimeSlot.hasWorkloadConflict(this.startTime, this.endTime, other.startTime, other.endTime);
             
         if (hasConflict && logger.isDebugEnabled()) {
             logger.debug("Workload conflict between id={} and id={}: consecutive heavy time slots",
@@ -420,6 +437,48 @@ public class Assignment {
         return conflicts;
     }
     
+    /**
+     * Calcula los conflictos de pares entre esta asignación y otra como máscara de bits
+     * ({@link ConflictType#mask()}), aplicando las mismas reglas que {@link #conflictsWith}
+     * sin crear mapas, listas ni aristas. Pensado para la construcción masiva del grafo.
+     *
+     * @param other La otra asignación a comparar
+     * @return Máscara de tipos de conflicto; 0 si no hay conflicto o si es la misma asignación
+     *         (los auto-conflictos se obtienen con {@link #conflictsWith})
+     * @throws NullPointerException si other es null
+     */
+    public int pairConflictMask(Assignment other) {
+        Objects.requireNonNull(other, "La asignación a comparar no puede ser null");
+
+        if (this.id == other.id || !overlapsTimeWith(other)) {
+            return 0;
+        }
+
+        int mask = 0;
+        if (this.professor.getId() == other.professor.getId()) {
+            mask |= ConflictType.PROFESSOR.mask();
+        }
+        if (this.room.getId() == other.room.getId()) {
+            mask |= ConflictType.ROOM.mask();
+        }
+        if (this.groupId == other.groupId) {
+            mask |= ConflictType.GROUP.mask();
+        }
+        if (this.sessionType.equals(other.sessionType)) {
+            mask |= ConflictType.SESSION_TYPE.mask();
+        }
+        if (hasWorkloadConflictWith(other)) {
+            mask |= ConflictType.PROFESSOR_WORKLOAD.mask();
+        }
+
+        if (mask != 0 && logger.isDebugEnabled()) {
+            logger.debug("Found {} conflict types between id={} and id={}: {}",
+                       Integer.bitCount(mask), this.id, other.id, ConflictType.fromMask(mask));
+        }
+
+        return mask;
+    }
+
     /**
      * Verifica si hay conflicto con otra asignación y lanza una excepción si se encuentra alguno.
      * @param other La otra asignación para comparar
@@ -584,6 +643,13 @@ public class Assignment {
     public LocalTime getEndTime() { return endTime; }
     public String getSessionType() { return sessionType; }
     
+    // Horario normalizado y en representación primitiva (excluido de la serialización)
+    @JsonIgnore public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    @JsonIgnore public int getDayOrdinal() { return dayOfWeek.ordinal(); }
+    @JsonIgnore public int getStartMinute() { return startMinute; }
+    @JsonIgnore public int getEndMinute() { return endMinute; }
+    @JsonIgnore public boolean hasWholeMinuteTimes() { return wholeMinutes; }
+    
     // Información adicional
     public int getEnrolledStudents() { return enrolledStudents; }
     
@@ -1,5 +1,6 @@
 package com.example.miapp.domain;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.time.Duration;
 import java.util.Arrays;
@@ -9,6 +10,7 @@ import java.util.Set;
 
 import com.example.miapp.exception.BlockedSlotConflictException;
 import com.example.miapp.exception.DomainException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import org.slf4j.Logger;
@@ -29,6 +31,12 @@ public class BlockedSlot {
     private final String day;
     private final LocalTime startTime;
     private final LocalTime endTime;
+    
+    // Horario precalculado como enteros para las comparaciones frecuentes
+    private final DayOfWeek dayOfWeek;   // Día normalizado
+    private final short startMinute;     // Minuto del día de inicio
+    private final short endMinute;       // Minuto del día de fin
+    private final boolean wholeMinutes;  // false si alguna hora tiene segundos
 
     private BlockedSlot(Builder b) {
         // Validación de campos obligatorios con mensajes específicos
@@ -38,6 +46,11 @@ public class BlockedSlot {
         
         validateTimeRange();
         
+        this.dayOfWeek = DayOfWeek.valueOf(day.toUpperCase());
+        this.startMinute = (short) TimeSlot.toMinuteOfDay(startTime);
+        this.endMinute = (short) TimeSlot.toMinuteOfDay(endTime);
+        this.wholeMinutes = TimeSlot.isWholeMinute(startTime) && TimeSlot.isWholeMinute(endTime);
+        
         if (logger.isDebugEnabled()) {
             logger.debug("BlockedSlot creado: {} de {} a {}", day, startTime, endTime);
         }
@@ -91,12 +104,15 @@ public class BlockedSlot {
 
     /**
      * Verifica si esta franja bloqueada se solapa con un rango de tiempo dado.
+     * El día se compara por día de la semana, igual que en
+     * {@link #overlaps(int, int, int)}, de modo que "monday" o "Lunes" equivalen a "Monday".
      * 
      * @param otherDay día a comparar
      * @param otherStart hora de inicio a comparar
      * @param otherEnd hora de fin a comparar
      * @return true si hay solapamiento, false en caso contrario
      * @throws NullPointerException si algún parámetro es null
+     * @throws DomainException si el nombre del día no es reconocido
      */
     public boolean overlaps(String otherDay, LocalTime otherStart, LocalTime otherEnd) {
         // Validación de parámetros
@@ -104,7 +120,7 @@ public class BlockedSlot {
         Objects.requireNonNull(otherStart, "La hora de inicio a comparar no puede ser null");
         Objects.requireNonNull(otherEnd, "La hora de fin a comparar no puede ser null");
         
-        if (!this.day.equals(otherDay)) {
+        if (this.dayOfWeek != TimeSlot.parseDayOfWeek(otherDay)) {
             return false;
         }
         
@@ -119,6 +135,31 @@ public class BlockedSlot {
         return result;
     }
     
+    /**
+     * Verifica si esta franja bloqueada se solapa con un rango expresado en minutos del día.
+     * El día se compara por día de la semana, de modo que admite cualquier nombre que
+     * acepte {@link TimeSlot#parseDayOfWeek(String)}.
+     * 
+     * @param otherDayOrdinal ordinal ({@link DayOfWeek#ordinal()}) del día a comparar
+     * @param otherStartMinute minuto del día de inicio a comparar
+     * @param otherEndMinute minuto del día de fin a comparar
+     * @return true si hay solapamiento, false en caso contrario
+     */
+    public boolean overlaps(int otherDayOrdinal, int otherStartMinute, int otherEndMinute) {
+        if (this.dayOfWeek.ordinal() != otherDayOrdinal) {
+            return false;
+        }
+        
+        if (wholeMinutes) {
+            return TimeSlot.overlapsMinutes(startMinute, endMinute, otherStartMinute, otherEndMinute);
+        }
+        
+        // Franja con segundos: comparar con precisión completa
+        LocalTime otherStart = LocalTime.of(otherStartMinute / 60, otherStartMinute % 60);
+        LocalTime otherEnd = LocalTime.of(otherEndMinute / 60, otherEndMinute % 60);
+        return !this.endTime.isBefore(otherStart) && !this.startTime.isAfter(otherEnd);
+    }
+    
     /**
      * Verifica si esta franja bloqueada se solapa con un rango de tiempo dado y lanza
      * una excepción si existe solapamiento.
@@ -128,6 +169,7 @@ public class BlockedSlot {
      * @param otherEnd hora de fin a comparar
      * @param professorId ID del profesor (para la excepción)
      * @throws NullPointerException si algún parámetro es null
+     * @throws DomainException si el nombre del día no es reconocido
      * @throws BlockedSlotConflictException si hay solapamiento
      */
     public void verifyNoOverlap(String otherDay, LocalTime otherStart, LocalTime otherEnd, int professorId) {
@@ -136,7 +178,7 @@ public class BlockedSlot {
         Objects.requireNonNull(otherStart, "La hora de inicio a comparar no puede ser null");
         Objects.requireNonNull(otherEnd, "La hora de fin a comparar no puede ser null");
         
-        if (this.day.equals(otherDay) && 
+        if (this.dayOfWeek == TimeSlot.parseDayOfWeek(otherDay) && 
             !this.endTime.isBefore(otherStart) && !this.startTime.isAfter(otherEnd)) {
             
             throw new BlockedSlotConflictException(
@@ -243,6 +285,16 @@ public class BlockedSlot {
         return day;
     }
 
+    /**
+     * Obtiene el día de la franja bloqueada como {@link DayOfWeek}.
+     * 
+     * @return Día de la semana normalizado
+     */
+    @JsonIgnore
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
     /**
      * Obtiene la hora de inicio de la franja bloqueada.
      * 
@@ -263,6 +263,29 @@ public class Professor {
         return false;
     }
     
+    /**
+     * Verifica si este profesor tiene conflicto con un horario expresado en minutos del día.
+     * Compara el día por día de la semana, sin crear objetos de tiempo.
+     * 
+     * @param dayOrdinal Ordinal ({@link java.time.DayOfWeek#ordinal()}) del día
+     * @param startMinute Minuto del día de inicio
+     * @param endMinute Minuto del día de fin
+     * @return true si hay alguna franja bloqueada que se solape, false en caso contrario
+     */
+    public boolean hasBlockedSlotConflict(int dayOrdinal, int startMinute, int endMinute) {
+        for (BlockedSlot slot : blockedSlots) {
+            if (slot.overlaps(dayOrdinal, startMinute, endMinute)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Profesor id={} tiene conflicto en el día {} de {} a {} (minutos)",
+                               this.id, dayOrdinal, startMinute, endMinute);
+                }
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
     /**
      * Verifica si este profesor tiene conflicto con una asignación propuesta y lanza
      * una excepción si existe un conflicto.
@@ -31,6 +31,18 @@ public class TimeSlot {
      */
     private static final Map<String, DayOfWeek> DAY_NAME_MAP;
     
+    // Franjas de la regla de sobrecarga (16:00-18:00 seguida de 18:00-20:00)
+    private static final LocalTime AFTERNOON_START = LocalTime.of(16, 0);
+    private static final LocalTime AFTERNOON_END = LocalTime.of(18, 0);
+    private static final LocalTime EVENING_START = LocalTime.of(18, 0);
+    private static final LocalTime EVENING_END = LocalTime.of(20, 0);
+    
+    // Las mismas franjas en minutos del día, para las comparaciones primitivas
+    private static final int AFTERNOON_START_MINUTE = 16 * 60;
+    private static final int AFTERNOON_END_MINUTE = 18 * 60;
+    private static final int EVENING_START_MINUTE = 18 * 60;
+    private static final int EVENING_END_MINUTE = 20 * 60;
+    
     // Inicialización estática de las franjas horarias válidas
     static {
         // Inicializar mapa de conversión de nombres de días
@@ -187,26 +199,20 @@ public class TimeSlot {
             LocalTime existingStartTime, LocalTime existingEndTime,
             LocalTime newStartTime, LocalTime newEndTime) {
         
-        // Definir las franjas críticas
-        LocalTime afternoonStart = LocalTime.of(16, 0);
-        LocalTime afternoonEnd = LocalTime.of(18, 0);
-        LocalTime eveningStart = LocalTime.of(18, 0);
-        LocalTime eveningEnd = LocalTime.of(20, 0);
-        
         // Verificar si la asignación existente está en la franja de 4-6pm
-        boolean existingInAfternoon = existingStartTime.equals(afternoonStart) && 
-                                    existingEndTime.equals(afternoonEnd);
+        boolean existingInAfternoon = existingStartTime.equals(AFTERNOON_START) && 
+                                    existingEndTime.equals(AFTERNOON_END);
         
         // Verificar si la nueva asignación está en la franja de 6-8pm
-        boolean newInEvening = newStartTime.equals(eveningStart) && 
-                              (newEndTime.equals(eveningEnd) || newEndTime.isAfter(eveningEnd));
+        boolean newInEvening = newStartTime.equals(EVENING_START) && 
+                              (newEndTime.equals(EVENING_END) || newEndTime.isAfter(EVENING_END));
         
         // También verificar el caso inverso
-        boolean newInAfternoon = newStartTime.equals(afternoonStart) && 
-                                newEndTime.equals(afternoonEnd);
-        boolean existingInEvening = existingStartTime.equals(eveningStart) && 
-                                   (existingEndTime.equals(eveningEnd) || 
-                                    existingEndTime.isAfter(eveningEnd));
+        boolean newInAfternoon = newStartTime.equals(AFTERNOON_START) && 
+                                newEndTime.equals(AFTERNOON_END);
+        boolean existingInEvening = existingStartTime.equals(EVENING_START) && 
+                                   (existingEndTime.equals(EVENING_END) || 
+                                    existingEndTime.isAfter(EVENING_END));
         
         // Hay conflicto si una asignación está en 4-6pm y la otra en 6-8pm
         boolean hasConflict = (existingInAfternoon && newInEvening) || 
@@ -220,6 +226,57 @@ public class TimeSlot {
         return hasConflict;
     }
     
+    /**
+     * Variante primitiva de {@link #hasWorkloadConflict(LocalTime, LocalTime, LocalTime, LocalTime)}
+     * sobre minutos del día, sin crear objetos. Equivalente a la versión con LocalTime cuando
+     * las horas son minutos exactos.
+     * 
+     * @param existingStart Minuto de inicio de una asignación existente
+     * @param existingEnd Minuto de fin de una asignación existente
+     * @param newStart Minuto de inicio de la nueva asignación propuesta
+     * @param newEnd Minuto de fin de la nueva asignación propuesta
+     * @return true si hay un conflicto de sobrecarga horaria, false en caso contrario
+     */
+    public static boolean hasWorkloadConflict(int existingStart, int existingEnd, int newStart, int newEnd) {
+        boolean existingInAfternoon = existingStart == AFTERNOON_START_MINUTE && existingEnd == AFTERNOON_END_MINUTE;
+        boolean newInEvening = newStart == EVENING_START_MINUTE && newEnd >= EVENING_END_MINUTE;
+        boolean newInAfternoon = newStart == AFTERNOON_START_MINUTE && newEnd == AFTERNOON_END_MINUTE;
+        boolean existingInEvening = existingStart == EVENING_START_MINUTE && existingEnd >= EVENING_END_MINUTE;
+        
+        return (existingInAfternoon && newInEvening) || (newInAfternoon && existingInEvening);
+    }
+    
+    /**
+     * Verifica, sobre minutos del día, si dos rangos se solapan. Los extremos son inclusivos:
+     * dos rangos que se tocan se consideran solapados, igual que con LocalTime.
+     * 
+     * @return true si hay solapamiento, false en caso contrario
+     */
+    public static boolean overlapsMinutes(int start1, int end1, int start2, int end2) {
+        return end1 >= start2 && start1 <= end2;
+    }
+    
+    /**
+     * Convierte una hora en minutos desde medianoche (0-1439), descartando segundos.
+     * 
+     * @param time Hora a convertir
+     * @return Minuto del día
+     */
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+    
+    /**
+     * Indica si una hora es un minuto exacto, es decir, si su representación en minutos
+     * del día no pierde precisión.
+     * 
+     * @param time Hora a comprobar
+     * @return true si no tiene segundos ni nanosegundos
+     */
+    public static boolean isWholeMinute(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+    
     /**
      * Encuentra la franja válida que mejor se ajusta a un rango de tiempo deseado.
      * Útil para sugerir alternativas cuando un rango propuesto no es válido.
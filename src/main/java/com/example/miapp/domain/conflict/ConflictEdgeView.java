@@ -0,0 +1,227 @@
+package com.example.miapp.domain.conflict;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Vista ligera (flyweight) de una arista de conflicto codificada como máscara de bits.
+ * Una misma instancia se reposiciona sobre cada arista durante un recorrido, de modo que
+ * consultar millones de aristas no crea un objeto por arista ni por tipo de conflicto.
+ * Expone los mismos accesores que {@link ConflictEdge}, aplicados al conjunto de tipos del par.
+ *
+ * La vista solo es válida durante la llamada en la que se recibe; para conservarla
+ * debe usarse {@link #copy()}.
+ */
+public final class ConflictEdgeView {
+
+    // Máscara de tipos de cada categoría, indexada por ordinal de la categoría
+    private static final int[] CATEGORY_MASKS = new int[ConflictType.Category.values().length];
+
+    static {
+        for (ConflictType type : ConflictType.values()) {
+            CATEGORY_MASKS[type.getCategory().ordinal()] |= type.mask();
+        }
+    }
+
+    private int sourceId;
+    private int targetId;
+    private int mask;
+
+    /**
+     * Crea una vista sin posicionar.
+     */
+    public ConflictEdgeView() {
+    }
+
+    /**
+     * Crea una vista posicionada sobre una arista.
+     * @param sourceId ID de origen (el menor del par en recorridos globales)
+     * @param targetId ID de destino
+     * @param mask máscara de tipos de conflicto
+     */
+    public ConflictEdgeView(int sourceId, int targetId, int mask) {
+        reset(sourceId, targetId, mask);
+    }
+
+    /**
+     * Reposiciona la vista sobre otra arista.
+     * @param sourceId ID de origen (el menor del par en recorridos globales)
+     * @param targetId ID de destino
+     * @param mask máscara de tipos de conflicto
+     * @return esta misma vista
+     */
+    public ConflictEdgeView reset(int sourceId, int targetId, int mask) {
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.mask = mask;
+        return this;
+    }
+
+    /**
+     * @return ID de origen: el menor del par en recorridos globales, o la asignación
+     *         consultada en recorridos por asignación
+     */
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * @return ID de destino (igual al de origen en auto-conflictos)
+     */
+    public int getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * @return máscara de tipos de conflicto (un bit por {@link ConflictType#mask()})
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @return true si la arista representa conflictos de una asignación consigo misma
+     */
+    public boolean isSelfConflict() {
+        return sourceId == targetId;
+    }
+
+    /**
+     * @return número de tipos de conflicto de la arista
+     */
+    public int getConflictCount() {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * Obtiene el tipo principal de la arista: el primero en orden de declaración.
+     * @return tipo principal, o null si la vista no contiene tipos
+     */
+    public ConflictType getType() {
+        return mask == 0 ? null : ConflictType.fromOrdinal(Integer.numberOfTrailingZeros(mask));
+    }
+
+    /**
+     * Obtiene los tipos de conflicto de la arista.
+     * @return conjunto nuevo con los tipos, en orden de declaración
+     */
+    public EnumSet<ConflictType> getTypes() {
+        return ConflictType.fromMask(mask);
+    }
+
+    /**
+     * Obtiene la categoría del tipo principal de la arista.
+     * @return categoría del conflicto, o null si la vista no contiene tipos
+     */
+    public ConflictType.Category getCategory() {
+        ConflictType type = getType();
+        return type != null ? type.getCategory() : null;
+    }
+
+    /**
+     * Obtiene la descripción legible de todos los conflictos de la arista.
+     * @return etiquetas de los tipos separadas por comas
+     */
+    public String getDescription() {
+        StringBuilder sb = new StringBuilder();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(ConflictType.fromOrdinal(Integer.numberOfTrailingZeros(bits)).getLabel());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Determina si la arista incluye el tipo especificado.
+     * @param conflictType tipo a comprobar
+     * @return true si lo incluye, false en caso contrario
+     * @throws NullPointerException si conflictType es null
+     */
+    public boolean isType(ConflictType conflictType) {
+        Objects.requireNonNull(conflictType, "El tipo de conflicto a comprobar no puede ser null");
+        return (mask & conflictType.mask()) != 0;
+    }
+
+    /**
+     * Determina si la arista incluye algún conflicto de la categoría especificada.
+     * @param category categoría a comprobar
+     * @return true si algún tipo pertenece a la categoría, false en caso contrario
+     * @throws NullPointerException si category es null
+     */
+    public boolean isInCategory(ConflictType.Category category) {
+        Objects.requireNonNull(category, "La categoría no puede ser null");
+        return (mask & CATEGORY_MASKS[category.ordinal()]) != 0;
+    }
+
+    /**
+     * @return true si la arista incluye algún conflicto de profesor
+     */
+    public boolean isProfessorRelated() {
+        return isInCategory(ConflictType.Category.PROFESSOR);
+    }
+
+    /**
+     * @return true si la arista incluye algún conflicto de recursos
+     */
+    public boolean isResourceRelated() {
+        return isInCategory(ConflictType.Category.RESOURCE);
+    }
+
+    /**
+     * @return true si la arista incluye algún conflicto relacionado con estudiantes
+     */
+    public boolean isStudentRelated() {
+        return isInCategory(ConflictType.Category.STUDENT);
+    }
+
+    /**
+     * @return true si la arista incluye algún conflicto de horarios
+     */
+    public boolean isScheduleRelated() {
+        return isInCategory(ConflictType.Category.SCHEDULE);
+    }
+
+    /**
+     * Crea una arista {@link ConflictEdge} por cada tipo, para los consumidores que
+     * trabajan con la representación clásica.
+     * @return lista nueva de aristas, en orden de declaración de los tipos
+     */
+    public List<ConflictEdge> toConflictEdges() {
+        List<ConflictEdge> edges = new ArrayList<>(Integer.bitCount(mask));
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            edges.add(new ConflictEdge(ConflictType.fromOrdinal(Integer.numberOfTrailingZeros(bits))));
+        }
+        return edges;
+    }
+
+    /**
+     * Crea una copia independiente de la vista, que puede conservarse tras el recorrido.
+     * @return nueva vista con los mismos valores
+     */
+    public ConflictEdgeView copy() {
+        return new ConflictEdgeView(sourceId, targetId, mask);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ConflictEdgeView)) return false;
+        ConflictEdgeView other = (ConflictEdgeView) obj;
+        return sourceId == other.sourceId && targetId == other.targetId && mask == other.mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceId, targetId, mask);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Conflicto[tipos=%s, origen=%d, destino=%d]",
+                           getTypes(), sourceId, targetId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.miapp.domain.conflict;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
@@ -65,6 +66,9 @@ public enum ConflictType {
      */
     INVALID_TIME_SLOT("Horario fuera de las franjas válidas permitidas", Category.SCHEDULE);
 
+    // Copia única de values() para evitar clonar el array en cada conversión de máscara
+    private static final ConflictType[] VALUES = values();
+
     // Caché para búsquedas eficientes por etiqueta
     private static final Map<String, ConflictType> LABEL_MAP = Arrays.stream(values())
             .collect(Collectors.toMap(ConflictType::getLabel, Function.identity()));
@@ -209,6 +213,56 @@ public enum ConflictType {
         return category.getConflictTypes();
     }
     
+    /**
+     * Bit que representa este tipo dentro de una máscara de conflictos.
+     * @return máscara con un único bit activo
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+    
+    /**
+     * Calcula la máscara de un conjunto de tipos de conflicto.
+     * @param types tipos a incluir
+     * @return máscara con un bit activo por cada tipo
+     * @throws NullPointerException si types es null
+     */
+    public static int maskOf(Collection<ConflictType> types) {
+        if (types == null) {
+            throw new NullPointerException("Los tipos no pueden ser null");
+        }
+        int mask = 0;
+        for (ConflictType type : types) {
+            mask |= type.mask();
+        }
+        return mask;
+    }
+    
+    /**
+     * Obtiene los tipos de conflicto representados por una máscara.
+     * @param mask máscara de conflictos
+     * @return conjunto de tipos, en orden de declaración
+     */
+    public static EnumSet<ConflictType> fromMask(int mask) {
+        EnumSet<ConflictType> types = EnumSet.noneOf(ConflictType.class);
+        for (ConflictType type : VALUES) {
+            if ((mask & type.mask()) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+    
+    /**
+     * Obtiene un tipo de conflicto por su posición de declaración, sin copiar el array de valores.
+     * @param ordinal posición del tipo
+     * @return el tipo de conflicto
+     * @throws ArrayIndexOutOfBoundsException si la posición no es válida
+     */
+    public static ConflictType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+    
     /**
      * Comprueba si un tipo de conflicto está relacionado con profesores.
      * @return true si es un conflicto relacionado con profesores
@@ -0,0 +1,495 @@
+package com.example.miapp.persistence;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Registro de escritura anticipada (journal) de un archivo JSON de asignaciones.
+ *
+ * Los cambios de una asignación se añaden como un registro compacto por línea al archivo
+ * {@code <datos>.journal}, sin leer ni reescribir el archivo de datos, de modo que cada
+ * edición cuesta lo mismo sea cual sea su tamaño. Los registros pendientes se mantienen
+ * también en memoria (el último por ID), y las lecturas combinan el archivo de datos con
+ * ellos.
+ *
+ * {@link #compact()} incorpora los registros al archivo de datos: el journal se rota a
+ * {@code <datos>.journal.compacting}, se escribe un archivo de datos nuevo recorriendo el
+ * anterior en streaming y se sustituye con un movimiento atómico. Las escrituras pueden
+ * continuar mientras tanto sobre un journal nuevo. Si el proceso se interrumpe, al abrir
+ * el journal se reaplican ambos archivos y se completa la compactación; aplicar un
+ * registro dos veces no cambia el resultado. Si una compactación falla, el archivo
+ * {@code .journal.compacting} se conserva y la siguiente le añade el journal actual en
+ * lugar de sustituirlo.
+ *
+ * Las compactaciones y las reescrituras completas del archivo de datos
+ * ({@link #replaceDataFile}) se serializan con un cerrojo por archivo, de modo que una
+ * compactación nunca sustituye un archivo reescrito después de empezar.
+ *
+ * Formato de cada línea: {@code {"op":"put","id":N,"data":{...}}} o
+ * {@code {"op":"del","id":N}}. Una última línea incompleta (escritura interrumpida) se
+ * descarta al abrir.
+ */
+public class AssignmentJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentJournal.class);
+
+    private static final String ASSIGNMENTS_FIELD = "assignments";
+    private static final String OP_PUT = "put";
+    private static final String OP_DELETE = "del";
+
+    private final Path dataFile;
+    private final Path journalFile;
+    private final Path compactingFile;
+    private final ObjectMapper mapper;
+    private final ObjectWriter recordWriter;
+    private final boolean syncEachRecord;
+
+    // Último registro por ID desde la última compactación; null indica eliminación
+    private final Map<Integer, JsonNode> pending = new LinkedHashMap<>();
+    private Set<Integer> liveIds;
+    private FileChannel channel;
+    private int recordCount;
+
+    // Serializa compactaciones y reescrituras completas del archivo de datos; se toma
+    // siempre antes que el monitor del journal
+    private final Object fileLock = new Object();
+
+    /**
+     * Abre (o crea) el journal de un archivo de datos y reaplica los registros pendientes.
+     *
+     * @param dataFile Archivo JSON de asignaciones (objeto raíz con el array "assignments")
+     * @param mapper ObjectMapper para leer y escribir los nodos
+     * @param syncEachRecord true para forzar cada registro a disco antes de volver
+     * @throws IOException si no se puede leer o crear el journal
+     */
+    public AssignmentJournal(Path dataFile, ObjectMapper mapper, boolean syncEachRecord) throws IOException {
+        this.dataFile = Objects.requireNonNull(dataFile, "El archivo de datos no puede ser null");
+        this.mapper = Objects.requireNonNull(mapper, "El ObjectMapper no puede ser null");
+        this.recordWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.syncEachRecord = syncEachRecord;
+        this.journalFile = dataFile.resolveSibling(dataFile.getFileName() + ".journal");
+        this.compactingFile = dataFile.resolveSibling(dataFile.getFileName() + ".journal.compacting");
+
+        boolean interrupted = Files.exists(compactingFile);
+        replay(compactingFile);
+        replay(journalFile);
+        this.channel = openJournal();
+
+        if (interrupted) {
+            logger.warn("Compactación interrumpida en {}; completándola", dataFile);
+            Map<Integer, JsonNode> folded = new LinkedHashMap<>(pending);
+            fold(folded);
+            synchronized (this) {
+                channel.truncate(0);
+                recordCount = 0;
+                pending.keySet().removeAll(folded.keySet());
+            }
+            Files.deleteIfExists(compactingFile);
+        }
+
+        logger.info("Journal abierto para {}: {} registros pendientes", dataFile, recordCount);
+    }
+
+    /**
+     * @return Archivo de datos al que pertenece el journal
+     */
+    public Path getDataFile() {
+        return dataFile;
+    }
+
+    /**
+     * Registra el alta o la sustitución de una asignación.
+     *
+     * @param id ID de la asignación
+     * @param node Representación JSON completa de la asignación
+     * @throws IOException si no se puede escribir el registro
+     */
+    public synchronized void put(int id, ObjectNode node) throws IOException {
+        Objects.requireNonNull(node, "El nodo no puede ser null");
+        ObjectNode record = mapper.createObjectNode();
+        record.put("op", OP_PUT);
+        record.put("id", id);
+        record.set("data", node);
+        append(record);
+        pending.put(id, node);
+        if (liveIds != null) {
+            liveIds.add(id);
+        }
+    }
+
+    /**
+     * Registra la eliminación de una asignación.
+     *
+     * @param id ID de la asignación
+     * @return true si la asignación existía
+     * @throws IOException si no se puede leer el archivo de datos o escribir el registro
+     */
+    public synchronized boolean remove(int id) throws IOException {
+        if (!contains(id)) {
+            return false;
+        }
+        ObjectNode record = mapper.createObjectNode();
+        record.put("op", OP_DELETE);
+        record.put("id", id);
+        append(record);
+        pending.put(id, null);
+        liveIds.remove(id);
+        return true;
+    }
+
+    /**
+     * Indica si existe una asignación con el ID dado. La primera llamada recorre una vez
+     * el archivo de datos para conocer sus IDs; las siguientes no leen disco.
+     *
+     * @throws IOException si no se puede leer el archivo de datos
+     */
+    public synchronized boolean contains(int id) throws IOException {
+        if (liveIds == null) {
+            Set<Integer> ids = new HashSet<>();
+            scanDataFile(node -> ids.add(node.path("id").asInt()));
+            for (Map.Entry<Integer, JsonNode> entry : pending.entrySet()) {
+                if (entry.getValue() != null) {
+                    ids.add(entry.getKey());
+                } else {
+                    ids.remove(entry.getKey());
+                }
+            }
+            liveIds = ids;
+        }
+        return liveIds.contains(id);
+    }
+
+    /**
+     * Busca una asignación, primero entre los registros pendientes y después en el archivo
+     * de datos.
+     *
+     * @param id ID de la asignación
+     * @return Nodo JSON de la asignación, o vacío si no existe
+     * @throws IOException si no se puede leer el archivo de datos
+     */
+    public Optional<JsonNode> find(int id) throws IOException {
+        synchronized (this) {
+            if (pending.containsKey(id)) {
+                return Optional.ofNullable(pending.get(id));
+            }
+        }
+        JsonNode[] found = new JsonNode[1];
+        scanDataFile(node -> {
+            if (found[0] == null && node.path("id").asInt() == id) {
+                found[0] = node;
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    /**
+     * Recorre todas las asignaciones vigentes: las del archivo de datos que no tienen
+     * registros pendientes y después las añadidas o sustituidas en el journal.
+     *
+     * @param action Acción a aplicar a cada nodo de asignación
+     * @throws IOException si no se puede leer el archivo de datos
+     */
+    public void forEach(Consumer<JsonNode> action) throws IOException {
+        Map<Integer, JsonNode> overlay;
+        synchronized (this) {
+            overlay = new LinkedHashMap<>(pending);
+        }
+        scanDataFile(node -> {
+            if (!overlay.containsKey(node.path("id").asInt())) {
+                action.accept(node);
+            }
+        });
+        for (JsonNode node : overlay.values()) {
+            if (node != null) {
+                action.accept(node);
+            }
+        }
+    }
+
+    /**
+     * @return Número de registros escritos desde la última compactación
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Incorpora los registros pendientes al archivo de datos. Las escrituras concurrentes
+     * no se bloquean durante la reescritura: van a un journal nuevo y siguen pendientes.
+     * Si ya hay una compactación o una reescritura completa en curso, espera a que termine.
+     *
+     * @throws IOException si falla la reescritura; los registros se conservan
+     */
+    public void compact() throws IOException {
+        synchronized (fileLock) {
+            Map<Integer, JsonNode> folded;
+            synchronized (this) {
+                if (recordCount == 0 && !Files.exists(compactingFile)) {
+                    return;
+                }
+                channel.close();
+                rotateJournal();
+                channel = openJournal();
+                recordCount = 0;
+                folded = new LinkedHashMap<>(pending);
+            }
+
+            long startNanos = System.nanoTime();
+            fold(folded);
+            Files.deleteIfExists(compactingFile);
+            synchronized (this) {
+                // Solo se descartan los registros que no han cambiado desde la rotación
+                folded.forEach((id, node) -> {
+                    if (pending.containsKey(id) && pending.get(id) == node) {
+                        pending.remove(id);
+                    }
+                });
+            }
+            logger.info("Journal compactado en {}: {} asignaciones actualizadas en {} ms",
+                       dataFile, folded.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Descarta el journal y sus registros pendientes. Si hay una compactación en curso,
+     * espera a que termine.
+     *
+     * @throws IOException si no se pueden borrar los archivos del journal
+     */
+    public void discard() throws IOException {
+        synchronized (fileLock) {
+            synchronized (this) {
+                channel.truncate(0);
+                Files.deleteIfExists(compactingFile);
+                pending.clear();
+                liveIds = null;
+                recordCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Reescribe completo el archivo de datos y descarta el journal, que deja de tener
+     * efecto. La operación se serializa con las compactaciones: ninguna compactación
+     * iniciada antes puede sustituir después el archivo escrito.
+     *
+     * @param writer Escritura completa del archivo de datos
+     * @throws IOException si falla la escritura o no se puede descartar el journal
+     */
+    public void replaceDataFile(DataFileWriter writer) throws IOException {
+        Objects.requireNonNull(writer, "La escritura no puede ser null");
+        synchronized (fileLock) {
+            discard();
+            writer.write(dataFile);
+        }
+    }
+
+    /**
+     * Escritura completa de un archivo de datos.
+     */
+    @FunctionalInterface
+    public interface DataFileWriter {
+        void write(Path dataFile) throws IOException;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Pasa los registros del journal al archivo de compactación. Si quedó uno de una
+     * compactación fallida, sus registros solo están en memoria y en ese archivo: el journal
+     * se le añade al final (el orden de reaplicación se conserva) en lugar de sustituirlo.
+     */
+    private void rotateJournal() throws IOException {
+        if (!Files.exists(compactingFile)) {
+            Files.move(journalFile, compactingFile);
+            return;
+        }
+        try (FileChannel source = FileChannel.open(journalFile, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(compactingFile, StandardOpenOption.WRITE,
+                                                   StandardOpenOption.APPEND)) {
+            long size = source.size();
+            for (long position = 0; position < size; ) {
+                position += source.transferTo(position, size - position, target);
+            }
+            target.force(true);
+        }
+        Files.delete(journalFile);
+    }
+
+    private FileChannel openJournal() throws IOException {
+        Path parent = journalFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.APPEND);
+    }
+
+    private void append(ObjectNode record) throws IOException {
+        byte[] line = (recordWriter.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (syncEachRecord) {
+            channel.force(false);
+        }
+        recordCount++;
+    }
+
+    /**
+     * Reaplica un archivo de journal sobre los registros pendientes. Una línea final que
+     * no se puede leer se considera una escritura interrumpida y se recorta del archivo.
+     */
+    private void replay(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long validBytes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    validBytes += 1;
+                    continue;
+                }
+                JsonNode record;
+                try {
+                    record = mapper.readTree(line);
+                } catch (IOException e) {
+                    logger.warn("Registro incompleto al final de {}; se descarta: {}", file, e.getMessage());
+                    break;
+                }
+                int id = record.path("id").asInt();
+                if (OP_PUT.equals(record.path("op").asText())) {
+                    pending.put(id, record.get("data"));
+                } else {
+                    pending.put(id, null);
+                }
+                recordCount++;
+                validBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+        long size = Files.size(file);
+        if (validBytes != size) {
+            try (FileChannel repair = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                if (validBytes < size) {
+                    repair.truncate(validBytes);
+                } else {
+                    // Último registro completo pero sin salto de línea
+                    repair.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recorre en streaming los nodos del array "assignments" del archivo de datos.
+     */
+    private void scanDataFile(Consumer<JsonNode> action) throws IOException {
+        if (!Files.exists(dataFile)) {
+            return;
+        }
+        JsonArrayReader.read(mapper, dataFile, Map.of(ASSIGNMENTS_FIELD, action::accept));
+    }
+
+    /**
+     * Escribe un archivo de datos nuevo con los cambios aplicados y sustituye al anterior.
+     * Las asignaciones sustituidas conservan su posición; las nuevas se añaden al final.
+     * Los demás campos del objeto raíz se copian sin cambios.
+     */
+    private void fold(Map<Integer, JsonNode> changes) throws IOException {
+        Path tmp = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        Set<Integer> written = new HashSet<>();
+        JsonFactory factory = mapper.getFactory();
+
+        try (JsonGenerator generator = factory.createGenerator(tmp.toFile(), JsonEncoding.UTF8)) {
+            generator.setCodec(mapper);
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            boolean wroteAssignments = false;
+
+            if (Files.exists(dataFile)) {
+                try (JsonParser parser = factory.createParser(dataFile.toFile())) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        throw new IOException("Formato JSON inválido: se esperaba un objeto raíz en " + dataFile);
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        JsonToken value = parser.nextToken();
+                        if (ASSIGNMENTS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                            generator.writeArrayFieldStart(ASSIGNMENTS_FIELD);
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                JsonNode node = parser.readValueAsTree();
+                                int id = node.path("id").asInt();
+                                if (!changes.containsKey(id)) {
+                                    generator.writeTree(node);
+                                } else if (changes.get(id) != null && written.add(id)) {
+                                    generator.writeTree(changes.get(id));
+                                }
+                            }
+                            writeRemaining(generator, changes, written);
+                            generator.writeEndArray();
+                            wroteAssignments = true;
+                        } else {
+                            generator.writeFieldName(field);
+                            generator.copyCurrentStructure(parser);
+                        }
+                    }
+                }
+            }
+
+            if (!wroteAssignments) {
+                generator.writeArrayFieldStart(ASSIGNMENTS_FIELD);
+                writeRemaining(generator, changes, written);
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+
+        try {
+            Files.move(tmp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeRemaining(JsonGenerator generator, Map<Integer, JsonNode> changes,
+                                       Set<Integer> written) throws IOException {
+        for (Map.Entry<Integer, JsonNode> entry : changes.entrySet()) {
+            if (entry.getValue() != null && written.add(entry.getKey())) {
+                generator.writeTree(entry.getValue());
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -190,7 +191,7 @@ public class DataManagerPersistence {
     private ArrayNode serializeAssignments() {
         ArrayNode assignmentsArray = mapper.createArrayNode();
         
-        for (Assignment assignment : dataManager.getAllAssignments()) {
+        dataManager.forEachAssignment(assignment -> {
             ObjectNode assignNode = mapper.createObjectNode();
             
             // Datos básicos de la asignación
@@ -217,7 +218,7 @@ public class DataManagerPersistence {
             
             assignmentsArray.add(assignNode);
             logger.trace("Asignación serializada: id={}", assignment.getId());
-        }
+        });
         
         logger.debug("Serializadas {} asignaciones", assignmentsArray.size());
         return assignmentsArray;
@@ -227,6 +228,15 @@ public class DataManagerPersistence {
      * Carga el estado completo del DataManager desde un archivo JSON.
      * Reemplaza todo el estado actual.
      * 
+     * El archivo se recorre en streaming ({@link JsonArrayReader}) y las entidades se
+     * construyen a medida que se leen, sin materializar el documento completo. Antes de
+     * tocar el estado, una primera pasada sin construir nodos valida la sintaxis del
+     * documento y obtiene el orden de sus colecciones: un archivo mal formado deja el estado
+     * actual intacto. Según ese orden, las materias de los profesores se resuelven al final
+     * si la colección de materias va después, y las asignaciones se cargan en una segunda
+     * pasada si preceden a alguna colección de la que dependen. Las colecciones ausentes se
+     * resuelven, como siempre, contra los datos por defecto.
+     * 
      * @param filePath Ruta del archivo a cargar
      * @throws IOException Si hay error en la lectura del archivo
      * @throws DomainException Si hay error en la validación de los datos cargados
@@ -243,24 +253,38 @@ public class DataManagerPersistence {
             throw new IOException("El archivo no existe: " + filePath);
         }
         
-        // Leer el JSON
-        ObjectNode rootNode = (ObjectNode) mapper.readTree(new File(filePath));
+        // Validar el documento y conocer el orden de sus colecciones antes de tocar el estado
+        List<String> collections = JsonArrayReader.arrayFields(mapper, path);
+        for (String collection : List.of("subjects", "rooms", "professors", "assignments")) {
+            if (!collections.contains(collection)) {
+                logger.warn("El JSON no contiene la colección '{}'", collection);
+            }
+        }
         
         // Limpiar el estado actual
         dataManager.clearAll();
         
         try {
-            // Cargar materias primero (ya que profesores y asignaciones dependen de ellas)
-            loadSubjects(rootNode);
-            
-            // Cargar aulas (asignaciones dependen de ellas)
-            loadRooms(rootNode);
+            FlatLoad load = new FlatLoad(collections);
+            Map<String, JsonArrayReader.ElementHandler> handlers = new HashMap<>();
+            handlers.put("subjects", load::loadSubject);
+            handlers.put("rooms", load::loadRoom);
+            handlers.put("professors", load::loadProfessor);
+            if (!load.deferAssignments) {
+                handlers.put("assignments", load::loadAssignment);
+            }
+            JsonArrayReader.read(mapper, path, handlers);
+            load.resolvePendingSubjects();
             
-            // Cargar profesores (asignaciones dependen de ellos)
-            loadProfessors(rootNode);
+            // Asignaciones antes que alguna de sus dependencias: segunda pasada solo sobre ellas
+            if (load.deferAssignments) {
+                logger.debug("Las asignaciones preceden a sus dependencias; segunda pasada sobre {}", filePath);
+                JsonArrayReader.read(mapper, path, Map.of("assignments", load::loadAssignment));
+            }
             
-            // Finalmente, cargar asignaciones
-            loadAssignments(rootNode);
+            logger.debug("Cargadas {} materias, {} aulas, {} profesores y {} de {} asignaciones",
+                       load.subjectCount, load.roomCount, load.professorCount,
+                       load.assignmentCount, load.assignmentIndex);
             
             logger.info("Carga completada: {} profesores, {} materias, {} aulas, {} asignaciones",
                       dataManager.getAllProfessors().size(),
@@ -277,19 +301,37 @@ public class DataManagerPersistence {
     }
     
     /**
-     * Carga las materias desde el nodo JSON.
+     * Estado de una carga en streaming del formato plano: cuenta lo cargado y guarda las
+     * referencias que aún no pueden resolverse. Qué se pospone se decide una sola vez, a
+     * partir del orden de las colecciones en el documento.
      */
-    private void loadSubjects(ObjectNode rootNode) {
-        if (!rootNode.has("subjects")) {
-            logger.warn("El JSON no contiene la colección 'subjects'");
-            return;
+    private final class FlatLoad {
+        // Materias de cada profesor pendientes de la colección de materias
+        private final Map<Professor, List<String>> pendingSubjects = new LinkedHashMap<>();
+        private final boolean deferProfessorSubjects;
+        private final boolean deferAssignments;
+        private int subjectCount;
+        private int roomCount;
+        private int professorCount;
+        private int assignmentCount;
+        private int assignmentIndex;
+        
+        /**
+         * @param collections Arrays del objeto raíz en orden de aparición
+         */
+        FlatLoad(List<String> collections) {
+            int subjects = collections.indexOf("subjects");
+            int professors = collections.indexOf("professors");
+            int assignments = collections.indexOf("assignments");
+            int lastDependency = Math.max(subjects, Math.max(collections.indexOf("rooms"), professors));
+            this.deferProfessorSubjects = subjects > professors && professors >= 0;
+            this.deferAssignments = assignments >= 0 && assignments < lastDependency;
         }
         
-        ArrayNode subjectsArray = (ArrayNode) rootNode.get("subjects");
-        
-        for (int i = 0; i < subjectsArray.size(); i++) {
-            ObjectNode subjectNode = (ObjectNode) subjectsArray.get(i);
-            
+        /**
+         * Carga una materia.
+         */
+        void loadSubject(JsonNode subjectNode) {
             String code = subjectNode.get("code").asText();
             String name = subjectNode.get("name").asText();
             String description = subjectNode.get("description").asText();
@@ -298,27 +340,15 @@ public class DataManagerPersistence {
             
             Subject subject = new Subject(code, name, description, credits, requiresLab);
             dataManager.addSubject(subject);
+            subjectCount++;
             
             logger.trace("Materia cargada: código={}", code);
         }
         
-        logger.debug("Cargadas {} materias", subjectsArray.size());
-    }
-    
-    /**
-     * Carga las aulas desde el nodo JSON.
-     */
-    private void loadRooms(ObjectNode rootNode) {
-        if (!rootNode.has("rooms")) {
-            logger.warn("El JSON no contiene la colección 'rooms'");
-            return;
-        }
-        
-        ArrayNode roomsArray = (ArrayNode) rootNode.get("rooms");
-        
-        for (int i = 0; i < roomsArray.size(); i++) {
-            ObjectNode roomNode = (ObjectNode) roomsArray.get(i);
-            
+        /**
+         * Carga un aula.
+         */
+        void loadRoom(JsonNode roomNode) {
             int id = roomNode.get("id").asInt();
             String name = roomNode.get("name").asText();
             int capacity = roomNode.get("capacity").asInt();
@@ -326,27 +356,16 @@ public class DataManagerPersistence {
             
             Room room = new Room(id, name, capacity, isLab);
             dataManager.addRoom(room);
+            roomCount++;
             
             logger.trace("Aula cargada: id={}", id);
         }
         
-        logger.debug("Cargadas {} aulas", roomsArray.size());
-    }
-    
-    /**
-     * Carga los profesores desde el nodo JSON.
-     */
-    private void loadProfessors(ObjectNode rootNode) {
-        if (!rootNode.has("professors")) {
-            logger.warn("El JSON no contiene la colección 'professors'");
-            return;
-        }
-        
-        ArrayNode professorsArray = (ArrayNode) rootNode.get("professors");
-        
-        for (int i = 0; i < professorsArray.size(); i++) {
-            ObjectNode profNode = (ObjectNode) professorsArray.get(i);
-            
+        /**
+         * Carga un profesor. Si la colección de materias aún no se ha leído, sus materias
+         * quedan pendientes.
+         */
+        void loadProfessor(JsonNode profNode) {
             int id = profNode.get("id").asInt();
             String name = profNode.get("name").asText();
             String department = profNode.get("department").asText();
@@ -356,24 +375,20 @@ public class DataManagerPersistence {
             
             // Asignar materias
             if (profNode.has("subjects")) {
-                ArrayNode subjectsArray = (ArrayNode) profNode.get("subjects");
-                for (int j = 0; j < subjectsArray.size(); j++) {
-                    String subjectCode = subjectsArray.get(j).asText();
-                    Subject subject = dataManager.getSubject(subjectCode);
-                    if (subject != null) {
-                        professor.assignSubject(subject);
-                    } else {
-                        logger.warn("Materia no encontrada: {}", subjectCode);
-                    }
+                List<String> codes = new ArrayList<>();
+                for (JsonNode codeNode : profNode.get("subjects")) {
+                    codes.add(codeNode.asText());
+                }
+                if (!deferProfessorSubjects) {
+                    assignSubjects(professor, codes);
+                } else if (!codes.isEmpty()) {
+                    pendingSubjects.put(professor, codes);
                 }
             }
             
             // Añadir franjas bloqueadas
             if (profNode.has("blockedSlots")) {
-                ArrayNode slotsArray = (ArrayNode) profNode.get("blockedSlots");
-                for (int j = 0; j < slotsArray.size(); j++) {
-                    ObjectNode slotNode = (ObjectNode) slotsArray.get(j);
-                    
+                for (JsonNode slotNode : profNode.get("blockedSlots")) {
                     String day = slotNode.get("day").asText();
                     LocalTime startTime = LocalTime.parse(slotNode.get("startTime").asText());
                     LocalTime endTime = LocalTime.parse(slotNode.get("endTime").asText());
@@ -383,27 +398,19 @@ public class DataManagerPersistence {
             }
             
             dataManager.addProfessor(professor);
+            professorCount++;
             logger.trace("Profesor cargado: id={}", id);
         }
         
-        logger.debug("Cargados {} profesores", professorsArray.size());
-    }
-    
-    /**
-     * Carga las asignaciones desde el nodo JSON.
-     */
-    private void loadAssignments(ObjectNode rootNode) {
-        if (!rootNode.has("assignments")) {
-            logger.warn("El JSON no contiene la colección 'assignments'");
-            return;
-        }
-        
-        ArrayNode assignmentsArray = (ArrayNode) rootNode.get("assignments");
-        List<Assignment> assignments = new ArrayList<>();
-        
-        for (int i = 0; i < assignmentsArray.size(); i++) {
-            ObjectNode assignNode = (ObjectNode) assignmentsArray.get(i);
+        /**
+         * Carga una asignación. Los errores de una asignación se registran y se continúa con
+         * la siguiente.
+         */
+        void loadAssignment(JsonNode assignNode) {
+            resolvePendingSubjects();
             
+            int index = assignmentIndex++;
+            Assignment assignment;
             try {
                 int id = assignNode.get("id").asInt();
                 LocalDate assignmentDate = LocalDate.parse(assignNode.get("assignmentDate").asText());
@@ -439,7 +446,7 @@ public class DataManagerPersistence {
                 int enrolledStudents = assignNode.get("enrolledStudents").asInt();
                 
                 // Crear la asignación
-                Assignment.Builder builder = new Assignment.Builder()
+                assignment = new Assignment.Builder()
                     .id(id)
                     .assignmentDate(assignmentDate)
                     .professor(professor)
@@ -451,24 +458,40 @@ public class DataManagerPersistence {
                     .groupId(groupId)
                     .groupName(groupName)
                     .sessionType(sessionType)
-                    .enrolledStudents(enrolledStudents);
-                
-                Assignment assignment = builder.build();
-                assignments.add(assignment);
-                
-                logger.trace("Asignación cargada: id={}", id);
+                    .enrolledStudents(enrolledStudents)
+                    .build();
             } catch (Exception e) {
                 // Loguear y continuar con la siguiente asignación
-                logger.error("Error al cargar la asignación #{}: {}", i, e.getMessage(), e);
+                logger.error("Error al cargar la asignación #{}: {}", index, e.getMessage(), e);
+                return;
             }
+            
+            dataManager.addAssignment(assignment);
+            assignmentCount++;
+            logger.trace("Asignación cargada: id={}", assignment.getId());
         }
         
-        // Añadir todas las asignaciones cargadas correctamente
-        for (Assignment assignment : assignments) {
-            dataManager.addAssignment(assignment);
+        /**
+         * Asigna a los profesores las materias que quedaron pendientes.
+         */
+        void resolvePendingSubjects() {
+            if (pendingSubjects.isEmpty()) {
+                return;
+            }
+            pendingSubjects.forEach(this::assignSubjects);
+            pendingSubjects.clear();
         }
         
-        logger.debug("Cargadas {} de {} asignaciones", assignments.size(), assignmentsArray.size());
+        private void assignSubjects(Professor professor, List<String> codes) {
+            for (String subjectCode : codes) {
+                Subject subject = dataManager.getSubject(subjectCode);
+                if (subject != null) {
+                    professor.assignSubject(subject);
+                } else {
+                    logger.warn("Materia no encontrada: {}", subjectCode);
+                }
+            }
+        }
     }
 
     /**
@@ -496,7 +519,7 @@ public void saveToNestedJson(String filePath) throws IOException {
     ArrayNode assignmentsArray = mapper.createArrayNode();
     
     // Para cada asignación, crear un nodo con datos anidados
-    for (Assignment assignment : dataManager.getAllAssignments()) {
+    dataManager.forEachAssignment(assignment -> {
         ObjectNode assignmentNode = mapper.createObjectNode();
         
         // Datos básicos de asignación
@@ -526,7 +549,7 @@ public void saveToNestedJson(String filePath) throws IOException {
         
         // Añadir la asignación al array
         assignmentsArray.add(assignmentNode);
-    }
+    });
     
     // Añadir array de asignaciones al nodo raíz
     rootNode.set("assignments", assignmentsArray);
@@ -617,8 +640,8 @@ public void loadFromNestedJson(String filePath) throws IOException {
         throw new IOException("El archivo no existe: " + filePath);
     }
     
-    // Leer el JSON
-    ObjectNode rootNode = (ObjectNode) mapper.readTree(new File(filePath));
+    // Validar el documento antes de tocar el estado
+    JsonArrayReader.arrayFields(mapper, path);
     
     try {
         // Limpiar el estado actual
@@ -629,13 +652,9 @@ public void loadFromNestedJson(String filePath) throws IOException {
         Map<String, Subject> subjectsMap = new HashMap<>();
         Map<Integer, Room> roomsMap = new HashMap<>();
         
-        // Procesar asignaciones
-        JsonNode assignmentsNode = rootNode.get("assignments");
-        if (assignmentsNode != null && assignmentsNode.isArray()) {
-            for (JsonNode assignmentNode : assignmentsNode) {
-                processNestedAssignment(assignmentNode, professorsMap, subjectsMap, roomsMap);
-            }
-        }
+        // Procesar asignaciones en streaming, una a una
+        JsonArrayReader.read(mapper, path, Map.of("assignments",
+            assignmentNode -> processNestedAssignment(assignmentNode, professorsMap, subjectsMap, roomsMap)));
         
         logger.info("Carga desde JSON anidado completada: {} profesores, {} materias, {} aulas, {} asignaciones",
                   professorsMap.size(), subjectsMap.size(), roomsMap.size(), dataManager.getAllAssignments().size());
@@ -0,0 +1,527 @@
+package com.example.miapp.persistence;
+
+import com.example.miapp.domain.*;
+import com.example.miapp.exception.DomainException;
+import com.example.miapp.repository.DataManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binario del estado completo del DataManager: materias, aulas, profesores con sus
+ * materias y franjas bloqueadas, y asignaciones.
+ *
+ * Formato (enteros big-endian):
+ * <pre>
+ * cabecera:  magic "MIAP" (int) | versión (short) | reservado (short) | longitud del contenido (long) | CRC32 del contenido (int)
+ * contenido: diccionario de cadenas | materias | aulas | profesores | asignaciones
+ * </pre>
+ * Las cadenas se guardan una sola vez en el diccionario y las entidades las referencian por
+ * índice; las asignaciones y los profesores referencian a materias, aulas y profesores por su
+ * posición en las tablas anteriores, de modo que al cargar se reconstruye el mismo grafo de
+ * objetos. Las horas se guardan en nanosegundos del día y las fechas en días desde la época,
+ * sin pérdida frente al JSON.
+ *
+ * La carga verifica cabecera, versión y checksum y construye todas las entidades antes de
+ * tocar el DataManager: un snapshot dañado o inválido deja el estado actual intacto.
+ */
+public class DataManagerSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(DataManagerSnapshot.class);
+
+    /**
+     * Extensión convencional de los snapshots, añadida al nombre del archivo JSON de origen.
+     */
+    public static final String FILE_EXTENSION = ".snap";
+
+    /**
+     * Versión del formato que escribe y acepta esta clase.
+     */
+    public static final short FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4D494150; // "MIAP"
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 4;
+    private static final int NO_REFERENCE = -1;
+
+    private final DataManager dataManager;
+
+    public DataManagerSnapshot() {
+        this.dataManager = DataManager.getInstance();
+    }
+
+    /**
+     * Guarda el estado completo del DataManager en un snapshot binario. El archivo se
+     * escribe en un temporal y se sustituye de forma atómica.
+     *
+     * @param filePath Ruta del snapshot
+     * @throws IOException si hay error de escritura
+     * @throws NullPointerException si filePath es null
+     */
+    public void save(String filePath) throws IOException {
+        Objects.requireNonNull(filePath, "La ruta del archivo no puede ser null");
+        long startNanos = System.nanoTime();
+
+        Path path = Paths.get(filePath).toAbsolutePath();
+        Path parent = path.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+
+        Encoder encoder = new Encoder();
+        byte[] payload = encoder.encode();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(MAGIC)
+            .putShort(FORMAT_VERSION)
+            .putShort((short) 0)
+            .putLong(payload.length)
+            .putInt((int) crc.getValue());
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            out.write(header.array());
+            out.write(payload);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        logger.info("Snapshot guardado en {}: {} profesores, {} materias, {} aulas, {} asignaciones, {} bytes en {} ms",
+                   filePath, encoder.registeredProfessors, encoder.registeredSubjects, encoder.registeredRooms,
+                   encoder.assignmentCount, HEADER_BYTES + payload.length, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Carga el estado completo del DataManager desde un snapshot binario.
+     * Reemplaza todo el estado actual, incluidos los datos por defecto que no estén en el
+     * snapshot, de modo que el resultado es idéntico al estado que se guardó.
+     *
+     * @param filePath Ruta del snapshot
+     * @throws IOException si hay error de lectura, la cabecera o la versión no son válidas o
+     *         el checksum no coincide; el estado actual no se modifica
+     * @throws DomainException si los datos del snapshot no son válidos para el dominio; el
+     *         estado actual no se modifica
+     * @throws NullPointerException si filePath es null
+     */
+    public void load(String filePath) throws IOException {
+        Objects.requireNonNull(filePath, "La ruta del archivo no puede ser null");
+        long startNanos = System.nanoTime();
+
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new IOException("El archivo no existe: " + filePath);
+        }
+
+        ByteBuffer payload = verify(Files.readAllBytes(path), filePath);
+
+        Decoder decoder = new Decoder(payload);
+        try {
+            decoder.decode();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Snapshot con contenido inconsistente: " + filePath, e);
+        } catch (RuntimeException e) {
+            throw new DomainException("Error al cargar los datos desde el snapshot: " + e.getMessage(), e);
+        }
+
+        // Sustituir el estado solo cuando todo el contenido es válido
+        dataManager.clearAll();
+        removeDefaultsNotIn(decoder);
+        for (int i = 0; i < decoder.registeredSubjects; i++) {
+            dataManager.addSubject(decoder.subjects[i]);
+        }
+        for (int i = 0; i < decoder.registeredRooms; i++) {
+            dataManager.addRoom(decoder.rooms[i]);
+        }
+        for (int i = 0; i < decoder.registeredProfessors; i++) {
+            dataManager.addProfessor(decoder.professors[i]);
+        }
+        for (Assignment assignment : decoder.assignments) {
+            dataManager.addAssignment(assignment);
+        }
+
+        logger.info("Snapshot cargado desde {}: {} profesores, {} materias, {} aulas, {} asignaciones en {} ms",
+                   filePath, decoder.registeredProfessors, decoder.registeredSubjects, decoder.registeredRooms,
+                   decoder.assignments.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Indica si existe un snapshot legible con la versión actual y no más antiguo que su
+     * archivo de origen. Solo se lee la cabecera; el checksum se verifica al cargar.
+     *
+     * @param snapshotPath Ruta del snapshot
+     * @param sourcePath Archivo a partir del cual se generó el snapshot
+     * @return true si el snapshot puede usarse en lugar del archivo de origen
+     */
+    public static boolean isUpToDate(Path snapshotPath, Path sourcePath) {
+        Objects.requireNonNull(snapshotPath, "La ruta del snapshot no puede ser null");
+        Objects.requireNonNull(sourcePath, "La ruta de origen no puede ser null");
+        try {
+            if (!Files.isRegularFile(snapshotPath) || Files.size(snapshotPath) < HEADER_BYTES) {
+                return false;
+            }
+            if (Files.exists(sourcePath)
+                    && Files.getLastModifiedTime(snapshotPath).compareTo(Files.getLastModifiedTime(sourcePath)) < 0) {
+                return false;
+            }
+            byte[] header = new byte[HEADER_BYTES];
+            try (var in = Files.newInputStream(snapshotPath)) {
+                if (in.readNBytes(header, 0, HEADER_BYTES) != HEADER_BYTES) {
+                    return false;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            return buffer.getInt() == MAGIC && buffer.getShort() == FORMAT_VERSION;
+        } catch (IOException e) {
+            logger.warn("No se pudo comprobar el snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Comprueba cabecera, versión, longitud y checksum, y devuelve el contenido.
+     */
+    private static ByteBuffer verify(byte[] bytes, String filePath) throws IOException {
+        if (bytes.length < HEADER_BYTES) {
+            throw new IOException("Snapshot truncado: " + filePath);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("El archivo no es un snapshot válido: " + filePath);
+        }
+        short version = buffer.getShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Versión de snapshot no soportada: " + version + " (se esperaba "
+                                 + FORMAT_VERSION + ") en " + filePath);
+        }
+        buffer.getShort(); // reservado
+        long length = buffer.getLong();
+        int checksum = buffer.getInt();
+        if (length != bytes.length - HEADER_BYTES) {
+            throw new IOException("Snapshot truncado: se esperaban " + length + " bytes de contenido y hay "
+                                 + (bytes.length - HEADER_BYTES) + " en " + filePath);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Snapshot dañado: el checksum no coincide en " + filePath);
+        }
+        return buffer.slice();
+    }
+
+    /**
+     * Elimina los datos por defecto que reinicializa clearAll() y que no forman parte del
+     * snapshot.
+     */
+    private void removeDefaultsNotIn(Decoder decoder) {
+        Set<String> subjectCodes = new HashSet<>();
+        for (int i = 0; i < decoder.registeredSubjects; i++) {
+            subjectCodes.add(decoder.subjects[i].getCode());
+        }
+        Set<Integer> roomIds = new HashSet<>();
+        for (int i = 0; i < decoder.registeredRooms; i++) {
+            roomIds.add(decoder.rooms[i].getId());
+        }
+        Set<Integer> professorIds = new HashSet<>();
+        for (int i = 0; i < decoder.registeredProfessors; i++) {
+            professorIds.add(decoder.professors[i].getId());
+        }
+        for (Subject subject : dataManager.getAllSubjects()) {
+            if (!subjectCodes.contains(subject.getCode())) {
+                dataManager.removeSubject(subject.getCode());
+            }
+        }
+        for (Room room : dataManager.getAllRooms()) {
+            if (!roomIds.contains(room.getId())) {
+                dataManager.removeRoom(room.getId());
+            }
+        }
+        for (Professor professor : dataManager.getAllProfessors()) {
+            if (!professorIds.contains(professor.getId())) {
+                dataManager.removeProfessor(professor.getId());
+            }
+        }
+    }
+
+    /**
+     * Serializa el estado del DataManager. Cada tabla contiene primero las entidades
+     * registradas en el DataManager y después las que solo se alcanzan por referencia.
+     */
+    private final class Encoder {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final List<String> stringTable = new ArrayList<>();
+        private final Map<Subject, Integer> subjectIndex = new IdentityHashMap<>();
+        private final Map<Room, Integer> roomIndex = new IdentityHashMap<>();
+        private final Map<Professor, Integer> professorIndex = new IdentityHashMap<>();
+        private final List<Subject> subjects = new ArrayList<>();
+        private final List<Room> rooms = new ArrayList<>();
+        private final List<Professor> professors = new ArrayList<>();
+        private int registeredSubjects;
+        private int registeredRooms;
+        private int registeredProfessors;
+        private int assignmentCount;
+
+        byte[] encode() throws IOException {
+            // Tablas: registradas primero, luego las referenciadas desde profesores y asignaciones
+            dataManager.getAllSubjects().forEach(s -> register(subjectIndex, subjects, s));
+            dataManager.getAllRooms().forEach(r -> register(roomIndex, rooms, r));
+            dataManager.getAllProfessors().forEach(p -> register(professorIndex, professors, p));
+            registeredSubjects = subjects.size();
+            registeredRooms = rooms.size();
+            registeredProfessors = professors.size();
+
+            // Las asignaciones se codifican en una sola pasada, sin reunirlas en una lista: los
+            // índices de tabla no cambian una vez asignados, así que pueden escribirse ya
+            ByteArrayOutputStream assignmentBytes = new ByteArrayOutputStream(4096);
+            DataOutputStream assignmentOut = new DataOutputStream(assignmentBytes);
+            try {
+                dataManager.forEachAssignment(assignment -> {
+                    try {
+                        writeAssignment(assignmentOut, assignment);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    assignmentCount++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            assignmentOut.flush();
+            for (Professor professor : professors) {
+                professor.getSubjects().forEach(s -> register(subjectIndex, subjects, s));
+            }
+
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(64 + assignmentBytes.size());
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+
+            body.writeInt(subjects.size());
+            body.writeInt(registeredSubjects);
+            for (Subject subject : subjects) {
+                body.writeInt(string(subject.getCode()));
+                body.writeInt(string(subject.getName()));
+                body.writeInt(string(subject.getDescription()));
+                body.writeInt(subject.getCredits());
+                body.writeBoolean(subject.requiresLab());
+            }
+
+            body.writeInt(rooms.size());
+            body.writeInt(registeredRooms);
+            for (Room room : rooms) {
+                body.writeInt(room.getId());
+                body.writeInt(string(room.getName()));
+                body.writeInt(room.getCapacity());
+                body.writeBoolean(room.isLab());
+            }
+
+            body.writeInt(professors.size());
+            body.writeInt(registeredProfessors);
+            for (Professor professor : professors) {
+                body.writeInt(professor.getId());
+                body.writeInt(string(professor.getName()));
+                body.writeInt(string(professor.getDepartment()));
+                body.writeInt(string(professor.getEmail()));
+                List<Subject> professorSubjects = professor.getSubjects();
+                body.writeInt(professorSubjects.size());
+                for (Subject subject : professorSubjects) {
+                    body.writeInt(subjectIndex.get(subject));
+                }
+                List<BlockedSlot> slots = professor.getBlockedSlots();
+                body.writeInt(slots.size());
+                for (BlockedSlot slot : slots) {
+                    body.writeInt(string(slot.getDay()));
+                    body.writeLong(slot.getStartTime().toNanoOfDay());
+                    body.writeLong(slot.getEndTime().toNanoOfDay());
+                }
+            }
+
+            body.writeInt(assignmentCount);
+            body.flush();
+            assignmentBytes.writeTo(bodyBytes);
+
+            // El diccionario de cadenas precede al cuerpo
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(bodyBytes.size() + stringTable.size() * 24);
+            DataOutputStream payload = new DataOutputStream(payloadBytes);
+            payload.writeInt(stringTable.size());
+            for (String value : stringTable) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                payload.writeInt(utf8.length);
+                payload.write(utf8);
+            }
+            bodyBytes.writeTo(payload);
+            payload.flush();
+            return payloadBytes.toByteArray();
+        }
+
+        /**
+         * Registra las referencias de una asignación y escribe su registro.
+         */
+        private void writeAssignment(DataOutputStream out, Assignment assignment) throws IOException {
+            register(professorIndex, professors, assignment.getProfessor());
+            register(roomIndex, rooms, assignment.getRoom());
+            if (assignment.getSubject() != null) {
+                register(subjectIndex, subjects, assignment.getSubject());
+            }
+            out.writeInt(assignment.getId());
+            out.writeLong(assignment.getAssignmentDate().toEpochDay());
+            out.writeInt(professorIndex.get(assignment.getProfessor()));
+            out.writeInt(roomIndex.get(assignment.getRoom()));
+            out.writeInt(assignment.getSubject() != null ? subjectIndex.get(assignment.getSubject()) : NO_REFERENCE);
+            out.writeInt(assignment.getGroupId());
+            out.writeInt(string(assignment.getGroupName()));
+            out.writeInt(string(assignment.getDay()));
+            out.writeLong(assignment.getStartTime().toNanoOfDay());
+            out.writeLong(assignment.getEndTime().toNanoOfDay());
+            out.writeInt(string(assignment.getSessionType()));
+            out.writeInt(assignment.getEnrolledStudents());
+        }
+
+        private <T> void register(Map<T, Integer> index, List<T> table, T entity) {
+            if (!index.containsKey(entity)) {
+                index.put(entity, table.size());
+                table.add(entity);
+            }
+        }
+
+        private int string(String value) {
+            Integer id = strings.get(value);
+            if (id == null) {
+                id = stringTable.size();
+                strings.put(value, id);
+                stringTable.add(value);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Reconstruye las entidades de un snapshot sin modificar el DataManager.
+     */
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private String[] strings;
+        private Subject[] subjects;
+        private Room[] rooms;
+        private Professor[] professors;
+        private int registeredSubjects;
+        private int registeredRooms;
+        private int registeredProfessors;
+        private final List<Assignment> assignments = new ArrayList<>();
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void decode() {
+            strings = new String[count()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = count();
+                strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+
+            subjects = new Subject[count()];
+            registeredSubjects = registered(subjects.length);
+            for (int i = 0; i < subjects.length; i++) {
+                subjects[i] = new Subject(string(), string(), string(), buffer.getInt(), bool());
+            }
+
+            rooms = new Room[count()];
+            registeredRooms = registered(rooms.length);
+            for (int i = 0; i < rooms.length; i++) {
+                rooms[i] = new Room(buffer.getInt(), string(), buffer.getInt(), bool());
+            }
+
+            professors = new Professor[count()];
+            registeredProfessors = registered(professors.length);
+            for (int i = 0; i < professors.length; i++) {
+                Professor professor = new Professor(buffer.getInt(), string(), string(), string());
+                for (int s = count(); s > 0; s--) {
+                    professor.assignSubject(subjects[buffer.getInt()]);
+                }
+                for (int s = count(); s > 0; s--) {
+                    professor.addBlockedSlot(string(), time(), time());
+                }
+                professors[i] = professor;
+            }
+
+            int assignmentCount = count();
+            for (int i = 0; i < assignmentCount; i++) {
+                Assignment.Builder builder = new Assignment.Builder()
+                    .id(buffer.getInt())
+                    .assignmentDate(LocalDate.ofEpochDay(buffer.getLong()))
+                    .professor(professors[buffer.getInt()])
+                    .room(rooms[buffer.getInt()]);
+                int subject = buffer.getInt();
+                assignments.add(builder
+                    .subject(subject == NO_REFERENCE ? null : subjects[subject])
+                    .groupId(buffer.getInt())
+                    .groupName(string())
+                    .day(string())
+                    .startTime(time())
+                    .endTime(time())
+                    .sessionType(string())
+                    .enrolledStudents(buffer.getInt())
+                    .build());
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new IndexOutOfBoundsException(buffer.remaining() + " bytes sin interpretar al final del snapshot");
+            }
+        }
+
+        private int count() {
+            int value = buffer.getInt();
+            if (value < 0 || value > buffer.remaining()) {
+                throw new IndexOutOfBoundsException("Tamaño inválido en el snapshot: " + value);
+            }
+            return value;
+        }
+
+        private int registered(int total) {
+            int value = buffer.getInt();
+            if (value < 0 || value > total) {
+                throw new IndexOutOfBoundsException("Número de entidades registradas inválido en el snapshot: " + value);
+            }
+            return value;
+        }
+
+        private String string() {
+            return strings[buffer.getInt()];
+        }
+
+        private boolean bool() {
+            return buffer.get() != 0;
+        }
+
+        private LocalTime time() {
+            return LocalTime.ofNanoOfDay(buffer.getLong());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.miapp.persistence;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Lector en streaming de documentos JSON cuyo objeto raíz agrupa colecciones en arrays,
+ * como los que generan {@link DataManagerPersistence} y el servicio de asignaciones.
+ *
+ * El documento se recorre token a token con {@link JsonParser}: de cada array con
+ * manejador se materializa un único elemento cada vez, que se entrega al manejador y queda
+ * libre a continuación; el resto de campos del objeto raíz se salta sin construir nodos.
+ * De este modo la memoria de una carga es proporcional al modelo de dominio construido y
+ * no al tamaño del documento.
+ *
+ * Como los elementos se entregan antes de haber leído el documento completo, quien
+ * sustituya estado con ellos debe llamar antes a {@link #arrayFields}, que valida la
+ * sintaxis de todo el documento sin construir nodos.
+ */
+public final class JsonArrayReader {
+    private static final Logger logger = LoggerFactory.getLogger(JsonArrayReader.class);
+
+    /**
+     * Procesa un elemento de un array del documento.
+     */
+    @FunctionalInterface
+    public interface ElementHandler {
+        void accept(JsonNode element) throws IOException;
+    }
+
+    private JsonArrayReader() {
+        // Clase utilitaria
+    }
+
+    /**
+     * Recorre el documento completo token a token, sin construir nodos, y devuelve los
+     * nombres de los campos del objeto raíz cuyo valor es un array, en orden de aparición.
+     * Sirve para validar la sintaxis del documento antes de modificar estado y para
+     * conocer el orden de sus colecciones.
+     *
+     * @param mapper ObjectMapper cuya factoría crea el parser
+     * @param file Archivo JSON a recorrer
+     * @return Nombres de los arrays del objeto raíz, en orden de aparición
+     * @throws IOException si hay error de lectura o el documento no es un objeto JSON válido
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public static List<String> arrayFields(ObjectMapper mapper, Path file) throws IOException {
+        Objects.requireNonNull(mapper, "El ObjectMapper no puede ser null");
+        Objects.requireNonNull(file, "El archivo no puede ser null");
+
+        List<String> fields = new ArrayList<>();
+        try (JsonParser parser = mapper.getFactory().createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Formato JSON inválido: se esperaba un objeto raíz en " + file);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    fields.add(field);
+                }
+                parser.skipChildren();
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IOException("Formato JSON inválido: objeto raíz incompleto en " + file);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Recorre el documento y entrega cada elemento de los arrays del objeto raíz al
+     * manejador registrado con el nombre del campo, en el orden en que aparecen.
+     *
+     * @param mapper ObjectMapper con el que se construyen los nodos de cada elemento
+     * @param file Archivo JSON a recorrer
+     * @param handlers Manejador por nombre de campo del objeto raíz
+     * @return Nombres de los arrays con manejador encontrados, en orden de aparición
+     * @throws IOException si hay error de lectura, el documento no es un objeto JSON o
+     *         algún manejador falla
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public static Set<String> read(ObjectMapper mapper, Path file, Map<String, ElementHandler> handlers)
+            throws IOException {
+        Objects.requireNonNull(mapper, "El ObjectMapper no puede ser null");
+        Objects.requireNonNull(file, "El archivo no puede ser null");
+        Objects.requireNonNull(handlers, "Los manejadores no pueden ser null");
+
+        Set<String> found = new LinkedHashSet<>();
+        try (JsonParser parser = mapper.getFactory().createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Formato JSON inválido: se esperaba un objeto raíz en " + file);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                ElementHandler handler = handlers.get(field);
+                if (handler != null && value == JsonToken.START_ARRAY) {
+                    found.add(field);
+                    int count = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        handler.accept(parser.readValueAsTree());
+                        count++;
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Leídos {} elementos de '{}' en {}", count, field, file);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -4,18 +4,20 @@ import com.example.miapp.domain.*;
 import com.example.miapp.domain.TimeSlot.TimeRange;
 import com.example.miapp.exception.DomainException;
 import com.example.miapp.persistence.DataManagerPersistence;
+import com.example.miapp.persistence.DataManagerSnapshot;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.TextStyle;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Gestor centralizado de datos en memoria con patrón Singleton.
@@ -33,6 +35,21 @@ public class DataManager {
     private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
     private final Map<Integer, Assignment> assignments = new ConcurrentHashMap<>();
     
+    // Tamaño de franja del índice de ocupación, en minutos
+    private static final int OCCUPANCY_SLOT_MINUTES = 5;
+    
+    // Índices secundarios de asignaciones (por profesor, aula y día) y ocupación por aula,
+    // profesor y grupo; se mantienen junto al mapa de asignaciones y se accede a ellos
+    // siempre bajo assignmentLock
+    private final Map<Integer, Map<Integer, Assignment>> assignmentsByProfessor = new HashMap<>();
+    private final Map<Integer, Map<Integer, Assignment>> assignmentsByRoom = new HashMap<>();
+    private final Map<DayOfWeek, Map<Integer, Assignment>> assignmentsByDay = new EnumMap<>(DayOfWeek.class);
+    private final OccupancyIndex occupancy = new OccupancyIndex(OCCUPANCY_SLOT_MINUTES);
+    private final Object assignmentLock = new Object();
+    
+    // Almacén columnar en disco opcional para asignaciones desalojadas del heap
+    private volatile MappedAssignmentStore assignmentStore;
+    
     /**
      * Constructor privado para el patrón Singleton.
      */
@@ -400,20 +417,30 @@ private void initializeDefaultRooms() {
     
     /**
      * Obtiene todas las aulas que son laboratorios.
+     * El tipo se consulta en cada llamada, de modo que refleja los cambios hechos con
+     * {@link Room#setLab(boolean)} sobre aulas ya registradas.
      */
     public List<Room> getAllLabs() {
-        return rooms.values().stream()
-            .filter(Room::isLab)
-            .collect(Collectors.toList());
+        return roomsOfType(true);
     }
     
     /**
      * Obtiene todas las aulas que no son laboratorios.
+     * 
+     * @see #getAllLabs()
      */
     public List<Room> getAllNonLabs() {
-        return rooms.values().stream()
-            .filter(room -> !room.isLab())
-            .collect(Collectors.toList());
+        return roomsOfType(false);
+    }
+    
+    private List<Room> roomsOfType(boolean lab) {
+        List<Room> result = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            if (room.isLab() == lab) {
+                result.add(room);
+            }
+        }
+        return result;
     }
     
     // ===== Métodos para gestionar asignaciones =====
@@ -423,63 +450,263 @@ private void initializeDefaultRooms() {
      */
     public void addAssignment(Assignment assignment) {
         Objects.requireNonNull(assignment, "La asignación no puede ser null");
-        assignments.put(assignment.getId(), assignment);
+        synchronized (assignmentLock) {
+            Assignment previous = assignments.put(assignment.getId(), assignment);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(assignment);
+        }
         logger.debug("Asignación añadida: id={}, profesor={}, aula={}, día={}", 
                    assignment.getId(), assignment.getProfessorName(), 
                    assignment.getRoomName(), assignment.getDay());
     }
     
     /**
-     * Elimina una asignación del sistema.
+     * Elimina una asignación del sistema, tanto de memoria como del almacén asociado,
+     * de modo que no reaparece la copia del almacén de una asignación ya desalojada.
      */
     public boolean removeAssignment(int id) {
-        Assignment removed = assignments.remove(id);
-        if (removed != null) {
+        Assignment removed;
+        boolean removedFromStore = false;
+        synchronized (assignmentLock) {
+            removed = assignments.remove(id);
+            if (removed != null) {
+                unindex(removed);
+            }
+            MappedAssignmentStore store = assignmentStore;
+            if (store != null) {
+                removedFromStore = store.remove(id);
+            }
+        }
+        if (removed != null || removedFromStore) {
             logger.debug("Asignación eliminada: id={}", id);
             return true;
         }
         return false;
     }
     
+    // Registra una asignación en los índices secundarios; se invoca bajo assignmentLock
+    private void index(Assignment assignment) {
+        assignmentsByProfessor.computeIfAbsent(assignment.getProfessorId(), k -> new LinkedHashMap<>())
+            .put(assignment.getId(), assignment);
+        assignmentsByRoom.computeIfAbsent(assignment.getRoomId(), k -> new LinkedHashMap<>())
+            .put(assignment.getId(), assignment);
+        assignmentsByDay.computeIfAbsent(assignment.getDayOfWeek(), k -> new LinkedHashMap<>())
+            .put(assignment.getId(), assignment);
+        occupancy.add(assignment);
+    }
+    
+    // Elimina una asignación de los índices secundarios; se invoca bajo assignmentLock
+    private void unindex(Assignment assignment) {
+        removeFromIndex(assignmentsByProfessor, assignment.getProfessorId(), assignment.getId());
+        removeFromIndex(assignmentsByRoom, assignment.getRoomId(), assignment.getId());
+        removeFromIndex(assignmentsByDay, assignment.getDayOfWeek(), assignment.getId());
+        occupancy.remove(assignment);
+    }
+    
+    private static <K> void removeFromIndex(Map<K, Map<Integer, Assignment>> index, K key, int id) {
+        Map<Integer, Assignment> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+    
+    // Copia el contenido de una entrada de índice; se invoca bajo assignmentLock
+    private static <K> List<Assignment> indexed(Map<K, Map<Integer, Assignment>> index, K key) {
+        Map<Integer, Assignment> bucket = index.get(key);
+        return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+    }
+    
     /**
      * Obtiene una asignación por su ID.
      */
     public Assignment getAssignment(int id) {
-        return assignments.get(id);
+        Assignment assignment = assignments.get(id);
+        MappedAssignmentStore store = assignmentStore;
+        if (assignment == null && store != null) {
+            return store.get(id).orElse(null);
+        }
+        return assignment;
     }
     
     /**
-     * Obtiene todas las asignaciones.
+     * Obtiene todas las asignaciones, incluidas las del almacén asociado.
      */
     public List<Assignment> getAllAssignments() {
-        return new ArrayList<>(assignments.values());
+        List<Assignment> result = new ArrayList<>(assignments.values());
+        forEachStored(null, 0, result::add);
+        return result;
+    }
+    
+    /**
+     * Aplica una acción a cada asignación, incluidas las del almacén asociado, sin reunirlas
+     * en una lista: las del almacén se materializan de una en una y no se retienen. Pensado
+     * para recorridos completos como el guardado.
+     * 
+     * @param action Acción a aplicar
+     * @throws NullPointerException si action es null
+     */
+    public void forEachAssignment(Consumer<? super Assignment> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        assignments.values().forEach(action);
+        forEachStored(null, 0, action);
     }
     
     /**
-     * Obtiene las asignaciones de un profesor específico.
+     * Obtiene las asignaciones de un profesor específico, incluidas las del almacén asociado.
      */
     public List<Assignment> getAssignmentsByProfessor(int professorId) {
-        return assignments.values().stream()
-            .filter(a -> a.getProfessorId() == professorId)
-            .collect(Collectors.toList());
+        List<Assignment> result;
+        synchronized (assignmentLock) {
+            result = indexed(assignmentsByProfessor, professorId);
+        }
+        forEachStored(MappedAssignmentStore.IndexedColumn.PROFESSOR, professorId, result::add);
+        return result;
     }
     
     /**
-     * Obtiene las asignaciones de un aula específica.
+     * Obtiene las asignaciones de un aula específica, incluidas las del almacén asociado.
      */
     public List<Assignment> getAssignmentsByRoom(int roomId) {
-        return assignments.values().stream()
-            .filter(a -> a.getRoomId() == roomId)
-            .collect(Collectors.toList());
+        List<Assignment> result;
+        synchronized (assignmentLock) {
+            result = indexed(assignmentsByRoom, roomId);
+        }
+        forEachStored(MappedAssignmentStore.IndexedColumn.ROOM, roomId, result::add);
+        return result;
     }
     
     /**
-     * Obtiene las asignaciones de un día específico.
+     * Obtiene las asignaciones de un día específico, incluidas las del almacén asociado.
+     * El nombre se interpreta con {@link TimeSlot#parseDayOfWeek(String)}, de modo que
+     * "monday" o "Lunes" devuelven las mismas asignaciones que "Monday".
+     * 
+     * @throws DomainException si el nombre del día no es reconocido
      */
     public List<Assignment> getAssignmentsByDay(String day) {
-        return assignments.values().stream()
-            .filter(a -> a.getDay().equals(day))
-            .collect(Collectors.toList());
+        return getAssignmentsByDay(TimeSlot.parseDayOfWeek(day));
+    }
+    
+    /**
+     * Obtiene las asignaciones de un día de la semana, incluidas las del almacén asociado.
+     * 
+     * @throws NullPointerException si day es null
+     */
+    public List<Assignment> getAssignmentsByDay(DayOfWeek day) {
+        Objects.requireNonNull(day, "El día no puede ser null");
+        List<Assignment> result;
+        synchronized (assignmentLock) {
+            result = indexed(assignmentsByDay, day);
+        }
+        forEachStored(MappedAssignmentStore.IndexedColumn.DAY, day.ordinal(), result::add);
+        return result;
+    }
+    
+    /**
+     * Materializa las asignaciones vigentes del almacén con un valor dado en una columna
+     * indexada, o todas si column es null. Las que también están en memoria se omiten: la copia
+     * en memoria prevalece, igual que en {@link #getAssignment(int)}. Con columna solo se leen
+     * las filas de su índice.
+     */
+    private void forEachStored(MappedAssignmentStore.IndexedColumn column, int value,
+                               Consumer<? super Assignment> action) {
+        MappedAssignmentStore store = assignmentStore;
+        if (store == null) {
+            return;
+        }
+        synchronized (store) {
+            if (column != null) {
+                store.forEachRow(column, value, row -> {
+                    if (!assignments.containsKey(store.getId(row))) {
+                        action.accept(store.materialize(row));
+                    }
+                    return true;
+                });
+                return;
+            }
+            int rows = store.getRowCount();
+            for (int row = 0; row < rows; row++) {
+                if (store.isLive(row) && !assignments.containsKey(store.getId(row))) {
+                    action.accept(store.materialize(row));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Indica si un aula está libre en un rango de un día, según el índice de ocupación.
+     * Responde con unas pocas operaciones sobre bitsets, sin recorrer las asignaciones.
+     * La respuesta es conservadora con horas que no son múltiplo de
+     * {@value #OCCUPANCY_SLOT_MINUTES} minutos: nunca indica libre un rango solapado.
+     * 
+     * @param roomId ID del aula
+     * @param day Día de la semana
+     * @param startTime Hora de inicio
+     * @param endTime Hora de fin
+     * @return true si ninguna asignación del aula se solapa con el rango
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public boolean isRoomFree(int roomId, DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        return isFree(OccupancyIndex.Resource.ROOM, roomId, day, startTime, endTime);
+    }
+    
+    /**
+     * Indica si un profesor está libre en un rango de un día, según el índice de ocupación.
+     * Solo considera sus asignaciones, no sus franjas bloqueadas.
+     * 
+     * @see #isRoomFree(int, DayOfWeek, LocalTime, LocalTime)
+     */
+    public boolean isProfessorFree(int professorId, DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        return isFree(OccupancyIndex.Resource.PROFESSOR, professorId, day, startTime, endTime);
+    }
+    
+    /**
+     * Indica si un grupo está libre en un rango de un día, según el índice de ocupación.
+     * 
+     * @see #isRoomFree(int, DayOfWeek, LocalTime, LocalTime)
+     */
+    public boolean isGroupFree(int groupId, DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        return isFree(OccupancyIndex.Resource.GROUP, groupId, day, startTime, endTime);
+    }
+    
+    private boolean isFree(OccupancyIndex.Resource resource, int id, DayOfWeek day,
+                           LocalTime startTime, LocalTime endTime) {
+        Objects.requireNonNull(day, "El día no puede ser null");
+        Objects.requireNonNull(startTime, "La hora de inicio no puede ser null");
+        Objects.requireNonNull(endTime, "La hora de fin no puede ser null");
+        int startMinute = TimeSlot.toMinuteOfDay(startTime);
+        int endMinute = TimeSlot.toMinuteOfDay(endTime);
+        synchronized (assignmentLock) {
+            if (!occupancy.isFree(resource, id, day, startMinute, endMinute)) {
+                return false;
+            }
+        }
+        return isFreeInStore(resource, id, day, startTime.toSecondOfDay(), endTime.toSecondOfDay());
+    }
+    
+    // Recorre las filas del recurso en el almacén asociado con el mismo solapamiento inclusivo que el índice
+    private boolean isFreeInStore(OccupancyIndex.Resource resource, int id, DayOfWeek day,
+                                  int startSecond, int endSecond) {
+        MappedAssignmentStore store = assignmentStore;
+        if (store == null) {
+            return true;
+        }
+        MappedAssignmentStore.IndexedColumn column = switch (resource) {
+            case ROOM -> MappedAssignmentStore.IndexedColumn.ROOM;
+            case PROFESSOR -> MappedAssignmentStore.IndexedColumn.PROFESSOR;
+            case GROUP -> MappedAssignmentStore.IndexedColumn.GROUP;
+        };
+        synchronized (store) {
+            return store.forEachRow(column, id, row ->
+                store.getDayOrdinal(row) != day.ordinal()
+                    || assignments.containsKey(store.getId(row))
+                    || store.getEndSecond(row) < startSecond
+                    || store.getStartSecond(row) > endSecond);
+        }
     }
     
     /**
@@ -587,13 +814,106 @@ private void initializeDefaultRooms() {
         professors.clear();
         subjects.clear();
         rooms.clear();
-        assignments.clear();
+        synchronized (assignmentLock) {
+            assignments.clear();
+            assignmentsByProfessor.clear();
+            assignmentsByRoom.clear();
+            assignmentsByDay.clear();
+            occupancy.clear();
+        }
         logger.info("Todos los datos han sido eliminados");
         
         // Reinicializar datos por defecto
         initializeDefaultData();
     }
 
+    /**
+     * Abre (o crea) un almacén columnar mapeado en memoria en el directorio indicado y lo
+     * asocia a este gestor. Si ya había uno asociado, se cierra antes.
+     *
+     * Las asignaciones del almacén no forman parte de las colecciones en memoria, pero las
+     * consultas de asignaciones, las comprobaciones de ocupación y el guardado en JSON o en
+     * snapshot las incluyen, usando los índices por recurso del almacén cuando la consulta es
+     * por profesor, aula, grupo o día; si un id está en ambos sitios prevalece
+     * la copia en memoria. El análisis de conflictos del almacén se hace con
+     * {@link com.example.miapp.service.ConflictGraphLoader#scanStore}.
+     *
+     * @param directory Directorio del almacén
+     * @return Almacén abierto
+     * @throws IOException si no se puede abrir el almacén
+     */
+    public MappedAssignmentStore openAssignmentStore(Path directory) throws IOException {
+        Objects.requireNonNull(directory, "El directorio no puede ser null");
+        MappedAssignmentStore store = new MappedAssignmentStore(directory);
+        MappedAssignmentStore previous;
+        synchronized (assignmentLock) {
+            previous = assignmentStore;
+            assignmentStore = store;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        logger.info("Almacén de asignaciones abierto en {} ({} asignaciones)", directory, store.size());
+        return store;
+    }
+
+    /**
+     * Obtiene el almacén de asignaciones asociado, o null si no hay ninguno.
+     * {@link #clearAll()} no modifica el almacén.
+     */
+    public MappedAssignmentStore getAssignmentStore() {
+        return assignmentStore;
+    }
+
+    /**
+     * Desasocia y cierra el almacén de asignaciones, si lo hay.
+     *
+     * @throws IOException si falla el cierre del almacén
+     */
+    public void closeAssignmentStore() throws IOException {
+        MappedAssignmentStore store;
+        synchronized (assignmentLock) {
+            store = assignmentStore;
+            assignmentStore = null;
+        }
+        if (store != null) {
+            store.close();
+            logger.info("Almacén de asignaciones cerrado");
+        }
+    }
+
+    /**
+     * Traslada todas las asignaciones en memoria al almacén asociado y las elimina del heap,
+     * junto con sus índices y la ocupación. Profesores, materias y aulas permanecen en memoria,
+     * ya que el almacén sólo guarda sus identificadores.
+     *
+     * @return Número de asignaciones trasladadas
+     * @throws IllegalStateException si no hay almacén asociado
+     * @throws IOException si falla la escritura en el almacén; en ese caso las asignaciones
+     *         permanecen en memoria
+     */
+    public int moveAssignmentsToStore() throws IOException {
+        MappedAssignmentStore store = assignmentStore;
+        if (store == null) {
+            throw new IllegalStateException("No hay almacén de asignaciones abierto");
+        }
+        int moved;
+        synchronized (assignmentLock) {
+            for (Assignment assignment : assignments.values()) {
+                store.put(assignment);
+            }
+            store.force();
+            moved = assignments.size();
+            assignments.clear();
+            assignmentsByProfessor.clear();
+            assignmentsByRoom.clear();
+            assignmentsByDay.clear();
+            occupancy.clear();
+        }
+        logger.info("{} asignaciones trasladadas al almacén {}", moved, store.getDirectory());
+        return moved;
+    }
+
     // Estos métodos deberían añadirse a la clase DataManager.java
 
     /**
@@ -621,4 +941,26 @@ private void initializeDefaultRooms() {
         persistence.loadFromJson(filePath);
         logger.info("Estado cargado desde: {}", filePath);
     }
+
+    /**
+    * Guarda el estado completo del DataManager en un snapshot binario.
+    * 
+    * @param filePath Ruta del snapshot
+    * @throws IOException Si hay error en la escritura del archivo
+    */
+    public void saveToSnapshot(String filePath) throws IOException {
+        new DataManagerSnapshot().save(filePath);
+    }
+
+    /**
+    * Carga el estado completo del DataManager desde un snapshot binario.
+    * Reemplaza todo el estado actual.
+    * 
+    * @param filePath Ruta del snapshot
+    * @throws IOException Si hay error de lectura o el snapshot no es válido
+    * @throws DomainException Si hay error en la validación de los datos cargados
+    */
+    public void loadFromSnapshot(String filePath) throws IOException {
+        new DataManagerSnapshot().load(filePath);
+    }
 }
\ No newline at end of file
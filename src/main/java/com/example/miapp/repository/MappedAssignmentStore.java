@@ -0,0 +1,744 @@
+package com.example.miapp.repository;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.exception.DomainException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Almacén de asignaciones fuera del heap, en archivos columnares mapeados en memoria.
+ *
+ * Cada campo de la asignación se guarda en su propio archivo de columna dentro del
+ * directorio del almacén (ID, día, inicio y fin en segundos del día, profesor, aula, grupo,
+ * tipo de sesión, materia, nombre de grupo, nombre del día, fecha y estudiantes), de modo
+ * que un recorrido que solo necesita unos pocos campos lee únicamente esas columnas y el
+ * sistema operativo pagina los datos bajo demanda. Las cadenas se guardan una sola vez en
+ * un diccionario y las columnas almacenan su código.
+ *
+ * Los objetos {@link Assignment} se materializan solo cuando se piden, resolviendo
+ * profesor, aula y materia en el {@link DataManager}; las entidades referenciadas deben
+ * estar cargadas. Las horas se conservan con precisión de segundos.
+ *
+ * El ID de cada fila se indexa en una tabla hash mapeada, también fuera del heap. Las
+ * eliminaciones marcan la fila como borrada; volver a añadir un ID existente la sustituye.
+ * Cada columna admite hasta {@code Integer.MAX_VALUE / 4} filas.
+ *
+ * Las filas vigentes se indexan además en el heap por día, profesor, aula y grupo
+ * ({@link IndexedColumn}), con un array de filas por valor que se reconstruye al abrir;
+ * así las consultas por recurso solo leen sus filas en lugar de recorrer el almacén.
+ *
+ * Las escrituras están sincronizadas; los accesores de columna no lo están, y los
+ * recorridos no deben solaparse con escrituras.
+ */
+public class MappedAssignmentStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedAssignmentStore.class);
+
+    /**
+     * Código de columna para las referencias ausentes (asignación sin materia).
+     */
+    public static final int NO_CODE = -1;
+
+    /**
+     * Columnas cuyas filas vigentes se indexan en el heap.
+     */
+    public enum IndexedColumn {
+        DAY,
+        PROFESSOR,
+        ROOM,
+        GROUP
+    }
+
+    private static final int MAGIC = 0x4D494143; // "MIAC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_INDEX_SLOTS = 2048;
+
+    // Disposición del archivo de metadatos
+    private static final int META_BYTES = 32;
+    private static final int META_MAGIC = 0;
+    private static final int META_VERSION = 4;
+    private static final int META_ROWS = 8;
+    private static final int META_LIVE = 12;
+    private static final int META_CLEAN = 16;
+    private static final int META_INDEX_SLOTS = 20;
+    private static final int META_INDEX_OFFSET = 24;
+
+    private final Path directory;
+    private final FileChannel metaChannel;
+    private final MappedByteBuffer meta;
+
+    private final Column ids;
+    private final Column days;
+    private final Column starts;
+    private final Column ends;
+    private final Column professors;
+    private final Column rooms;
+    private final Column groups;
+    private final Column sessionTypes;
+    private final Column subjects;
+    private final Column groupNames;
+    private final Column dayNames;
+    private final Column dates;
+    private final Column enrolled;
+    private final Column live;
+    private final List<Column> columns = new ArrayList<>();
+
+    private final FileChannel stringChannel;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringCodes = new HashMap<>();
+
+    private final IdIndex idIndex;
+
+    // Filas vigentes por (columna, valor), en orden de fila
+    private final Map<Long, RowList> rowIndex = new HashMap<>();
+
+    private volatile int rowCount;
+    private int liveCount;
+
+    /**
+     * Abre el almacén del directorio indicado, creándolo si no existe.
+     * Si el almacén no se cerró correctamente, el índice de IDs se reconstruye a partir de
+     * las columnas.
+     *
+     * @param directory Directorio del almacén
+     * @throws IOException si hay error de E/S o el directorio contiene un almacén de otro
+     *         formato o versión
+     * @throws NullPointerException si directory es null
+     */
+    public MappedAssignmentStore(Path directory) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "El directorio no puede ser null");
+        Files.createDirectories(directory);
+
+        metaChannel = FileChannel.open(directory.resolve("assignments.meta"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = metaChannel.size() == 0;
+        meta = metaChannel.map(FileChannel.MapMode.READ_WRITE, 0, META_BYTES);
+        if (created) {
+            meta.putInt(META_MAGIC, MAGIC).putInt(META_VERSION, FORMAT_VERSION).putInt(META_CLEAN, 1);
+        } else if (meta.getInt(META_MAGIC) != MAGIC) {
+            throw new IOException("El directorio no contiene un almacén de asignaciones válido: " + directory);
+        } else if (meta.getInt(META_VERSION) != FORMAT_VERSION) {
+            throw new IOException("Versión de almacén no soportada: " + meta.getInt(META_VERSION) + " en " + directory);
+        }
+        rowCount = meta.getInt(META_ROWS);
+        liveCount = meta.getInt(META_LIVE);
+
+        ids = column("id", Integer.BYTES);
+        days = column("day", Byte.BYTES);
+        starts = column("start", Integer.BYTES);
+        ends = column("end", Integer.BYTES);
+        professors = column("professor", Integer.BYTES);
+        rooms = column("room", Integer.BYTES);
+        groups = column("group", Integer.BYTES);
+        sessionTypes = column("sessionType", Integer.BYTES);
+        subjects = column("subject", Integer.BYTES);
+        groupNames = column("groupName", Integer.BYTES);
+        dayNames = column("dayName", Integer.BYTES);
+        dates = column("date", Integer.BYTES);
+        enrolled = column("enrolled", Integer.BYTES);
+        live = column("live", Byte.BYTES);
+
+        stringChannel = FileChannel.open(directory.resolve("strings.dict"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        readStrings();
+
+        idIndex = new IdIndex(directory.resolve("id.idx"));
+        if (meta.getInt(META_CLEAN) == 0) {
+            logger.warn("El almacén {} no se cerró correctamente; reconstruyendo el índice de IDs", directory);
+            rebuildIndex();
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (isLive(row)) {
+                indexRow(row);
+            }
+        }
+
+        logger.info("Almacén de asignaciones abierto en {}: {} filas, {} vigentes", directory, rowCount, liveCount);
+    }
+
+    // ===== Escritura =====
+
+    /**
+     * Añade una asignación al final del almacén. Si ya había una con el mismo ID, la
+     * anterior queda marcada como borrada.
+     *
+     * @param assignment Asignación a guardar
+     * @throws IOException si hay error al ampliar los archivos
+     * @throws NullPointerException si assignment es null
+     */
+    public synchronized void put(Assignment assignment) throws IOException {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        markDirty();
+
+        int row = rowCount;
+        for (Column column : columns) {
+            column.ensureCapacity(row + 1);
+        }
+
+        int previous = idIndex.get(assignment.getId());
+        if (previous >= 0) {
+            live.buffer.put(previous, (byte) 0);
+            unindexRow(previous);
+            liveCount--;
+        }
+
+        ids.buffer.putInt(row * Integer.BYTES, assignment.getId());
+        days.buffer.put(row, (byte) assignment.getDayOrdinal());
+        starts.buffer.putInt(row * Integer.BYTES, assignment.getStartTime().toSecondOfDay());
+        ends.buffer.putInt(row * Integer.BYTES, assignment.getEndTime().toSecondOfDay());
+        professors.buffer.putInt(row * Integer.BYTES, assignment.getProfessorId());
+        rooms.buffer.putInt(row * Integer.BYTES, assignment.getRoomId());
+        groups.buffer.putInt(row * Integer.BYTES, assignment.getGroupId());
+        sessionTypes.buffer.putInt(row * Integer.BYTES, code(assignment.getSessionType()));
+        subjects.buffer.putInt(row * Integer.BYTES,
+            assignment.getSubject() != null ? code(assignment.getSubject().getCode()) : NO_CODE);
+        groupNames.buffer.putInt(row * Integer.BYTES, code(assignment.getGroupName()));
+        dayNames.buffer.putInt(row * Integer.BYTES, code(assignment.getDay()));
+        dates.buffer.putInt(row * Integer.BYTES, Math.toIntExact(assignment.getAssignmentDate().toEpochDay()));
+        enrolled.buffer.putInt(row * Integer.BYTES, assignment.getEnrolledStudents());
+        live.buffer.put(row, (byte) 1);
+
+        idIndex.put(assignment.getId(), row);
+        indexRow(row);
+        liveCount++;
+        rowCount = row + 1;
+        meta.putInt(META_ROWS, rowCount).putInt(META_LIVE, liveCount);
+    }
+
+    /**
+     * Marca como borrada la asignación con el ID indicado.
+     *
+     * @param id ID de la asignación
+     * @return true si existía
+     */
+    public synchronized boolean remove(int id) {
+        int row = idIndex.get(id);
+        if (row < 0) {
+            return false;
+        }
+        markDirty();
+        live.buffer.put(row, (byte) 0);
+        idIndex.remove(id);
+        unindexRow(row);
+        liveCount--;
+        meta.putInt(META_LIVE, liveCount);
+        return true;
+    }
+
+    /**
+     * Vacía el almacén. Los archivos conservan su tamaño y se reutilizan.
+     */
+    public synchronized void clear() {
+        markDirty();
+        idIndex.clear();
+        rowIndex.clear();
+        rowCount = 0;
+        liveCount = 0;
+        meta.putInt(META_ROWS, 0).putInt(META_LIVE, 0);
+    }
+
+    /**
+     * Vuelca a disco las páginas modificadas, incluido el diccionario de cadenas al que
+     * hacen referencia las columnas, y solo entonces marca el almacén como consistente.
+     *
+     * @throws IOException si no se puede volcar el diccionario de cadenas
+     */
+    public synchronized void force() throws IOException {
+        stringChannel.force(true);
+        for (Column column : columns) {
+            column.buffer.force();
+        }
+        idIndex.force();
+        meta.putInt(META_CLEAN, 1);
+        meta.force();
+    }
+
+    /**
+     * Vuelca el almacén a disco y cierra sus archivos. Los mapeos existentes se liberan
+     * cuando el recolector los reclama.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        for (Column column : columns) {
+            column.channel.close();
+        }
+        idIndex.channel.close();
+        stringChannel.close();
+        metaChannel.close();
+        logger.info("Almacén de asignaciones cerrado: {} ({} filas)", directory, rowCount);
+    }
+
+    // ===== Lectura =====
+
+    /**
+     * @return Número de filas escritas, incluidas las borradas; los índices de fila van de
+     *         0 a este valor menos uno
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return Número de asignaciones vigentes
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * @return true si el almacén contiene una asignación vigente con ese ID
+     */
+    public synchronized boolean contains(int id) {
+        return idIndex.get(id) >= 0;
+    }
+
+    /**
+     * Materializa la asignación con el ID indicado.
+     *
+     * @param id ID de la asignación
+     * @return La asignación, o vacío si no está en el almacén
+     * @throws DomainException si el profesor, el aula o la materia no están en el DataManager
+     */
+    public Optional<Assignment> get(int id) {
+        int row;
+        synchronized (this) {
+            row = idIndex.get(id);
+        }
+        return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    /**
+     * Materializa cada asignación vigente, en orden de fila. Cada objeto se crea al
+     * entregarlo y no se retiene.
+     *
+     * @param action Acción a aplicar
+     * @throws DomainException si alguna referencia no puede resolverse
+     */
+    public void forEach(Consumer<Assignment> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        int rows = rowCount;
+        for (int row = 0; row < rows; row++) {
+            if (isLive(row)) {
+                action.accept(materialize(row));
+            }
+        }
+    }
+
+    /**
+     * Recorre las filas vigentes con un valor dado en una columna indexada, en orden de fila,
+     * sin leer las demás filas del almacén.
+     *
+     * @param column Columna indexada
+     * @param value Ordinal del día, ID del profesor o del aula, o número de grupo
+     * @param action Acción por cada fila; si devuelve false el recorrido se detiene
+     * @return true si se recorrieron todas las filas, false si la acción lo detuvo
+     * @throws NullPointerException si column o action son null
+     */
+    public synchronized boolean forEachRow(IndexedColumn column, int value, IntPredicate action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        RowList rows = rowIndex.get(key(column, value));
+        if (rows != null) {
+            for (int i = 0; i < rows.size; i++) {
+                if (!action.test(rows.rows[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Construye el objeto {@link Assignment} de una fila, resolviendo profesor, aula y
+     * materia en el DataManager.
+     *
+     * @param row Índice de fila
+     * @return Asignación de la fila
+     * @throws DomainException si alguna referencia no puede resolverse
+     */
+    public Assignment materialize(int row) {
+        DataManager dataManager = DataManager.getInstance();
+
+        Professor professor = dataManager.getProfessor(getProfessorId(row));
+        if (professor == null) {
+            throw new DomainException("Profesor no encontrado: " + getProfessorId(row));
+        }
+        Room room = dataManager.getRoom(getRoomId(row));
+        if (room == null) {
+            throw new DomainException("Aula no encontrada: " + getRoomId(row));
+        }
+        Subject subject = null;
+        String subjectCode = getSubjectCode(row);
+        if (subjectCode != null) {
+            subject = dataManager.getSubject(subjectCode);
+            if (subject == null) {
+                throw new DomainException("Materia no encontrada: " + subjectCode);
+            }
+        }
+
+        return new Assignment.Builder()
+            .id(getId(row))
+            .assignmentDate(LocalDate.ofEpochDay(dates.buffer.getInt(row * Integer.BYTES)))
+            .professor(professor)
+            .room(room)
+            .subject(subject)
+            .groupId(getGroupId(row))
+            .groupName(strings.get(groupNames.buffer.getInt(row * Integer.BYTES)))
+            .day(getDayName(row))
+            .startTime(LocalTime.ofSecondOfDay(getStartSecond(row)))
+            .endTime(LocalTime.ofSecondOfDay(getEndSecond(row)))
+            .sessionType(getSessionType(row))
+            .enrolledStudents(getEnrolledStudents(row))
+            .build();
+    }
+
+    // ===== Accesores de columna =====
+
+    public boolean isLive(int row) { return live.buffer.get(row) != 0; }
+    public int getId(int row) { return ids.buffer.getInt(row * Integer.BYTES); }
+    public int getDayOrdinal(int row) { return days.buffer.get(row); }
+    public int getStartSecond(int row) { return starts.buffer.getInt(row * Integer.BYTES); }
+    public int getEndSecond(int row) { return ends.buffer.getInt(row * Integer.BYTES); }
+    public int getProfessorId(int row) { return professors.buffer.getInt(row * Integer.BYTES); }
+    public int getRoomId(int row) { return rooms.buffer.getInt(row * Integer.BYTES); }
+    public int getGroupId(int row) { return groups.buffer.getInt(row * Integer.BYTES); }
+    public int getEnrolledStudents(int row) { return enrolled.buffer.getInt(row * Integer.BYTES); }
+
+    /**
+     * @return Código del tipo de sesión en el diccionario; filas con el mismo tipo tienen el
+     *         mismo código
+     */
+    public int getSessionTypeCode(int row) { return sessionTypes.buffer.getInt(row * Integer.BYTES); }
+
+    public String getSessionType(int row) { return strings.get(getSessionTypeCode(row)); }
+
+    /**
+     * @return Nombre del día tal como se escribió en la asignación
+     */
+    public String getDayName(int row) { return strings.get(dayNames.buffer.getInt(row * Integer.BYTES)); }
+
+    /**
+     * @return Código de la materia, o null si la asignación no tiene materia
+     */
+    public String getSubjectCode(int row) {
+        int code = subjects.buffer.getInt(row * Integer.BYTES);
+        return code == NO_CODE ? null : strings.get(code);
+    }
+
+    /**
+     * @return Directorio del almacén
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ===== Internos =====
+
+    private Column column(String name, int width) throws IOException {
+        Column column = new Column(directory.resolve(name + ".col"), width, Math.max(rowCount, INITIAL_ROWS));
+        columns.add(column);
+        return column;
+    }
+
+    private void indexRow(int row) {
+        for (IndexedColumn column : IndexedColumn.values()) {
+            rowIndex.computeIfAbsent(key(column, columnValue(column, row)), k -> new RowList()).add(row);
+        }
+    }
+
+    private void unindexRow(int row) {
+        for (IndexedColumn column : IndexedColumn.values()) {
+            long key = key(column, columnValue(column, row));
+            RowList rows = rowIndex.get(key);
+            if (rows != null && rows.remove(row) && rows.size == 0) {
+                rowIndex.remove(key);
+            }
+        }
+    }
+
+    private int columnValue(IndexedColumn column, int row) {
+        return switch (column) {
+            case DAY -> getDayOrdinal(row);
+            case PROFESSOR -> getProfessorId(row);
+            case ROOM -> getRoomId(row);
+            case GROUP -> getGroupId(row);
+        };
+    }
+
+    private static long key(IndexedColumn column, int value) {
+        Objects.requireNonNull(column, "La columna no puede ser null");
+        return ((long) column.ordinal() << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    private void markDirty() {
+        if (meta.getInt(META_CLEAN) != 0) {
+            meta.putInt(META_CLEAN, 0);
+        }
+    }
+
+    private int code(String value) throws IOException {
+        Integer code = stringCodes.get(value);
+        if (code == null) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + utf8.length).putInt(utf8.length).put(utf8);
+            record.flip();
+            long position = stringChannel.size();
+            while (record.hasRemaining()) {
+                position += stringChannel.write(record, position);
+            }
+            code = strings.size();
+            strings.add(value);
+            stringCodes.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Lee el diccionario de cadenas, descartando un último registro incompleto.
+     */
+    private void readStrings() throws IOException {
+        long size = stringChannel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer data = stringChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        long valid = 0;
+        while (data.remaining() >= Integer.BYTES) {
+            int length = data.getInt();
+            if (length < 0 || length > data.remaining()) {
+                break;
+            }
+            byte[] utf8 = new byte[length];
+            data.get(utf8);
+            String value = new String(utf8, StandardCharsets.UTF_8);
+            stringCodes.put(value, strings.size());
+            strings.add(value);
+            valid = data.position();
+        }
+        if (valid < size) {
+            logger.warn("Diccionario de cadenas truncado en {}: se descartan {} bytes", directory, size - valid);
+            stringChannel.truncate(valid);
+        }
+    }
+
+    /**
+     * Reconstruye el índice de IDs y el número de filas vigentes a partir de las columnas.
+     */
+    private void rebuildIndex() throws IOException {
+        idIndex.clear();
+        liveCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (isLive(row)) {
+                int id = getId(row);
+                int previous = idIndex.get(id);
+                if (previous >= 0) {
+                    live.buffer.put(previous, (byte) 0);
+                    liveCount--;
+                }
+                idIndex.put(id, row);
+                liveCount++;
+            }
+        }
+        meta.putInt(META_LIVE, liveCount);
+    }
+
+    /**
+     * Archivo de columna de ancho fijo, mapeado completo en memoria y ampliado al doble
+     * cuando se llena.
+     */
+    private static final class Column {
+        final FileChannel channel;
+        final int width;
+        volatile MappedByteBuffer buffer;
+        int capacityRows;
+
+        Column(Path file, int width, int minRows) throws IOException {
+            this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.width = width;
+            map((int) Math.max(minRows, channel.size() / width));
+        }
+
+        void ensureCapacity(int rows) throws IOException {
+            if (rows > capacityRows) {
+                map((int) Math.min(Math.max(rows, 2L * capacityRows), Integer.MAX_VALUE / width));
+                if (rows > capacityRows) {
+                    throw new IOException("Capacidad máxima de la columna alcanzada: " + capacityRows + " filas");
+                }
+            }
+        }
+
+        private void map(int rows) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) rows * width);
+            buffer.order(ByteOrder.nativeOrder());
+            capacityRows = rows;
+        }
+    }
+
+    /**
+     * Filas de un valor indexado. Las filas se añaden siempre al final del almacén, así que
+     * la lista queda ordenada y las eliminaciones localizan la fila por búsqueda binaria.
+     */
+    private static final class RowList {
+        int[] rows = new int[4];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        boolean remove(int row) {
+            int position = Arrays.binarySearch(rows, 0, size, row);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto (sondeo lineal) de ID a fila, mapeada en
+     * memoria. Cada entrada ocupa 8 bytes: el ID y la fila más uno (0 marca hueco libre).
+     * Al crecer, la nueva tabla se coloca a continuación de la anterior en el mismo
+     * archivo, de modo que nunca hay que sustituir un archivo mapeado.
+     */
+    private final class IdIndex {
+        final FileChannel channel;
+        MappedByteBuffer table;
+        int slots;
+        int count;
+
+        IdIndex(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int storedSlots = meta.getInt(META_INDEX_SLOTS);
+            if (storedSlots == 0) {
+                mapTable(0, INITIAL_INDEX_SLOTS);
+            } else {
+                mapTable(meta.getLong(META_INDEX_OFFSET), storedSlots);
+            }
+            count = liveCount;
+        }
+
+        int get(int id) {
+            int mask = slots - 1;
+            for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+                int row = table.getInt(slot * 8 + 4);
+                if (row == 0) {
+                    return -1;
+                }
+                if (table.getInt(slot * 8) == id) {
+                    return row - 1;
+                }
+            }
+        }
+
+        void put(int id, int row) throws IOException {
+            if ((count + 1) * 2L > slots) {
+                grow();
+            }
+            int mask = slots - 1;
+            int slot = hash(id) & mask;
+            while (table.getInt(slot * 8 + 4) != 0 && table.getInt(slot * 8) != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (table.getInt(slot * 8 + 4) == 0) {
+                count++;
+            }
+            table.putInt(slot * 8, id).putInt(slot * 8 + 4, row + 1);
+        }
+
+        void remove(int id) {
+            int mask = slots - 1;
+            int slot = hash(id) & mask;
+            while (table.getInt(slot * 8) != id || table.getInt(slot * 8 + 4) == 0) {
+                if (table.getInt(slot * 8 + 4) == 0) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Borrado con desplazamiento hacia atrás: ninguna cadena de sondeo queda cortada
+            int hole = slot;
+            for (int next = (hole + 1) & mask; table.getInt(next * 8 + 4) != 0; next = (next + 1) & mask) {
+                int home = hash(table.getInt(next * 8)) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    table.putInt(hole * 8, table.getInt(next * 8)).putInt(hole * 8 + 4, table.getInt(next * 8 + 4));
+                    hole = next;
+                }
+            }
+            table.putInt(hole * 8, 0).putInt(hole * 8 + 4, 0);
+            count--;
+        }
+
+        void clear() {
+            for (int offset = 0; offset < slots * 8; offset += 8) {
+                table.putLong(offset, 0L);
+            }
+            count = 0;
+        }
+
+        void force() {
+            table.force();
+        }
+
+        private void grow() throws IOException {
+            MappedByteBuffer old = table;
+            int oldSlots = slots;
+            long offset = meta.getLong(META_INDEX_OFFSET) + (long) oldSlots * 8;
+            mapTable(offset, oldSlots * 2);
+            count = 0;
+            for (int slot = 0; slot < oldSlots; slot++) {
+                int row = old.getInt(slot * 8 + 4);
+                if (row != 0) {
+                    put(old.getInt(slot * 8), row - 1);
+                }
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Índice de IDs ampliado a {} entradas en {}", slots, directory);
+            }
+        }
+
+        private void mapTable(long offset, int newSlots) throws IOException {
+            if ((long) newSlots * 8 > Integer.MAX_VALUE) {
+                throw new IOException("Capacidad máxima del índice de IDs alcanzada: " + slots + " entradas");
+            }
+            table = channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) newSlots * 8);
+            table.order(ByteOrder.nativeOrder());
+            slots = newSlots;
+            meta.putLong(META_INDEX_OFFSET, offset).putInt(META_INDEX_SLOTS, newSlots);
+        }
+
+        private int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.miapp.repository;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Índice de ocupación por recurso (aula, profesor y grupo) y día.
+ * Cada día se divide en franjas de tamaño fijo; para cada recurso se guarda un bitset con
+ * las franjas ocupadas, de modo que saber si un recurso está libre en un rango es un
+ * puñado de operaciones AND sobre palabras de 64 bits. Junto al bitset se guarda un
+ * contador por franja, para poder eliminar asignaciones que se solapan entre sí sin
+ * reconstruir la ocupación.
+ *
+ * Una asignación ocupa todas las franjas desde la de su inicio hasta la de su fin, ambas
+ * incluidas, igual que el solapamiento inclusivo de {@link TimeSlot#overlapsMinutes}.
+ * Con horas múltiplos del tamaño de franja el resultado es exacto; con otras horas la
+ * respuesta es conservadora: puede indicar ocupado un rango que solo comparte franja con
+ * una asignación, pero nunca libre uno que se solapa con ella.
+ *
+ * La clase no es thread-safe; el llamador debe sincronizar el acceso.
+ */
+public class OccupancyIndex {
+
+    /**
+     * Recursos cuya ocupación se indexa.
+     */
+    public enum Resource {
+        ROOM,
+        PROFESSOR,
+        GROUP
+    }
+
+    /**
+     * Tamaño de franja por defecto, en minutos.
+     */
+    public static final int DEFAULT_SLOT_MINUTES = 5;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final Map<Long, Occupancy> occupancies = new HashMap<>();
+    private final Occupancy free;
+
+    /**
+     * Crea un índice vacío con franjas de {@value #DEFAULT_SLOT_MINUTES} minutos.
+     */
+    public OccupancyIndex() {
+        this(DEFAULT_SLOT_MINUTES);
+    }
+
+    /**
+     * Crea un índice vacío.
+     *
+     * @param slotMinutes Tamaño de franja en minutos; debe dividir exactamente un día
+     * @throws IllegalArgumentException si el tamaño no es válido
+     */
+    public OccupancyIndex(int slotMinutes) {
+        if (slotMinutes < 1 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("El tamaño de franja debe dividir exactamente un día: " + slotMinutes);
+        }
+        this.slotMinutes = slotMinutes;
+        this.free = new Occupancy(slotMinutes);
+    }
+
+    /**
+     * @return Tamaño de franja en minutos
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Registra la ocupación del aula, el profesor y el grupo de una asignación.
+     *
+     * @param assignment Asignación a registrar
+     * @throws NullPointerException si assignment es null
+     */
+    public void add(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        int day = assignment.getDayOrdinal();
+        int start = assignment.getStartMinute();
+        int end = assignment.getEndMinute();
+        occupancyFor(Resource.ROOM, assignment.getRoom().getId()).add(day, start, end);
+        occupancyFor(Resource.PROFESSOR, assignment.getProfessor().getId()).add(day, start, end);
+        occupancyFor(Resource.GROUP, assignment.getGroupId()).add(day, start, end);
+    }
+
+    /**
+     * Elimina la ocupación de una asignación registrada previamente con {@link #add}.
+     *
+     * @param assignment Asignación a eliminar
+     * @throws NullPointerException si assignment es null
+     */
+    public void remove(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        int day = assignment.getDayOrdinal();
+        int start = assignment.getStartMinute();
+        int end = assignment.getEndMinute();
+        release(Resource.ROOM, assignment.getRoom().getId(), day, start, end);
+        release(Resource.PROFESSOR, assignment.getProfessor().getId(), day, start, end);
+        release(Resource.GROUP, assignment.getGroupId(), day, start, end);
+    }
+
+    /**
+     * Elimina toda la ocupación registrada.
+     */
+    public void clear() {
+        occupancies.clear();
+    }
+
+    /**
+     * Indica si un recurso está libre en todo un rango de un día.
+     *
+     * @param resource Tipo de recurso
+     * @param id ID del aula o del profesor, o número de grupo
+     * @param day Día a consultar
+     * @param startMinute Minuto de inicio del rango
+     * @param endMinute Minuto de fin del rango (incluido)
+     * @return true si ninguna franja del rango está ocupada
+     * @throws NullPointerException si resource o day son null
+     */
+    public boolean isFree(Resource resource, int id, DayOfWeek day, int startMinute, int endMinute) {
+        Objects.requireNonNull(day, "El día no puede ser null");
+        return getOccupancy(resource, id).isFree(day.ordinal(), startMinute, endMinute);
+    }
+
+    /**
+     * Obtiene la ocupación de un recurso para consultarla repetidamente sin buscarla en
+     * el índice. La ocupación devuelta refleja los cambios posteriores del índice y no
+     * debe modificarse.
+     *
+     * @param resource Tipo de recurso
+     * @param id ID del aula o del profesor, o número de grupo
+     * @return Ocupación del recurso (libre en todo momento si no tiene asignaciones)
+     * @throws NullPointerException si resource es null
+     */
+    public Occupancy getOccupancy(Resource resource, int id) {
+        Occupancy occupancy = occupancies.get(key(resource, id));
+        return occupancy != null ? occupancy : free;
+    }
+
+    private Occupancy occupancyFor(Resource resource, int id) {
+        return occupancies.computeIfAbsent(key(resource, id), k -> new Occupancy(slotMinutes));
+    }
+
+    private void release(Resource resource, int id, int day, int start, int end) {
+        long key = key(resource, id);
+        Occupancy occupancy = occupancies.get(key);
+        if (occupancy != null && occupancy.remove(day, start, end)) {
+            occupancies.remove(key);
+        }
+    }
+
+    private static long key(Resource resource, int id) {
+        Objects.requireNonNull(resource, "El recurso no puede ser null");
+        return ((long) resource.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Ocupación de un recurso a lo largo de la semana: un bitset de franjas ocupadas por día
+     * y un contador por franja. Los días sin ocupación no reservan memoria.
+     */
+    public static final class Occupancy {
+        private static final int DAYS = DayOfWeek.values().length;
+
+        private final int slotMinutes;
+        private final int slotsPerDay;
+        private final long[][] bits = new long[DAYS][];
+        private final short[][] counts = new short[DAYS][];
+        private int ranges;
+
+        /**
+         * Crea una ocupación vacía.
+         *
+         * @param slotMinutes Tamaño de franja en minutos; debe dividir exactamente un día
+         * @throws IllegalArgumentException si el tamaño no es válido
+         */
+        public Occupancy(int slotMinutes) {
+            if (slotMinutes < 1 || MINUTES_PER_DAY % slotMinutes != 0) {
+                throw new IllegalArgumentException("El tamaño de franja debe dividir exactamente un día: " + slotMinutes);
+            }
+            this.slotMinutes = slotMinutes;
+            this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        }
+
+        /**
+         * Indica si todas las franjas de un rango están libres.
+         *
+         * @param dayOrdinal Ordinal del día ({@link DayOfWeek#ordinal()})
+         * @param startMinute Minuto de inicio del rango
+         * @param endMinute Minuto de fin del rango (incluido)
+         * @return true si ninguna franja del rango está ocupada
+         */
+        public boolean isFree(int dayOrdinal, int startMinute, int endMinute) {
+            long[] dayBits = bits[dayOrdinal];
+            if (dayBits == null) {
+                return true;
+            }
+            int first = startMinute / slotMinutes;
+            int last = Math.min(endMinute / slotMinutes, slotsPerDay - 1);
+            int firstWord = first >>> 6;
+            int lastWord = last >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) {
+                    mask &= -1L << (first & 63);
+                }
+                if (w == lastWord) {
+                    mask &= -1L >>> (63 - (last & 63));
+                }
+                if ((dayBits[w] & mask) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return true si no hay ningún rango registrado
+         */
+        public boolean isEmpty() {
+            return ranges == 0;
+        }
+
+        /**
+         * Registra un rango ocupado.
+         *
+         * @param dayOrdinal Ordinal del día
+         * @param startMinute Minuto de inicio
+         * @param endMinute Minuto de fin (incluido)
+         */
+        public void add(int dayOrdinal, int startMinute, int endMinute) {
+            if (bits[dayOrdinal] == null) {
+                bits[dayOrdinal] = new long[(slotsPerDay + 63) >>> 6];
+                counts[dayOrdinal] = new short[slotsPerDay];
+            }
+            long[] dayBits = bits[dayOrdinal];
+            short[] dayCounts = counts[dayOrdinal];
+            int last = Math.min(endMinute / slotMinutes, slotsPerDay - 1);
+            for (int slot = startMinute / slotMinutes; slot <= last; slot++) {
+                if (dayCounts[slot]++ == 0) {
+                    dayBits[slot >>> 6] |= 1L << slot;
+                }
+            }
+            ranges++;
+        }
+
+        /**
+         * Elimina un rango registrado previamente con {@link #add}.
+         *
+         * @param dayOrdinal Ordinal del día
+         * @param startMinute Minuto de inicio
+         * @param endMinute Minuto de fin (incluido)
+         * @return true si ya no queda ningún rango registrado
+         */
+        public boolean remove(int dayOrdinal, int startMinute, int endMinute) {
+            short[] dayCounts = counts[dayOrdinal];
+            if (dayCounts == null) {
+                return ranges == 0;
+            }
+            long[] dayBits = bits[dayOrdinal];
+            int last = Math.min(endMinute / slotMinutes, slotsPerDay - 1);
+            for (int slot = startMinute / slotMinutes; slot <= last; slot++) {
+                if (dayCounts[slot] > 0 && --dayCounts[slot] == 0) {
+                    dayBits[slot >>> 6] &= ~(1L << slot);
+                }
+            }
+            ranges = Math.max(0, ranges - 1);
+            return ranges == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Occupancy[franja=" + slotMinutes + " min, rangos=" + ranges + "]";
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Índice de intervalos para las asignaciones de un mismo día.
+ * Mantiene las asignaciones ordenadas por hora de inicio y permite recuperar,
+ * mediante un barrido acotado, solo aquellas que se solapan con un rango dado.
+ *
+ * El solapamiento es inclusivo en los extremos, igual que en {@link ConflictDetector}:
+ * dos rangos que se tocan (10:00-12:00 y 12:00-14:00) se consideran solapados.
+ * La clase no es thread-safe; el llamador debe sincronizar el acceso.
+ */
+public class AssignmentIntervalIndex {
+
+    /**
+     * Entrada del índice con los límites precalculados en segundos del día.
+     */
+    private static final class Entry {
+        final int start;
+        final int end;
+        final Assignment assignment;
+
+        Entry(Assignment assignment) {
+            this.start = assignment.getStartTime().toSecondOfDay();
+            this.end = assignment.getEndTime().toSecondOfDay();
+            this.assignment = assignment;
+        }
+    }
+
+    // Entradas ordenadas por (inicio, id)
+    private final List<Entry> entries = new ArrayList<>();
+
+    // Duración máxima registrada; acota hacia atrás el inicio del barrido
+    private int maxDuration = 0;
+
+    /**
+     * Añade una asignación al índice manteniendo el orden por hora de inicio.
+     *
+     * @param assignment Asignación a indexar
+     * @throws NullPointerException si assignment es null
+     */
+    public void add(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        Entry entry = new Entry(assignment);
+        entries.add(insertionPoint(entry.start, assignment.getId()), entry);
+        maxDuration = Math.max(maxDuration, entry.end - entry.start);
+    }
+
+    /**
+     * Elimina una asignación del índice.
+     *
+     * @param assignment Asignación a eliminar
+     * @return true si estaba indexada, false en caso contrario
+     */
+    public boolean remove(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        int start = assignment.getStartTime().toSecondOfDay();
+        int index = insertionPoint(start, assignment.getId());
+        if (index < entries.size() && entries.get(index).assignment.getId() == assignment.getId()) {
+            entries.remove(index);
+            return true;
+        }
+        // Respaldo por si la asignación se indexó con otros horarios
+        return entries.removeIf(e -> e.assignment.getId() == assignment.getId());
+    }
+
+    /**
+     * Recorre las asignaciones cuyo rango se solapa con [start, end].
+     *
+     * @param start Hora de inicio del rango, en segundos del día
+     * @param end Hora de fin del rango, en segundos del día
+     * @param action Acción a ejecutar por cada asignación solapada
+     */
+    public void forEachOverlapping(int start, int end, Consumer<Assignment> action) {
+        int from = lowerBound(start - maxDuration);
+        for (int i = from; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.start > end) {
+                break; // El resto empieza después del rango
+            }
+            if (entry.end >= start) {
+                action.accept(entry.assignment);
+            }
+        }
+    }
+
+    /**
+     * Obtiene las asignaciones que se solapan temporalmente con la indicada.
+     *
+     * @param assignment Asignación de referencia
+     * @return Lista de asignaciones solapadas (nunca null, puede estar vacía)
+     */
+    public List<Assignment> findOverlapping(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        List<Assignment> result = new ArrayList<>();
+        forEachOverlapping(assignment.getStartTime().toSecondOfDay(),
+                           assignment.getEndTime().toSecondOfDay(),
+                           result::add);
+        return result;
+    }
+
+    /**
+     * Elimina todas las entradas del índice.
+     */
+    public void clear() {
+        entries.clear();
+        maxDuration = 0;
+    }
+
+    /**
+     * @return Número de asignaciones indexadas
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Primera posición cuyo inicio es mayor o igual que el indicado.
+     */
+    private int lowerBound(int start) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries.get(mid).start < start) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Posición de inserción para el par (inicio, id).
+     */
+    private int insertionPoint(int start, int id) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Entry e = entries.get(mid);
+            if (e.start < start || (e.start == start && e.assignment.getId() < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.miapp.service;
 import com.example.miapp.domain.*;
 import com.example.miapp.domain.conflict.ConflictType;
 import com.example.miapp.exception.DomainException;
+import com.example.miapp.persistence.AssignmentJournal;
+import com.example.miapp.persistence.JsonArrayReader;
 import com.example.miapp.repository.DataManager;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +17,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -22,20 +25,51 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio especializado en la gestión de archivos JSON para asignaciones.
  * Proporciona funcionalidades para cargar, manipular y exportar datos 
  * de asignaciones y sus conflictos.
+ * 
+ * En modo {@link StorageMode#JOURNALED} las altas y bajas individuales se añaden a un
+ * journal ({@link AssignmentJournal}) en lugar de reescribir el archivo completo, y un
+ * compactador en segundo plano incorpora periódicamente el journal al archivo.
  */
-public class AssignmentJsonService {
+public class AssignmentJsonService implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(AssignmentJsonService.class);
     
+    /**
+     * Modo de almacenamiento de las ediciones individuales.
+     */
+    public enum StorageMode {
+        /**
+         * Cada edición lee y reescribe el archivo completo.
+         */
+        REWRITE,
+        
+        /**
+         * Cada edición añade un registro al journal del archivo; coste constante.
+         */
+        JOURNALED
+    }
+    
+    // Intervalo del compactador y número de registros a partir del cual compacta un journal
+    private static final long COMPACTION_INTERVAL_SECONDS = 30;
+    private static final int COMPACTION_THRESHOLD_RECORDS = 1_000;
+    
     private final DataManager dataManager;
     private final ObjectMapper objectMapper;
     private final ConflictGraphLoader graphLoader;
     private final GraphExporter graphExporter;
     
+    private final Map<Path, AssignmentJournal> journals = new ConcurrentHashMap<>();
+    private volatile StorageMode storageMode = StorageMode.REWRITE;
+    private ScheduledExecutorService compactor;
+    
     /**
      * Constructor que inicializa las dependencias necesarias.
      */
@@ -65,60 +99,98 @@ public class AssignmentJsonService {
     public int loadFromJson(String filePath) throws IOException, DomainException {
         logger.info("Iniciando carga de asignaciones desde JSON: {}", filePath);
         
+        if (storageMode == StorageMode.JOURNALED) {
+            return loadFromJournal(filePath);
+        }
+        
         // Verificar que el archivo existe
         Path path = Paths.get(filePath);
         if (!Files.exists(path)) {
             throw new IOException("El archivo no existe: " + filePath);
         }
         
-        // Leer el JSON
-        ObjectNode rootNode = (ObjectNode) objectMapper.readTree(new File(filePath));
-        
-        // Verificar que tenga la estructura esperada
-        if (!rootNode.has("assignments")) {
+        // Validar el documento y su estructura antes de modificar el estado
+        if (!JsonArrayReader.arrayFields(objectMapper, path).contains("assignments")) {
             throw new IOException("Formato JSON inválido: no contiene nodo 'assignments'");
         }
         
-        ArrayNode assignmentsArray = (ArrayNode) rootNode.get("assignments");
-        
-        // Contador de asignaciones cargadas correctamente
-        int successCount = 0;
+        // Contadores de asignaciones cargadas correctamente y leídas
+        int[] counts = new int[2];
         List<String> errors = new ArrayList<>();
         
-        // Procesar cada asignación
-        for (JsonNode assignmentNode : assignmentsArray) {
-            try {
-                Assignment assignment = parseAssignment(assignmentNode);
-                
-                // Verificar si ya existe una asignación con este ID
-                int id = assignment.getId();
-                if (dataManager.getAssignment(id) != null) {
-                    dataManager.removeAssignment(id); // Eliminar la existente
-                    logger.info("Reemplazando asignación existente con ID: {}", id);
-                }
-                
-                // Añadir al DataManager
-                dataManager.addAssignment(assignment);
-                successCount++;
-                
-                logger.debug("Asignación cargada correctamente: ID={}", assignment.getId());
-                
-            } catch (Exception e) {
-                // Registrar error pero continuar con la siguiente asignación
-                String errorMsg = "Error al procesar asignación: " + e.getMessage();
-                logger.error(errorMsg, e);
-                errors.add(errorMsg);
+        // Procesar cada asignación a medida que se lee el archivo
+        JsonArrayReader.read(objectMapper, path, Map.of("assignments", assignmentNode -> {
+            counts[1]++;
+            if (loadAssignmentNode(assignmentNode, errors)) {
+                counts[0]++;
             }
+        }));
+        
+        return finishLoad(counts[0], counts[1], errors);
+    }
+    
+    /**
+     * Carga las asignaciones del archivo combinadas con su journal, recorriendo el archivo
+     * en streaming.
+     */
+    private int loadFromJournal(String filePath) throws IOException, DomainException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path) && !Files.exists(path.resolveSibling(path.getFileName() + ".journal"))) {
+            throw new IOException("El archivo no existe: " + filePath);
         }
         
+        int[] counts = new int[2];
+        List<String> errors = new ArrayList<>();
+        journalFor(filePath).forEach(node -> {
+            counts[1]++;
+            if (loadAssignmentNode(node, errors)) {
+                counts[0]++;
+            }
+        });
+        return finishLoad(counts[0], counts[1], errors);
+    }
+    
+    /**
+     * Añade al DataManager la asignación de un nodo JSON, sustituyendo la existente con el
+     * mismo ID. Los errores se registran y se acumulan en errors.
+     * 
+     * @return true si la asignación se cargó correctamente
+     */
+    private boolean loadAssignmentNode(JsonNode assignmentNode, List<String> errors) {
+        try {
+            Assignment assignment = parseAssignment(assignmentNode);
+            
+            // Verificar si ya existe una asignación con este ID
+            int id = assignment.getId();
+            if (dataManager.getAssignment(id) != null) {
+                dataManager.removeAssignment(id); // Eliminar la existente
+                logger.info("Reemplazando asignación existente con ID: {}", id);
+            }
+            
+            // Añadir al DataManager
+            dataManager.addAssignment(assignment);
+            
+            logger.debug("Asignación cargada correctamente: ID={}", assignment.getId());
+            return true;
+            
+        } catch (Exception e) {
+            // Registrar error pero continuar con la siguiente asignación
+            String errorMsg = "Error al procesar asignación: " + e.getMessage();
+            logger.error(errorMsg, e);
+            errors.add(errorMsg);
+            return false;
+        }
+    }
+    
+    private int finishLoad(int successCount, int total, List<String> errors) throws DomainException {
         logger.info("Carga completada: {} de {} asignaciones cargadas correctamente",
-                  successCount, assignmentsArray.size());
+                  successCount, total);
         
         // Si hubo errores pero se cargaron algunas asignaciones, lanzar excepción con detalles
         if (!errors.isEmpty() && successCount > 0) {
             String warningMsg = String.format(
                 "Se cargaron %d de %d asignaciones. Errores: %s",
-                successCount, assignmentsArray.size(), String.join("; ", errors));
+                successCount, total, String.join("; ", errors));
             logger.warn(warningMsg);
         }
         
@@ -299,11 +371,28 @@ public class AssignmentJsonService {
         // Obtener las asignaciones actuales
         List<Assignment> assignments = dataManager.getAllAssignments();
         
+        // El archivo se reescribe completo: el journal deja de tener efecto, y la reescritura
+        // se serializa con sus compactaciones para que ninguna sustituya después el archivo
+        AssignmentJournal journal = journals.get(journalKey(filePath));
+        if (journal != null) {
+            journal.replaceDataFile(file -> writeAssignmentsFile(path, assignments));
+        } else {
+            writeAssignmentsFile(path, assignments);
+        }
+        
+        logger.info("Guardadas {} asignaciones en {}", assignments.size(), filePath);
+    }
+    
+    /**
+     * Escribe el archivo de asignaciones completo, conservando los demás campos del objeto
+     * raíz si el archivo ya existe.
+     */
+    private void writeAssignmentsFile(Path path, List<Assignment> assignments) throws IOException {
         // Verificar si el archivo ya existe para preservar otros datos
         ObjectNode rootNode;
         if (Files.exists(path)) {
             try {
-                rootNode = (ObjectNode) objectMapper.readTree(new File(filePath));
+                rootNode = (ObjectNode) objectMapper.readTree(path.toFile());
                 logger.debug("Archivo JSON existente encontrado, actualizando contenido");
             } catch (Exception e) {
                 logger.warn("Error leyendo JSON existente, creando nuevo: {}", e.getMessage());
@@ -327,9 +416,7 @@ public class AssignmentJsonService {
         
         // Escribir en archivo
         objectMapper.writerWithDefaultPrettyPrinter()
-                   .writeValue(new File(filePath), rootNode);
-        
-        logger.info("Guardadas {} asignaciones en {}", assignments.size(), filePath);
+                   .writeValue(path.toFile(), rootNode);
     }
     
     /**
@@ -421,6 +508,11 @@ public class AssignmentJsonService {
     public void addAssignmentToJson(Assignment assignment, String filePath) throws IOException {
         logger.info("Añadiendo asignación ID={} a JSON: {}", assignment.getId(), filePath);
         
+        if (storageMode == StorageMode.JOURNALED) {
+            journalFor(filePath).put(assignment.getId(), convertAssignmentToJson(assignment));
+            return;
+        }
+        
         // Preparar directorio si no existe
         Path path = Paths.get(filePath);
         Path parent = path.getParent();
@@ -570,6 +662,14 @@ public int generateConflictGraph(String inputJsonPath, String outputGraphPath)
     public boolean removeAssignmentFromJson(int assignmentId, String filePath) throws IOException {
         logger.info("Eliminando asignación ID={} de JSON: {}", assignmentId, filePath);
         
+        if (storageMode == StorageMode.JOURNALED) {
+            boolean removed = journalFor(filePath).remove(assignmentId);
+            if (!removed) {
+                logger.warn("No se encontró asignación con ID={}", assignmentId);
+            }
+            return removed;
+        }
+        
         // Verificar si el archivo existe
         Path path = Paths.get(filePath);
         if (!Files.exists(path)) {
@@ -625,6 +725,16 @@ public int generateConflictGraph(String inputJsonPath, String outputGraphPath)
     public Optional<Assignment> findAssignmentInJson(int assignmentId, String filePath) throws IOException {
         logger.info("Buscando asignación ID={} en JSON: {}", assignmentId, filePath);
         
+        if (storageMode == StorageMode.JOURNALED) {
+            Optional<JsonNode> node = journalFor(filePath).find(assignmentId);
+            try {
+                return node.isPresent() ? Optional.of(parseAssignment(node.get())) : Optional.empty();
+            } catch (Exception e) {
+                logger.error("Error procesando asignación encontrada: {}", e.getMessage(), e);
+                return Optional.empty();
+            }
+        }
+        
         // Verificar si el archivo existe
         Path path = Paths.get(filePath);
         if (!Files.exists(path)) {
@@ -660,4 +770,106 @@ public int generateConflictGraph(String inputJsonPath, String outputGraphPath)
         logger.debug("No se encontró asignación con ID={}", assignmentId);
         return Optional.empty();
     }
+    
+    /**
+     * @return Modo de almacenamiento actual de las ediciones individuales
+     */
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+    
+    /**
+     * Cambia el modo de almacenamiento. Al pasar a {@link StorageMode#JOURNALED} se arranca
+     * el compactador en segundo plano; al volver a {@link StorageMode#REWRITE} se compactan
+     * y cierran los journals abiertos, de modo que los archivos quedan completos.
+     * 
+     * @param mode Nuevo modo
+     * @throws IOException si falla la compactación de algún journal
+     */
+    public synchronized void setStorageMode(StorageMode mode) throws IOException {
+        Objects.requireNonNull(mode, "El modo de almacenamiento no puede ser null");
+        if (mode == storageMode) {
+            return;
+        }
+        if (mode == StorageMode.JOURNALED) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "assignment-journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactIfNeeded, COMPACTION_INTERVAL_SECONDS,
+                                             COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            storageMode = mode;
+        } else {
+            storageMode = mode;
+            closeJournals();
+        }
+        logger.info("Modo de almacenamiento de asignaciones: {}", mode);
+    }
+    
+    /**
+     * Incorpora inmediatamente a sus archivos todos los journals abiertos.
+     * 
+     * @throws IOException si falla la compactación de algún journal
+     */
+    public void compactJournals() throws IOException {
+        for (AssignmentJournal journal : journals.values()) {
+            journal.compact();
+        }
+    }
+    
+    /**
+     * Detiene el compactador y compacta y cierra los journals abiertos.
+     * 
+     * @throws IOException si falla la compactación de algún journal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeJournals();
+        storageMode = StorageMode.REWRITE;
+    }
+    
+    private void closeJournals() throws IOException {
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor = null;
+        }
+        for (Iterator<AssignmentJournal> it = journals.values().iterator(); it.hasNext(); ) {
+            AssignmentJournal journal = it.next();
+            journal.compact();
+            journal.close();
+            it.remove();
+        }
+    }
+    
+    // Tarea periódica del compactador: solo compacta los journals con suficientes registros
+    private void compactIfNeeded() {
+        for (AssignmentJournal journal : journals.values()) {
+            if (journal.getRecordCount() >= COMPACTION_THRESHOLD_RECORDS) {
+                try {
+                    journal.compact();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Error compactando el journal de {}: {}", journal.getDataFile(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+    
+    private AssignmentJournal journalFor(String filePath) throws IOException {
+        try {
+            return journals.computeIfAbsent(journalKey(filePath), path -> {
+                try {
+                    return new AssignmentJournal(path, objectMapper, true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static Path journalKey(String filePath) {
+        return Paths.get(filePath).toAbsolutePath().normalize();
+    }
 }
\ No newline at end of file
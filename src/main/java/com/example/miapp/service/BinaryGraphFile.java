@@ -0,0 +1,569 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binario compacto del grafo de conflictos, alternativo a graph.json, y lector
+ * de ese formato.
+ *
+ * Formato (enteros de 32 bits big-endian, todas las secciones alineadas a 4 bytes):
+ * <pre>
+ * cabecera:    magic "MIAG" | versión (short) | reservado (short) | nº nodos | nº aristas |
+ *              nº cadenas | bytes de cadenas | nº tipos de conflicto | CRC32 del contenido
+ * cadenas:     desplazamientos int[nº cadenas + 1] | bytes UTF-8 (con relleno hasta múltiplo de 4)
+ * nodos:       una columna int[nº nodos] por atributo, en el orden de las constantes COL_*
+ * adyacencia:  desplazamientos int[nº nodos + 1] | destinos int[nº aristas] | máscaras int[nº aristas]
+ * </pre>
+ * Los nodos van ordenados por id de asignación. La adyacencia está en formato CSR: las
+ * aristas del nodo {@code i} ocupan las posiciones {@code [desplazamiento[i], desplazamiento[i + 1])},
+ * cada arista se guarda una sola vez desde su extremo de menor id (las autoconflictivas, desde
+ * el propio nodo), los destinos son índices de nodo en orden creciente y las máscaras siguen
+ * los ordinales de {@link ConflictType}. Las primeras cadenas del diccionario son las etiquetas
+ * de los tipos de conflicto por ordinal, de modo que una herramienta externa puede interpretar
+ * las máscaras sin conocer el enumerado. Los nombres de profesor, aula, materia, grupo, día y
+ * tipo de sesión se guardan una sola vez en el diccionario y los nodos los referencian por
+ * índice ({@value #NO_STRING} si no hay valor); las horas van en segundos del día y las fechas
+ * en días desde la época.
+ *
+ * El lector mapea el archivo en memoria y expone las secciones como vistas sobre el mapeo:
+ * abrir un archivo solo verifica cabecera y checksum, y las cadenas se decodifican al
+ * consultarlas por primera vez.
+ */
+public final class BinaryGraphFile {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryGraphFile.class);
+
+    /**
+     * Extensión convencional del formato binario.
+     */
+    public static final String FILE_EXTENSION = ".bin";
+
+    /**
+     * Versión del formato que escribe y acepta esta clase.
+     */
+    public static final short FORMAT_VERSION = 1;
+
+    /**
+     * Índice de cadena que indica ausencia de valor.
+     */
+    public static final int NO_STRING = -1;
+
+    // Columnas de nodo, en el orden en que aparecen en el archivo
+    public static final int COL_ID = 0;
+    public static final int COL_DAY = 1;
+    public static final int COL_START_SECOND = 2;
+    public static final int COL_END_SECOND = 3;
+    public static final int COL_GROUP_ID = 4;
+    public static final int COL_GROUP_NAME = 5;
+    public static final int COL_SESSION_TYPE = 6;
+    public static final int COL_ENROLLED_STUDENTS = 7;
+    public static final int COL_PROFESSOR_ID = 8;
+    public static final int COL_PROFESSOR_NAME = 9;
+    public static final int COL_ROOM_ID = 10;
+    public static final int COL_ROOM_NAME = 11;
+    public static final int COL_SUBJECT_CODE = 12;
+    public static final int COL_SUBJECT_NAME = 13;
+    public static final int COL_ASSIGNMENT_DATE = 14;
+    public static final int NODE_COLUMNS = 15;
+
+    private static final int MAGIC = 0x4D494147; // "MIAG"
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 6 * 4;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private final Path path;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int conflictTypeCount;
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer stringBytes;
+    private final IntBuffer[] columns;
+    private final IntBuffer edgeOffsets;
+    private final IntBuffer edgeTargets;
+    private final IntBuffer edgeMasks;
+    private final String[] decodedStrings;
+
+    private BinaryGraphFile(Path path, ByteBuffer buffer, int nodeCount, int edgeCount, int stringCount,
+                            int stringByteCount, int conflictTypeCount) {
+        this.path = path;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.conflictTypeCount = conflictTypeCount;
+        this.decodedStrings = new String[stringCount];
+
+        int position = HEADER_BYTES;
+        this.stringOffsets = buffer.slice(position, (stringCount + 1) * Integer.BYTES).asIntBuffer();
+        position += (stringCount + 1) * Integer.BYTES;
+        this.stringBytes = buffer.slice(position, stringByteCount);
+        position += align(stringByteCount);
+        this.columns = new IntBuffer[NODE_COLUMNS];
+        for (int column = 0; column < NODE_COLUMNS; column++) {
+            columns[column] = buffer.slice(position, nodeCount * Integer.BYTES).asIntBuffer();
+            position += nodeCount * Integer.BYTES;
+        }
+        this.edgeOffsets = buffer.slice(position, (nodeCount + 1) * Integer.BYTES).asIntBuffer();
+        position += (nodeCount + 1) * Integer.BYTES;
+        this.edgeTargets = buffer.slice(position, edgeCount * Integer.BYTES).asIntBuffer();
+        position += edgeCount * Integer.BYTES;
+        this.edgeMasks = buffer.slice(position, edgeCount * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Escribe una instantánea del grafo en formato binario. El archivo se escribe en un
+     * temporal y se sustituye de forma atómica.
+     *
+     * @param snapshot Instantánea a escribir
+     * @param path Ruta del archivo
+     * @return Tamaño del archivo escrito, en bytes
+     * @throws IOException si hay error de escritura
+     * @throws IllegalStateException si alguna arista referencia una asignación que no está
+     *         en la instantánea
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public static long write(ConflictGraphSnapshot snapshot, Path path) throws IOException {
+        Objects.requireNonNull(snapshot, "La instantánea no puede ser null");
+        Objects.requireNonNull(path, "La ruta del archivo no puede ser null");
+
+        List<Assignment> nodes = new ArrayList<>(snapshot.getAssignments());
+        nodes.sort(Comparator.comparingInt(Assignment::getId));
+        int nodeCount = nodes.size();
+        int[] ids = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            ids[i] = nodes.get(i).getId();
+        }
+
+        // Diccionario: primero las etiquetas de los tipos de conflicto, por ordinal
+        StringDictionary dictionary = new StringDictionary();
+        ConflictType[] types = ConflictType.values();
+        for (ConflictType type : types) {
+            dictionary.add(type.getLabel());
+        }
+
+        int[][] nodeColumns = new int[NODE_COLUMNS][nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            Assignment a = nodes.get(i);
+            nodeColumns[COL_ID][i] = a.getId();
+            nodeColumns[COL_DAY][i] = dictionary.add(a.getDay());
+            nodeColumns[COL_START_SECOND][i] = a.getStartTime().toSecondOfDay();
+            nodeColumns[COL_END_SECOND][i] = a.getEndTime().toSecondOfDay();
+            nodeColumns[COL_GROUP_ID][i] = a.getGroupId();
+            nodeColumns[COL_GROUP_NAME][i] = dictionary.add(a.getGroupName());
+            nodeColumns[COL_SESSION_TYPE][i] = dictionary.add(a.getSessionType());
+            nodeColumns[COL_ENROLLED_STUDENTS][i] = a.getEnrolledStudents();
+            nodeColumns[COL_PROFESSOR_ID][i] = a.getProfessorId();
+            nodeColumns[COL_PROFESSOR_NAME][i] = dictionary.add(a.getProfessorName());
+            nodeColumns[COL_ROOM_ID][i] = a.getRoomId();
+            nodeColumns[COL_ROOM_NAME][i] = dictionary.add(a.getRoomName());
+            nodeColumns[COL_SUBJECT_CODE][i] = a.getSubject() != null ? dictionary.add(a.getSubject().getCode()) : NO_STRING;
+            nodeColumns[COL_SUBJECT_NAME][i] = a.getSubject() != null ? dictionary.add(a.getSubject().getName()) : NO_STRING;
+            nodeColumns[COL_ASSIGNMENT_DATE][i] = (int) a.getAssignmentDate().toEpochDay();
+        }
+
+        // Adyacencia CSR: una pasada para los grados y otra para colocar cada arista
+        int[] offsets = new int[nodeCount + 1];
+        snapshot.forEachEdge(edge -> offsets[indexOf(ids, edge.getSourceId()) + 1]++);
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int edgeCount = offsets[nodeCount];
+        long[] packed = new long[edgeCount];
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        snapshot.forEachEdge(edge -> {
+            int source = indexOf(ids, edge.getSourceId());
+            packed[cursor[source]++] = ((long) indexOf(ids, edge.getTargetId()) << 32) | (edge.getMask() & 0xFFFFFFFFL);
+        });
+        for (int i = 0; i < nodeCount; i++) {
+            Arrays.sort(packed, offsets[i], offsets[i + 1]);
+        }
+
+        List<byte[]> encoded = dictionary.encode();
+        int stringByteCount = 0;
+        for (byte[] bytes : encoded) {
+            stringByteCount += bytes.length;
+        }
+
+        Path absolute = path.toAbsolutePath();
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES);
+            ChunkWriter out = new ChunkWriter(channel);
+
+            int offset = 0;
+            out.putInt(offset);
+            for (byte[] bytes : encoded) {
+                offset += bytes.length;
+                out.putInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.putBytes(bytes);
+            }
+            out.putBytes(new byte[align(stringByteCount) - stringByteCount]);
+
+            for (int[] column : nodeColumns) {
+                for (int value : column) {
+                    out.putInt(value);
+                }
+            }
+            for (int value : offsets) {
+                out.putInt(value);
+            }
+            for (long edge : packed) {
+                out.putInt((int) (edge >>> 32));
+            }
+            for (long edge : packed) {
+                out.putInt((int) edge);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) 0)
+                .putInt(nodeCount)
+                .putInt(edgeCount)
+                .putInt(encoded.size())
+                .putInt(stringByteCount)
+                .putInt(types.length)
+                .putInt((int) out.crc.getValue())
+                .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            size = channel.size();
+        }
+        try {
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Grafo binario escrito en {}: {} nodos, {} aristas, {} cadenas, {} bytes",
+                        path, nodeCount, edgeCount, encoded.size(), size);
+        }
+        return size;
+    }
+
+    /**
+     * Abre un archivo del formato binario mapeándolo en memoria. Se verifican la cabecera,
+     * la versión, el tamaño de las secciones y el checksum; el contenido no se copia.
+     *
+     * @param path Ruta del archivo
+     * @return Grafo de solo lectura respaldado por el archivo
+     * @throws IOException si hay error de lectura, la cabecera o la versión no son válidas,
+     *         el archivo está truncado o el checksum no coincide
+     * @throws NullPointerException si path es null
+     */
+    public static BinaryGraphFile open(Path path) throws IOException {
+        Objects.requireNonNull(path, "La ruta del archivo no puede ser null");
+        long startNanos = System.nanoTime();
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Grafo binario truncado: " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Grafo binario demasiado grande para mapearse: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("El archivo no es un grafo binario: " + path);
+        }
+        short version = buffer.getShort(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Versión de grafo binario no soportada (" + version + "): " + path);
+        }
+        int nodeCount = buffer.getInt(8);
+        int edgeCount = buffer.getInt(12);
+        int stringCount = buffer.getInt(16);
+        int stringByteCount = buffer.getInt(20);
+        int conflictTypeCount = buffer.getInt(24);
+        int expectedCrc = buffer.getInt(28);
+        if (nodeCount < 0 || edgeCount < 0 || stringCount < conflictTypeCount || stringByteCount < 0
+                || conflictTypeCount < 0) {
+            throw new IOException("Cabecera de grafo binario inconsistente: " + path);
+        }
+
+        long expectedSize = HEADER_BYTES
+            + (long) (stringCount + 1) * Integer.BYTES
+            + align(stringByteCount)
+            + (long) NODE_COLUMNS * nodeCount * Integer.BYTES
+            + (long) (nodeCount + 1) * Integer.BYTES
+            + 2L * edgeCount * Integer.BYTES;
+        if (expectedSize != buffer.capacity()) {
+            throw new IOException("Tamaño de grafo binario inconsistente (" + buffer.capacity()
+                                  + " bytes, se esperaban " + expectedSize + "): " + path);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Checksum de grafo binario no válido: " + path);
+        }
+
+        BinaryGraphFile graph = new BinaryGraphFile(path, buffer, nodeCount, edgeCount, stringCount,
+                                                    stringByteCount, conflictTypeCount);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Grafo binario abierto desde {}: {} nodos, {} aristas en {} ms",
+                        path, nodeCount, edgeCount, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+        return graph;
+    }
+
+    /**
+     * Obtiene la ruta del archivo abierto.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Obtiene el número de nodos (asignaciones).
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Obtiene el número de aristas, contando cada arista una sola vez.
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Obtiene el índice de nodo de una asignación, o -1 si no está en el grafo.
+     *
+     * @param assignmentId ID de la asignación
+     */
+    public int indexOf(int assignmentId) {
+        IntBuffer ids = columns[COL_ID];
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = ids.get(mid);
+            if (id < assignmentId) {
+                low = mid + 1;
+            } else if (id > assignmentId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Obtiene el valor crudo de una columna de nodo.
+     *
+     * @param node Índice de nodo
+     * @param column Columna, una de las constantes COL_*
+     */
+    public int getColumn(int node, int column) {
+        return columns[column].get(node);
+    }
+
+    /**
+     * Obtiene una cadena del diccionario, o null si el índice es {@value #NO_STRING}.
+     *
+     * @param index Índice en el diccionario
+     */
+    public String getString(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        String value = decodedStrings[index];
+        if (value == null) {
+            int start = stringOffsets.get(index);
+            byte[] bytes = new byte[stringOffsets.get(index + 1) - start];
+            stringBytes.get(start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decodedStrings[index] = value;
+        }
+        return value;
+    }
+
+    public int getId(int node) { return getColumn(node, COL_ID); }
+    public String getDay(int node) { return getString(getColumn(node, COL_DAY)); }
+    public LocalTime getStartTime(int node) { return LocalTime.ofSecondOfDay(getColumn(node, COL_START_SECOND)); }
+    public LocalTime getEndTime(int node) { return LocalTime.ofSecondOfDay(getColumn(node, COL_END_SECOND)); }
+    public int getGroupId(int node) { return getColumn(node, COL_GROUP_ID); }
+    public String getGroupName(int node) { return getString(getColumn(node, COL_GROUP_NAME)); }
+    public String getSessionType(int node) { return getString(getColumn(node, COL_SESSION_TYPE)); }
+    public int getEnrolledStudents(int node) { return getColumn(node, COL_ENROLLED_STUDENTS); }
+    public int getProfessorId(int node) { return getColumn(node, COL_PROFESSOR_ID); }
+    public String getProfessorName(int node) { return getString(getColumn(node, COL_PROFESSOR_NAME)); }
+    public int getRoomId(int node) { return getColumn(node, COL_ROOM_ID); }
+    public String getRoomName(int node) { return getString(getColumn(node, COL_ROOM_NAME)); }
+    public String getSubjectCode(int node) { return getString(getColumn(node, COL_SUBJECT_CODE)); }
+    public String getSubjectName(int node) { return getString(getColumn(node, COL_SUBJECT_NAME)); }
+    public LocalDate getAssignmentDate(int node) { return LocalDate.ofEpochDay(getColumn(node, COL_ASSIGNMENT_DATE)); }
+
+    /**
+     * Obtiene la posición de la primera arista de un nodo en los arrays de adyacencia; las
+     * aristas del nodo terminan en {@code getEdgeStart(node + 1)}.
+     *
+     * @param node Índice de nodo, hasta {@link #getNodeCount()} inclusive
+     */
+    public int getEdgeStart(int node) {
+        return edgeOffsets.get(node);
+    }
+
+    /**
+     * Obtiene el índice de nodo destino de una arista.
+     *
+     * @param edge Posición de la arista
+     */
+    public int getEdgeTarget(int edge) {
+        return edgeTargets.get(edge);
+    }
+
+    /**
+     * Obtiene la máscara de tipos de conflicto de una arista.
+     *
+     * @param edge Posición de la arista
+     */
+    public int getEdgeMask(int edge) {
+        return edgeMasks.get(edge);
+    }
+
+    /**
+     * Obtiene la etiqueta del tipo de conflicto de un bit de las máscaras, tal como se
+     * escribió en el archivo.
+     *
+     * @param ordinal Posición del bit
+     * @throws IndexOutOfBoundsException si el archivo no define ese tipo
+     */
+    public String getConflictLabel(int ordinal) {
+        Objects.checkIndex(ordinal, conflictTypeCount);
+        return getString(ordinal);
+    }
+
+    /**
+     * Recorre todas las aristas con el menor ID de asignación como origen, como
+     * {@link ConflictGraphSnapshot#forEachEdge}. La vista se reutiliza entre llamadas.
+     *
+     * @param action Acción a aplicar a cada arista
+     */
+    public void forEachEdge(Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        ConflictEdgeView view = new ConflictEdgeView();
+        for (int node = 0; node < nodeCount; node++) {
+            int sourceId = getId(node);
+            int end = edgeOffsets.get(node + 1);
+            for (int edge = edgeOffsets.get(node); edge < end; edge++) {
+                action.accept(view.reset(sourceId, getId(edgeTargets.get(edge)), edgeMasks.get(edge)));
+            }
+        }
+    }
+
+    private static int indexOf(int[] ids, int assignmentId) {
+        int index = Arrays.binarySearch(ids, assignmentId);
+        if (index < 0) {
+            throw new IllegalStateException("Arista con asignación fuera de la instantánea: " + assignmentId);
+        }
+        return index;
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+
+    /**
+     * Diccionario de cadenas en orden de inserción.
+     */
+    private static final class StringDictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int add(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        List<byte[]> encode() {
+            List<byte[]> encoded = new ArrayList<>(values.size());
+            for (String value : values) {
+                encoded.add(value.getBytes(StandardCharsets.UTF_8));
+            }
+            return encoded;
+        }
+    }
+
+    /**
+     * Escritura por bloques sobre un canal, acumulando el CRC32 de lo escrito.
+     */
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final CRC32 crc = new CRC32();
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
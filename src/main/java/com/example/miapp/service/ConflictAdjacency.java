@@ -0,0 +1,165 @@
+package com.example.miapp.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Índice de adyacencia compacto del grafo de conflictos.
+ * Cada asignación con aristas tiene un único array de enteros cuya primera posición
+ * guarda el grado y las siguientes los IDs vecinos, de modo que no se crea ningún
+ * objeto por arista. Consultar, añadir o quitar vecinos de una asignación cuesta O(grado).
+ *
+ * Un auto-conflicto se representa como el propio ID en la lista de vecinos.
+ * La clase no es thread-safe; el llamador debe sincronizar el acceso.
+ */
+public class ConflictAdjacency {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int[] EMPTY = new int[0];
+
+    // ID de asignación -> [grado, vecino1, vecino2, ...]
+    private final Map<Integer, int[]> lists = new HashMap<>();
+
+    /**
+     * Registra la arista entre dos asignaciones en ambos sentidos.
+     * El llamador garantiza que la arista no estaba registrada.
+     *
+     * @param id1 ID de una asignación
+     * @param id2 ID de la otra asignación (igual a id1 para auto-conflictos)
+     */
+    public void link(int id1, int id2) {
+        append(id1, id2);
+        if (id1 != id2) {
+            append(id2, id1);
+        }
+    }
+
+    /**
+     * Elimina una asignación del índice junto con todas sus aristas.
+     *
+     * @param id ID de la asignación
+     * @param onNeighbor Acción a ejecutar por cada vecino eliminado (incluido el propio ID
+     *                   si tenía auto-conflictos), o null
+     * @return Número de aristas eliminadas
+     */
+    public int removeVertex(int id, IntConsumer onNeighbor) {
+        int[] list = lists.remove(id);
+        if (list == null) {
+            return 0;
+        }
+        int degree = list[0];
+        for (int i = 1; i <= degree; i++) {
+            int neighbor = list[i];
+            if (neighbor != id) {
+                detach(neighbor, id);
+            }
+            if (onNeighbor != null) {
+                onNeighbor.accept(neighbor);
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Recorre los vecinos de una asignación sin copiar la lista.
+     * La acción no debe modificar el índice.
+     *
+     * @param id ID de la asignación
+     * @param action Acción a ejecutar por cada vecino
+     */
+    public void forEachNeighbor(int id, IntConsumer action) {
+        int[] list = lists.get(id);
+        if (list == null) {
+            return;
+        }
+        for (int i = 1; i <= list[0]; i++) {
+            action.accept(list[i]);
+        }
+    }
+
+    /**
+     * @return Copia de los IDs vecinos de la asignación (vacía si no tiene aristas)
+     */
+    public int[] neighbors(int id) {
+        int[] list = lists.get(id);
+        return list != null ? Arrays.copyOfRange(list, 1, list[0] + 1) : EMPTY;
+    }
+
+    /**
+     * @return Número de aristas de la asignación, contando el auto-conflicto si lo tiene
+     */
+    public int degree(int id) {
+        int[] list = lists.get(id);
+        return list != null ? list[0] : 0;
+    }
+
+    /**
+     * @return true si la asignación participa en alguna arista
+     */
+    public boolean contains(int id) {
+        return lists.containsKey(id);
+    }
+
+    /**
+     * @return Número de asignaciones con al menos una arista
+     */
+    public int vertexCount() {
+        return lists.size();
+    }
+
+    /**
+     * Crea una copia independiente del índice.
+     *
+     * @return Nuevo índice con las mismas listas
+     */
+    public ConflictAdjacency copy() {
+        ConflictAdjacency copy = new ConflictAdjacency();
+        for (Map.Entry<Integer, int[]> entry : lists.entrySet()) {
+            int[] list = entry.getValue();
+            copy.lists.put(entry.getKey(), Arrays.copyOf(list, list[0] + 1));
+        }
+        return copy;
+    }
+
+    /**
+     * Elimina todas las listas de adyacencia.
+     */
+    public void clear() {
+        lists.clear();
+    }
+
+    private void append(int id, int neighbor) {
+        int[] list = lists.get(id);
+        if (list == null) {
+            list = new int[INITIAL_CAPACITY + 1];
+            lists.put(id, list);
+        } else if (list[0] + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length * 2 - 1);
+            lists.put(id, list);
+        }
+        list[++list[0]] = neighbor;
+    }
+
+    /**
+     * Quita un vecino de la lista de una asignación moviendo el último a su posición.
+     */
+    private void detach(int id, int neighbor) {
+        int[] list = lists.get(id);
+        if (list == null) {
+            return;
+        }
+        int degree = list[0];
+        for (int i = 1; i <= degree; i++) {
+            if (list[i] == neighbor) {
+                list[i] = list[degree];
+                list[0] = degree - 1;
+                break;
+            }
+        }
+        if (list[0] == 0) {
+            lists.remove(id);
+        }
+    }
+}
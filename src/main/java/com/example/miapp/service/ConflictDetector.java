@@ -22,8 +22,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Servicio dedicado a la detección de conflictos entre asignaciones.
@@ -33,8 +32,48 @@ import java.util.concurrent.ConcurrentMap;
 public class ConflictDetector {
     private static final Logger logger = LoggerFactory.getLogger(ConflictDetector.class);
     
-    // Caché de resultados para mejorar rendimiento
-    private final ConcurrentMap<CacheKey, Boolean> overlapCache = new ConcurrentHashMap<>();
+    /**
+     * Tamaño máximo por defecto de la caché de solapamientos.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+    
+    // Calibración del modo ADAPTIVE: se mide una de cada SAMPLE_INTERVAL consultas
+    // hasta reunir CALIBRATION_SAMPLES mediciones; cada medición cronometra SAMPLE_BATCH
+    // repeticiones, ya que una sola comparación dura menos que la resolución de nanoTime
+    private static final int SAMPLE_INTERVAL = 64;
+    private static final int CALIBRATION_SAMPLES = 256;
+    private static final int SAMPLE_BATCH = 64;
+    
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    
+    /**
+     * Política de uso de la caché de solapamientos.
+     */
+    public enum CachePolicy {
+        /** Consultar siempre la caché. */
+        ALWAYS,
+        /** Calcular siempre el solapamiento directamente. */
+        NEVER,
+        /**
+         * Medir durante las primeras consultas el coste de la caché frente al cálculo
+         * directo y desactivar la caché si no compensa.
+         */
+        ADAPTIVE
+    }
+    
+    // Caché acotada de resultados de solapamiento
+    private final OverlapCache overlapCache;
+    private final CachePolicy cachePolicy;
+    private volatile boolean cacheActive;
+    
+    // Mediciones de la calibración (solo en modo ADAPTIVE)
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder sampledCacheNanos = new LongAdder();
+    private final LongAdder sampledDirectNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private volatile boolean calibrating;
+    private volatile int calibrationSink; // Evita que el JIT elimine las repeticiones medidas
     
     // Factor de tolerancia para solapamientos (en minutos)
     private final int overlapToleranceMinutes;
@@ -52,10 +91,27 @@ public class ConflictDetector {
      * @param overlapToleranceMinutes Minutos de tolerancia para considerar solapamiento (0 = exacto)
      */
     public ConflictDetector(int overlapToleranceMinutes) {
+        this(overlapToleranceMinutes, CachePolicy.ADAPTIVE, DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * Constructor con tolerancia y configuración de caché.
+     * 
+     * @param overlapToleranceMinutes Minutos de tolerancia para considerar solapamiento (0 = exacto)
+     * @param cachePolicy Política de uso de la caché de solapamientos
+     * @param maxCacheEntries Número máximo de entradas de la caché
+     * @throws NullPointerException si cachePolicy es null
+     * @throws IllegalArgumentException si maxCacheEntries es menor que 1
+     */
+    public ConflictDetector(int overlapToleranceMinutes, CachePolicy cachePolicy, int maxCacheEntries) {
         this.overlapToleranceMinutes = Math.max(0, overlapToleranceMinutes);
+        this.cachePolicy = Objects.requireNonNull(cachePolicy, "La política de caché no puede ser null");
+        this.overlapCache = new OverlapCache(maxCacheEntries);
+        this.cacheActive = cachePolicy != CachePolicy.NEVER;
+        this.calibrating = cachePolicy == CachePolicy.ADAPTIVE;
         
-        logger.info("ConflictDetector inicializado con tolerancia de {} minutos", 
-                 this.overlapToleranceMinutes);
+        logger.info("ConflictDetector inicializado con tolerancia de {} minutos, caché {} ({} entradas)", 
+                 this.overlapToleranceMinutes, cachePolicy, maxCacheEntries);
     }
     
     /**
@@ -419,42 +475,129 @@ public void verifyValidTimeSlot(Assignment assignment) {
         Objects.requireNonNull(a2, "La segunda asignación no puede ser null");
         
         // Si son diferentes días, no hay solapamiento
-        if (!a1.getDay().equals(a2.getDay())) {
+        if (a1.getDayOrdinal() != a2.getDayOrdinal()) {
             return false;
         }
         
-        // Usar la caché para mejorar rendimiento
-        CacheKey key = new CacheKey(
-            a1.getId(), a2.getId(), 
-            a1.getDay(), a2.getDay(),
-            a1.getStartTime(), a1.getEndTime(),
-            a2.getStartTime(), a2.getEndTime()
-        );
+        boolean result;
+        if (!a1.hasWholeMinuteTimes() || !a2.hasWholeMinuteTimes()) {
+            // Horas con segundos: no caben en la representación por minutos
+            result = timeOverlaps(a1.getStartTime(), a1.getEndTime(), a2.getStartTime(), a2.getEndTime());
+        } else if (!cacheActive) {
+            result = overlapsMinutes(a1.getStartMinute(), a1.getEndMinute(),
+                                     a2.getStartMinute(), a2.getEndMinute());
+        } else if (calibrating) {
+            result = calibratedOverlap(a1.getStartMinute(), a1.getEndMinute(),
+                                       a2.getStartMinute(), a2.getEndMinute());
+        } else {
+            result = cachedOverlap(a1.getStartMinute(), a1.getEndMinute(),
+                                   a2.getStartMinute(), a2.getEndMinute());
+        }
+        
+        if (result && logger.isTraceEnabled()) {
+            logger.trace("Time overlap detected between assignments {} ({}-{}) and {} ({}-{})",
+                       a1.getId(), a1.getStartTime(), a1.getEndTime(),
+                       a2.getId(), a2.getStartTime(), a2.getEndTime());
+        }
         
-        // Intentar obtener resultado de caché
+        return result;
+    }
+    
+    /**
+     * Resuelve el solapamiento a través de la caché. El resultado solo depende de los
+     * cuatro límites (el día ya se ha comprobado), así que los IDs no forman parte de la clave.
+     */
+    private boolean cachedOverlap(int start1, int end1, int start2, int end2) {
+        long key = OverlapCache.key(start1, end1, start2, end2);
         Boolean cachedResult = overlapCache.get(key);
         if (cachedResult != null) {
             return cachedResult;
         }
         
-        // Calcular resultado
-        boolean result = timeOverlaps(
-            a1.getStartTime(), a1.getEndTime(), 
-            a2.getStartTime(), a2.getEndTime()
-        );
-        
-        // Guardar en caché
+        boolean result = overlapsMinutes(start1, end1, start2, end2);
         overlapCache.put(key, result);
-        
-        if (result && logger.isTraceEnabled()) {
-            logger.trace("Time overlap detected between assignments {} ({}-{}) and {} ({}-{})",
-                       a1.getId(), a1.getStartTime(), a1.getEndTime(),
-                       a2.getId(), a2.getStartTime(), a2.getEndTime());
+        return result;
+    }
+    
+    /**
+     * Variante usada durante la calibración del modo ADAPTIVE: mide periódicamente el coste
+     * de la consulta a la caché y el del cálculo directo, cada uno sobre un lote de
+     * repeticiones, y, reunidas suficientes muestras, desactiva la caché si el cálculo
+     * directo resulta más barato. Las consultas repetidas no cuentan en las estadísticas
+     * de la caché.
+     */
+    private boolean calibratedOverlap(int start1, int end1, int start2, int end2) {
+        lookups.increment();
+        if (lookups.sum() % SAMPLE_INTERVAL != 0) {
+            return cachedOverlap(start1, end1, start2, end2);
+        }
+        
+        // La consulta real guarda el resultado, de modo que el lote mide aciertos de la caché
+        boolean result = cachedOverlap(start1, end1, start2, end2);
+        long key = OverlapCache.key(start1, end1, start2, end2);
+        int sink = 0;
+        
+        // (i & 1) impide que el JIT saque el cálculo directo del bucle como invariante
+        long t0 = System.nanoTime();
+        for (int i = 0; i < SAMPLE_BATCH; i++) {
+            if (overlapsMinutes(start1, end1, start2 + (i & 1), end2)) {
+                sink++;
+            }
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < SAMPLE_BATCH; i++) {
+            if (overlapCache.lookup(key) == Boolean.TRUE) {
+                sink++;
+            }
         }
+        long t2 = System.nanoTime();
+        calibrationSink = sink;
         
+        sampledDirectNanos.add(t1 - t0);
+        sampledCacheNanos.add(t2 - t1);
+        samples.increment();
+        
+        if (samples.sum() >= CALIBRATION_SAMPLES && calibrating) {
+            finishCalibration();
+        }
         return result;
     }
     
+    private synchronized void finishCalibration() {
+        if (!calibrating) {
+            return;
+        }
+        calibrating = false;
+        long directNanos = sampledDirectNanos.sum();
+        long cacheNanos = sampledCacheNanos.sum();
+        cacheActive = cacheNanos < directNanos;
+        if (!cacheActive) {
+            overlapCache.clear();
+        }
+        logger.info("Calibración de caché de solapamientos: directo={} ns, caché={} ns en {} muestras -> caché {}",
+                  directNanos, cacheNanos, samples.sum(), cacheActive ? "activa" : "desactivada");
+    }
+    
+    /**
+     * Solapamiento entre rangos en minutos del día, ya validados, aplicando la tolerancia.
+     * Los ajustes dan la vuelta a medianoche igual que {@link LocalTime#plusMinutes(long)}.
+     */
+    private boolean overlapsMinutes(int start1, int end1, int start2, int end2) {
+        if (overlapToleranceMinutes > 0) {
+            int adjustedStart1 = Math.floorMod(start1 + overlapToleranceMinutes, MINUTES_PER_DAY);
+            int adjustedEnd1 = Math.floorMod(end1 - overlapToleranceMinutes, MINUTES_PER_DAY);
+            int adjustedStart2 = Math.floorMod(start2 + overlapToleranceMinutes, MINUTES_PER_DAY);
+            int adjustedEnd2 = Math.floorMod(end2 - overlapToleranceMinutes, MINUTES_PER_DAY);
+            
+            // Si después de ajustar, algún rango se invierte, no hay solapamiento
+            if (adjustedEnd1 <= adjustedStart1 || adjustedEnd2 <= adjustedStart2) {
+                return false;
+            }
+            return TimeSlot.overlapsMinutes(adjustedStart1, adjustedEnd1, adjustedStart2, adjustedEnd2);
+        }
+        return TimeSlot.overlapsMinutes(start1, end1, start2, end2);
+    }
+    
     /**
      * Verifica si hay solapamiento entre dos rangos de tiempo.
      * 
@@ -538,12 +681,12 @@ public void verifyValidTimeSlot(Assignment assignment) {
             return 0;
         }
         
-        // Calcular el rango de solapamiento
-        LocalTime overlapStart = start1.isAfter(start2) ? start1 : start2;
-        LocalTime overlapEnd = end1.isBefore(end2) ? end1 : end2;
+        // Calcular el rango de solapamiento sobre nanosegundos del día, sin objetos intermedios
+        long overlapStart = Math.max(start1.toNanoOfDay(), start2.toNanoOfDay());
+        long overlapEnd = Math.min(end1.toNanoOfDay(), end2.toNanoOfDay());
         
         // Calcular la diferencia en minutos
-        int minutes = (int) Duration.between(overlapStart, overlapEnd).toMinutes();
+        int minutes = (int) ((overlapEnd - overlapStart) / NANOS_PER_MINUTE);
         
         if (logger.isTraceEnabled()) {
             logger.trace("Overlap between {}:{} and {}:{} is {} minutes",
@@ -574,7 +717,7 @@ public void verifyValidTimeSlot(Assignment assignment) {
         }
         
         // Calcular la duración total del rango base en minutos
-        long rangeDurationMinutes = Duration.between(rangeStart, rangeEnd).toMinutes();
+        long rangeDurationMinutes = (rangeEnd.toNanoOfDay() - rangeStart.toNanoOfDay()) / NANOS_PER_MINUTE;
         
         if (rangeDurationMinutes == 0) {
             return 0.0; // Evitar división por cero
@@ -704,11 +847,36 @@ public void verifyValidTimeSlot(Assignment assignment) {
      * Limpia la caché de resultados.
      */
     public void clearCache() {
-        int size = overlapCache.size();
-        overlapCache.clear();
+        int size = overlapCache.clear();
         logger.info("Caché limpiada: {} entradas eliminadas", size);
     }
     
+    /**
+     * Obtiene las estadísticas de la caché de solapamientos.
+     * 
+     * @return Instantánea de aciertos, fallos, expulsiones y tamaño
+     */
+    public OverlapCache.Stats getCacheStats() {
+        return overlapCache.stats();
+    }
+    
+    /**
+     * @return Política de caché configurada
+     */
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+    
+    /**
+     * Indica si la caché se está usando. Con la política ADAPTIVE puede desactivarse
+     * tras la calibración inicial.
+     * 
+     * @return true si las consultas de solapamiento pasan por la caché
+     */
+    public boolean isCacheActive() {
+        return cacheActive;
+    }
+    
     /**
     * Realiza una verificación completa de una asignación para detectar todos los tipos
     * de conflictos que pueda tener, incluyendo las nuevas restricciones horarias.
@@ -754,50 +922,4 @@ public void verifyValidTimeSlot(Assignment assignment) {
        
        return conflicts;
    }
-   
-   /**
-    * Clase para las claves de caché.
-    */
-   private static class CacheKey {
-       private final int id1;
-       private final int id2;
-       private final String day1;
-       private final String day2;
-       private final LocalTime start1;
-       private final LocalTime end1;
-       private final LocalTime start2;
-       private final LocalTime end2;
-       
-       public CacheKey(int id1, int id2, String day1, String day2,
-                     LocalTime start1, LocalTime end1, LocalTime start2, LocalTime end2) {
-           this.id1 = id1;
-           this.id2 = id2;
-           this.day1 = day1;
-           this.day2 = day2;
-           this.start1 = start1;
-           this.end1 = end1;
-           this.start2 = start2;
-           this.end2 = end2;
-       }
-       
-       @Override
-       public boolean equals(Object o) {
-           if (this == o) return true;
-           if (o == null || getClass() != o.getClass()) return false;
-           CacheKey cacheKey = (CacheKey) o;
-           return id1 == cacheKey.id1 &&
-                  id2 == cacheKey.id2 &&
-                  Objects.equals(day1, cacheKey.day1) &&
-                  Objects.equals(day2, cacheKey.day2) &&
-                  Objects.equals(start1, cacheKey.start1) &&
-                  Objects.equals(end1, cacheKey.end1) &&
-                  Objects.equals(start2, cacheKey.start2) &&
-                  Objects.equals(end2, cacheKey.end2);
-       }
-       
-       @Override
-       public int hashCode() {
-           return Objects.hash(id1, id2, day1, day2, start1, end1, start2, end2);
-       }
-   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,362 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Almacén compacto de aristas de conflicto.
+ * Cada arista se identifica por el par de IDs de asignación empaquetado en un long
+ * (ID menor en los 32 bits altos, ID mayor en los bajos) y guarda los tipos de conflicto
+ * del par como una máscara de bits ({@link ConflictType#mask()}) en un short. Claves y
+ * máscaras viven en arrays primitivos de una tabla hash de direccionamiento abierto, sin
+ * objetos por arista, y un índice de adyacencia ({@link ConflictAdjacency}) permite consultar
+ * o eliminar las aristas de una asignación en O(grado), sin recorrer ni parsear todas las claves.
+ *
+ * Los auto-conflictos se guardan como la arista (id, id).
+ * La clase no es thread-safe; el llamador debe sincronizar el acceso.
+ */
+public class ConflictEdgeStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    // Tabla de direccionamiento abierto con sondeo lineal; una máscara 0 marca hueco libre
+    private long[] keys;
+    private short[] masks;
+    private int size;
+    private int threshold;
+
+    // Número total de tipos de conflicto registrados en todas las aristas
+    private int conflictCount;
+
+    // IDs vecinos de cada asignación con al menos una arista
+    private ConflictAdjacency adjacency = new ConflictAdjacency();
+
+    /**
+     * Crea un almacén vacío.
+     */
+    public ConflictEdgeStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Empaqueta un par de IDs en una clave única, independiente del orden de los argumentos.
+     *
+     * @param id1 ID de una asignación
+     * @param id2 ID de la otra asignación
+     * @return Clave del par
+     */
+    public static long pairKey(int id1, int id2) {
+        int low = Math.min(id1, id2);
+        int high = Math.max(id1, id2);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return ID menor de una clave de par
+     */
+    public static int firstId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * @return ID mayor de una clave de par
+     */
+    public static int secondId(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Registra un tipo de conflicto entre dos asignaciones.
+     *
+     * @param id1 ID de una asignación
+     * @param id2 ID de la otra asignación (igual a id1 para auto-conflictos)
+     * @param type Tipo de conflicto
+     * @return true si el tipo no estaba registrado para el par
+     * @throws NullPointerException si type es null
+     */
+    public boolean add(int id1, int id2, ConflictType type) {
+        Objects.requireNonNull(type, "El tipo de conflicto no puede ser null");
+        return addMask(id1, id2, type.mask());
+    }
+
+    /**
+     * Registra varios tipos de conflicto entre dos asignaciones en una sola operación.
+     *
+     * @param id1 ID de una asignación
+     * @param id2 ID de la otra asignación (igual a id1 para auto-conflictos)
+     * @param mask Máscara de tipos de conflicto; 0 no registra nada
+     * @return true si se añadió algún tipo que no estaba registrado para el par
+     */
+    public boolean addMask(int id1, int id2, int mask) {
+        if (mask == 0) {
+            return false;
+        }
+        long key = pairKey(id1, id2);
+        int slot = findSlot(key);
+        int current = masks[slot];
+        int merged = current | mask;
+        if (merged == current) {
+            return false;
+        }
+        masks[slot] = (short) merged;
+        conflictCount += Integer.bitCount(merged) - Integer.bitCount(current);
+        if (current == 0) {
+            keys[slot] = key;
+            adjacency.link(id1, id2);
+            if (++size > threshold) {
+                resize(keys.length << 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene la máscara de tipos de conflicto entre dos asignaciones.
+     *
+     * @return Máscara de tipos (0 si no hay arista)
+     */
+    public int getMask(int id1, int id2) {
+        return masks[findSlot(pairKey(id1, id2))];
+    }
+
+    /**
+     * @return true si existe una arista entre las dos asignaciones
+     */
+    public boolean contains(int id1, int id2) {
+        return getMask(id1, id2) != 0;
+    }
+
+    /**
+     * Obtiene los IDs de las asignaciones con las que la indicada tiene alguna arista,
+     * incluido su propio ID si tiene auto-conflictos.
+     *
+     * @param id ID de la asignación
+     * @return Copia de los IDs vecinos (vacía si no tiene aristas)
+     */
+    public int[] getNeighbors(int id) {
+        return adjacency.neighbors(id);
+    }
+
+    /**
+     * Recorre las aristas de una asignación con una única vista reutilizada, en O(grado).
+     * La vista recibida solo es válida durante la llamada; para conservarla debe copiarse.
+     *
+     * @param id ID de la asignación
+     * @param action Acción a ejecutar por cada arista; el ID origen de la vista es siempre id
+     */
+    public void forEachIncident(int id, Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        ConflictEdgeView view = new ConflictEdgeView();
+        adjacency.forEachNeighbor(id, neighbor -> action.accept(view.reset(id, neighbor, getMask(id, neighbor))));
+    }
+
+    /**
+     * @return Número de aristas de la asignación, contando el auto-conflicto si lo tiene
+     */
+    public int degree(int id) {
+        return adjacency.degree(id);
+    }
+
+    /**
+     * @return true si la asignación participa en alguna arista
+     */
+    public boolean hasEdges(int id) {
+        return adjacency.contains(id);
+    }
+
+    /**
+     * Elimina todas las aristas en las que participa una asignación, en O(grado).
+     *
+     * @param id ID de la asignación
+     * @param onNeighbor Acción a ejecutar por cada vecino desconectado, o null
+     * @return Número de aristas eliminadas
+     */
+    public int removeIncident(int id, IntConsumer onNeighbor) {
+        return adjacency.removeVertex(id, neighbor -> {
+            removeKey(pairKey(id, neighbor));
+            if (onNeighbor != null) {
+                onNeighbor.accept(neighbor);
+            }
+        });
+    }
+
+    /**
+     * Elimina todas las aristas en las que participa una asignación, en O(grado).
+     *
+     * @param id ID de la asignación
+     * @return Número de aristas eliminadas
+     */
+    public int removeIncident(int id) {
+        return removeIncident(id, null);
+    }
+
+    /**
+     * Recorre todas las aristas del almacén con una única vista reutilizada.
+     * La vista recibida solo es válida durante la llamada; para conservarla debe copiarse.
+     *
+     * @param action Acción a ejecutar por cada arista
+     */
+    public void forEach(Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        ConflictEdgeView view = new ConflictEdgeView();
+        for (int i = 0; i < keys.length; i++) {
+            if (masks[i] != 0) {
+                action.accept(view.reset(firstId(keys[i]), secondId(keys[i]), masks[i]));
+            }
+        }
+    }
+
+    /**
+     * Incorpora las aristas de otro almacén, uniendo los tipos de los pares repetidos.
+     *
+     * @param other Almacén a incorporar
+     */
+    public void putAll(ConflictEdgeStore other) {
+        Objects.requireNonNull(other, "El almacén no puede ser null");
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.masks[i] != 0) {
+                long key = other.keys[i];
+                addMask(firstId(key), secondId(key), other.masks[i]);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por el de otro almacén, construido por separado.
+     * El almacén origen no debe seguir usándose.
+     *
+     * @param other Almacén cuyo contenido se publica
+     */
+    public void replaceWith(ConflictEdgeStore other) {
+        Objects.requireNonNull(other, "El almacén no puede ser null");
+        keys = other.keys;
+        masks = other.masks;
+        size = other.size;
+        threshold = other.threshold;
+        conflictCount = other.conflictCount;
+        adjacency = other.adjacency;
+    }
+
+    /**
+     * Crea una copia independiente del almacén, que no se ve afectada por cambios posteriores.
+     *
+     * @return Nuevo almacén con las mismas aristas
+     */
+    public ConflictEdgeStore copy() {
+        ConflictEdgeStore copy = new ConflictEdgeStore();
+        copy.keys = keys.clone();
+        copy.masks = masks.clone();
+        copy.size = size;
+        copy.threshold = threshold;
+        copy.conflictCount = conflictCount;
+        copy.adjacency = adjacency.copy();
+        return copy;
+    }
+
+    /**
+     * Elimina todas las aristas.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+        conflictCount = 0;
+        adjacency.clear();
+    }
+
+    /**
+     * @return Número de aristas (pares de asignaciones con algún conflicto)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Número total de conflictos, contando cada tipo de cada arista
+     */
+    public int conflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * Posición que ocupa la clave, o el hueco libre donde debería insertarse.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = home(key, mask);
+        while (masks[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Elimina una clave desplazando hacia atrás las entradas de su misma secuencia de sondeo,
+     * de modo que no quedan marcas de borrado.
+     */
+    private void removeKey(long key) {
+        int slot = findSlot(key);
+        if (masks[slot] == 0) {
+            return;
+        }
+        conflictCount -= Integer.bitCount(masks[slot]);
+        size--;
+
+        int mask = keys.length - 1;
+        int gap = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (masks[i] == 0) {
+                break;
+            }
+            // La entrada puede ocupar el hueco si su posición ideal no está entre el hueco y ella
+            int ideal = home(keys[i], mask);
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                masks[gap] = masks[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0L;
+        masks[gap] = 0;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        short[] oldMasks = masks;
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldMasks[i] != 0) {
+                int slot = home(oldKeys[i], mask);
+                while (masks[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                masks[slot] = oldMasks[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        masks = new short[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int home(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        return "ConflictEdgeStore[aristas=" + size + ", conflictos=" + conflictCount
+            + ", capacidad=" + keys.length + "]";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cambios producidos en el grafo de conflictos por una edición incremental
+ * (ver {@link ConflictGraphLoader#updateAssignment(Assignment, Assignment)}).
+ *
+ * Las aristas se expresan como vistas con el menor ID como origen. Una arista cuyo conjunto
+ * de tipos cambia aparece como eliminada (máscara anterior) y añadida (máscara nueva).
+ * Los cambios de estado sin conflictos solo incluyen asignaciones presentes en el grafo
+ * tras la edición.
+ */
+public final class ConflictGraphDelta {
+
+    private final long version;
+    private final List<ConflictEdgeView> addedEdges;
+    private final List<ConflictEdgeView> removedEdges;
+    private final List<Assignment> becameConflictFree;
+    private final List<Assignment> lostConflictFree;
+
+    ConflictGraphDelta(long version, List<ConflictEdgeView> addedEdges, List<ConflictEdgeView> removedEdges,
+                       List<Assignment> becameConflictFree, List<Assignment> lostConflictFree) {
+        this.version = version;
+        this.addedEdges = Collections.unmodifiableList(addedEdges);
+        this.removedEdges = Collections.unmodifiableList(removedEdges);
+        this.becameConflictFree = Collections.unmodifiableList(becameConflictFree);
+        this.lostConflictFree = Collections.unmodifiableList(lostConflictFree);
+    }
+
+    /**
+     * @return Versión del grafo tras aplicar la edición
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Aristas nuevas o con máscara nueva
+     */
+    public List<ConflictEdgeView> getAddedEdges() {
+        return addedEdges;
+    }
+
+    /**
+     * @return Aristas eliminadas o con máscara anterior
+     */
+    public List<ConflictEdgeView> getRemovedEdges() {
+        return removedEdges;
+    }
+
+    /**
+     * @return Asignaciones que han quedado sin ningún conflicto
+     */
+    public List<Assignment> getBecameConflictFree() {
+        return becameConflictFree;
+    }
+
+    /**
+     * @return Asignaciones que estaban sin conflictos y ahora tienen alguno
+     */
+    public List<Assignment> getLostConflictFree() {
+        return lostConflictFree;
+    }
+
+    /**
+     * @return true si la edición no modificó aristas ni estados sin conflictos
+     */
+    public boolean isEmpty() {
+        return addedEdges.isEmpty() && removedEdges.isEmpty()
+            && becameConflictFree.isEmpty() && lostConflictFree.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ConflictGraphDelta[versión=" + version + ", añadidas=" + addedEdges.size()
+            + ", eliminadas=" + removedEdges.size() + ", sinConflictos=+" + becameConflictFree.size()
+            + "/-" + lostConflictFree.size() + "]";
+    }
+}
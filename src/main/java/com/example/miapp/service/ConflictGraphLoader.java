@@ -2,18 +2,33 @@ package com.example.miapp.service;
 
 import com.example.miapp.domain.Assignment;
 import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
 import com.example.miapp.domain.conflict.ConflictEdge;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
 import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.exception.DomainException;
 import com.example.miapp.repository.DataManager;
+import com.example.miapp.repository.MappedAssignmentStore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -21,31 +36,165 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * Servicio dedicado a la detección y gestión del grafo de conflictos entre asignaciones.
  * Refactorizado para trabajar con el nuevo modelo de dominio y el DataManager singleton.
+ *
+ * El grafo se divide en una {@link GraphPartition} por día de la semana, ya que solo hay
+ * conflictos entre asignaciones del mismo día; el {@link ConcurrencyMode} decide si todas
+ * las particiones comparten un lock o cada día tiene el suyo.
  */
 public class ConflictGraphLoader {
     private static final Logger logger = LoggerFactory.getLogger(ConflictGraphLoader.class);
 
+    /**
+     * Estrategia para seleccionar las asignaciones candidatas a conflicto.
+     */
+    public enum ScanStrategy {
+        /**
+         * Compara con todas las asignaciones del mismo día (comportamiento original).
+         */
+        LINEAR,
+
+        /**
+         * Compara solo con las asignaciones del mismo día que se solapan en el tiempo,
+         * usando un índice de intervalos por día.
+         */
+        INTERVAL_INDEX
+    }
+
+    /**
+     * Modo de sincronización entre escritores y lectores del grafo.
+     */
+    public enum ConcurrencyMode {
+        /**
+         * Un único lock de lectura/escritura para todo el grafo (comportamiento original).
+         */
+        GLOBAL_LOCK,
+
+        /**
+         * Un lock por día: las escrituras sobre días distintos avanzan en paralelo. Cada escritura
+         * publica en O(1) copias congeladas de los días que modifica (ver
+         * {@link GraphPartition#freeze()}), y las lecturas trabajan sobre una instantánea de los
+         * días publicados sin tomar nunca los locks de los días ni esperar a los escritores.
+         */
+        DAY_STRIPED
+    }
+
+    private static final int DAYS = DayOfWeek.values().length;
+
     // Gestores de datos y servicios
     private final DataManager dataManager;
     private final ConflictDetector conflictDetector;
+    private final ScanStrategy scanStrategy;
+    private final int parallelism;
+    private final ConcurrencyMode concurrencyMode;
+
+    // Grafo particionado por día normalizado; cada partición se protege con el lock de su día
+    private final GraphPartition[] partitions = new GraphPartition[DAYS];
 
-    // Colecciones de datos y conflictos (thread-safe)
-    private final Map<String, List<Assignment>> assignmentsByDay = new ConcurrentHashMap<>();
-    private final Map<String, List<ConflictEdge>> edgeConflicts = new ConcurrentHashMap<>();
-    private final Set<Assignment> conflictFreeAssignments = ConcurrentHashMap.newKeySet();
+    // Copias congeladas de las particiones publicadas por los escritores, por ordinal del día
+    private final AtomicReferenceArray<GraphPartition> published = new AtomicReferenceArray<>(DAYS);
 
-    // Locks para operaciones de lectura/escritura
+    // Publicaciones iniciadas y versión del grafo (publicaciones terminadas): cada escritura
+    // incrementa la primera antes de sustituir sus días y la segunda después
+    private final AtomicLong publications = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+
+    // Última instantánea creada a partir de los días publicados
+    private final AtomicReference<ConflictGraphSnapshot> snapshot = new AtomicReference<>();
+
+    // Locks para operaciones de lectura/escritura: en GLOBAL_LOCK todos los días comparten rwLock
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final Lock readLock = rwLock.readLock();
-    private final Lock writeLock = rwLock.writeLock();
+    private final ReadWriteLock[] dayLocks = new ReadWriteLock[DAYS];
 
     /**
-     * Construye un nuevo gestor de grafo de conflictos.
+     * Construye un nuevo gestor de grafo de conflictos con índice de intervalos por día.
      */
     public ConflictGraphLoader() {
+        this(ScanStrategy.INTERVAL_INDEX);
+    }
+
+    /**
+     * Construye un nuevo gestor de grafo de conflictos con la estrategia indicada
+     * y un paralelismo igual al número de procesadores disponibles.
+     * 
+     * @param scanStrategy Estrategia de búsqueda de candidatos (LINEAR permite comparar resultados)
+     * @throws NullPointerException si scanStrategy es null
+     */
+    public ConflictGraphLoader(ScanStrategy scanStrategy) {
+        this(scanStrategy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construye un nuevo gestor de grafo de conflictos con la estrategia y el paralelismo indicados.
+     * 
+     * @param scanStrategy Estrategia de búsqueda de candidatos (LINEAR permite comparar resultados)
+     * @param parallelism Número de hilos para la construcción en bloque (1 = secuencial)
+     * @throws NullPointerException si scanStrategy es null
+     * @throws IllegalArgumentException si parallelism es menor que 1
+     */
+    public ConflictGraphLoader(ScanStrategy scanStrategy, int parallelism) {
+        this(scanStrategy, parallelism, ConcurrencyMode.GLOBAL_LOCK);
+    }
+
+    /**
+     * Construye un nuevo gestor de grafo de conflictos con la estrategia, el paralelismo
+     * y el modo de concurrencia indicados.
+     * 
+     * @param scanStrategy Estrategia de búsqueda de candidatos (LINEAR permite comparar resultados)
+     * @param parallelism Número de hilos para la construcción en bloque (1 = secuencial)
+     * @param concurrencyMode Sincronización entre escritores y lectores
+     * @throws NullPointerException si scanStrategy o concurrencyMode son null
+     * @throws IllegalArgumentException si parallelism es menor que 1
+     */
+    public ConflictGraphLoader(ScanStrategy scanStrategy, int parallelism, ConcurrencyMode concurrencyMode) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1: " + parallelism);
+        }
         this.dataManager = DataManager.getInstance();
         this.conflictDetector = new ConflictDetector();
-        logger.info("ConflictGraphLoader inicializado");
+        this.scanStrategy = Objects.requireNonNull(scanStrategy, "La estrategia no puede ser null");
+        this.parallelism = parallelism;
+        this.concurrencyMode = Objects.requireNonNull(concurrencyMode, "El modo de concurrencia no puede ser null");
+        
+        GraphPartition[] initial = new GraphPartition[DAYS];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int i = day.ordinal();
+            dayLocks[i] = concurrencyMode == ConcurrencyMode.DAY_STRIPED ? new ReentrantReadWriteLock() : rwLock;
+            partitions[i] = newPartition(day);
+            initial[i] = partitions[i].freeze();
+            published.set(i, initial[i]);
+        }
+        snapshot.set(new ConflictGraphSnapshot(0, initial));
+        logger.info("ConflictGraphLoader inicializado con estrategia {}, paralelismo {} y concurrencia {}", 
+                  scanStrategy, parallelism, concurrencyMode);
+    }
+
+    /**
+     * Obtiene la estrategia de búsqueda de candidatos en uso.
+     */
+    public ScanStrategy getScanStrategy() {
+        return scanStrategy;
+    }
+
+    /**
+     * Obtiene el número de hilos usados en la construcción en bloque.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Obtiene el modo de sincronización entre escritores y lectores.
+     */
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de solapamientos del detector de conflictos.
+     */
+    public OverlapCache.Stats getOverlapCacheStats() {
+        return conflictDetector.getCacheStats();
     }
 
     /**
@@ -61,14 +210,12 @@ public class ConflictGraphLoader {
         List<Assignment> assignments = dataManager.getAllAssignments();
         logger.info("Cargando {} asignaciones desde DataManager", assignments.size());
         
-        // Procesar cada asignación
-        for (Assignment assignment : assignments) {
-            addAssignment(assignment);
-        }
+        // Procesar las asignaciones (en bloque salvo con la estrategia lineal original)
+        loadAssignments(assignments);
         
         Instant end = Instant.now();
         logger.info("==== loadAllAssignments END: {} ms, {} conflictos detectados ====", 
-                    Duration.between(start, end).toMillis(), edgeConflicts.size());
+                    Duration.between(start, end).toMillis(), edgeCount());
     }
 
     /**
@@ -77,17 +224,14 @@ public class ConflictGraphLoader {
      * @return Lista con todas las asignaciones (nunca null, puede estar vacía)
      */
     public List<Assignment> getAllAssignments() {
-        readLock.lock();
-        try {
+        return readAll(days -> {
             List<Assignment> result = new ArrayList<>();
-            for (List<Assignment> dayAssignments : assignmentsByDay.values()) {
-                result.addAll(dayAssignments);
+            for (GraphPartition partition : days) {
+                result.addAll(partition.getAssignments());
             }
             logger.debug("getAllAssignments called, returning {} items", result.size());
             return result;
-        } finally {
-            readLock.unlock();
-        }
+        });
     }
     
     /**
@@ -108,33 +252,775 @@ public class ConflictGraphLoader {
         
         logger.info("Generadas {} asignaciones aleatorias", generatedAssignments.size());
         
-        // Procesar cada asignación generada
-        for (Assignment assignment : generatedAssignments) {
-            addAssignment(assignment);
-        }
+        // Procesar las asignaciones generadas
+        loadAssignments(generatedAssignments);
         
         Instant end = Instant.now();
         logger.info("==== loadRandomAssignments END: {} ms, {} conflictos detectados ====", 
-                    Duration.between(start, end).toMillis(), edgeConflicts.size());
+                    Duration.between(start, end).toMillis(), edgeCount());
+    }
+    
+    /**
+     * Carga un conjunto de asignaciones usando el camino adecuado a la estrategia.
+     * Con LINEAR se conserva la carga incremental original para poder comparar resultados.
+     */
+    private void loadAssignments(List<Assignment> assignments) {
+        if (scanStrategy == ScanStrategy.LINEAR) {
+            for (Assignment assignment : assignments) {
+                addAssignment(assignment);
+            }
+        } else {
+            bulkLoad(assignments);
+        }
+        logger.debug("Caché de solapamientos tras la carga: {}", conflictDetector.getCacheStats());
+    }
+
+    /**
+     * Construye el grafo completo a partir de una colección de asignaciones en una sola pasada.
+     * Agrupa las asignaciones por día, ordena cada grupo por hora de inicio y lo recorre con
+     * un barrido que emite todos los pares solapados.
+     * Los grupos son independientes entre sí, ya que asignaciones de días distintos nunca entran
+     * en conflicto, y se procesan en un ForkJoinPool con el paralelismo configurado. El grafo
+     * resultante sustituye al actual bajo los locks de escritura de todos los días y se publica
+     * en un único paso.
+     * 
+     * Las aristas coinciden exactamente con las que produciría llamar a {@link #addAssignment}
+     * para cada asignación en el orden de iteración de la colección.
+     * 
+     * @param assignments Asignaciones a cargar
+     * @throws NullPointerException si assignments es null o contiene elementos null
+     */
+    public void bulkLoad(Collection<Assignment> assignments) {
+        Objects.requireNonNull(assignments, "La colección de asignaciones no puede ser null");
+        
+        logger.debug("--> bulkLoad START: {} asignaciones, paralelismo {}", 
+                   assignments.size(), parallelism);
+        Instant start = Instant.now();
+        
+        // 1. Agrupar por día conservando el orden de llegada
+        Map<DayOfWeek, List<SweepEntry>> entriesByDay = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, List<Assignment>> assignmentsByDay = new EnumMap<>(DayOfWeek.class);
+        int order = 0;
+        for (Assignment assignment : assignments) {
+            Objects.requireNonNull(assignment, "La asignación no puede ser null");
+            entriesByDay
+                .computeIfAbsent(assignment.getDayOfWeek(), k -> new ArrayList<>())
+                .add(new SweepEntry(assignment, order++));
+            assignmentsByDay
+                .computeIfAbsent(assignment.getDayOfWeek(), k -> new ArrayList<>())
+                .add(assignment);
+        }
+        
+        // 2. Dividir el trabajo en unidades independientes y construir las aristas de cada día
+        List<SweepUnit> units = createSweepUnits(entriesByDay);
+        Map<DayOfWeek, ConflictEdgeStore> edgesByDay = buildEdges(units);
+        
+        // 3. Recoger los índices construidos por cada unidad
+        Map<DayOfWeek, AssignmentIntervalIndex> intervalIndexes = new EnumMap<>(DayOfWeek.class);
+        for (SweepUnit unit : units) {
+            if (unit.index != null) {
+                intervalIndexes.put(unit.day, unit.index);
+            }
+        }
+        
+        // 4. Montar las particiones; las asignaciones sin aristas son las libres de conflictos
+        GraphPartition[] newPartitions = new GraphPartition[DAYS];
+        int edgeCount = 0;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            GraphPartition partition = new GraphPartition(day,
+                scanStrategy == ScanStrategy.INTERVAL_INDEX
+                    ? intervalIndexes.getOrDefault(day, new AssignmentIntervalIndex()) : null);
+            partition.load(assignmentsByDay.getOrDefault(day, Collections.emptyList()),
+                           edgesByDay.getOrDefault(day, new ConflictEdgeStore()));
+            newPartitions[day.ordinal()] = partition;
+            edgeCount += partition.getEdgeCount();
+        }
+        
+        // 5. Publicar el grafo en un único paso
+        lockAllDays();
+        try {
+            System.arraycopy(newPartitions, 0, partitions, 0, DAYS);
+            publishAll();
+        } finally {
+            unlockAllDays();
+        }
+        
+        logger.debug("<-- bulkLoad END: {} aristas, {} unidades ({} ms)", 
+                   edgeCount, units.size(), Duration.between(start, Instant.now()).toMillis());
+    }
+    
+    /**
+     * Crea las unidades de trabajo de la construcción en bloque: una para los auto-conflictos
+     * de cada día y una de barrido por día.
+     */
+    private List<SweepUnit> createSweepUnits(Map<DayOfWeek, List<SweepEntry>> entriesByDay) {
+        List<SweepUnit> units = new ArrayList<>();
+        
+        for (Map.Entry<DayOfWeek, List<SweepEntry>> dayEntry : entriesByDay.entrySet()) {
+            DayOfWeek day = dayEntry.getKey();
+            List<SweepEntry> dayEntries = dayEntry.getValue();
+            units.add(new SweepUnit(day, dayEntries, true));
+            // Barrido sobre el día completo
+            units.add(new SweepUnit(day, new ArrayList<>(dayEntries), false));
+        }
+        
+        return units;
+    }
+    
+    /**
+     * Ejecuta las unidades de trabajo y combina sus aristas en un almacén por día. Con
+     * paralelismo mayor que 1 las unidades se reparten en un ForkJoinPool dedicado que se
+     * cierra al terminar, con una tarea raíz por día.
+     */
+    private Map<DayOfWeek, ConflictEdgeStore> buildEdges(List<SweepUnit> units) {
+        Map<DayOfWeek, ConflictEdgeStore> edgesByDay = new EnumMap<>(DayOfWeek.class);
+        if (parallelism <= 1 || units.size() <= 1) {
+            for (SweepUnit unit : units) {
+                unit.build(edgesByDay.computeIfAbsent(unit.day, k -> new ConflictEdgeStore()));
+            }
+            return edgesByDay;
+        }
+        
+        Map<DayOfWeek, List<SweepUnit>> unitsByDay = new EnumMap<>(DayOfWeek.class);
+        for (SweepUnit unit : units) {
+            unitsByDay.computeIfAbsent(unit.day, k -> new ArrayList<>()).add(unit);
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Map<DayOfWeek, ForkJoinTask<ConflictEdgeStore>> tasks = new EnumMap<>(DayOfWeek.class);
+            unitsByDay.forEach((day, dayUnits) -> 
+                tasks.put(day, pool.submit(new EdgeBuildTask(dayUnits, 0, dayUnits.size()))));
+            tasks.forEach((day, task) -> edgesByDay.put(day, task.join()));
+            return edgesByDay;
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Recorre una lista ordenada por hora de inicio, emitiendo cada par de asignaciones
+     * solapadas exactamente una vez.
+     * 
+     * @param firstNewOrder Orden de llegada a partir del cual las entradas son nuevas; los
+     *                      pares entre entradas anteriores ya están en el grafo y se omiten
+     */
+    private void sweep(List<SweepEntry> sortedEntries, ConflictEdgeStore edges, int firstNewOrder) {
+        List<SweepEntry> active = new ArrayList<>();
+        
+        for (SweepEntry current : sortedEntries) {
+            // Descartar las asignaciones activas que terminan antes de que empiece la actual
+            active.removeIf(entry -> entry.end < current.start);
+            
+            // Todas las activas empiezan antes y terminan después del inicio de la actual
+            for (SweepEntry other : active) {
+                if (other.order < firstNewOrder && current.order < firstNewOrder) {
+                    continue;
+                }
+                checkSweepPair(other, current, edges);
+            }
+            
+            active.add(current);
+        }
+    }
+    
+    /**
+     * Comprueba un par solapado del barrido aplicando las mismas reglas que la carga
+     * incremental: la asignación que llega primero actúa como existente y solo se compara
+     * si su ID es menor que el de la que llega después.
+     */
+    private void checkSweepPair(SweepEntry a, SweepEntry b, ConflictEdgeStore edges) {
+        Assignment existing = a.order < b.order ? a.assignment : b.assignment;
+        Assignment incoming = a.order < b.order ? b.assignment : a.assignment;
+        
+        if (existing.getId() >= incoming.getId()) {
+            return;
+        }
+        if (!conflictDetector.timeOverlaps(existing, incoming)) {
+            return;
+        }
+        
+        edges.addMask(existing.getId(), incoming.getId(), existing.pairConflictMask(incoming));
+    }
+    
+    // Orden del barrido: hora de inicio y, a igualdad, ID
+    private static final Comparator<SweepEntry> SWEEP_ORDER = 
+        Comparator.<SweepEntry>comparingInt(e -> e.start).thenComparingInt(e -> e.assignment.getId());
+    
+    /**
+     * Entrada del barrido con el orden de llegada y los límites en segundos del día.
+     */
+    private static final class SweepEntry {
+        final Assignment assignment;
+        final int order;
+        final int start;
+        final int end;
+        
+        SweepEntry(Assignment assignment, int order) {
+            this.assignment = assignment;
+            this.order = order;
+            this.start = assignment.getStartTime().toSecondOfDay();
+            this.end = assignment.getEndTime().toSecondOfDay();
+        }
+    }
+    
+    /**
+     * Unidad de trabajo independiente de la construcción en bloque: los auto-conflictos de un
+     * día, o el barrido de un día. Las aristas de unidades distintas
+     * nunca comparten par, por lo que pueden combinarse sin resolver colisiones.
+     */
+    private final class SweepUnit {
+        final DayOfWeek day;
+        final List<SweepEntry> entries;
+        final boolean selfChecks;
+        AssignmentIntervalIndex index; // Índice del grupo barrido, creado en build()
+        
+        SweepUnit(DayOfWeek day, List<SweepEntry> entries, boolean selfChecks) {
+            this.day = day;
+            this.entries = entries;
+            this.selfChecks = selfChecks;
+        }
+        
+        void build(ConflictEdgeStore edges) {
+            if (selfChecks) {
+                for (SweepEntry entry : entries) {
+                    int id = entry.assignment.getId();
+                    edges.addMask(id, id, detectSelfConflicts(entry.assignment));
+                }
+                return;
+            }
+            
+            entries.sort(SWEEP_ORDER);
+            sweep(entries, edges, 0);
+            
+            // Las entradas ya están ordenadas, así que cada inserción va al final del índice
+            index = new AssignmentIntervalIndex();
+            for (SweepEntry entry : entries) {
+                index.add(entry.assignment);
+            }
+        }
+    }
+    
+    /**
+     * Tarea fork/join que divide la lista de unidades por la mitad hasta llegar a unidades
+     * individuales y combina los almacenes de aristas resultantes.
+     */
+    private final class EdgeBuildTask extends RecursiveTask<ConflictEdgeStore> {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient List<SweepUnit> units;
+        private final int from;
+        private final int to;
+        
+        EdgeBuildTask(List<SweepUnit> units, int from, int to) {
+            this.units = units;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected ConflictEdgeStore compute() {
+            if (to - from == 1) {
+                ConflictEdgeStore edges = new ConflictEdgeStore();
+                units.get(from).build(edges);
+                return edges;
+            }
+            
+            int mid = (from + to) >>> 1;
+            EdgeBuildTask left = new EdgeBuildTask(units, from, mid);
+            left.fork();
+            ConflictEdgeStore rightEdges = new EdgeBuildTask(units, mid, to).compute();
+            ConflictEdgeStore leftEdges = left.join();
+            
+            // Volcar el almacén pequeño en el grande
+            if (leftEdges.size() < rightEdges.size()) {
+                rightEdges.putAll(leftEdges);
+                return rightEdges;
+            }
+            leftEdges.putAll(rightEdges);
+            return leftEdges;
+        }
+    }
+    
+    /**
+     * Detecta los conflictos de las asignaciones de un {@link MappedAssignmentStore}
+     * recorriendo directamente sus columnas, sin materializar objetos Assignment ni
+     * construir el grafo en memoria, de modo que funciona con más asignaciones de las que
+     * caben en el heap. Cada arista se entrega a la acción en cuanto se encuentra.
+     * 
+     * Las aristas coinciden con las que produciría {@link #bulkLoad} con las asignaciones
+     * vigentes del almacén en orden de fila. Para los auto-conflictos se consultan profesor,
+     * aula y materia en el DataManager; las filas cuyas referencias no están cargadas solo
+     * se comparan por pares. Los días se procesan de uno en uno: la memoria de trabajo es de
+     * 8 bytes por asignación del día más las asignaciones activas del barrido.
+     * 
+     * El grafo del cargador no se modifica.
+     * 
+     * @param store Almacén a recorrer; no debe modificarse durante el recorrido
+     * @param action Acción que recibe cada arista; la vista se reutiliza y solo es válida
+     *               durante la llamada
+     * @return Número de aristas entregadas
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public long scanStore(MappedAssignmentStore store, Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(store, "El almacén no puede ser null");
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        
+        logger.debug("--> scanStore START: {} filas en {}", store.getRowCount(), store.getDirectory());
+        Instant start = Instant.now();
+        
+        // 1. Contar las filas vigentes de cada día
+        int rows = store.getRowCount();
+        int[] rowsPerDay = new int[DAYS];
+        for (int row = 0; row < rows; row++) {
+            if (store.isLive(row)) {
+                rowsPerDay[store.getDayOrdinal(row)]++;
+            }
+        }
+        
+        ConflictEdgeView view = new ConflictEdgeView();
+        long edgeCount = 0;
+        int unresolved = 0;
+        for (int day = 0; day < DAYS; day++) {
+            if (rowsPerDay[day] == 0) {
+                continue;
+            }
+            
+            // 2. Ordenar las filas del día por hora de inicio: (inicio << 32) | fila
+            long[] keys = new long[rowsPerDay[day]];
+            int count = 0;
+            for (int row = 0; row < rows; row++) {
+                if (store.isLive(row) && store.getDayOrdinal(row) == day) {
+                    keys[count++] = ((long) store.getStartSecond(row) << 32) | row;
+                }
+            }
+            Arrays.sort(keys);
+            
+            // 3. Barrido: auto-conflictos de cada fila y pares con las activas que se solapan
+            int[] active = new int[16];
+            int activeCount = 0;
+            for (long key : keys) {
+                int row = (int) key;
+                int rowStart = (int) (key >>> 32);
+                
+                int selfMask = storeSelfConflicts(store, row);
+                if (selfMask < 0) {
+                    unresolved++;
+                } else if (selfMask != 0) {
+                    int id = store.getId(row);
+                    action.accept(view.reset(id, id, selfMask));
+                    edgeCount++;
+                }
+                
+                int kept = 0;
+                for (int i = 0; i < activeCount; i++) {
+                    int other = active[i];
+                    if (store.getEndSecond(other) < rowStart) {
+                        continue;
+                    }
+                    active[kept++] = other;
+                    
+                    // La fila anterior actúa como existente, igual que el orden de llegada en bulkLoad
+                    int existing = Math.min(other, row);
+                    int incoming = Math.max(other, row);
+                    int existingId = store.getId(existing);
+                    int incomingId = store.getId(incoming);
+                    if (existingId >= incomingId) {
+                        continue;
+                    }
+                    int pairMask = storePairConflictMask(store, existing, incoming);
+                    if (pairMask != 0) {
+                        action.accept(view.reset(existingId, incomingId, pairMask));
+                        edgeCount++;
+                    }
+                }
+                activeCount = kept;
+                
+                if (activeCount == active.length) {
+                    active = Arrays.copyOf(active, activeCount * 2);
+                }
+                active[activeCount++] = row;
+            }
+        }
+        
+        if (unresolved > 0) {
+            logger.warn("{} asignaciones del almacén con profesor, aula o materia no cargados: " +
+                       "se omiten sus auto-conflictos", unresolved);
+        }
+        logger.debug("<-- scanStore END: {} aristas ({} ms)", 
+                   edgeCount, Duration.between(start, Instant.now()).toMillis());
+        return edgeCount;
+    }
+    
+    /**
+     * Máscara de conflictos de un par solapado de filas del almacén; equivale a
+     * {@link Assignment#pairConflictMask} de la fila existente con la entrante.
+     */
+    private static int storePairConflictMask(MappedAssignmentStore store, int existing, int incoming) {
+        int mask = 0;
+        boolean sameProfessor = store.getProfessorId(existing) == store.getProfessorId(incoming);
+        if (sameProfessor) {
+            mask |= ConflictType.PROFESSOR.mask();
+        }
+        if (store.getRoomId(existing) == store.getRoomId(incoming)) {
+            mask |= ConflictType.ROOM.mask();
+        }
+        if (store.getGroupId(existing) == store.getGroupId(incoming)) {
+            mask |= ConflictType.GROUP.mask();
+        }
+        if (store.getSessionTypeCode(existing) == store.getSessionTypeCode(incoming)) {
+            mask |= ConflictType.SESSION_TYPE.mask();
+        }
+        if (sameProfessor) {
+            int s1 = store.getStartSecond(existing);
+            int e1 = store.getEndSecond(existing);
+            int s2 = store.getStartSecond(incoming);
+            int e2 = store.getEndSecond(incoming);
+            boolean workload = (s1 % 60 == 0 && e1 % 60 == 0 && s2 % 60 == 0 && e2 % 60 == 0)
+                ? TimeSlot.hasWorkloadConflict(s1 / 60, e1 / 60, s2 / 60, e2 / 60)
+                : TimeSlot.hasWorkloadConflict(LocalTime.ofSecondOfDay(s1), LocalTime.ofSecondOfDay(e1),
+                                               LocalTime.ofSecondOfDay(s2), LocalTime.ofSecondOfDay(e2));
+            if (workload) {
+                mask |= ConflictType.PROFESSOR_WORKLOAD.mask();
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Auto-conflictos de una fila del almacén, con las mismas reglas que
+     * {@link #detectSelfConflicts}.
+     * 
+     * @return Máscara de auto-conflictos, o -1 si alguna referencia no está en el DataManager
+     */
+    private int storeSelfConflicts(MappedAssignmentStore store, int row) {
+        Professor professor = dataManager.getProfessor(store.getProfessorId(row));
+        Room room = dataManager.getRoom(store.getRoomId(row));
+        String subjectCode = store.getSubjectCode(row);
+        Subject subject = subjectCode != null ? dataManager.getSubject(subjectCode) : null;
+        if (professor == null || room == null || (subjectCode != null && subject == null)) {
+            return -1;
+        }
+        
+        int mask = 0;
+        int startSecond = store.getStartSecond(row);
+        int endSecond = store.getEndSecond(row);
+        boolean blocked = (startSecond % 60 == 0 && endSecond % 60 == 0)
+            ? professor.hasBlockedSlotConflict(store.getDayOrdinal(row), startSecond / 60, endSecond / 60)
+            : professor.hasBlockedSlotConflict(store.getDayName(row),
+                                               LocalTime.ofSecondOfDay(startSecond), LocalTime.ofSecondOfDay(endSecond));
+        if (blocked) {
+            mask |= ConflictType.PROFESSOR_BLOCKED.mask();
+        }
+        if (subject != null && !professor.hasSubject(subjectCode)) {
+            mask |= ConflictType.PROFESSOR_SUBJECT_MISMATCH.mask();
+        }
+        if (!room.hasCapacityFor(store.getEnrolledStudents(row))) {
+            mask |= ConflictType.ROOM_CAPACITY.mask();
+        }
+        if (subject != null && !room.isCompatibleWithLabRequirement(subject.requiresLab())) {
+            mask |= ConflictType.ROOM_COMPATIBILITY.mask();
+        }
+        return mask;
+    }
+    
+    /**
+     * Añade varias asignaciones en una sola operación. Equivale a {@link #applyBatch}
+     * sin eliminaciones.
+     * 
+     * @param assignments Asignaciones a añadir, en orden de llegada
+     * @return Versión del grafo tras aplicar el lote
+     * @throws NullPointerException si la colección o alguno de sus elementos es null
+     */
+    public long addAll(Collection<Assignment> assignments) {
+        return applyBatch(assignments, Collections.emptyList());
+    }
+    
+    /**
+     * Aplica un lote de eliminaciones y altas como una única transacción: se toman una sola
+     * vez los locks de los días afectados y todos los cambios se publican juntos, de modo que
+     * los lectores nunca ven un lote a medias.
+     * 
+     * El resultado es el mismo que llamar a {@link #removeAssignment} con cada eliminación y
+     * después a {@link #addAssignment} con cada alta, en orden. Cuando las altas de un día son
+     * al menos tantas como las asignaciones que ya tiene (o con la estrategia LINEAR), se
+     * comparan mediante un barrido del día en el que cada par se evalúa una sola vez y
+     * nunca se repiten los pares entre asignaciones ya existentes.
+     * 
+     * @param adds Asignaciones a añadir, en orden de llegada
+     * @param removes Asignaciones a eliminar; las que no están en el grafo se ignoran
+     * @return Versión del grafo tras aplicar el lote
+     * @throws NullPointerException si alguna colección o alguno de sus elementos es null
+     */
+    public long applyBatch(Collection<Assignment> adds, Collection<Assignment> removes) {
+        Objects.requireNonNull(adds, "La colección de altas no puede ser null");
+        Objects.requireNonNull(removes, "La colección de eliminaciones no puede ser null");
+        
+        logger.debug("--> applyBatch START: {} altas, {} eliminaciones", adds.size(), removes.size());
+        Instant start = Instant.now();
+        
+        // 1. Agrupar por día, conservando el orden de cada colección
+        List<List<Assignment>> addsByDay = groupByDay(adds);
+        List<List<Assignment>> removesByDay = groupByDay(removes);
+        List<Integer> touchedDays = new ArrayList<>();
+        for (int i = 0; i < DAYS; i++) {
+            if (!addsByDay.get(i).isEmpty() || !removesByDay.get(i).isEmpty()) {
+                touchedDays.add(i);
+            }
+        }
+        if (touchedDays.isEmpty()) {
+            return version.get();
+        }
+        
+        // 2. Bloquear los días afectados en orden creciente (un único lock en GLOBAL_LOCK)
+        List<Lock> locks = new ArrayList<>();
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            locks.add(rwLock.writeLock());
+        } else {
+            for (int dayIndex : touchedDays) {
+                locks.add(dayLocks[dayIndex].writeLock());
+            }
+        }
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+        try {
+            GraphPartition[] changed = new GraphPartition[touchedDays.size()];
+            int removed = 0;
+            for (int i = 0; i < changed.length; i++) {
+                int dayIndex = touchedDays.get(i);
+                GraphPartition partition = partitions[dayIndex];
+                
+                // 3. Eliminaciones del día con sus aristas
+                for (Assignment assignment : removesByDay.get(dayIndex)) {
+                    if (partition.remove(assignment)) {
+                        removed++;
+                    }
+                }
+                
+                // 4. Altas del día, por barrido o una a una con el índice de candidatos
+                List<Assignment> dayAdds = addsByDay.get(dayIndex);
+                if (dayAdds.size() > 1 && (scanStrategy == ScanStrategy.LINEAR || dayAdds.size() >= partition.size())) {
+                    sweepBatch(partition, dayAdds);
+                } else {
+                    for (Assignment assignment : dayAdds) {
+                        insert(partition, assignment);
+                    }
+                }
+                changed[i] = partition;
+            }
+            
+            // 5. Publicar todos los días en un único paso
+            long graphVersion = publish(touchedDays.stream().mapToInt(Integer::intValue).toArray());
+            logger.debug("<-- applyBatch END: {} altas, {} eliminadas, {} días, versión {} ({} ms)", 
+                       adds.size(), removed, changed.length, graphVersion,
+                       Duration.between(start, Instant.now()).toMillis());
+            return graphVersion;
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+    
+    /**
+     * Agrupa asignaciones por ordinal del día, conservando su orden.
+     */
+    private static List<List<Assignment>> groupByDay(Collection<Assignment> assignments) {
+        List<List<Assignment>> byDay = new ArrayList<>(DAYS);
+        for (int i = 0; i < DAYS; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (Assignment assignment : assignments) {
+            Objects.requireNonNull(assignment, "La asignación no puede ser null");
+            byDay.get(assignment.getDayOfWeek().ordinal()).add(assignment);
+        }
+        return byDay;
+    }
+    
+    /**
+     * Añade las altas de un día mediante un barrido sobre las asignaciones existentes y las
+     * nuevas, comparando solo los pares en los que interviene alguna alta.
+     */
+    private void sweepBatch(GraphPartition partition, List<Assignment> dayAdds) {
+        List<SweepEntry> entries = new ArrayList<>(partition.size() + dayAdds.size());
+        partition.forEachAssignment(assignment -> entries.add(new SweepEntry(assignment, entries.size())));
+        int firstNewOrder = entries.size();
+        
+        for (Assignment assignment : dayAdds) {
+            entries.add(new SweepEntry(assignment, entries.size()));
+            partition.add(assignment);
+            partition.addEdge(assignment.getId(), assignment.getId(), detectSelfConflicts(assignment));
+        }
+        
+        // Barrer sobre un almacén aparte y volcar solo las aristas nuevas en la partición
+        ConflictEdgeStore found = new ConflictEdgeStore();
+        entries.sort(SWEEP_ORDER);
+        sweep(entries, found, firstNewOrder);
+        found.forEach(edge -> {
+            partition.addEdge(edge.getSourceId(), edge.getTargetId(), edge.getMask());
+            // Las existentes que ganan aristas dejan de estar libres de conflictos
+            partition.removeConflictFree(edge.getSourceId());
+            partition.removeConflictFree(edge.getTargetId());
+        });
+        
+        for (Assignment assignment : dayAdds) {
+            if (!partition.hasEdges(assignment.getId())) {
+                partition.addConflictFree(assignment);
+            }
+        }
     }
     
     /**
      * Limpia todas las colecciones de datos y conflictos.
      */
     public void clear() {
-        writeLock.lock();
+        lockAllDays();
         try {
-            assignmentsByDay.clear();
-            edgeConflicts.clear();
-            conflictFreeAssignments.clear();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                partitions[day.ordinal()] = newPartition(day);
+            }
+            publishAll();
             logger.debug("Colecciones de datos y conflictos limpiadas");
         } finally {
-            writeLock.unlock();
+            unlockAllDays();
         }
     }
 
+    /**
+     * Crea la partición vacía de un día con los índices que requiere la estrategia.
+     */
+    private GraphPartition newPartition(DayOfWeek day) {
+        return new GraphPartition(day,
+            scanStrategy == ScanStrategy.INTERVAL_INDEX ? new AssignmentIntervalIndex() : null);
+    }
+    
+    /**
+     * Publica copias congeladas de las particiones modificadas y avanza la versión después de
+     * sustituirlas, de modo que los lectores ven todos los días de la escritura o ninguno (ver
+     * {@link #snapshot()}). Congelar cuesta O(1) por día. Debe llamarse con los locks de
+     * escritura de los días tomados.
+     * 
+     * @param dayIndexes Ordinales de los días modificados
+     * @return Versión del grafo tras la modificación
+     */
+    private long publish(int... dayIndexes) {
+        publications.incrementAndGet();
+        for (int dayIndex : dayIndexes) {
+            published.set(dayIndex, partitions[dayIndex].freeze());
+        }
+        return version.incrementAndGet();
+    }
+    
+    /**
+     * Publica todas las particiones. Debe llamarse con todos los locks tomados.
+     */
+    private void publishAll() {
+        int[] all = new int[DAYS];
+        Arrays.setAll(all, i -> i);
+        publish(all);
+    }
+    
+    /**
+     * Obtiene una instantánea inmutable y coherente del grafo, sin copiar asignaciones ni
+     * aristas y sin tomar ningún lock: se compone con los días publicados por los escritores.
+     * Si entre la lectura de la versión y la de los días empezó alguna publicación, los días
+     * podrían mezclar dos versiones y se vuelven a leer; como publicar solo sustituye unas
+     * pocas referencias, la espera es mínima y nunca depende de la duración de una escritura.
+     * 
+     * @return Instantánea actual del grafo
+     */
+    public ConflictGraphSnapshot snapshot() {
+        ConflictGraphSnapshot current = snapshot.get();
+        if (current.getVersion() == version.get()) {
+            return current;
+        }
+        
+        while (true) {
+            long graphVersion = version.get();
+            GraphPartition[] days = new GraphPartition[DAYS];
+            for (int i = 0; i < DAYS; i++) {
+                days[i] = published.get(i);
+            }
+            // Ninguna publicación iniciada desde que se leyó la versión: los días son los de esa versión
+            if (publications.get() == graphVersion) {
+                ConflictGraphSnapshot created = new ConflictGraphSnapshot(graphVersion, days);
+                snapshot.accumulateAndGet(created, (a, b) -> a.getVersion() >= b.getVersion() ? a : b);
+                return created;
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Toma los locks de escritura de todos los días, siempre en el mismo orden.
+     */
+    private void lockAllDays() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.writeLock().lock();
+            return;
+        }
+        for (ReadWriteLock lock : dayLocks) {
+            lock.writeLock().lock();
+        }
+    }
+    
+    private void unlockAllDays() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.writeLock().unlock();
+            return;
+        }
+        for (int i = DAYS - 1; i >= 0; i--) {
+            dayLocks[i].writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Ejecuta una lectura sobre las particiones de todos los días: en GLOBAL_LOCK sobre las
+     * particiones vivas bajo el lock de lectura, y en DAY_STRIPED sobre la instantánea actual
+     * (ver {@link #snapshot()}), sin tomar ningún lock.
+     */
+    private <T> T readAll(Function<GraphPartition[], T> reader) {
+        if (concurrencyMode == ConcurrencyMode.DAY_STRIPED) {
+            return reader.apply(snapshot().partitions());
+        }
+        readLock.lock();
+        try {
+            return reader.apply(partitions);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    /**
+     * Ejecuta una lectura sobre la partición de un día: en GLOBAL_LOCK bajo el lock de lectura,
+     * y en DAY_STRIPED sobre la última copia publicada del día, sin tomar ningún lock.
+     */
+    private <T> T readDay(DayOfWeek day, Function<GraphPartition, T> reader) {
+        if (concurrencyMode == ConcurrencyMode.DAY_STRIPED) {
+            return reader.apply(published.get(day.ordinal()));
+        }
+        readLock.lock();
+        try {
+            return reader.apply(partitions[day.ordinal()]);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    private int edgeCount() {
+        return readAll(days -> {
+            int count = 0;
+            for (GraphPartition partition : days) {
+                count += partition.getEdgeCount();
+            }
+            return count;
+        });
+    }
+
     /**
      * Añade una asignación al grafo, detectando todos sus posibles conflictos.
+     * Solo bloquea el día de la asignación en modo DAY_STRIPED.
      * 
      * @param assignment Asignación a añadir
      * @throws NullPointerException si assignment es null
@@ -145,67 +1031,20 @@ public class ConflictGraphLoader {
         logger.trace("--> addAssignment START id={}", assignment.getId());
         Instant start = Instant.now();
 
+        int dayIndex = assignment.getDayOfWeek().ordinal();
+        Lock writeLock = dayLocks[dayIndex].writeLock();
         writeLock.lock();
         try {
-            // Variable para controlar si hay algún conflicto
-            boolean hasAnyConflict = false;
-
-            // 1. Verificar conflictos con franjas bloqueadas del profesor
-            Professor professor = assignment.getProfessor();
-            if (assignment.hasBlockedSlotConflict()) {
-                recordSelfConflict(assignment, ConflictType.PROFESSOR_BLOCKED);
-                hasAnyConflict = true;
-                logger.debug("Assignment id={} has conflict with blocked slots of professor id={}", 
-                           assignment.getId(), professor.getId());
-            }
-            
-            // 2. Verificar si el profesor está autorizado para impartir la materia
-            if (!assignment.hasProfessorSubjectAuthorization()) {
-                recordSelfConflict(assignment, ConflictType.PROFESSOR_SUBJECT_MISMATCH);
-                hasAnyConflict = true;
-                logger.debug("Assignment id={} has professor-subject mismatch: Professor id={} is not authorized for subject {}",
-                          assignment.getId(), professor.getId(), 
-                          assignment.getSubject() != null ? assignment.getSubject().getCode() : "null");
-            }
-            
-            // 3. Verificar si el aula tiene capacidad suficiente
-            if (!assignment.hasRoomCapacity()) {
-                recordSelfConflict(assignment, ConflictType.ROOM_CAPACITY);
-                hasAnyConflict = true;
-                logger.debug("Assignment id={} exceeds room capacity: required={}, available={}",
-                          assignment.getId(), assignment.getEnrolledStudents(), 
-                          assignment.getRoom().getCapacity());
-            }
+            GraphPartition partition = partitions[dayIndex];
             
-            // 4. Verificar si el aula es compatible con la materia
-            if (!assignment.hasRoomCompatibility()) {
-                recordSelfConflict(assignment, ConflictType.ROOM_COMPATIBILITY);
-                hasAnyConflict = true;
-                logger.debug("Assignment id={} has room compatibility conflict: room={}, requires lab={}",
-                          assignment.getId(), assignment.getRoom().getName(),
-                          assignment.getSubject() != null ? assignment.getSubject().requiresLab() : false);
-            }
-
-            // 5. Verificar conflictos con otras asignaciones del mismo día
-            boolean hasAssignmentConflicts = checkConflictsWithExistingAssignments(assignment);
-            if (hasAssignmentConflicts) {
-                hasAnyConflict = true;
-                logger.debug("Assignment id={} has conflicts with other assignments", 
-                           assignment.getId());
-            }
-            
-            // 6. Añadir a la colección por día para futuras comprobaciones
-            addToAssignmentsByDay(assignment);
-            
-            // 7. Solo agregar a conflictFreeAssignments si no tiene ningún tipo de conflicto
-            if (!hasAnyConflict) {
-                conflictFreeAssignments.add(assignment);
+            if (insert(partition, assignment)) {
                 logger.debug("Assignment id={} is conflict-free", assignment.getId());
             } else {
                 logger.debug("Assignment id={} has conflicts and won't be added to conflict-free set", 
                            assignment.getId());
             }
             
+            publish(dayIndex);
         } finally {
             writeLock.unlock();
             logger.trace("<-- addAssignment END id={} ({} ms)", 
@@ -215,32 +1054,109 @@ public class ConflictGraphLoader {
     }
     
     /**
-     * Registra un conflicto de la asignación consigo misma (ej: franja bloqueada).
+     * Inserta una asignación en la partición de su día detectando sus conflictos.
+     * Debe llamarse con el lock de escritura del día tomado.
+     * 
+     * @return true si la asignación quedó sin conflictos
+     */
+    private boolean insert(GraphPartition partition, Assignment assignment) {
+        // Variable para controlar si hay algún conflicto
+        boolean hasAnyConflict = false;
+        
+        // Los candidatos se buscan antes de añadir la asignación a los índices
+        List<Assignment> candidates = findCandidates(partition, assignment);
+        partition.add(assignment);
+
+        // 1-4. Verificar franjas bloqueadas, autorización, capacidad y compatibilidad del aula
+        int selfConflicts = detectSelfConflicts(assignment);
+        if (selfConflicts != 0) {
+            recordSelfConflicts(partition, assignment, selfConflicts);
+            hasAnyConflict = true;
+        }
+
+        // 5. Verificar conflictos con otras asignaciones del mismo día
+        if (checkConflictsWithExistingAssignments(partition, assignment, candidates)) {
+            hasAnyConflict = true;
+            logger.debug("Assignment id={} has conflicts with other assignments", 
+                       assignment.getId());
+        }
+        
+        // 6. Solo agregar a las asignaciones sin conflictos si no tiene ningún tipo de conflicto
+        if (!hasAnyConflict) {
+            partition.addConflictFree(assignment);
+        }
+        return !hasAnyConflict;
+    }
+    
+    /**
+     * Detecta los conflictos de una asignación consigo misma, en el orden de registro:
+     * franja bloqueada, autorización profesor-materia, capacidad y compatibilidad del aula.
+     * 
+     * @return Máscara de tipos de auto-conflicto (0 si no hay ninguno)
+     */
+    private int detectSelfConflicts(Assignment assignment) {
+        int result = 0;
+        Professor professor = assignment.getProfessor();
+        
+        // 1. Verificar conflictos con franjas bloqueadas del profesor
+        if (assignment.hasBlockedSlotConflict()) {
+            result |= ConflictType.PROFESSOR_BLOCKED.mask();
+            logger.debug("Assignment id={} has conflict with blocked slots of professor id={}", 
+                       assignment.getId(), professor.getId());
+        }
+        
+        // 2. Verificar si el profesor está autorizado para impartir la materia
+        if (!assignment.hasProfessorSubjectAuthorization()) {
+            result |= ConflictType.PROFESSOR_SUBJECT_MISMATCH.mask();
+            logger.debug("Assignment id={} has professor-subject mismatch: Professor id={} is not authorized for subject {}",
+                      assignment.getId(), professor.getId(), 
+                      assignment.getSubject() != null ? assignment.getSubject().getCode() : "null");
+        }
+        
+        // 3. Verificar si el aula tiene capacidad suficiente
+        if (!assignment.hasRoomCapacity()) {
+            result |= ConflictType.ROOM_CAPACITY.mask();
+            logger.debug("Assignment id={} exceeds room capacity: required={}, available={}",
+                      assignment.getId(), assignment.getEnrolledStudents(), 
+                      assignment.getRoom().getCapacity());
+        }
+        
+        // 4. Verificar si el aula es compatible con la materia
+        if (!assignment.hasRoomCompatibility()) {
+            result |= ConflictType.ROOM_COMPATIBILITY.mask();
+            logger.debug("Assignment id={} has room compatibility conflict: room={}, requires lab={}",
+                      assignment.getId(), assignment.getRoom().getName(),
+                      assignment.getSubject() != null ? assignment.getSubject().requiresLab() : false);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Registra los conflictos de la asignación consigo misma (ej: franja bloqueada).
      */
-    private void recordSelfConflict(Assignment assignment, ConflictType conflictType) {
-        String key = assignment.getId() + "-" + assignment.getId();
-        edgeConflicts
-            .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
-            .add(new ConflictEdge(conflictType));
+    private void recordSelfConflicts(GraphPartition partition, Assignment assignment, int conflictMask) {
+        partition.addEdge(assignment.getId(), assignment.getId(), conflictMask);
         // Eliminar de la lista de asignaciones sin conflictos
-        conflictFreeAssignments.remove(assignment);
-        logger.debug("Recorded self-conflict for assignment id={}: {}", 
-                   assignment.getId(), conflictType.getLabel());
+        partition.removeConflictFree(assignment.getId());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Recorded self-conflicts for assignment id={}: {}", 
+                       assignment.getId(), ConflictType.fromMask(conflictMask));
+        }
     }
     
     /**
      * Verifica conflictos con asignaciones existentes del mismo día.
+     * Los candidatos dependen de la estrategia configurada (ver {@link ScanStrategy}).
      * @return true si se encontró algún conflicto
      */
-    private boolean checkConflictsWithExistingAssignments(Assignment assignment) {
-        List<Assignment> sameDay = assignmentsByDay.getOrDefault(
-            assignment.getDay(), Collections.emptyList());
-        
+    private boolean checkConflictsWithExistingAssignments(GraphPartition partition, Assignment assignment,
+                                                          List<Assignment> candidates) {
         boolean foundConflict = false;
         logger.trace("Checking conflicts for assignment id={} with {} existing assignments on {}",
-                  assignment.getId(), sameDay.size(), assignment.getDay());
+                  assignment.getId(), candidates.size(), assignment.getDay());
         
-        for (Assignment existing : sameDay) {
+        for (Assignment existing : candidates) {
             // Evitar comparar con asignaciones de ID mayor (ya comparadas o la misma)
             if (existing.getId() >= assignment.getId()) {
                 logger.trace("Skipping comparison with id={} (ID >= current)", existing.getId());
@@ -259,12 +1175,10 @@ public class ConflictGraphLoader {
                        existing.getId(), assignment.getId());
             
             // Verificar conflictos específicos
-            Map<String, List<ConflictEdge>> conflicts = existing.conflictsWith(assignment);
-            if (!conflicts.isEmpty()) {
-                recordConflicts(existing, assignment, conflicts);
+            int conflicts = existing.pairConflictMask(assignment);
+            if (conflicts != 0) {
+                recordConflicts(partition, existing, assignment, conflicts);
                 foundConflict = true;
-                logger.debug("Recorded {} conflict types between assignments {}-{}", 
-                           conflicts.size(), existing.getId(), assignment.getId());
             } else {
                 logger.trace("No specific conflicts found despite time overlap between {}-{}", 
                           existing.getId(), assignment.getId());
@@ -274,42 +1188,36 @@ public class ConflictGraphLoader {
         return foundConflict;
     }
     
+    /**
+     * Obtiene las asignaciones del mismo día que deben compararse con la indicada.
+     * Con INTERVAL_INDEX solo se devuelven las que se solapan en el tiempo.
+     */
+    private List<Assignment> findCandidates(GraphPartition partition, Assignment assignment) {
+        if (scanStrategy == ScanStrategy.LINEAR) {
+            return partition.getAssignments();
+        }
+        return partition.getIntervalIndex().findOverlapping(assignment);
+    }
+    
     /**
      * Registra conflictos entre dos asignaciones.
+     * 
+     * @param conflictMask Máscara de tipos de conflicto del par
      */
-    private void recordConflicts(Assignment a1, Assignment a2, 
-                               Map<String, List<ConflictEdge>> conflicts) {
-        String key = a1.getId() + "-" + a2.getId();
-        
-        // Registrar cada tipo de conflicto
-        conflicts.forEach((type, edges) -> {
-            logger.debug("Recording conflict of type '{}' between assignments {}-{}", 
-                       type, a1.getId(), a2.getId());
-            
-            edgeConflicts
-                .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
-                .addAll(edges);
-        });
+    private void recordConflicts(GraphPartition partition, Assignment a1, Assignment a2, int conflictMask) {
+        // Registrar todos los tipos de conflicto en una sola operación
+        partition.addEdge(a1.getId(), a2.getId(), conflictMask);
         
         // Eliminar ambas asignaciones de la lista de asignaciones sin conflictos
-        conflictFreeAssignments.remove(a1);
-        conflictFreeAssignments.remove(a2);
+        partition.removeConflictFree(a1.getId());
+        partition.removeConflictFree(a2.getId());
         
-        logger.debug("Conflict detected between assignments {} and {} with {} conflict types", 
-                   a1.getId(), a2.getId(), conflicts.size());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Conflict detected between assignments {} and {} with types {}", 
+                       a1.getId(), a2.getId(), ConflictType.fromMask(conflictMask));
+        }
     }
     
-    /**
-     * Añade una asignación a la colección indexada por día.
-     */
-    private void addToAssignmentsByDay(Assignment assignment) {
-        assignmentsByDay
-            .computeIfAbsent(assignment.getDay(), k -> Collections.synchronizedList(new ArrayList<>()))
-            .add(assignment);
-        logger.debug("Assignment id={} added to {} day collection", 
-                   assignment.getId(), assignment.getDay());
-    }
-
     /**
      * Elimina una asignación y todos sus conflictos asociados.
      * 
@@ -320,103 +1228,224 @@ public class ConflictGraphLoader {
         Objects.requireNonNull(assignment, "La asignación no puede ser null");
         
         logger.debug("Removing assignment id={}", assignment.getId());
+        int dayIndex = assignment.getDayOfWeek().ordinal();
+        Lock writeLock = dayLocks[dayIndex].writeLock();
         writeLock.lock();
         try {
-            // 1. Eliminar de la colección por día
-            List<Assignment> dayAssignments = assignmentsByDay.get(assignment.getDay());
-            if (dayAssignments != null) {
-                boolean removed = dayAssignments.remove(assignment);
-                if (!removed) {
-                    logger.debug("Assignment id={} not found in day collection", assignment.getId());
-                    return false;
-                }
-            } else {
-                logger.debug("No assignments found for day {}", assignment.getDay());
+            GraphPartition partition = partitions[dayIndex];
+            if (!partition.contains(assignment)) {
+                logger.debug("Assignment id={} not found in day collection", assignment.getId());
                 return false;
             }
             
-            // 2. Eliminar de conflictFreeAssignments
-            conflictFreeAssignments.remove(assignment);
+            // Eliminar de la partición del día junto con sus aristas, índices y estado sin conflictos
+            int removedEdges = partition.degree(assignment.getId());
+            partition.remove(assignment);
             
-            // 3. Eliminar todos los conflictos relacionados
-            int assignmentId = assignment.getId();
-            List<String> keysToRemove = new ArrayList<>();
+            logger.debug("Assignment id={} and {} related conflicts removed", 
+                       assignment.getId(), removedEdges);
             
-            for (String key : edgeConflicts.keySet()) {
-                String[] parts = key.split("-");
-                int id1 = Integer.parseInt(parts[0]);
-                int id2 = Integer.parseInt(parts[1]);
-                
-                if (id1 == assignmentId || id2 == assignmentId) {
-                    keysToRemove.add(key);
+            publish(dayIndex);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Sustituye una asignación del grafo por su versión editada (por ejemplo, con otro
+     * horario o aula) recalculando solo su vecindario: se eliminan las aristas de la
+     * asignación anterior y se compara la nueva con los candidatos de su día, sin
+     * reconstruir el grafo. A diferencia de {@link #addAssignment}, la nueva asignación se
+     * compara con todos los candidatos, sea cual sea su ID, de modo que el resultado coincide
+     * con el de una carga completa en orden de ID; y los vecinos que pierden su último conflicto vuelven a
+     * quedar sin conflictos. Solo se tocan las dos asignaciones, sus vecinos y los candidatos
+     * de la nueva, sin recorrer ni copiar el resto del día.
+     * 
+     * Si ambas asignaciones caen en días distintos se bloquean los dos días, y los cambios
+     * se publican en una sola instantánea.
+     * 
+     * @param oldAssignment Asignación presente en el grafo
+     * @param newAssignment Asignación que la reemplaza (puede conservar el mismo ID)
+     * @return Aristas añadidas y eliminadas y cambios de estado sin conflictos
+     * @throws NullPointerException si alguna asignación es null
+     * @throws IllegalArgumentException si oldAssignment no está en el grafo
+     */
+    public ConflictGraphDelta updateAssignment(Assignment oldAssignment, Assignment newAssignment) {
+        Objects.requireNonNull(oldAssignment, "La asignación anterior no puede ser null");
+        Objects.requireNonNull(newAssignment, "La nueva asignación no puede ser null");
+        
+        logger.trace("--> updateAssignment START id={} -> id={}", oldAssignment.getId(), newAssignment.getId());
+        Instant start = Instant.now();
+        
+        int oldDay = oldAssignment.getDayOfWeek().ordinal();
+        int newDay = newAssignment.getDayOfWeek().ordinal();
+        Lock firstLock = dayLocks[Math.min(oldDay, newDay)].writeLock();
+        Lock secondLock = dayLocks[Math.max(oldDay, newDay)].writeLock();
+        firstLock.lock();
+        if (secondLock != firstLock) {
+            secondLock.lock();
+        }
+        try {
+            GraphPartition oldPartition = partitions[oldDay];
+            if (!oldPartition.contains(oldAssignment)) {
+                throw new IllegalArgumentException("La asignación id=" + oldAssignment.getId() + " no está en el grafo");
+            }
+            
+            // 1. Retirar la asignación anterior, recordando sus aristas y vecinos
+            int oldId = oldAssignment.getId();
+            boolean wasConflictFree = oldPartition.isConflictFree(oldAssignment);
+            List<ConflictEdgeView> removedEdges = new ArrayList<>();
+            oldPartition.forEachIncident(oldId, edge ->
+                removedEdges.add(new ConflictEdgeView(Math.min(oldId, edge.getTargetId()),
+                                                      Math.max(oldId, edge.getTargetId()), edge.getMask())));
+            oldPartition.remove(oldAssignment);
+            
+            // 2. Comparar la nueva asignación consigo misma y con todos los candidatos del día
+            GraphPartition newPartition = partitions[newDay];
+            int newId = newAssignment.getId();
+            List<ConflictEdgeView> addedEdges = new ArrayList<>();
+            List<Assignment> lostConflictFree = new ArrayList<>();
+            
+            List<Assignment> candidates = findCandidates(newPartition, newAssignment);
+            newPartition.add(newAssignment);
+            int selfConflicts = detectSelfConflicts(newAssignment);
+            if (selfConflicts != 0) {
+                newPartition.addEdge(newId, newId, selfConflicts);
+                addedEdges.add(new ConflictEdgeView(newId, newId, selfConflicts));
+            }
+            for (Assignment existing : candidates) {
+                if (existing.getId() == newId || !conflictDetector.timeOverlaps(existing, newAssignment)) {
+                    continue;
+                }
+                int conflicts = existing.pairConflictMask(newAssignment);
+                if (conflicts != 0) {
+                    newPartition.addEdge(existing.getId(), newId, conflicts);
+                    addedEdges.add(new ConflictEdgeView(Math.min(existing.getId(), newId),
+                                                        Math.max(existing.getId(), newId), conflicts));
+                    if (newPartition.removeConflictFree(existing.getId())) {
+                        lostConflictFree.add(existing);
+                    }
                 }
             }
             
-            for (String key : keysToRemove) {
-                edgeConflicts.remove(key);
-                logger.debug("Removed conflict key {}", key);
+            // 3. Recalcular el estado sin conflictos de la asignación editada
+            List<Assignment> becameConflictFree = new ArrayList<>();
+            if (!newPartition.hasEdges(newId)) {
+                newPartition.addConflictFree(newAssignment);
+                if (!wasConflictFree) {
+                    becameConflictFree.add(newAssignment);
+                }
+            } else if (wasConflictFree) {
+                lostConflictFree.add(newAssignment);
             }
             
-            logger.debug("Assignment id={} and {} related conflicts removed", 
-                       assignment.getId(), keysToRemove.size());
+            // 4. Los vecinos anteriores que se han quedado sin aristas pasan a no tener conflictos,
+            //    resueltos por ID sin recorrer el día
+            for (ConflictEdgeView edge : removedEdges) {
+                int neighbor = edge.getSourceId() == oldId ? edge.getTargetId() : edge.getSourceId();
+                if (neighbor == oldId || oldPartition.hasEdges(neighbor)) {
+                    continue;
+                }
+                Assignment isolated = oldPartition.get(neighbor);
+                if (isolated != null && oldPartition.addConflictFree(isolated)) {
+                    becameConflictFree.add(isolated);
+                }
+            }
             
-            return true;
+            // 5. Las aristas que no cambian no forman parte del delta
+            if (!removedEdges.isEmpty() && !addedEdges.isEmpty()) {
+                Set<ConflictEdgeView> unchanged = new HashSet<>(removedEdges);
+                unchanged.retainAll(addedEdges);
+                removedEdges.removeAll(unchanged);
+                addedEdges.removeAll(unchanged);
+            }
+            
+            long graphVersion = oldDay == newDay ? publish(oldDay) : publish(oldDay, newDay);
+            ConflictGraphDelta delta = new ConflictGraphDelta(graphVersion, addedEdges, removedEdges,
+                                                              becameConflictFree, lostConflictFree);
+            logger.debug("Assignment id={} updated: {}", newId, delta);
+            return delta;
         } finally {
-            writeLock.unlock();
+            if (secondLock != firstLock) {
+                secondLock.unlock();
+            }
+            firstLock.unlock();
+            logger.trace("<-- updateAssignment END id={} ({} ms)", 
+                         newAssignment.getId(), 
+                         Duration.between(start, Instant.now()).toMillis());
         }
     }
     
     /**
      * Obtiene todas las asignaciones del día especificado.
+     * Acepta cualquier escritura reconocida por {@link TimeSlot#parseDayOfWeek(String)}.
      * 
      * @param day Día a consultar
-     * @return Lista de asignaciones (nunca null, puede estar vacía)
+     * @return Lista de asignaciones (nunca null, vacía si el día no se reconoce)
      */
     public List<Assignment> getAssignmentsByDay(String day) {
         Objects.requireNonNull(day, "El día no puede ser null");
         
-        readLock.lock();
+        DayOfWeek dayOfWeek;
         try {
-            List<Assignment> result = assignmentsByDay.getOrDefault(day, Collections.emptyList());
-            return new ArrayList<>(result); // Copia defensiva
-        } finally {
-            readLock.unlock();
+            dayOfWeek = TimeSlot.parseDayOfWeek(day);
+        } catch (DomainException e) {
+            logger.debug("Día no reconocido en getAssignmentsByDay: {}", day);
+            return new ArrayList<>();
         }
+        return getAssignmentsByDay(dayOfWeek);
+    }
+    
+    /**
+     * Obtiene todas las asignaciones del día especificado.
+     * 
+     * @param day Día a consultar
+     * @return Lista de asignaciones (nunca null, puede estar vacía)
+     */
+    public List<Assignment> getAssignmentsByDay(DayOfWeek day) {
+        Objects.requireNonNull(day, "El día no puede ser null");
+        
+        // Copia defensiva
+        return readDay(day, partition -> new ArrayList<>(partition.getAssignments()));
     }
 
     /**
      * Obtiene el conjunto de asignaciones sin conflictos.
      */
     public Set<Assignment> getConflictFreeAssignments() {
-        readLock.lock();
-        try {
-            logger.debug("getConflictFreeAssignments called, returning {} items", 
-                       conflictFreeAssignments.size());
-            return new HashSet<>(conflictFreeAssignments); // Copia defensiva
-        } finally {
-            readLock.unlock();
-        }
+        return readAll(days -> {
+            Set<Assignment> result = new HashSet<>(); // Copia defensiva
+            for (GraphPartition partition : days) {
+                partition.forEachConflictFree(result::add);
+            }
+            logger.debug("getConflictFreeAssignments called, returning {} items", result.size());
+            return result;
+        });
     }
 
     /**
-     * Obtiene el mapa de conflictos entre asignaciones.
+     * Obtiene el mapa de conflictos entre asignaciones, con claves "idMenor-idMayor".
+     * Es una vista materializada del almacén de aristas para los consumidores existentes;
+     * las consultas nuevas deberían usar {@link #forEachEdge} o {@link #getConflictsForAssignment}.
      */
     public Map<String, List<ConflictEdge>> getEdgeConflicts() {
-        readLock.lock();
-        try {
-            logger.debug("getEdgeConflicts called, returning {} items", 
-                       edgeConflicts.size());
+        return readAll(days -> {
+            int size = 0;
+            for (GraphPartition partition : days) {
+                size += partition.getEdgeCount();
+            }
+            logger.debug("getEdgeConflicts called, returning {} items", size);
             
-            // Crear una copia defensiva del mapa y sus listas
-            Map<String, List<ConflictEdge>> copy = new HashMap<>();
-            edgeConflicts.forEach((key, value) -> 
-                copy.put(key, new ArrayList<>(value))
-            );
+            Map<String, List<ConflictEdge>> copy = new HashMap<>(size * 2);
+            for (GraphPartition partition : days) {
+                partition.forEachEdge(edge -> 
+                    copy.put(edge.getSourceId() + "-" + edge.getTargetId(), edge.toConflictEdges())
+                );
+            }
             
             return copy;
-        } finally {
-            readLock.unlock();
-        }
+        });
     }
     
     /**
@@ -426,45 +1455,67 @@ public class ConflictGraphLoader {
      * @return Mapa de IDs de asignaciones conflictivas y sus conflictos
      */
     public Map<Integer, List<ConflictEdge>> getConflictsForAssignment(int assignmentId) {
-        readLock.lock();
-        try {
+        return readAll(days -> {
             Map<Integer, List<ConflictEdge>> result = new HashMap<>();
             
-            // Buscar conflictos donde esta asignación participa
-            for (Map.Entry<String, List<ConflictEdge>> entry : edgeConflicts.entrySet()) {
-                String[] parts = entry.getKey().split("-");
-                int id1 = Integer.parseInt(parts[0]);
-                int id2 = Integer.parseInt(parts[1]);
-                
-                if (id1 == assignmentId) {
-                    // Esta asignación es la primera en el par
-                    result.put(id2, new ArrayList<>(entry.getValue()));
-                } else if (id2 == assignmentId) {
-                    // Esta asignación es la segunda en el par
-                    result.put(id1, new ArrayList<>(entry.getValue()));
-                }
+            // Recorrer solo los vecinos de la asignación (incluida ella misma si tiene auto-conflictos)
+            for (GraphPartition partition : days) {
+                partition.forEachIncident(assignmentId, edge -> 
+                    result.put(edge.getTargetId(), edge.toConflictEdges())
+                );
             }
             
             return result;
-        } finally {
-            readLock.unlock();
-        }
+        });
+    }
+    
+    /**
+     * Recorre los conflictos de una asignación sin crear aristas ni listas, en O(grado).
+     * La acción recibe una vista reutilizada cuyo ID origen es siempre assignmentId y
+     * cuyo ID destino es la asignación en conflicto (el propio ID para auto-conflictos);
+     * en GLOBAL_LOCK se ejecuta bajo el lock de lectura y no debe modificar el grafo.
+     * 
+     * @param assignmentId ID de la asignación
+     * @param action Acción a invocar por cada asignación en conflicto
+     */
+    public void forEachConflictOf(int assignmentId, Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        readAll(days -> {
+            for (GraphPartition partition : days) {
+                partition.forEachIncident(assignmentId, action);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Obtiene el número de asignaciones con las que la indicada tiene algún conflicto,
+     * contando la propia asignación si tiene auto-conflictos.
+     * 
+     * @param assignmentId ID de la asignación
+     * @return Grado de la asignación en el grafo de conflictos
+     */
+    public int getConflictDegree(int assignmentId) {
+        return readAll(days -> {
+            int degree = 0;
+            for (GraphPartition partition : days) {
+                degree += partition.degree(assignmentId);
+            }
+            return degree;
+        });
     }
     
     /**
      * Obtiene el número total de conflictos detectados.
      */
     public int getTotalConflictsCount() {
-        readLock.lock();
-        try {
+        return readAll(days -> {
             int count = 0;
-            for (List<ConflictEdge> edges : edgeConflicts.values()) {
-                count += edges.size();
+            for (GraphPartition partition : days) {
+                count += partition.getConflictCount();
             }
             return count;
-        } finally {
-            readLock.unlock();
-        }
+        });
     }
     
     /**
@@ -473,8 +1524,7 @@ public class ConflictGraphLoader {
      * @return Mapa con el recuento de cada tipo de conflicto
      */
     public Map<ConflictType, Integer> getConflictStatistics() {
-        readLock.lock();
-        try {
+        return readAll(days -> {
             Map<ConflictType, Integer> stats = new EnumMap<>(ConflictType.class);
             
             // Inicializar contador para cada tipo
@@ -482,17 +1532,38 @@ public class ConflictGraphLoader {
                 stats.put(type, 0);
             }
             
-            // Contar ocurrencias de cada tipo
-            for (List<ConflictEdge> edges : edgeConflicts.values()) {
-                for (ConflictEdge edge : edges) {
-                    ConflictType type = edge.getType();
-                    stats.put(type, stats.get(type) + 1);
-                }
+            // Contar ocurrencias de cada tipo sobre las máscaras, sin crear aristas
+            int[] counts = new int[ConflictType.values().length];
+            for (GraphPartition partition : days) {
+                partition.forEachEdge(edge -> {
+                    for (int bits = edge.getMask(); bits != 0; bits &= bits - 1) {
+                        counts[Integer.numberOfTrailingZeros(bits)]++;
+                    }
+                });
+            }
+            for (ConflictType type : ConflictType.values()) {
+                stats.put(type, counts[type.ordinal()]);
             }
             
             return stats;
-        } finally {
-            readLock.unlock();
-        }
+        });
+    }
+    
+    /**
+     * Recorre todas las aristas del grafo sin materializar claves ni listas.
+     * La acción recibe una vista reutilizada que solo es válida durante la llamada
+     * (ver {@link ConflictEdgeView#copy()}); en GLOBAL_LOCK se ejecuta bajo el lock de
+     * lectura, y en ningún caso debe modificar el grafo.
+     * 
+     * @param action Acción a invocar por cada par de asignaciones en conflicto
+     */
+    public void forEachEdge(Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        readAll(days -> {
+            for (GraphPartition partition : days) {
+                partition.forEachEdge(action);
+            }
+            return null;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Instantánea inmutable y versionada del grafo de conflictos.
+ * Guarda copias congeladas de las particiones por día ({@link GraphPartition#freeze()}), que
+ * comparten su estructura con las del {@link ConflictGraphLoader} sin copiar asignaciones ni
+ * aristas: las escrituras posteriores solo sustituyen los vértices que cambian. Obtener una
+ * instantánea cuesta O(días) y recorrerla no toma ningún lock, por lo que puede leerse desde
+ * cualquier hilo mientras el grafo sigue cambiando.
+ *
+ * Dos instantáneas con la misma versión tienen el mismo contenido, y versiones mayores
+ * corresponden a estados posteriores del grafo.
+ */
+public final class ConflictGraphSnapshot {
+
+    private final long version;
+    private final GraphPartition[] partitions; // Indexadas por DayOfWeek.ordinal()
+
+    /**
+     * Crea una instantánea sobre particiones congeladas.
+     *
+     * @param version Versión del grafo
+     * @param partitions Particiones por ordinal del día; el array no debe modificarse después
+     */
+    ConflictGraphSnapshot(long version, GraphPartition[] partitions) {
+        this.version = version;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Particiones de la instantánea para las lecturas internas del cargador.
+     */
+    GraphPartition[] partitions() {
+        return partitions;
+    }
+
+    /**
+     * @return Versión del grafo representada por la instantánea
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene todas las asignaciones de la instantánea, ordenadas por día.
+     *
+     * @return Lista nueva con las asignaciones (solo se copian las referencias)
+     */
+    public List<Assignment> getAssignments() {
+        List<Assignment> result = new ArrayList<>(getAssignmentCount());
+        for (GraphPartition partition : partitions) {
+            result.addAll(partition.getAssignments());
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene las asignaciones de un día ordenadas por ID; la lista se crea una sola vez por
+     * partición congelada.
+     *
+     * @param day Día a consultar
+     * @return Lista no modificable de las asignaciones del día
+     * @throws NullPointerException si day es null
+     */
+    public List<Assignment> getAssignments(DayOfWeek day) {
+        Objects.requireNonNull(day, "El día no puede ser null");
+        return partitions[day.ordinal()].getAssignments();
+    }
+
+    /**
+     * @return Número total de asignaciones
+     */
+    public int getAssignmentCount() {
+        int count = 0;
+        for (GraphPartition partition : partitions) {
+            count += partition.size();
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene las asignaciones sin ningún conflicto.
+     *
+     * @return Conjunto nuevo con las asignaciones sin conflictos
+     */
+    public Set<Assignment> getConflictFreeAssignments() {
+        Set<Assignment> result = new HashSet<>();
+        for (GraphPartition partition : partitions) {
+            partition.forEachConflictFree(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * @return true si la asignación está en la instantánea y no tiene ningún conflicto
+     * @throws NullPointerException si assignment es null
+     */
+    public boolean isConflictFree(Assignment assignment) {
+        Objects.requireNonNull(assignment, "La asignación no puede ser null");
+        return partitions[assignment.getDayOfWeek().ordinal()].isConflictFree(assignment);
+    }
+
+    /**
+     * @return Número de aristas (pares de asignaciones con algún conflicto)
+     */
+    public int getEdgeCount() {
+        int count = 0;
+        for (GraphPartition partition : partitions) {
+            count += partition.getEdgeCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return Número total de conflictos, contando cada tipo de cada arista
+     */
+    public int getTotalConflictsCount() {
+        int count = 0;
+        for (GraphPartition partition : partitions) {
+            count += partition.getConflictCount();
+        }
+        return count;
+    }
+
+    /**
+     * Recorre todas las aristas sin materializar claves ni listas. La acción recibe una
+     * vista reutilizada que solo es válida durante la llamada (ver {@link ConflictEdgeView#copy()}).
+     *
+     * @param action Acción a invocar por cada par de asignaciones en conflicto
+     * @throws NullPointerException si action es null
+     */
+    public void forEachEdge(Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        for (GraphPartition partition : partitions) {
+            partition.forEachEdge(action);
+        }
+    }
+
+    /**
+     * Recorre los conflictos de una asignación en O(grado). El ID origen de la vista es
+     * siempre assignmentId.
+     *
+     * @param assignmentId ID de la asignación
+     * @param action Acción a invocar por cada asignación en conflicto
+     * @throws NullPointerException si action es null
+     */
+    public void forEachConflictOf(int assignmentId, Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        for (GraphPartition partition : partitions) {
+            partition.forEachIncident(assignmentId, action);
+        }
+    }
+
+    /**
+     * @return Número de asignaciones con las que la indicada tiene algún conflicto,
+     *         contando la propia asignación si tiene auto-conflictos
+     */
+    public int getConflictDegree(int assignmentId) {
+        int degree = 0;
+        for (GraphPartition partition : partitions) {
+            degree += partition.degree(assignmentId);
+        }
+        return degree;
+    }
+
+    /**
+     * Cuenta los conflictos de cada tipo sobre las máscaras de las aristas.
+     *
+     * @return Mapa con el recuento de cada tipo de conflicto (incluidos los que valen 0)
+     */
+    public Map<ConflictType, Integer> getConflictStatistics() {
+        int[] counts = new int[ConflictType.values().length];
+        forEachEdge(edge -> {
+            for (int bits = edge.getMask(); bits != 0; bits &= bits - 1) {
+                counts[Integer.numberOfTrailingZeros(bits)]++;
+            }
+        });
+
+        Map<ConflictType, Integer> stats = new EnumMap<>(ConflictType.class);
+        for (ConflictType type : ConflictType.values()) {
+            stats.put(type, counts[type.ordinal()]);
+        }
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "ConflictGraphSnapshot[versión=" + version + ", asignaciones=" + getAssignmentCount()
+            + ", aristas=" + getEdgeCount() + "]";
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.miapp.service;
 
 import com.example.miapp.domain.Assignment;
-import com.example.miapp.domain.conflict.ConflictEdge;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,19 +13,20 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Servicio para exportar la estructura de conflictos a formato JSON.
+ * Servicio para exportar la estructura de conflictos a formato JSON o al formato binario
+ * compacto de {@link BinaryGraphFile}.
  * Refactorizado para trabajar con el nuevo modelo de dominio y manejar grafos grandes.
  * Modificado para usar un formato de nodo idéntico a data.json
  */
@@ -61,32 +63,32 @@ public class GraphExporter {
         // Validar ruta de archivo
         validateFilePath(filePath);
         
-        // Obtener número de asignaciones para decidir método de exportación
-        List<Assignment> assignments = graphLoader.getAllAssignments();
-        int assignmentCount = assignments.size();
+        // Una única instantánea para que nodos y aristas correspondan al mismo estado del grafo
+        ConflictGraphSnapshot snapshot = graphLoader.snapshot();
+        int assignmentCount = snapshot.getAssignmentCount();
         
         logger.info("Preparando exportación de {} asignaciones y sus conflictos", assignmentCount);
         
         // Si hay muchas asignaciones, usar el método de streaming
         if (assignmentCount > 10000) {
             logger.info("Detectado conjunto de datos grande, usando exportación por streaming");
-            exportToJsonStreaming(filePath);
+            exportToJsonStreaming(filePath, snapshot);
         } else {
             // Para conjuntos pequeños o medianos, usar el método en memoria
             ObjectNode rootNode = mapper.createObjectNode();
             
             // Añadir array de nodos (asignaciones)
-            rootNode.set("nodes", createNodesArray(assignments));
+            rootNode.set("nodes", createNodesArray(snapshot.getAssignments()));
             
             // Añadir array de aristas (conflictos)
-            rootNode.set("edges", createEdgesArray());
+            rootNode.set("edges", createEdgesArray(snapshot));
             
             // Escribir en fichero
             mapper.writerWithDefaultPrettyPrinter()
                   .writeValue(new File(filePath), rootNode);
             
             logger.info("Exportado grafo con {} nodos y {} aristas", 
-                       assignmentCount, graphLoader.getEdgeConflicts().size());
+                       assignmentCount, snapshot.getEdgeCount());
         }
         
         Instant end = Instant.now();
@@ -101,6 +103,19 @@ public class GraphExporter {
      * @throws IOException Si hay error de escritura
      */
     public void exportToJsonStreaming(String filePath) throws IOException {
+        exportToJsonStreaming(filePath, graphLoader.snapshot());
+    }
+    
+    /**
+     * Exporta por streaming una instantánea concreta del grafo. Las aristas se escriben
+     * directamente desde el almacén compartido de la instantánea, sin materializar claves
+     * ni listas, de modo que la exportación no duplica el grafo en memoria.
+     * 
+     * @param filePath Ruta del archivo
+     * @param snapshot Instantánea a exportar
+     * @throws IOException Si hay error de escritura
+     */
+    private void exportToJsonStreaming(String filePath, ConflictGraphSnapshot snapshot) throws IOException {
         logger.info("==== exportToJsonStreaming START ====");
         Instant start = Instant.now();
         
@@ -119,7 +134,7 @@ public class GraphExporter {
             generator.writeStartArray();
             
             int nodeCount = 0;
-            for (Assignment a : graphLoader.getAllAssignments()) {
+            for (Assignment a : snapshot.getAssignments()) {
                 // Escribir cada nodo sin mantenerlos todos en memoria
                 writeNodeToGenerator(generator, a);
                 nodeCount++;
@@ -137,21 +152,28 @@ public class GraphExporter {
             generator.writeFieldName("edges");
             generator.writeStartArray();
             
-            Map<String, List<ConflictEdge>> edgeConflicts = graphLoader.getEdgeConflicts();
-            int edgeCount = 0;
-            for (Map.Entry<String, List<ConflictEdge>> entry : edgeConflicts.entrySet()) {
-                // Escribir cada arista sin mantenerlas todas en memoria
-                writeEdgeToGenerator(generator, entry.getKey(), entry.getValue());
-                edgeCount++;
-                
-                // Logging periódico para mostrar progreso
-                if (edgeCount % 1000 == 0) {
-                    logger.debug("Procesadas {} aristas...", edgeCount);
-                }
+            int[] edgeCount = {0};
+            try {
+                snapshot.forEachEdge(edge -> {
+                    try {
+                        // Escribir cada arista sin mantenerlas todas en memoria
+                        writeEdgeToGenerator(generator, edge);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    edgeCount[0]++;
+                    
+                    // Logging periódico para mostrar progreso
+                    if (edgeCount[0] % 1000 == 0) {
+                        logger.debug("Procesadas {} aristas...", edgeCount[0]);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
             
             generator.writeEndArray();
-            logger.info("Exportadas {} aristas mediante streaming", edgeCount);
+            logger.info("Exportadas {} aristas mediante streaming", edgeCount[0]);
             
             // Finalizar documento JSON
             generator.writeEndObject();
@@ -161,6 +183,31 @@ public class GraphExporter {
         logger.info("==== exportToJsonStreaming END: {} ms ====", Duration.between(start, end).toMillis());
     }
     
+    /**
+     * Exporta el grafo en el formato binario compacto de {@link BinaryGraphFile}: adyacencia
+     * CSR con máscaras de tipos de conflicto y diccionario de cadenas para los nombres de
+     * profesor, aula y materia. Ocupa una fracción de graph.json y se lee sin parseo.
+     * 
+     * @param filePath Ruta del archivo binario
+     * @throws IOException Si hay error de escritura
+     * @throws IllegalArgumentException Si la ruta es inválida o no es accesible
+     */
+    public void exportToBinary(String filePath) throws IOException {
+        logger.info("==== exportToBinary START ====");
+        Instant start = Instant.now();
+        
+        validateFilePath(filePath);
+        
+        ConflictGraphSnapshot snapshot = graphLoader.snapshot();
+        long bytes = BinaryGraphFile.write(snapshot, Paths.get(filePath));
+        
+        logger.info("Exportado grafo binario con {} nodos y {} aristas ({} bytes)",
+                   snapshot.getAssignmentCount(), snapshot.getEdgeCount(), bytes);
+        
+        Instant end = Instant.now();
+        logger.info("==== exportToBinary END: {} ms ====", Duration.between(start, end).toMillis());
+    }
+    
     /**
      * Exporta el grafo por lotes para manejar conjuntos de datos grandes.
      * 
@@ -182,7 +229,8 @@ public class GraphExporter {
         logger.info("==== exportToJsonInBatches START ====");
         Instant start = Instant.now();
         
-        List<Assignment> allAssignments = graphLoader.getAllAssignments();
+        ConflictGraphSnapshot snapshot = graphLoader.snapshot();
+        List<Assignment> allAssignments = snapshot.getAssignments();
         int totalAssignments = allAssignments.size();
         int batches = (int) Math.ceil((double) totalAssignments / batchSize);
         
@@ -195,7 +243,7 @@ public class GraphExporter {
             List<Assignment> batchAssignments = allAssignments.subList(fromIndex, toIndex);
             
             String batchFilePath = filePath + "_batch" + (i + 1) + ".json";
-            exportBatchToJson(batchFilePath, batchAssignments);
+            exportBatchToJson(batchFilePath, batchAssignments, snapshot);
             
             logger.debug("Lote {} exportado: {} asignaciones", i + 1, batchAssignments.size());
         }
@@ -209,9 +257,11 @@ public class GraphExporter {
      * 
      * @param filePath Ruta del archivo
      * @param batchAssignments Lista de asignaciones del lote
+     * @param snapshot Instantánea de la que proceden las asignaciones
      * @throws IOException Si hay error de escritura
      */
-    private void exportBatchToJson(String filePath, List<Assignment> batchAssignments) throws IOException {
+    private void exportBatchToJson(String filePath, List<Assignment> batchAssignments,
+                                   ConflictGraphSnapshot snapshot) throws IOException {
         validateFilePath(filePath);
         
         ObjectNode rootNode = mapper.createObjectNode();
@@ -225,7 +275,7 @@ public class GraphExporter {
             .collect(Collectors.toSet());
         
         // Añadir solo las aristas relacionadas con asignaciones del lote
-        rootNode.set("edges", createEdgesArrayForBatch(batchAssignmentIds));
+        rootNode.set("edges", createEdgesArrayForBatch(snapshot, batchAssignmentIds));
         
         // Escribir en fichero
         mapper.writerWithDefaultPrettyPrinter()
@@ -364,89 +414,74 @@ public class GraphExporter {
     /**
      * Crea el array de aristas JSON a partir de los conflictos.
      * 
+     * @param snapshot Instantánea del grafo
      * @return ArrayNode con las aristas JSON
      */
-    private ArrayNode createEdgesArray() {
+    private ArrayNode createEdgesArray(ConflictGraphSnapshot snapshot) {
         ArrayNode edgesArray = mapper.createArrayNode();
-        Map<String, List<ConflictEdge>> edgeConflicts = graphLoader.getEdgeConflicts();
         
-        logger.debug("Exportando {} aristas", edgeConflicts.size());
+        logger.debug("Exportando {} aristas", snapshot.getEdgeCount());
         
-        for (Map.Entry<String, List<ConflictEdge>> entry : edgeConflicts.entrySet()) {
-            String key = entry.getKey();
-            List<ConflictEdge> conflicts = entry.getValue();
-            
-            ObjectNode edgeNode = createEdgeObject(key, conflicts);
-            edgesArray.add(edgeNode);
-            logger.trace("Arista procesada: {}", key);
-        }
+        snapshot.forEachEdge(edge -> {
+            edgesArray.add(createEdgeObject(edge));
+            logger.trace("Arista procesada: {}", edge);
+        });
         
         return edgesArray;
     }
     
     /**
      * Crea el array de aristas JSON solo para las asignaciones del lote especificado.
+     * Recorre únicamente los conflictos de cada asignación del lote, en O(grado), en lugar
+     * de todas las aristas del grafo.
      * 
+     * @param snapshot Instantánea del grafo
      * @param batchAssignmentIds Conjunto de IDs de asignaciones del lote
      * @return ArrayNode con las aristas JSON filtradas
      */
-    private ArrayNode createEdgesArrayForBatch(Set<Integer> batchAssignmentIds) {
+    private ArrayNode createEdgesArrayForBatch(ConflictGraphSnapshot snapshot, Set<Integer> batchAssignmentIds) {
         ArrayNode edgesArray = mapper.createArrayNode();
-        Map<String, List<ConflictEdge>> edgeConflicts = graphLoader.getEdgeConflicts();
-        
-        int totalEdges = 0;
-        int filteredEdges = 0;
+        ConflictEdgeView ordered = new ConflictEdgeView();
         
-        for (Map.Entry<String, List<ConflictEdge>> entry : edgeConflicts.entrySet()) {
-            totalEdges++;
-            String key = entry.getKey();
-            List<ConflictEdge> conflicts = entry.getValue();
-            
-            // Obtener IDs de las asignaciones involucradas
-            String[] parts = key.split("-");
-            int id1 = Integer.parseInt(parts[0]);
-            int id2 = Integer.parseInt(parts[1]);
-            
-            // Solo incluir aristas donde al menos una asignación está en el lote
-            if (batchAssignmentIds.contains(id1) || batchAssignmentIds.contains(id2)) {
-                ObjectNode edgeNode = createEdgeObject(key, conflicts);
-                edgesArray.add(edgeNode);
-                filteredEdges++;
-                logger.trace("Arista procesada para lote: {}", key);
-            }
+        for (int id : batchAssignmentIds) {
+            snapshot.forEachConflictOf(id, edge -> {
+                int other = edge.getTargetId();
+                
+                // Una arista con ambos extremos en el lote se escribe solo desde el menor
+                if (other < id && batchAssignmentIds.contains(other)) {
+                    return;
+                }
+                ordered.reset(Math.min(id, other), Math.max(id, other), edge.getMask());
+                edgesArray.add(createEdgeObject(ordered));
+                logger.trace("Arista procesada para lote: {}", ordered);
+            });
         }
         
-        logger.debug("Filtradas {} de {} aristas para el lote", filteredEdges, totalEdges);
+        logger.debug("Filtradas {} de {} aristas para el lote", edgesArray.size(), snapshot.getEdgeCount());
         return edgesArray;
     }
     
     /**
      * Crea el objeto JSON para una arista (conflicto).
      * 
-     * @param key Clave que identifica las asignaciones involucradas
-     * @param conflicts Lista de conflictos entre esas asignaciones
+     * @param edge Vista de la arista, con el menor ID como origen
      * @return ObjectNode representando la arista
      */
-    private ObjectNode createEdgeObject(String key, List<ConflictEdge> conflicts) {
-        // Obtener IDs de las asignaciones involucradas
-        String[] parts = key.split("-");
-        int id1 = Integer.parseInt(parts[0]);
-        int id2 = Integer.parseInt(parts[1]);
-        
+    private ObjectNode createEdgeObject(ConflictEdgeView edge) {
         // Crear el objeto de arista
         ObjectNode edgeNode = mapper.createObjectNode();
         
         // Añadir los IDs de las asignaciones en "between"
         ArrayNode betweenNode = mapper.createArrayNode();
-        betweenNode.add(id1);
-        betweenNode.add(id2);
+        betweenNode.add(edge.getSourceId());
+        betweenNode.add(edge.getTargetId());
         edgeNode.set("between", betweenNode);
         
         // Añadir los tipos de conflictos en "conflicts"
         ArrayNode conflictsNode = mapper.createArrayNode();
-        for (ConflictEdge conflict : conflicts) {
-            // Usar el label (descripción) del tipo de conflicto
-            conflictsNode.add(conflict.getType().getLabel());
+        for (int bits = edge.getMask(); bits != 0; bits &= bits - 1) {
+            // Usar el label (descripción) del tipo de conflicto, en orden de declaración
+            conflictsNode.add(ConflictType.fromOrdinal(Integer.numberOfTrailingZeros(bits)).getLabel());
         }
         edgeNode.set("conflicts", conflictsNode);
         
@@ -532,28 +567,22 @@ public class GraphExporter {
      * Escribe una arista directamente al generador JSON.
      * 
      * @param generator Generador JSON
-     * @param key Clave que identifica las asignaciones involucradas
-     * @param conflicts Lista de conflictos entre esas asignaciones
+     * @param edge Vista de la arista, con el menor ID como origen
      * @throws IOException Si hay error de escritura
      */
-    private void writeEdgeToGenerator(JsonGenerator generator, String key, List<ConflictEdge> conflicts) throws IOException {
-        // Obtener IDs de las asignaciones involucradas
-        String[] parts = key.split("-");
-        int id1 = Integer.parseInt(parts[0]);
-        int id2 = Integer.parseInt(parts[1]);
-        
+    private void writeEdgeToGenerator(JsonGenerator generator, ConflictEdgeView edge) throws IOException {
         generator.writeStartObject();
         
         // Añadir los IDs de las asignaciones en "between"
         generator.writeArrayFieldStart("between");
-        generator.writeNumber(id1);
-        generator.writeNumber(id2);
+        generator.writeNumber(edge.getSourceId());
+        generator.writeNumber(edge.getTargetId());
         generator.writeEndArray();
         
         // Añadir los tipos de conflictos en "conflicts"
         generator.writeArrayFieldStart("conflicts");
-        for (ConflictEdge conflict : conflicts) {
-            generator.writeString(conflict.getType().getLabel());
+        for (int bits = edge.getMask(); bits != 0; bits &= bits - 1) {
+            generator.writeString(ConflictType.fromOrdinal(Integer.numberOfTrailingZeros(bits)).getLabel());
         }
         generator.writeEndArray();
         
@@ -568,9 +597,10 @@ public class GraphExporter {
      * @throws IOException Si hay error en la serialización
      */
     public String generateJsonString() throws IOException {
+        ConflictGraphSnapshot snapshot = graphLoader.snapshot();
         ObjectNode rootNode = mapper.createObjectNode();
-        rootNode.set("nodes", createNodesArray(graphLoader.getAllAssignments()));
-        rootNode.set("edges", createEdgesArray());
+        rootNode.set("nodes", createNodesArray(snapshot.getAssignments()));
+        rootNode.set("edges", createEdgesArray(snapshot));
         
         return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(rootNode);
     }
@@ -0,0 +1,500 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Partición del grafo de conflictos correspondiente a un día de la semana.
+ * Dos asignaciones de días distintos nunca entran en conflicto, de modo que cada partición
+ * contiene todas las aristas de sus asignaciones (incluidos los auto-conflictos) y puede
+ * modificarse con independencia de las demás.
+ *
+ * Las asignaciones se indexan por ID en un {@link PersistentIntMap}: cada una guarda sus
+ * vecinos con la máscara de cada arista, y las asignaciones sin conflictos se guardan en otro
+ * mapa del mismo tipo. Consultar, añadir o quitar una asignación o una arista toca solo los
+ * vértices implicados, y {@link #freeze()} obtiene en O(1) una copia inmutable que comparte
+ * la estructura con la partición, de modo que los escritores nunca copian el día completo.
+ *
+ * La partición no es thread-safe; el llamador debe sincronizar el acceso. Las copias
+ * congeladas no admiten modificaciones y pueden leerse desde cualquier hilo sin sincronización.
+ */
+public class GraphPartition {
+
+    private final DayOfWeek day;
+    private final boolean frozen;
+
+    // ID -> vértice con la asignación y sus aristas
+    private PersistentIntMap<Vertex> vertices;
+    // ID -> asignación sin ningún conflicto
+    private PersistentIntMap<Assignment> conflictFree;
+    private int edgeCount;
+    private int conflictCount;
+
+    // Lista ordenada de las asignaciones de una copia congelada, creada al pedirla
+    private volatile List<Assignment> frozenAssignments;
+
+    // Índices de búsqueda de candidatos, según la estrategia (null si no se usan o está congelada)
+    private final AssignmentIntervalIndex intervalIndex;
+
+    /**
+     * Crea una partición vacía.
+     *
+     * @param day Día de la partición
+     * @param intervalIndex Índice de intervalos del día, o null si no se usa
+     * @throws NullPointerException si day es null
+     */
+    public GraphPartition(DayOfWeek day, AssignmentIntervalIndex intervalIndex) {
+        this(Objects.requireNonNull(day, "El día no puede ser null"), false, PersistentIntMap.empty(),
+             PersistentIntMap.empty(), 0, 0, intervalIndex);
+    }
+
+    private GraphPartition(DayOfWeek day, boolean frozen, PersistentIntMap<Vertex> vertices,
+                           PersistentIntMap<Assignment> conflictFree, int edgeCount, int conflictCount,
+                           AssignmentIntervalIndex intervalIndex) {
+        this.day = day;
+        this.frozen = frozen;
+        this.vertices = vertices;
+        this.conflictFree = conflictFree;
+        this.edgeCount = edgeCount;
+        this.conflictCount = conflictCount;
+        this.intervalIndex = intervalIndex;
+    }
+
+    /**
+     * Crea en O(1) una copia inmutable del contenido actual. La copia comparte la estructura
+     * con la partición, que puede seguir modificándose sin afectarla; no incluye los índices
+     * de búsqueda, que solo usan los escritores.
+     *
+     * @return Copia congelada de la partición
+     */
+    public GraphPartition freeze() {
+        if (frozen) {
+            return this;
+        }
+        return new GraphPartition(day, true, vertices, conflictFree, edgeCount, conflictCount, null);
+    }
+
+    /**
+     * @return true si la partición es una copia congelada y no puede modificarse
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return Día de la partición
+     */
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    /**
+     * Obtiene las asignaciones del día ordenadas por ID. En una copia congelada la lista se
+     * crea una sola vez; en una partición modificable se crea en cada llamada.
+     *
+     * @return Lista no modificable con las asignaciones del día
+     */
+    public List<Assignment> getAssignments() {
+        if (!frozen) {
+            return Collections.unmodifiableList(collectAssignments());
+        }
+        List<Assignment> result = frozenAssignments;
+        if (result == null) {
+            result = Collections.unmodifiableList(collectAssignments());
+            frozenAssignments = result;
+        }
+        return result;
+    }
+
+    private List<Assignment> collectAssignments() {
+        List<Assignment> result = new ArrayList<>(vertices.size());
+        vertices.forEach(vertex -> result.add(vertex.assignment));
+        return result;
+    }
+
+    /**
+     * Recorre las asignaciones del día ordenadas por ID.
+     *
+     * @param action Acción a ejecutar por cada asignación
+     */
+    public void forEachAssignment(Consumer<Assignment> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        vertices.forEach(vertex -> action.accept(vertex.assignment));
+    }
+
+    /**
+     * @return La asignación del día con el ID indicado, o null si no está
+     */
+    public Assignment get(int id) {
+        Vertex vertex = vertices.get(id);
+        return vertex != null ? vertex.assignment : null;
+    }
+
+    /**
+     * @return true si la partición contiene una asignación con el mismo ID
+     */
+    public boolean contains(Assignment assignment) {
+        return vertices.containsKey(assignment.getId());
+    }
+
+    /**
+     * @return Índice de intervalos del día, o null si no se usa
+     */
+    public AssignmentIntervalIndex getIntervalIndex() {
+        return intervalIndex;
+    }
+
+    /**
+     * Añade una asignación sin aristas a la partición y a los índices de búsqueda. Si ya
+     * había una con el mismo ID, la sustituye conservando sus aristas.
+     *
+     * @param assignment Asignación a añadir
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public void add(Assignment assignment) {
+        checkMutable();
+        int id = assignment.getId();
+        Vertex previous = vertices.get(id);
+        if (previous != null) {
+            unindex(previous.assignment);
+            if (conflictFree.containsKey(id)) {
+                conflictFree = conflictFree.put(id, assignment);
+            }
+        }
+        vertices = vertices.put(id, previous != null ? previous.with(assignment) : new Vertex(assignment));
+        if (intervalIndex != null) {
+            intervalIndex.add(assignment);
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por el de un grafo construido en bloque y recalcula las
+     * asignaciones sin conflictos. Los índices de búsqueda deben contener ya las asignaciones.
+     *
+     * @param dayAssignments Asignaciones del día
+     * @param dayEdges Aristas del día
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public void load(Collection<Assignment> dayAssignments, ConflictEdgeStore dayEdges) {
+        checkMutable();
+        PersistentIntMap<Vertex> loaded = PersistentIntMap.empty();
+        PersistentIntMap<Assignment> free = PersistentIntMap.empty();
+        for (Assignment assignment : dayAssignments) {
+            int id = assignment.getId();
+            int degree = dayEdges.degree(id);
+            if (degree == 0) {
+                loaded = loaded.put(id, new Vertex(assignment));
+                free = free.put(id, assignment);
+                continue;
+            }
+            int[] neighbors = new int[degree];
+            short[] masks = new short[degree];
+            int[] count = new int[1];
+            dayEdges.forEachIncident(id, edge -> {
+                neighbors[count[0]] = edge.getTargetId();
+                masks[count[0]++] = (short) edge.getMask();
+            });
+            loaded = loaded.put(id, new Vertex(assignment, neighbors, masks));
+        }
+        vertices = loaded;
+        conflictFree = free;
+        edgeCount = dayEdges.size();
+        conflictCount = dayEdges.conflictCount();
+    }
+
+    /**
+     * Elimina una asignación junto con sus aristas, de los índices y del conjunto sin
+     * conflictos, en O(grado). Los vecinos no vuelven al conjunto sin conflictos.
+     *
+     * @param assignment Asignación a eliminar
+     * @return true si la asignación estaba en la partición
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public boolean remove(Assignment assignment) {
+        checkMutable();
+        int id = assignment.getId();
+        Vertex vertex = vertices.get(id);
+        if (vertex == null) {
+            return false;
+        }
+        for (int i = 0; i < vertex.neighbors.length; i++) {
+            int neighbor = vertex.neighbors[i];
+            if (neighbor != id) {
+                vertices = vertices.put(neighbor, vertices.get(neighbor).without(id));
+            }
+            edgeCount--;
+            conflictCount -= Integer.bitCount(vertex.masks[i] & 0xFFFF);
+        }
+        vertices = vertices.remove(id);
+        conflictFree = conflictFree.remove(id);
+        unindex(vertex.assignment);
+        return true;
+    }
+
+    private void unindex(Assignment assignment) {
+        if (intervalIndex != null) {
+            intervalIndex.remove(assignment);
+        }
+    }
+
+    /**
+     * Registra tipos de conflicto entre dos asignaciones de la partición, uniéndolos a los
+     * que ya tuviera el par.
+     *
+     * @param id1 ID de una asignación
+     * @param id2 ID de la otra asignación (igual a id1 para auto-conflictos)
+     * @param mask Máscara de tipos de conflicto; 0 no registra nada
+     * @return true si se añadió algún tipo que no estaba registrado para el par
+     * @throws IllegalArgumentException si alguna asignación no está en la partición
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public boolean addEdge(int id1, int id2, int mask) {
+        checkMutable();
+        if (mask == 0) {
+            return false;
+        }
+        Vertex first = vertex(id1);
+        int current = first.mask(id2);
+        int merged = current | mask;
+        if (merged == current) {
+            return false;
+        }
+        vertices = vertices.put(id1, first.withMask(id2, merged));
+        if (id1 != id2) {
+            vertices = vertices.put(id2, vertex(id2).withMask(id1, merged));
+        }
+        if (current == 0) {
+            edgeCount++;
+        }
+        conflictCount += Integer.bitCount(merged) - Integer.bitCount(current);
+        return true;
+    }
+
+    private Vertex vertex(int id) {
+        Vertex vertex = vertices.get(id);
+        if (vertex == null) {
+            throw new IllegalArgumentException("La asignación id=" + id + " no está en la partición del " + day);
+        }
+        return vertex;
+    }
+
+    /**
+     * @return Máscara de tipos de conflicto entre dos asignaciones (0 si no hay arista)
+     */
+    public int getMask(int id1, int id2) {
+        Vertex vertex = vertices.get(id1);
+        return vertex != null ? vertex.mask(id2) : 0;
+    }
+
+    /**
+     * @return true si la asignación participa en alguna arista
+     */
+    public boolean hasEdges(int id) {
+        return degree(id) > 0;
+    }
+
+    /**
+     * @return Número de aristas de la asignación, contando el auto-conflicto si lo tiene
+     */
+    public int degree(int id) {
+        Vertex vertex = vertices.get(id);
+        return vertex != null ? vertex.neighbors.length : 0;
+    }
+
+    /**
+     * Recorre las aristas de una asignación con una única vista reutilizada, en O(grado).
+     * La vista recibida solo es válida durante la llamada; para conservarla debe copiarse.
+     *
+     * @param id ID de la asignación
+     * @param action Acción a ejecutar por cada arista; el ID origen de la vista es siempre id
+     */
+    public void forEachIncident(int id, Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        Vertex vertex = vertices.get(id);
+        if (vertex == null) {
+            return;
+        }
+        ConflictEdgeView view = new ConflictEdgeView();
+        for (int i = 0; i < vertex.neighbors.length; i++) {
+            action.accept(view.reset(id, vertex.neighbors[i], vertex.masks[i] & 0xFFFF));
+        }
+    }
+
+    /**
+     * Recorre todas las aristas de la partición una vez cada una, con el ID menor como origen,
+     * usando una única vista reutilizada que solo es válida durante la llamada.
+     *
+     * @param action Acción a ejecutar por cada arista
+     */
+    public void forEachEdge(Consumer<ConflictEdgeView> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        ConflictEdgeView view = new ConflictEdgeView();
+        vertices.forEach(vertex -> {
+            int id = vertex.assignment.getId();
+            for (int i = 0; i < vertex.neighbors.length; i++) {
+                if (vertex.neighbors[i] >= id) {
+                    action.accept(view.reset(id, vertex.neighbors[i], vertex.masks[i] & 0xFFFF));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Número de aristas (pares de asignaciones con algún conflicto)
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return Número total de conflictos, contando cada tipo de cada arista
+     */
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * @return true si la asignación está en el conjunto sin conflictos del día
+     */
+    public boolean isConflictFree(Assignment assignment) {
+        return conflictFree.containsKey(assignment.getId());
+    }
+
+    /**
+     * Añade una asignación de la partición al conjunto sin conflictos.
+     *
+     * @return true si no estaba en el conjunto
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public boolean addConflictFree(Assignment assignment) {
+        checkMutable();
+        PersistentIntMap<Assignment> updated = conflictFree.put(assignment.getId(), assignment);
+        boolean added = updated.size() > conflictFree.size();
+        conflictFree = updated;
+        return added;
+    }
+
+    /**
+     * Quita una asignación del conjunto sin conflictos.
+     *
+     * @return true si estaba en el conjunto
+     * @throws IllegalStateException si la partición está congelada
+     */
+    public boolean removeConflictFree(int id) {
+        checkMutable();
+        PersistentIntMap<Assignment> updated = conflictFree.remove(id);
+        boolean removed = updated != conflictFree;
+        conflictFree = updated;
+        return removed;
+    }
+
+    /**
+     * Recorre las asignaciones sin conflictos del día ordenadas por ID.
+     *
+     * @param action Acción a ejecutar por cada asignación
+     */
+    public void forEachConflictFree(Consumer<Assignment> action) {
+        conflictFree.forEach(action);
+    }
+
+    /**
+     * @return Número de asignaciones del día
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("La partición del " + day + " está congelada");
+        }
+    }
+
+    /**
+     * Vértice inmutable: una asignación con sus vecinos y la máscara de cada arista en la
+     * misma posición. Los cambios crean un vértice nuevo copiando solo sus arrays (O(grado)).
+     */
+    private static final class Vertex {
+        private static final int[] NO_NEIGHBORS = new int[0];
+        private static final short[] NO_MASKS = new short[0];
+
+        final Assignment assignment;
+        final int[] neighbors;  // IDs vecinos (el propio ID si tiene auto-conflictos)
+        final short[] masks;
+
+        Vertex(Assignment assignment) {
+            this(assignment, NO_NEIGHBORS, NO_MASKS);
+        }
+
+        Vertex(Assignment assignment, int[] neighbors, short[] masks) {
+            this.assignment = assignment;
+            this.neighbors = neighbors;
+            this.masks = masks;
+        }
+
+        int mask(int neighbor) {
+            int i = indexOf(neighbor);
+            return i >= 0 ? masks[i] & 0xFFFF : 0;
+        }
+
+        Vertex with(Assignment replacement) {
+            return new Vertex(replacement, neighbors, masks);
+        }
+
+        Vertex withMask(int neighbor, int mask) {
+            int i = indexOf(neighbor);
+            if (i >= 0) {
+                short[] updated = masks.clone();
+                updated[i] = (short) mask;
+                return new Vertex(assignment, neighbors, updated);
+            }
+            int[] grownNeighbors = Arrays.copyOf(neighbors, neighbors.length + 1);
+            short[] grownMasks = Arrays.copyOf(masks, masks.length + 1);
+            grownNeighbors[neighbors.length] = neighbor;
+            grownMasks[masks.length] = (short) mask;
+            return new Vertex(assignment, grownNeighbors, grownMasks);
+        }
+
+        /**
+         * Quita un vecino moviendo el último a su posición.
+         */
+        Vertex without(int neighbor) {
+            int i = indexOf(neighbor);
+            if (i < 0) {
+                return this;
+            }
+            int last = neighbors.length - 1;
+            int[] shrunkNeighbors = Arrays.copyOf(neighbors, last);
+            short[] shrunkMasks = Arrays.copyOf(masks, last);
+            if (i < last) {
+                shrunkNeighbors[i] = neighbors[last];
+                shrunkMasks[i] = masks[last];
+            }
+            return new Vertex(assignment, shrunkNeighbors, shrunkMasks);
+        }
+
+        private int indexOf(int neighbor) {
+            for (int i = 0; i < neighbors.length; i++) {
+                if (neighbors[i] == neighbor) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GraphPartition[" + day + ", asignaciones=" + vertices.size()
+            + ", aristas=" + edgeCount + (frozen ? ", congelada" : "") + "]";
+    }
+}
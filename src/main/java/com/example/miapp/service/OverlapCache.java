@@ -0,0 +1,345 @@
+package com.example.miapp.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de resultados de solapamiento temporal con expulsión LRU.
+ * Las claves son los cuatro límites de los rangos en minutos del día empaquetados
+ * en un long, y cada segmento las guarda en arrays primitivos (tabla hash con sondeo
+ * lineal y lista LRU enlazada por índices), por lo que consultar la caché no crea
+ * objetos clave ni nodos de entrada. La caché se divide en segmentos con su propio
+ * orden LRU y su propio monitor para reducir la contención cuando varios hilos
+ * construyen el grafo en paralelo.
+ *
+ * Mantiene contadores de aciertos, fallos y expulsiones para poder medir su utilidad.
+ */
+public class OverlapCache {
+
+    private static final int SEGMENTS = 16;
+    private static final int MINUTE_BITS = 11; // 0..1439 cabe en 11 bits
+
+    private final Segment[] segments;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché con el número máximo de entradas indicado.
+     * La capacidad se reparte entre los segmentos, redondeando hacia arriba.
+     *
+     * @param maxEntries Número máximo de entradas
+     * @throws IllegalArgumentException si maxEntries es menor que 1
+     */
+    public OverlapCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser al menos 1: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        int segmentCapacity = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Empaqueta los límites de dos rangos, en minutos del día, en una clave.
+     *
+     * @return Clave de caché
+     */
+    public static long key(int start1, int end1, int start2, int end2) {
+        return ((long) start1 << (3 * MINUTE_BITS))
+             | ((long) end1 << (2 * MINUTE_BITS))
+             | ((long) start2 << MINUTE_BITS)
+             | end2;
+    }
+
+    /**
+     * Obtiene un resultado de la caché, actualizando su posición LRU.
+     *
+     * @param key Clave generada con {@link #key}
+     * @return Resultado almacenado, o null si no está en caché
+     */
+    public Boolean get(long key) {
+        Boolean result = lookup(key);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Igual que {@link #get} pero sin contar aciertos ni fallos; permite medir el coste de
+     * la consulta sin alterar las estadísticas.
+     *
+     * @param key Clave generada con {@link #key}
+     * @return Resultado almacenado, o null si no está en caché
+     */
+    Boolean lookup(long key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * Almacena un resultado, expulsando la entrada menos usada del segmento si está lleno.
+     *
+     * @param key Clave generada con {@link #key}
+     * @param value Resultado de solapamiento
+     */
+    public void put(long key, boolean value) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Elimina todas las entradas. Los contadores se conservan.
+     *
+     * @return Número de entradas eliminadas
+     */
+    public int clear() {
+        int removed = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                removed += segment.size();
+                segment.clear();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return Número actual de entradas
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Número máximo de entradas configurado
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Obtiene una instantánea de los contadores de la caché.
+     *
+     * @return Estadísticas actuales
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size(), maxEntries);
+    }
+
+    private static long mix(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[segmentIndex(key)];
+    }
+
+    /**
+     * @return Segmento de una clave; cada segmento tiene su propio orden LRU y su capacidad
+     */
+    static int segmentIndex(long key) {
+        return (int) (mix(key) >>> 60) & (SEGMENTS - 1);
+    }
+
+    /**
+     * Segmento LRU de capacidad fija sobre arrays primitivos. Cada entrada ocupa un nodo
+     * (clave, valor y enlaces anterior/siguiente de la lista LRU); la tabla hash guarda
+     * índice de nodo + 1 (0 = hueco) con sondeo lineal y borrado por desplazamiento, sin
+     * lápidas. Los arrays crecen al doble hasta la capacidad y un nodo expulsado se reutiliza
+     * para la entrada nueva.
+     */
+    private final class Segment {
+        private static final int INITIAL_NODES = 16;
+        private static final int NONE = -1;
+
+        private final int capacity;
+        private long[] keys;
+        private boolean[] values;
+        private int[] prev;
+        private int[] next;
+        private int[] table;
+        private int size;
+        private int head = NONE; // Más reciente
+        private int tail = NONE; // Menos reciente, siguiente en ser expulsado
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            allocate(Math.min(capacity, INITIAL_NODES));
+        }
+
+        Boolean get(long key) {
+            int node = table[slotOf(key)] - 1;
+            if (node < 0) {
+                return null;
+            }
+            moveToFront(node);
+            return values[node] ? Boolean.TRUE : Boolean.FALSE;
+        }
+
+        void put(long key, boolean value) {
+            int slot = slotOf(key);
+            int node = table[slot] - 1;
+            if (node >= 0) {
+                values[node] = value;
+                moveToFront(node);
+                return;
+            }
+            if (size == capacity) {
+                node = tail;
+                unlink(node);
+                removeSlot(slotOf(keys[node]));
+                evictions.increment();
+                slot = slotOf(key);
+            } else {
+                if (size == keys.length) {
+                    allocate(Math.min(capacity, keys.length * 2));
+                    slot = slotOf(key);
+                }
+                node = size++;
+            }
+            keys[node] = key;
+            values[node] = value;
+            table[slot] = node + 1;
+            linkFront(node);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            size = 0;
+            head = NONE;
+            tail = NONE;
+        }
+
+        // Posición de la clave en la tabla, o del hueco donde se insertaría
+        private int slotOf(long key) {
+            int mask = table.length - 1;
+            int slot = (int) (mix(key) >>> 32) & mask;
+            while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // Borrado con desplazamiento hacia atrás: mantiene las cadenas de sondeo sin lápidas
+        private void removeSlot(int slot) {
+            int mask = table.length - 1;
+            int gap = slot;
+            for (int i = (slot + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int home = (int) (mix(keys[table[i] - 1]) >>> 32) & mask;
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    table[gap] = table[i];
+                    gap = i;
+                }
+            }
+            table[gap] = 0;
+        }
+
+        private void moveToFront(int node) {
+            if (node != head) {
+                unlink(node);
+                linkFront(node);
+            }
+        }
+
+        private void linkFront(int node) {
+            prev[node] = NONE;
+            next[node] = head;
+            if (head != NONE) {
+                prev[head] = node;
+            }
+            head = node;
+            if (tail == NONE) {
+                tail = node;
+            }
+        }
+
+        private void unlink(int node) {
+            int p = prev[node];
+            int n = next[node];
+            if (p != NONE) {
+                next[p] = n;
+            } else {
+                head = n;
+            }
+            if (n != NONE) {
+                prev[n] = p;
+            } else {
+                tail = p;
+            }
+        }
+
+        // Amplía los nodos conservando su contenido y reconstruye la tabla (carga máxima 0,5)
+        private void allocate(int nodes) {
+            keys = keys == null ? new long[nodes] : Arrays.copyOf(keys, nodes);
+            values = values == null ? new boolean[nodes] : Arrays.copyOf(values, nodes);
+            prev = prev == null ? new int[nodes] : Arrays.copyOf(prev, nodes);
+            next = next == null ? new int[nodes] : Arrays.copyOf(next, nodes);
+            table = new int[Integer.highestOneBit(Math.max(nodes, 1)) << 2];
+            for (int node = 0; node < size; node++) {
+                table[slotOf(keys[node])] = node + 1;
+            }
+        }
+    }
+
+    /**
+     * Instantánea inmutable de los contadores de la caché.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maxEntries;
+
+        Stats(long hits, long misses, long evictions, int size, int maxEntries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maxEntries = maxEntries;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getSize() { return size; }
+        public int getMaxEntries() { return maxEntries; }
+
+        /**
+         * @return Proporción de aciertos sobre el total de consultas (0 si no hubo consultas)
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("OverlapCache[aciertos=%d, fallos=%d, expulsiones=%d, tamaño=%d/%d, tasa=%.1f%%]",
+                               hits, misses, evictions, size, maxEntries, getHitRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.miapp.service;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Mapa inmutable de claves int con compartición estructural.
+ * Las claves se guardan en un trie de base 32 recorrido desde los bits más significativos,
+ * de modo que {@link #put} y {@link #remove} devuelven un mapa nuevo copiando solo los
+ * nodos del camino (O(log32 clave)) y el mapa original sigue siendo válido. Conservar una
+ * versión cuesta O(1), y cualquier versión puede leerse desde varios hilos sin sincronización.
+ *
+ * Cada nodo comprime sus 32 posiciones con un mapa de bits, así que las claves dispersas no
+ * reservan memoria para los huecos. El recorrido sigue el orden de las claves sin signo
+ * (el de los IDs para IDs no negativos). No admite valores null.
+ *
+ * @param <V> Tipo de los valores
+ */
+public final class PersistentIntMap<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH_MASK = (1 << BITS) - 1;
+    // El nivel 6 usa los 2 bits más altos de la clave
+    private static final int MAX_LEVEL = 6;
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0, 0);
+
+    private final Node root;  // null si el mapa está vacío
+    private final int level;  // Nivel de la raíz; las hojas (nivel 0) guardan los valores
+    private final int size;
+
+    private PersistentIntMap(Node root, int level, int size) {
+        this.root = root;
+        this.level = level;
+        this.size = size;
+    }
+
+    /**
+     * @return Mapa vacío
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param key Clave
+     * @return Valor asociado, o null si la clave no está
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (root == null || !fits(key, level)) {
+            return null;
+        }
+        Node node = root;
+        for (int l = level; ; l--) {
+            int bit = bit(key, l);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[node.position(bit)];
+            if (l == 0) {
+                return (V) slot;
+            }
+            node = (Node) slot;
+        }
+    }
+
+    /**
+     * @return true si la clave está en el mapa
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Asocia un valor a una clave.
+     *
+     * @param key Clave
+     * @param value Valor
+     * @return Mapa con la asociación (este mismo si ya la tenía)
+     * @throws NullPointerException si value es null
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        Objects.requireNonNull(value, "El valor no puede ser null");
+        Node node = root != null ? root : EMPTY_NODE;
+        int l = root != null ? level : 0;
+        // Añadir niveles por encima mientras la clave no quepa; las claves existentes
+        // tienen ceros en los bits nuevos, así que la raíz anterior ocupa la posición 0
+        while (!fits(key, l)) {
+            if (node != EMPTY_NODE) {
+                node = new Node(1, new Object[] {node});
+            }
+            l++;
+        }
+        boolean[] added = new boolean[1];
+        Node updated = put(node, l, key, value, added);
+        if (updated == node) {
+            return this;
+        }
+        return new PersistentIntMap<>(updated, l, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Elimina una clave.
+     *
+     * @param key Clave
+     * @return Mapa sin la clave (este mismo si no la tenía)
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (root == null || !fits(key, level)) {
+            return this;
+        }
+        Node updated = remove(root, level, key);
+        if (updated == root) {
+            return this;
+        }
+        if (updated == null) {
+            return empty();
+        }
+        // Quitar los niveles superiores que solo conservan la posición 0
+        int l = level;
+        while (l > 0 && updated.bitmap == 1) {
+            updated = (Node) updated.slots[0];
+            l--;
+        }
+        return new PersistentIntMap<>(updated, l, size - 1);
+    }
+
+    /**
+     * Recorre los valores en orden de clave sin signo.
+     *
+     * @param action Acción a ejecutar por cada valor
+     */
+    public void forEach(Consumer<? super V> action) {
+        Objects.requireNonNull(action, "La acción no puede ser null");
+        if (root != null) {
+            forEach(root, level, action);
+        }
+    }
+
+    /**
+     * @return Número de claves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true si el mapa no tiene claves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static Node put(Node node, int level, int key, Object value, boolean[] added) {
+        int bit = bit(key, level);
+        int position = node.position(bit);
+        boolean present = (node.bitmap & bit) != 0;
+        if (level == 0) {
+            if (!present) {
+                added[0] = true;
+                return node.insert(bit, position, value);
+            }
+            return node.slots[position] == value ? node : node.replace(position, value);
+        }
+        Node child = present ? (Node) node.slots[position] : EMPTY_NODE;
+        Node updated = put(child, level - 1, key, value, added);
+        if (updated == child) {
+            return node;
+        }
+        return present ? node.replace(position, updated) : node.insert(bit, position, updated);
+    }
+
+    /**
+     * @return El mismo nodo si la clave no estaba, null si el nodo queda vacío
+     */
+    private static Node remove(Node node, int level, int key) {
+        int bit = bit(key, level);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int position = node.position(bit);
+        if (level == 0) {
+            return node.delete(bit, position);
+        }
+        Node child = (Node) node.slots[position];
+        Node updated = remove(child, level - 1, key);
+        if (updated == child) {
+            return node;
+        }
+        return updated == null ? node.delete(bit, position) : node.replace(position, updated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Node node, int level, Consumer<? super V> action) {
+        for (Object slot : node.slots) {
+            if (level == 0) {
+                action.accept((V) slot);
+            } else {
+                forEach((Node) slot, level - 1, action);
+            }
+        }
+    }
+
+    private static int bit(int key, int level) {
+        return 1 << ((key >>> (level * BITS)) & WIDTH_MASK);
+    }
+
+    /**
+     * Indica si una raíz del nivel dado cubre la clave.
+     */
+    private static boolean fits(int key, int level) {
+        return level >= MAX_LEVEL || (key >>> ((level + 1) * BITS)) == 0;
+    }
+
+    /**
+     * Nodo inmutable: las posiciones ocupadas del mapa de bits, en orden, con sus hijos
+     * (o valores en las hojas).
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        int position(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node insert(int bit, int position, Object slot) {
+            Object[] copy = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, copy, 0, position);
+            copy[position] = slot;
+            System.arraycopy(slots, position, copy, position + 1, slots.length - position);
+            return new Node(bitmap | bit, copy);
+        }
+
+        Node replace(int position, Object slot) {
+            Object[] copy = slots.clone();
+            copy[position] = slot;
+            return new Node(bitmap, copy);
+        }
+
+        Node delete(int bit, int position) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, position);
+            System.arraycopy(slots, position + 1, copy, position, copy.length - position);
+            return new Node(bitmap & ~bit, copy);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentIntMap[claves=" + size + ", niveles=" + (root != null ? level + 1 : 0) + "]";
+    }
+}
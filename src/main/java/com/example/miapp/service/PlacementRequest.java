@@ -0,0 +1,126 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sesión a colocar en el horario mediante {@link PlacementSearch}: quién la imparte, a
+ * qué grupo, cuánto dura y, opcionalmente, cuándo se preferiría.
+ * Se crea mediante el {@link Builder}.
+ */
+public final class PlacementRequest {
+
+    private final Professor professor;
+    private final Subject subject;
+    private final int groupId;
+    private final int enrolledStudents;
+    private final String sessionType;
+    private final int durationMinutes;
+    private final int stepMinutes;
+    private final LocalTime preferredStart;
+    private final Set<DayOfWeek> days;
+    private final int maxResults;
+
+    private PlacementRequest(Builder b) {
+        this.professor = Objects.requireNonNull(b.professor, "El profesor no puede ser null");
+        this.subject = Objects.requireNonNull(b.subject, "La materia no puede ser null");
+        this.sessionType = Objects.requireNonNull(b.sessionType, "El tipo de sesión no puede ser null");
+        if (b.durationMinutes <= 0) {
+            throw new IllegalArgumentException("La duración debe ser positiva: " + b.durationMinutes);
+        }
+        if (b.stepMinutes <= 0) {
+            throw new IllegalArgumentException("El paso entre horas de inicio debe ser positivo: " + b.stepMinutes);
+        }
+        if (b.enrolledStudents < 0) {
+            throw new IllegalArgumentException("El número de estudiantes no puede ser negativo: " + b.enrolledStudents);
+        }
+        if (b.maxResults < 1) {
+            throw new IllegalArgumentException("El número máximo de resultados debe ser al menos 1: " + b.maxResults);
+        }
+        this.groupId = b.groupId;
+        this.enrolledStudents = b.enrolledStudents;
+        this.durationMinutes = b.durationMinutes;
+        this.stepMinutes = b.stepMinutes;
+        this.preferredStart = b.preferredStart;
+        this.days = Collections.unmodifiableSet(b.days.isEmpty() ? EnumSet.allOf(DayOfWeek.class) : EnumSet.copyOf(b.days));
+        this.maxResults = b.maxResults;
+    }
+
+    public Professor getProfessor() { return professor; }
+    public Subject getSubject() { return subject; }
+    public int getGroupId() { return groupId; }
+    public int getEnrolledStudents() { return enrolledStudents; }
+    public String getSessionType() { return sessionType; }
+    public int getDurationMinutes() { return durationMinutes; }
+
+    /**
+     * @return Separación en minutos entre las horas de inicio consideradas dentro de cada franja
+     */
+    public int getStepMinutes() { return stepMinutes; }
+
+    /**
+     * @return Hora de inicio preferida, o null si no hay preferencia
+     */
+    public LocalTime getPreferredStart() { return preferredStart; }
+
+    /**
+     * @return Días en los que buscar (todos si no se indicaron)
+     */
+    public Set<DayOfWeek> getDays() { return days; }
+
+    public int getMaxResults() { return maxResults; }
+
+    @Override
+    public String toString() {
+        return "PlacementRequest[profesor=" + professor.getId() + ", materia=" + subject.getCode()
+            + ", grupo=" + groupId + ", duración=" + durationMinutes + " min, días=" + days + "]";
+    }
+
+    /**
+     * Builder de {@link PlacementRequest}. Por defecto las horas de inicio se prueban cada
+     * 30 minutos, en todos los días con franjas válidas ({@link TimeSlot#getValidTimeSlots})
+     * y sin límite de resultados.
+     */
+    public static class Builder {
+        private Professor professor;
+        private Subject subject;
+        private int groupId;
+        private int enrolledStudents;
+        private String sessionType;
+        private int durationMinutes;
+        private int stepMinutes = 30;
+        private LocalTime preferredStart;
+        private final Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        private int maxResults = Integer.MAX_VALUE;
+
+        public Builder professor(Professor professor) { this.professor = professor; return this; }
+        public Builder subject(Subject subject) { this.subject = subject; return this; }
+        public Builder groupId(int id) { this.groupId = id; return this; }
+        public Builder enrolledStudents(int students) { this.enrolledStudents = students; return this; }
+        public Builder sessionType(String type) { this.sessionType = type; return this; }
+        public Builder durationMinutes(int minutes) { this.durationMinutes = minutes; return this; }
+        public Builder stepMinutes(int minutes) { this.stepMinutes = minutes; return this; }
+        public Builder preferredStart(LocalTime time) { this.preferredStart = time; return this; }
+        public Builder day(DayOfWeek day) { this.days.add(Objects.requireNonNull(day, "El día no puede ser null")); return this; }
+        public Builder maxResults(int max) { this.maxResults = max; return this; }
+
+        /**
+         * Construye la petición.
+         *
+         * @throws NullPointerException si falta el profesor, la materia o el tipo de sesión
+         * @throws IllegalArgumentException si la duración, el paso, los estudiantes o el
+         *         máximo de resultados no son válidos
+         */
+        public PlacementRequest build() {
+            return new PlacementRequest(this);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.OccupancyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Motor de búsqueda de huecos: enumera todas las colocaciones (día, horario y aula) en las
+ * que una sesión puede añadirse al horario sin conflictos duros, ordenadas por coste.
+ *
+ * Al construirse indexa la ocupación de aulas, profesores y grupos del horario en bitsets
+ * por minuto ({@link OccupancyIndex}), de modo que cada hora candidata se resuelve con unas
+ * pocas operaciones AND en lugar de comparar contra todas las asignaciones del día.
+ *
+ * Se consideran conflictos duros el solapamiento de profesor, aula o grupo, las franjas
+ * bloqueadas del profesor, las franjas horarias inválidas, la falta de autorización del
+ * profesor y la capacidad o compatibilidad del aula. El solapamiento con otra sesión de la
+ * misma jornada ({@link ConflictType#SESSION_TYPE}) no descarta la colocación sino que
+ * la penaliza en el coste.
+ *
+ * Solo se conservan las {@link PlacementRequest#getMaxResults()} mejores colocaciones en un
+ * montículo acotado, de modo que una búsqueda con pocos resultados no reúne ni ordena todas
+ * las combinaciones de día, hora y aula.
+ *
+ * El índice refleja el horario en el momento de la construcción; las instancias son de solo
+ * lectura y pueden usarse desde varios hilos.
+ */
+public class PlacementSearch {
+    private static final Logger logger = LoggerFactory.getLogger(PlacementSearch.class);
+
+    /**
+     * Coste añadido por cada conflicto blando de una colocación. Supera cualquier diferencia
+     * de hora o de capacidad, de modo que las colocaciones sin conflictos blandos van primero.
+     */
+    public static final int SOFT_CONFLICT_PENALTY = 10_000;
+
+    // Con franjas de un minuto la ocupación coincide exactamente con el solapamiento inclusivo
+    private static final int SLOT_MINUTES = 1;
+
+    private static final Comparator<Placement> BY_COST = Comparator
+        .comparingLong(Placement::getCost)
+        .thenComparing(Placement::getDay)
+        .thenComparingInt(Placement::getStartMinute)
+        .thenComparingInt(p -> p.getRoom().getId());
+
+    private final OccupancyIndex occupancy = new OccupancyIndex(SLOT_MINUTES);
+    private final Map<String, OccupancyIndex.Occupancy> sessionTypeOccupancy = new HashMap<>();
+    private final List<Room> rooms;
+    private final int assignmentCount;
+
+    /**
+     * Crea el motor sobre una instantánea del grafo de conflictos.
+     *
+     * @param snapshot Instantánea con el horario actual
+     * @param rooms Aulas disponibles para las colocaciones
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public PlacementSearch(ConflictGraphSnapshot snapshot, Collection<Room> rooms) {
+        this(Objects.requireNonNull(snapshot, "La instantánea no puede ser null").getAssignments(), rooms);
+    }
+
+    /**
+     * Crea el motor sobre un conjunto de asignaciones.
+     *
+     * @param assignments Asignaciones del horario actual
+     * @param rooms Aulas disponibles para las colocaciones
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public PlacementSearch(Collection<Assignment> assignments, Collection<Room> rooms) {
+        Objects.requireNonNull(assignments, "Las asignaciones no pueden ser null");
+        Objects.requireNonNull(rooms, "Las aulas no pueden ser null");
+
+        for (Assignment assignment : assignments) {
+            occupancy.add(assignment);
+            sessionTypeOccupancy
+                .computeIfAbsent(assignment.getSessionType(), k -> new OccupancyIndex.Occupancy(SLOT_MINUTES))
+                .add(assignment.getDayOrdinal(), assignment.getStartMinute(), assignment.getEndMinute());
+        }
+        this.rooms = List.copyOf(rooms);
+        this.assignmentCount = assignments.size();
+
+        logger.info("Motor de búsqueda de huecos inicializado con {} asignaciones y {} aulas",
+                   assignmentCount, this.rooms.size());
+    }
+
+    /**
+     * Busca todas las colocaciones sin conflictos duros de una sesión.
+     * Para cada día solicitado se prueban las horas de inicio de cada franja válida a
+     * intervalos de {@link PlacementRequest#getStepMinutes()}, siempre que la sesión quepa
+     * completa en la franja, y para cada hora todas las aulas compatibles.
+     *
+     * El coste de una colocación es la suma de {@link #SOFT_CONFLICT_PENALTY} por cada
+     * conflicto blando, la distancia en minutos a la hora preferida (si la hay) y los
+     * asientos que quedan libres en el aula. A igual coste se ordena por día, hora y aula.
+     *
+     * @param request Sesión a colocar
+     * @return Colocaciones ordenadas por coste, como mucho {@link PlacementRequest#getMaxResults()};
+     *         vacía si el profesor no está autorizado para la materia
+     * @throws NullPointerException si request es null
+     */
+    public List<Placement> search(PlacementRequest request) {
+        Objects.requireNonNull(request, "La petición no puede ser null");
+        long startNanos = System.nanoTime();
+
+        Professor professor = request.getProfessor();
+        if (!professor.hasSubject(request.getSubject().getCode())) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Profesor id={} no autorizado para {}: sin colocaciones",
+                           professor.getId(), request.getSubject().getCode());
+            }
+            return List.of();
+        }
+
+        List<Room> candidateRooms = new ArrayList<>();
+        List<OccupancyIndex.Occupancy> roomOccupancies = new ArrayList<>();
+        boolean requiresLab = request.getSubject().requiresLab();
+        for (Room room : rooms) {
+            if (room.hasCapacityFor(request.getEnrolledStudents()) && room.isCompatibleWithLabRequirement(requiresLab)) {
+                candidateRooms.add(room);
+                roomOccupancies.add(occupancy.getOccupancy(OccupancyIndex.Resource.ROOM, room.getId()));
+            }
+        }
+
+        // Montículo de máximos con las mejores colocaciones vistas; la raíz es la peor de ellas
+        int maxResults = request.getMaxResults();
+        PriorityQueue<Placement> best = new PriorityQueue<>(Math.min(maxResults, 64), BY_COST.reversed());
+        int found = 0;
+        if (!candidateRooms.isEmpty()) {
+            OccupancyIndex.Occupancy professorBusy =
+                occupancy.getOccupancy(OccupancyIndex.Resource.PROFESSOR, professor.getId());
+            OccupancyIndex.Occupancy groupBusy =
+                occupancy.getOccupancy(OccupancyIndex.Resource.GROUP, request.getGroupId());
+            OccupancyIndex.Occupancy sameSessionType = sessionTypeOccupancy.get(request.getSessionType());
+            int duration = request.getDurationMinutes();
+            int step = request.getStepMinutes();
+            int preferred = request.getPreferredStart() != null
+                ? TimeSlot.toMinuteOfDay(request.getPreferredStart()) : -1;
+
+            for (DayOfWeek day : request.getDays()) {
+                int dayOrdinal = day.ordinal();
+                for (TimeSlot.TimeRange range : TimeSlot.getValidTimeSlots(day)) {
+                    int rangeEnd = TimeSlot.toMinuteOfDay(range.getEnd());
+                    for (int start = TimeSlot.toMinuteOfDay(range.getStart()); start + duration <= rangeEnd; start += step) {
+                        int end = start + duration;
+                        if (!professorBusy.isFree(dayOrdinal, start, end)
+                                || !groupBusy.isFree(dayOrdinal, start, end)
+                                || professor.hasBlockedSlotConflict(dayOrdinal, start, end)) {
+                            continue;
+                        }
+
+                        int softMask = sameSessionType != null && !sameSessionType.isFree(dayOrdinal, start, end)
+                            ? ConflictType.SESSION_TYPE.mask() : 0;
+                        long baseCost = (long) Integer.bitCount(softMask) * SOFT_CONFLICT_PENALTY
+                            + (preferred >= 0 ? Math.abs(start - preferred) : 0);
+
+                        for (int r = 0; r < candidateRooms.size(); r++) {
+                            if (roomOccupancies.get(r).isFree(dayOrdinal, start, end)) {
+                                Room room = candidateRooms.get(r);
+                                long cost = baseCost + room.getCapacity() - request.getEnrolledStudents();
+                                found++;
+                                if (best.size() == maxResults && cost > best.peek().getCost()) {
+                                    continue;
+                                }
+                                Placement placement = new Placement(day, start, end, room, cost, softMask);
+                                if (best.size() < maxResults) {
+                                    best.add(placement);
+                                } else if (BY_COST.compare(placement, best.peek()) < 0) {
+                                    best.poll();
+                                    best.add(placement);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Placement> result = new ArrayList<>(best);
+        result.sort(BY_COST);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("{}: {} colocaciones encontradas, {} devueltas en {} µs", request,
+                       found, result.size(), (System.nanoTime() - startNanos) / 1_000);
+        }
+        return result;
+    }
+
+    /**
+     * @return Número de asignaciones indexadas
+     */
+    public int getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    /**
+     * Colocación candidata de una sesión. Inmutable.
+     */
+    public static final class Placement {
+        private final DayOfWeek day;
+        private final int startMinute;
+        private final int endMinute;
+        private final Room room;
+        private final long cost;
+        private final int softConflictMask;
+
+        Placement(DayOfWeek day, int startMinute, int endMinute, Room room, long cost, int softConflictMask) {
+            this.day = day;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.room = room;
+            this.cost = cost;
+            this.softConflictMask = softConflictMask;
+        }
+
+        public DayOfWeek getDay() { return day; }
+        public int getStartMinute() { return startMinute; }
+        public int getEndMinute() { return endMinute; }
+        public LocalTime getStartTime() { return LocalTime.of(startMinute / 60, startMinute % 60); }
+        public LocalTime getEndTime() { return LocalTime.of(endMinute / 60, endMinute % 60); }
+        public Room getRoom() { return room; }
+
+        /**
+         * @return Coste de la colocación; menor es mejor
+         */
+        public long getCost() { return cost; }
+
+        /**
+         * @return Conflictos blandos que produciría la colocación
+         */
+        public EnumSet<ConflictType> getSoftConflicts() {
+            return ConflictType.fromMask(softConflictMask);
+        }
+
+        @Override
+        public String toString() {
+            return "Placement[" + day + " " + getStartTime() + "-" + getEndTime()
+                + ", aula=" + room.getId() + ", coste=" + cost + "]";
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Optimizador de restricciones blandas por recocido simulado multihilo.
+ *
+ * Parte de un horario sin conflictos duros (por ejemplo el de {@link TimetableSolver}) y
+ * mueve sesiones de hora, día o aula para reducir una penalización que suma:
+ * <ul>
+ *   <li>Sobrecarga: cada día en que un profesor imparte clase tanto en la franja de
+ *       16:00-18:00 como empezando entre las 18:00 y las 20:00.</li>
+ *   <li>Huecos: minutos libres entre sesiones consecutivas de un mismo profesor o grupo
+ *       en el mismo día.</li>
+ *   <li>Ajuste de aula: asientos que quedan libres en el aula de cada sesión.</li>
+ * </ul>
+ * La regla de {@link com.example.miapp.domain.conflict.ConflictType#PROFESSOR_WORKLOAD} solo
+ * marca franjas exactas que además se tocan a las 18:00, lo que ya es un solapamiento de
+ * profesor; por eso la sobrecarga se penaliza aquí con las franjas completas.
+ *
+ * La penalización se evalúa de forma incremental: un movimiento solo recalcula los días del
+ * profesor y del grupo afectados. Ningún movimiento introduce conflictos duros (solapamiento
+ * de profesor, aula o grupo, franjas bloqueadas o inválidas, capacidad o compatibilidad del
+ * aula); los que ya tuviera el horario de partida no se corrigen.
+ *
+ * Cada trabajador recorre su propia cadena de recocido desde el mismo horario con un
+ * generador aleatorio propio ({@code new Random(seed + i)}, como
+ * {@link ProfessorAssignmentGenerator}), y se devuelve el mejor resultado desempatando por
+ * índice de trabajador. Más trabajadores exploran más cadenas; el resultado depende solo de
+ * la semilla, del número de trabajadores y del orden de las asignaciones recibidas, nunca de
+ * los procesadores de la máquina, por lo que el número de trabajadores se indica siempre de
+ * forma explícita.
+ */
+public class ScheduleOptimizer {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleOptimizer.class);
+
+    /**
+     * Penalización por cada día con sobrecarga de un profesor.
+     */
+    public static final int WORKLOAD_WEIGHT = 500;
+
+    /**
+     * Penalización por cada minuto de hueco de un profesor o grupo.
+     */
+    public static final int GAP_WEIGHT = 1;
+
+    /**
+     * Penalización por cada asiento libre en el aula de una sesión.
+     */
+    public static final int SPARE_SEAT_WEIGHT = 2;
+
+    /**
+     * Número por defecto de movimientos probados por cada trabajador.
+     */
+    public static final int DEFAULT_ITERATIONS = 200_000;
+
+    private static final double INITIAL_TEMPERATURE = 200.0;
+    private static final double FINAL_TEMPERATURE = 0.5;
+
+    private static final int AFTERNOON_START = 16 * 60;
+    private static final int AFTERNOON_END = 18 * 60;
+    private static final int EVENING_START = 18 * 60;
+    private static final int EVENING_END = 20 * 60;
+
+    private static final int PROFESSOR_BUCKET = 0;
+    private static final int GROUP_BUCKET = 1;
+    private static final int ROOM_BUCKET = 2;
+
+    private final List<Room> rooms;
+    private final int stepMinutes;
+    private final int workers;
+    private final int iterations;
+    private final long seed;
+
+    /**
+     * Crea un optimizador con el paso y las iteraciones por defecto.
+     *
+     * @param rooms Aulas disponibles
+     * @param workers Número de cadenas de recocido; forma parte de la entrada reproducible
+     * @param seed Semilla de los generadores aleatorios
+     * @throws NullPointerException si rooms es null
+     * @throws IllegalArgumentException si workers no es positivo
+     */
+    public ScheduleOptimizer(Collection<Room> rooms, int workers, long seed) {
+        this(rooms, TimetableSolver.DEFAULT_STEP_MINUTES, workers, DEFAULT_ITERATIONS, seed);
+    }
+
+    /**
+     * Crea un optimizador.
+     *
+     * @param rooms Aulas disponibles
+     * @param stepMinutes Separación entre las horas de inicio candidatas
+     * @param workers Número de cadenas de recocido, ejecutadas en paralelo
+     * @param iterations Movimientos probados por cada trabajador
+     * @param seed Semilla de los generadores aleatorios
+     * @throws NullPointerException si rooms es null
+     * @throws IllegalArgumentException si algún parámetro numérico no es positivo
+     */
+    public ScheduleOptimizer(Collection<Room> rooms, int stepMinutes, int workers, int iterations, long seed) {
+        Objects.requireNonNull(rooms, "Las aulas no pueden ser null");
+        if (stepMinutes < 1 || workers < 1 || iterations < 1) {
+            throw new IllegalArgumentException("El paso, los trabajadores y las iteraciones deben ser positivos");
+        }
+        List<Room> sorted = new ArrayList<>(rooms);
+        sorted.sort(Comparator.comparingInt(Room::getId));
+        this.rooms = Collections.unmodifiableList(sorted);
+        this.stepMinutes = stepMinutes;
+        this.workers = workers;
+        this.iterations = iterations;
+        this.seed = seed;
+    }
+
+    /**
+     * Optimiza un horario. Las asignaciones recibidas no se modifican.
+     *
+     * @param assignments Horario de partida, preferiblemente sin conflictos duros
+     * @return Resultado con el mejor horario encontrado
+     * @throws NullPointerException si assignments es null
+     */
+    public Result optimize(Collection<Assignment> assignments) {
+        Objects.requireNonNull(assignments, "Las asignaciones no pueden ser null");
+        long startNanos = System.nanoTime();
+
+        Problem problem = new Problem(new ArrayList<>(assignments));
+        List<Worker> chains = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            chains.add(new Worker(problem, new Random(seed + i)));
+        }
+
+        if (workers == 1) {
+            chains.get(0).run();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+                for (Worker worker : chains) {
+                    tasks.add(pool.submit(worker::run));
+                }
+                tasks.forEach(ForkJoinTask::join);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        int bestWorker = 0;
+        for (int i = 1; i < workers; i++) {
+            if (chains.get(i).bestPenalty < chains.get(bestWorker).bestPenalty) {
+                bestWorker = i;
+            }
+        }
+        Worker best = chains.get(bestWorker);
+
+        List<Assignment> optimized = new ArrayList<>(problem.size());
+        int moved = 0;
+        for (int i = 0; i < problem.size(); i++) {
+            Assignment result = problem.toAssignment(i, best.bestDay[i], best.bestStart[i], best.bestRoom[i]);
+            if (result != problem.assignments.get(i)) {
+                moved++;
+            }
+            optimized.add(result);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Horario optimizado: penalización {} -> {} ({} sesiones movidas, trabajador {} de {}) en {} ms",
+                   best.initialPenalty, best.bestPenalty, moved, bestWorker, workers, elapsedMillis);
+        return new Result(optimized, best.initialPenalty, best.bestPenalty, moved, elapsedMillis);
+    }
+
+    /**
+     * Datos inmutables del problema, compartidos por todos los trabajadores: sesiones,
+     * aulas compatibles y colocaciones (día y hora) admisibles de cada sesión.
+     */
+    private final class Problem {
+        final List<Assignment> assignments;
+        final int[] duration;
+        final Room[][] roomOptions;
+        final int[][] dayOptions;
+        final int[][] startOptions;
+
+        Problem(List<Assignment> assignments) {
+            this.assignments = assignments;
+            int n = assignments.size();
+            this.duration = new int[n];
+            this.roomOptions = new Room[n][];
+            this.dayOptions = new int[n][];
+            this.startOptions = new int[n][];
+
+            for (int i = 0; i < n; i++) {
+                Assignment assignment = assignments.get(i);
+                duration[i] = assignment.getEndMinute() - assignment.getStartMinute();
+
+                List<Room> compatible = new ArrayList<>();
+                for (Room room : rooms) {
+                    if (room.hasCapacityFor(assignment.getEnrolledStudents())
+                            && room.isCompatibleWithLabRequirement(assignment.isRequiresLab())) {
+                        compatible.add(room);
+                    }
+                }
+                roomOptions[i] = compatible.toArray(new Room[0]);
+
+                List<int[]> placements = new ArrayList<>();
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    for (TimeSlot.TimeRange range : TimeSlot.getValidTimeSlots(day)) {
+                        int rangeEnd = TimeSlot.toMinuteOfDay(range.getEnd());
+                        for (int start = TimeSlot.toMinuteOfDay(range.getStart()); start + duration[i] <= rangeEnd; start += stepMinutes) {
+                            if (!assignment.getProfessor().hasBlockedSlotConflict(day.ordinal(), start, start + duration[i])) {
+                                placements.add(new int[] {day.ordinal(), start});
+                            }
+                        }
+                    }
+                }
+                dayOptions[i] = new int[placements.size()];
+                startOptions[i] = new int[placements.size()];
+                for (int p = 0; p < placements.size(); p++) {
+                    dayOptions[i][p] = placements.get(p)[0];
+                    startOptions[i][p] = placements.get(p)[1];
+                }
+            }
+        }
+
+        int size() {
+            return assignments.size();
+        }
+
+        Assignment toAssignment(int i, int day, int start, Room room) {
+            Assignment assignment = assignments.get(i);
+            if (day == assignment.getDayOrdinal() && start == assignment.getStartMinute()
+                    && room.getId() == assignment.getRoomId()) {
+                return assignment;
+            }
+            DayOfWeek dayOfWeek = DayOfWeek.values()[day];
+            int end = start + duration[i];
+            return new Assignment.Builder()
+                .id(assignment.getId())
+                .assignmentDate(assignment.getAssignmentDate())
+                .professor(assignment.getProfessor())
+                .room(room)
+                .subject(assignment.getSubject())
+                .groupId(assignment.getGroupId())
+                .groupName(assignment.getGroupName())
+                .day(day == assignment.getDayOrdinal() ? assignment.getDay() : TimeSlot.getDayName(dayOfWeek, Locale.ENGLISH))
+                .startTime(LocalTime.of(start / 60, start % 60))
+                .endTime(LocalTime.of(end / 60, end % 60))
+                .sessionType(assignment.getSessionType())
+                .enrolledStudents(assignment.getEnrolledStudents())
+                .build();
+        }
+    }
+
+    /**
+     * Cadena de recocido simulado con su propio estado y generador aleatorio.
+     * Las sesiones se agrupan por (profesor, día), (grupo, día) y (aula, día); la
+     * penalización de un movimiento se calcula solo sobre los grupos que cambian.
+     */
+    private final class Worker {
+        final Problem problem;
+        final Random random;
+        final int[] day;
+        final int[] start;
+        final Room[] room;
+        final Map<Long, List<Integer>> buckets = new HashMap<>();
+
+        int[] bestDay;
+        int[] bestStart;
+        Room[] bestRoom;
+        long initialPenalty;
+        long bestPenalty;
+
+        Worker(Problem problem, Random random) {
+            this.problem = problem;
+            this.random = random;
+            int n = problem.size();
+            this.day = new int[n];
+            this.start = new int[n];
+            this.room = new Room[n];
+            for (int i = 0; i < n; i++) {
+                Assignment assignment = problem.assignments.get(i);
+                day[i] = assignment.getDayOrdinal();
+                start[i] = assignment.getStartMinute();
+                room[i] = assignment.getRoom();
+                link(i);
+            }
+        }
+
+        void run() {
+            long current = 0;
+            for (Map.Entry<Long, List<Integer>> entry : buckets.entrySet()) {
+                current += bucketPenalty(entry.getKey(), entry.getValue());
+            }
+            for (int i = 0; i < problem.size(); i++) {
+                current += seatPenalty(i, room[i]);
+            }
+            initialPenalty = current;
+            bestPenalty = current;
+            boolean currentIsBest = true;
+            saveBest();
+
+            int n = problem.size();
+            double cooling = Math.pow(FINAL_TEMPERATURE / INITIAL_TEMPERATURE, 1.0 / iterations);
+            double temperature = INITIAL_TEMPERATURE;
+            for (int iteration = 0; iteration < iterations && n > 0; iteration++, temperature *= cooling) {
+                int i = random.nextInt(n);
+                int newDay = day[i];
+                int newStart = start[i];
+                Room newRoom = room[i];
+                double kind = random.nextDouble();
+                if (kind < 0.7 && problem.dayOptions[i].length > 0) {
+                    int option = random.nextInt(problem.dayOptions[i].length);
+                    newDay = problem.dayOptions[i][option];
+                    newStart = problem.startOptions[i][option];
+                }
+                if ((kind >= 0.3) && problem.roomOptions[i].length > 0) {
+                    newRoom = problem.roomOptions[i][random.nextInt(problem.roomOptions[i].length)];
+                }
+                if ((newDay == day[i] && newStart == start[i] && newRoom == room[i])
+                        || !isFeasible(i, newDay, newStart, newRoom)) {
+                    continue;
+                }
+
+                int oldDay = day[i];
+                int oldStart = start[i];
+                Room oldRoom = room[i];
+                long delta = move(i, newDay, newStart, newRoom);
+                if (delta > 0 && random.nextDouble() >= Math.exp(-delta / temperature)) {
+                    move(i, oldDay, oldStart, oldRoom);
+                    continue;
+                }
+                if (delta > 0 && currentIsBest) {
+                    // El mejor estado es el anterior al movimiento: se guarda deshaciéndolo un momento
+                    move(i, oldDay, oldStart, oldRoom);
+                    saveBest();
+                    move(i, newDay, newStart, newRoom);
+                    currentIsBest = false;
+                }
+                current += delta;
+                if (current < bestPenalty) {
+                    bestPenalty = current;
+                    currentIsBest = true;
+                }
+            }
+            if (currentIsBest) {
+                saveBest();
+            }
+        }
+
+        /**
+         * Aplica un movimiento y devuelve la variación de la penalización.
+         */
+        private long move(int i, int newDay, int newStart, Room newRoom) {
+            Assignment assignment = problem.assignments.get(i);
+            long professorOld = key(PROFESSOR_BUCKET, assignment.getProfessorId(), day[i]);
+            long groupOld = key(GROUP_BUCKET, assignment.getGroupId(), day[i]);
+            long professorNew = key(PROFESSOR_BUCKET, assignment.getProfessorId(), newDay);
+            long groupNew = key(GROUP_BUCKET, assignment.getGroupId(), newDay);
+            boolean sameDay = newDay == day[i];
+
+            long before = bucketPenalty(professorOld) + bucketPenalty(groupOld) + seatPenalty(i, room[i]);
+            if (!sameDay) {
+                before += bucketPenalty(professorNew) + bucketPenalty(groupNew);
+            }
+
+            unlink(i);
+            day[i] = newDay;
+            start[i] = newStart;
+            room[i] = newRoom;
+            link(i);
+
+            long after = bucketPenalty(professorNew) + bucketPenalty(groupNew) + seatPenalty(i, newRoom);
+            if (!sameDay) {
+                after += bucketPenalty(professorOld) + bucketPenalty(groupOld);
+            }
+            return after - before;
+        }
+
+        /**
+         * Comprueba que la sesión no se solape en la nueva posición con otra del mismo
+         * profesor, grupo o aula. Las franjas válidas, bloqueadas y la compatibilidad del
+         * aula ya están garantizadas por las opciones del problema.
+         */
+        private boolean isFeasible(int i, int newDay, int newStart, Room newRoom) {
+            Assignment assignment = problem.assignments.get(i);
+            int newEnd = newStart + problem.duration[i];
+            return isFree(key(PROFESSOR_BUCKET, assignment.getProfessorId(), newDay), i, newStart, newEnd)
+                && isFree(key(GROUP_BUCKET, assignment.getGroupId(), newDay), i, newStart, newEnd)
+                && isFree(key(ROOM_BUCKET, newRoom.getId(), newDay), i, newStart, newEnd);
+        }
+
+        private boolean isFree(long bucketKey, int self, int newStart, int newEnd) {
+            List<Integer> bucket = buckets.get(bucketKey);
+            if (bucket == null) {
+                return true;
+            }
+            for (int other : bucket) {
+                if (other != self && TimeSlot.overlapsMinutes(start[other], start[other] + problem.duration[other], newStart, newEnd)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long bucketPenalty(long bucketKey) {
+            List<Integer> bucket = buckets.get(bucketKey);
+            return bucket == null ? 0 : bucketPenalty(bucketKey, bucket);
+        }
+
+        /**
+         * Penalización de las sesiones de un profesor o grupo en un día: huecos entre
+         * sesiones consecutivas y, para profesores, sobrecarga de tarde y noche.
+         */
+        private long bucketPenalty(long bucketKey, List<Integer> bucket) {
+            int kind = (int) (bucketKey >>> 40);
+            if (kind == ROOM_BUCKET || bucket.size() < 2) {
+                return 0;
+            }
+            int[][] ranges = new int[bucket.size()][];
+            for (int k = 0; k < ranges.length; k++) {
+                int i = bucket.get(k);
+                ranges[k] = new int[] {start[i], start[i] + problem.duration[i]};
+            }
+            Arrays.sort(ranges, Comparator.comparingInt(range -> range[0]));
+
+            long gapMinutes = 0;
+            int lastEnd = ranges[0][1];
+            boolean afternoon = false;
+            boolean evening = false;
+            for (int k = 0; k < ranges.length; k++) {
+                if (k > 0 && ranges[k][0] > lastEnd) {
+                    gapMinutes += ranges[k][0] - lastEnd;
+                }
+                lastEnd = Math.max(lastEnd, ranges[k][1]);
+                afternoon |= ranges[k][1] > AFTERNOON_START && ranges[k][1] <= AFTERNOON_END;
+                evening |= ranges[k][0] >= EVENING_START && ranges[k][0] < EVENING_END;
+            }
+            long penalty = gapMinutes * GAP_WEIGHT;
+            if (kind == PROFESSOR_BUCKET && afternoon && evening) {
+                penalty += WORKLOAD_WEIGHT;
+            }
+            return penalty;
+        }
+
+        private long seatPenalty(int i, Room r) {
+            return (long) (r.getCapacity() - problem.assignments.get(i).getEnrolledStudents()) * SPARE_SEAT_WEIGHT;
+        }
+
+        private void link(int i) {
+            Assignment assignment = problem.assignments.get(i);
+            bucket(key(PROFESSOR_BUCKET, assignment.getProfessorId(), day[i])).add(i);
+            bucket(key(GROUP_BUCKET, assignment.getGroupId(), day[i])).add(i);
+            bucket(key(ROOM_BUCKET, room[i].getId(), day[i])).add(i);
+        }
+
+        private void unlink(int i) {
+            Assignment assignment = problem.assignments.get(i);
+            buckets.get(key(PROFESSOR_BUCKET, assignment.getProfessorId(), day[i])).remove(Integer.valueOf(i));
+            buckets.get(key(GROUP_BUCKET, assignment.getGroupId(), day[i])).remove(Integer.valueOf(i));
+            buckets.get(key(ROOM_BUCKET, room[i].getId(), day[i])).remove(Integer.valueOf(i));
+        }
+
+        private List<Integer> bucket(long bucketKey) {
+            return buckets.computeIfAbsent(bucketKey, k -> new ArrayList<>(4));
+        }
+
+        private void saveBest() {
+            bestDay = day.clone();
+            bestStart = start.clone();
+            bestRoom = room.clone();
+        }
+    }
+
+    private static long key(int kind, int id, int day) {
+        return ((long) kind << 40) | ((long) day << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Resultado de una optimización. Inmutable.
+     */
+    public static final class Result {
+        private final List<Assignment> assignments;
+        private final long initialPenalty;
+        private final long penalty;
+        private final int movedCount;
+        private final long elapsedMillis;
+
+        Result(List<Assignment> assignments, long initialPenalty, long penalty, int movedCount, long elapsedMillis) {
+            this.assignments = Collections.unmodifiableList(assignments);
+            this.initialPenalty = initialPenalty;
+            this.penalty = penalty;
+            this.movedCount = movedCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * @return Horario optimizado, en el orden recibido; las asignaciones movidas son
+         *         copias con el mismo ID
+         */
+        public List<Assignment> getAssignments() { return assignments; }
+
+        public long getInitialPenalty() { return initialPenalty; }
+        public long getPenalty() { return penalty; }
+        public int getMovedCount() { return movedCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "ScheduleOptimizer.Result[penalización=" + initialPenalty + "->" + penalty
+                + ", movidas=" + movedCount + ", ms=" + elapsedMillis + "]";
+        }
+    }
+}
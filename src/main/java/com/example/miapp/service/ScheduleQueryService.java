@@ -0,0 +1,444 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Servicio de consultas hipotéticas ("¿puedo colocar esta sesión aquí?") sobre una
+ * instantánea inmutable del horario. Cada consulta valida la asignación candidata con
+ * {@link ConflictDetector#validateAssignment(Assignment)} y la compara con las asignaciones
+ * del mismo día que se solapan en el tiempo, sin añadirla al grafo: el
+ * {@link ConflictGraphLoader} de origen nunca se modifica.
+ *
+ * Las consultas en lote se ordenan por día y hora de inicio y se reparten en tareas que
+ * recorren zonas contiguas del índice. Las tareas se ejecutan en hilos virtuales cuando la
+ * JVM los ofrece (Java 21 o superior) y, si no, en un pool de hilos de plataforma. El
+ * servicio mide la latencia de cada consulta y expone sus percentiles p50 y p99.
+ *
+ * Es thread-safe: el índice es inmutable y puede consultarse desde varios hilos a la vez.
+ */
+public class ScheduleQueryService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleQueryService.class);
+
+    // Consultas por tarea en los lotes; agrupa consultas cercanas en el índice
+    private static final int PROBES_PER_TASK = 32;
+
+    private final ConflictGraphSnapshot snapshot;
+    private final ConflictDetector conflictDetector;
+    private final DayIndex[] dayIndexes;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Crea el servicio sobre una instantánea con un detector de conflictos por defecto.
+     *
+     * @param snapshot Instantánea del horario a consultar
+     * @throws NullPointerException si snapshot es null
+     */
+    public ScheduleQueryService(ConflictGraphSnapshot snapshot) {
+        this(snapshot, new ConflictDetector());
+    }
+
+    /**
+     * Crea el servicio sobre una instantánea.
+     *
+     * @param snapshot Instantánea del horario a consultar
+     * @param conflictDetector Detector usado para validar y comparar las candidatas
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public ScheduleQueryService(ConflictGraphSnapshot snapshot, ConflictDetector conflictDetector) {
+        this(snapshot, conflictDetector, true);
+    }
+
+    /**
+     * Crea el servicio eligiendo si pueden usarse hilos virtuales; con false las consultas en
+     * lote usan siempre el pool de hilos de plataforma, como en una JVM sin hilos virtuales.
+     */
+    ScheduleQueryService(ConflictGraphSnapshot snapshot, ConflictDetector conflictDetector,
+                         boolean allowVirtualThreads) {
+        this.snapshot = Objects.requireNonNull(snapshot, "La instantánea no puede ser null");
+        this.conflictDetector = Objects.requireNonNull(conflictDetector, "El detector de conflictos no puede ser null");
+
+        this.dayIndexes = new DayIndex[DayOfWeek.values().length];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            dayIndexes[day.ordinal()] = new DayIndex(snapshot.getAssignments(day));
+        }
+
+        ExecutorService virtualExecutor = allowVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualThreads ? virtualExecutor
+                                       : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                                             Thread thread = new Thread(runnable, "schedule-query");
+                                             thread.setDaemon(true);
+                                             return thread;
+                                         });
+
+        logger.info("ScheduleQueryService inicializado sobre versión {} ({} asignaciones, hilos {})",
+                  snapshot.getVersion(), snapshot.getAssignmentCount(), virtualThreads ? "virtuales" : "de plataforma");
+    }
+
+    /**
+     * Crea un ejecutor de un hilo virtual por tarea si la JVM lo ofrece. Se invoca por
+     * reflexión para poder compilar con Java 17.
+     *
+     * @return Ejecutor de hilos virtuales, o null si no están disponibles
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            logger.debug("Hilos virtuales no disponibles: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return Instantánea sobre la que se resuelven las consultas
+     */
+    public ConflictGraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return true si las consultas en lote se ejecutan en hilos virtuales
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Comprueba si una asignación candidata podría colocarse en el horario.
+     * Una asignación del horario con el mismo ID que la candidata no se considera
+     * (la candidata representa su nueva posición).
+     *
+     * @param candidate Asignación a comprobar; no se añade al grafo
+     * @return Resultado con los auto-conflictos y los conflictos con otras asignaciones
+     * @throws NullPointerException si candidate es null
+     */
+    public ProbeResult probe(Assignment candidate) {
+        Objects.requireNonNull(candidate, "La asignación candidata no puede ser null");
+        long start = System.nanoTime();
+
+        List<ConflictType> selfConflicts = conflictDetector.validateAssignment(candidate);
+        List<ConflictEdgeView> conflicts = new ArrayList<>();
+        dayIndexes[candidate.getDayOfWeek().ordinal()].forEachOverlapping(candidate, existing -> {
+            if (existing.getId() != candidate.getId() && conflictDetector.timeOverlaps(existing, candidate)) {
+                int mask = existing.pairConflictMask(candidate);
+                if (mask != 0) {
+                    conflicts.add(new ConflictEdgeView(candidate.getId(), existing.getId(), mask));
+                }
+            }
+        });
+
+        long elapsed = System.nanoTime() - start;
+        latencies.record(elapsed);
+        return new ProbeResult(candidate, selfConflicts, conflicts, elapsed);
+    }
+
+    /**
+     * Resuelve varias consultas de forma concurrente. Las candidatas se agrupan por día y
+     * hora de inicio en tareas de {@value #PROBES_PER_TASK} consultas.
+     *
+     * @param candidates Asignaciones a comprobar
+     * @return Resultados en el mismo orden que las candidatas
+     * @throws NullPointerException si la colección o alguno de sus elementos es null
+     * @throws IllegalStateException si el hilo se interrumpe mientras espera los resultados
+     */
+    public List<ProbeResult> probeAll(Collection<Assignment> candidates) {
+        Objects.requireNonNull(candidates, "La colección de candidatas no puede ser null");
+
+        Assignment[] input = candidates.toArray(new Assignment[0]);
+        Integer[] order = new Integer[input.length];
+        for (int i = 0; i < input.length; i++) {
+            Objects.requireNonNull(input[i], "La asignación candidata no puede ser null");
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> input[i].getDayOrdinal())
+                                     .thenComparingInt(i -> input[i].getStartTime().toSecondOfDay()));
+
+        ProbeResult[] results = new ProbeResult[input.length];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < order.length; from += PROBES_PER_TASK) {
+            int taskFrom = from;
+            int taskTo = Math.min(order.length, from + PROBES_PER_TASK);
+            tasks.add(() -> {
+                for (int i = taskFrom; i < taskTo; i++) {
+                    results[order[i]] = probe(input[order[i]]);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta en lote interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Error en consulta en lote", e.getCause());
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Resueltas {} consultas en {} tareas: {}", input.length, tasks.size(), getLatencyStats());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Obtiene una instantánea de las latencias de todas las consultas resueltas.
+     *
+     * @return Estadísticas actuales
+     */
+    public LatencyStats getLatencyStats() {
+        return latencies.stats();
+    }
+
+    /**
+     * Detiene el ejecutor de las consultas en lote.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Índice inmutable de las asignaciones de un día, ordenadas por hora de inicio, con
+     * los límites en segundos del día. El solapamiento es inclusivo en los extremos,
+     * igual que en {@link AssignmentIntervalIndex}.
+     */
+    private static final class DayIndex {
+        private final Assignment[] assignments;
+        private final int[] starts;
+        private final int[] ends;
+        private final int maxDuration;
+
+        DayIndex(List<Assignment> dayAssignments) {
+            assignments = dayAssignments.toArray(new Assignment[0]);
+            Arrays.sort(assignments, Comparator.comparingInt((Assignment a) -> a.getStartTime().toSecondOfDay())
+                                               .thenComparingInt(Assignment::getId));
+            starts = new int[assignments.length];
+            ends = new int[assignments.length];
+            int longest = 0;
+            for (int i = 0; i < assignments.length; i++) {
+                starts[i] = assignments[i].getStartTime().toSecondOfDay();
+                ends[i] = assignments[i].getEndTime().toSecondOfDay();
+                longest = Math.max(longest, ends[i] - starts[i]);
+            }
+            maxDuration = longest;
+        }
+
+        /**
+         * Recorre las asignaciones cuyo rango se solapa con el de la candidata.
+         */
+        void forEachOverlapping(Assignment candidate, Consumer<Assignment> action) {
+            int start = candidate.getStartTime().toSecondOfDay();
+            int end = candidate.getEndTime().toSecondOfDay();
+
+            // Ninguna asignación que empiece antes de start - maxDuration puede llegar a start
+            int i = lowerBound(start - maxDuration);
+            for (; i < starts.length && starts[i] <= end; i++) {
+                if (ends[i] >= start) {
+                    action.accept(assignments[i]);
+                }
+            }
+        }
+
+        private int lowerBound(int value) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Histograma de latencias sin bloqueos con cubos logarítmicos: 8 subcubos por potencia
+     * de dos, por lo que los percentiles tienen un error relativo máximo del 12,5%.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 3;
+        private static final int LINEAR_LIMIT = 2 << SUB_BITS; // Valores exactos por debajo de 16 ns
+        private static final int BUCKETS = LINEAR_LIMIT + (64 - SUB_BITS - 1) * (1 << SUB_BITS);
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucketOf(value));
+            total.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        LatencyStats stats() {
+            long[] snapshot = new long[BUCKETS];
+            long samples = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                samples += snapshot[i];
+            }
+            long maxNanos = max.get();
+            return new LatencyStats(samples,
+                                    Math.min(maxNanos, percentile(snapshot, samples, 0.50)),
+                                    Math.min(maxNanos, percentile(snapshot, samples, 0.99)),
+                                    maxNanos,
+                                    samples == 0 ? 0 : total.sum() / samples);
+        }
+
+        private static long percentile(long[] snapshot, long samples, double fraction) {
+            if (samples == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * samples);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return upperBoundOf(snapshot.length - 1);
+        }
+
+        static int bucketOf(long value) {
+            if (value < LINEAR_LIMIT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+            return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * (1 << SUB_BITS) + sub;
+        }
+
+        /**
+         * @return Mayor valor que cae en el cubo
+         */
+        static long upperBoundOf(int bucket) {
+            if (bucket < LINEAR_LIMIT) {
+                return bucket;
+            }
+            int offset = bucket - LINEAR_LIMIT;
+            int exponent = offset / (1 << SUB_BITS) + SUB_BITS + 1;
+            int sub = offset % (1 << SUB_BITS);
+            long lower = ((long) ((1 << SUB_BITS) + sub)) << (exponent - SUB_BITS);
+            return lower + (1L << (exponent - SUB_BITS)) - 1;
+        }
+    }
+
+    /**
+     * Resultado inmutable de una consulta hipotética.
+     */
+    public static final class ProbeResult {
+        private final Assignment candidate;
+        private final List<ConflictType> selfConflicts;
+        private final List<ConflictEdgeView> conflicts;
+        private final long latencyNanos;
+
+        ProbeResult(Assignment candidate, List<ConflictType> selfConflicts,
+                    List<ConflictEdgeView> conflicts, long latencyNanos) {
+            this.candidate = candidate;
+            this.selfConflicts = Collections.unmodifiableList(selfConflicts);
+            this.conflicts = Collections.unmodifiableList(conflicts);
+            this.latencyNanos = latencyNanos;
+        }
+
+        public Assignment getCandidate() { return candidate; }
+        public long getLatencyNanos() { return latencyNanos; }
+
+        /**
+         * @return Conflictos de la candidata consigo misma (franja inválida o bloqueada,
+         *         autorización, capacidad y compatibilidad del aula)
+         */
+        public List<ConflictType> getSelfConflicts() {
+            return selfConflicts;
+        }
+
+        /**
+         * @return Conflictos con asignaciones del horario; el origen de cada vista es la
+         *         candidata y el destino la asignación existente
+         */
+        public List<ConflictEdgeView> getConflicts() {
+            return conflicts;
+        }
+
+        /**
+         * @return true si la candidata no tiene ningún conflicto
+         */
+        public boolean isPlaceable() {
+            return selfConflicts.isEmpty() && conflicts.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "ProbeResult[id=" + candidate.getId() + ", colocable=" + isPlaceable()
+                + ", autoConflictos=" + selfConflicts + ", conflictos=" + conflicts.size() + "]";
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las latencias de las consultas.
+     */
+    public static final class LatencyStats {
+        private final long count;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final long meanNanos;
+
+        LatencyStats(long count, long p50Nanos, long p99Nanos, long maxNanos, long meanNanos) {
+            this.count = count;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.meanNanos = meanNanos;
+        }
+
+        public long getCount() { return count; }
+        public long getP50Nanos() { return p50Nanos; }
+        public long getP99Nanos() { return p99Nanos; }
+        public long getMaxNanos() { return maxNanos; }
+        public long getMeanNanos() { return meanNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("Latencias[consultas=%d, p50=%.1f µs, p99=%.1f µs, máx=%.1f µs, media=%.1f µs]",
+                               count, p50Nanos / 1000.0, p99Nanos / 1000.0, maxNanos / 1000.0, meanNanos / 1000.0);
+        }
+    }
+}
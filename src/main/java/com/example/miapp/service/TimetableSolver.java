@@ -0,0 +1,639 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.OccupancyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Resuelve automáticamente los conflictos duros de un horario reasignando hora y aula a
+ * las sesiones, a partir del grafo de conflictos.
+ *
+ * Cada día se resuelve de forma independiente (las aristas del grafo solo unen sesiones
+ * del mismo día) y los días se procesan en paralelo:
+ * <ol>
+ *   <li>Las sesiones sin conflictos duros en el grafo se fijan en su hora y aula originales,
+ *       siempre que esa colocación sea admisible y siga libre.</li>
+ *   <li>Coloreado voraz con orden de Welsh–Powell de las sesiones restantes: se colocan de
+ *       mayor a menor grado de conflictos duros en el grafo, desempatando por la que tiene menos
+ *       colocaciones posibles. Cada "color" es un par (hora de inicio, aula), y cada sesión
+ *       toma el de menor coste entre los que no chocan con las ya colocadas, empezando por
+ *       su posición original.</li>
+ *   <li>Búsqueda local por expulsión: una sesión sin hueco ocupa la colocación que obliga a
+ *       desplazar menos sesiones (como mucho {@value #MAX_EJECTIONS}), y las desplazadas
+ *       vuelven a la cola. Una sesión recién colocada no puede ser expulsada durante
+ *       {@value #TABU_TENURE} iteraciones, para evitar ciclos.</li>
+ * </ol>
+ * Las sesiones que siguen sin hueco en su día se intentan colocar en otro día; si tampoco
+ * es posible conservan su posición original y se informan como no resueltas.
+ *
+ * Son conflictos duros el solapamiento de profesor, aula o grupo, las franjas bloqueadas
+ * del profesor, las franjas horarias inválidas y la capacidad o compatibilidad del aula.
+ * La misma jornada ({@link ConflictType#SESSION_TYPE}) no se considera, y la falta de
+ * autorización del profesor no puede resolverse moviendo la sesión.
+ */
+public class TimetableSolver {
+    private static final Logger logger = LoggerFactory.getLogger(TimetableSolver.class);
+
+    /**
+     * Separación por defecto entre las horas de inicio candidatas, en minutos.
+     */
+    public static final int DEFAULT_STEP_MINUTES = 30;
+
+    /**
+     * Número máximo por defecto de iteraciones de búsqueda local por día.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 20_000;
+
+    // Máximo de sesiones desplazadas por una expulsión
+    private static final int MAX_EJECTIONS = 2;
+
+    // Iteraciones durante las que una sesión colocada por expulsión no puede ser desplazada
+    private static final int TABU_TENURE = 10;
+
+    // Coste de cambiar de aula, en minutos equivalentes de desplazamiento
+    private static final int ROOM_CHANGE_COST = 60;
+
+    // Coste de cada sesión desplazada por una expulsión
+    private static final int EJECTION_COST = 100_000;
+
+    // Con franjas de un minuto la ocupación coincide exactamente con el solapamiento inclusivo
+    private static final int SLOT_MINUTES = 1;
+
+    private final List<Room> rooms;
+    private final int stepMinutes;
+    private final int parallelism;
+    private final int maxIterations;
+
+    /**
+     * Crea un resolutor con los parámetros por defecto y un hilo por procesador.
+     *
+     * @param rooms Aulas disponibles
+     * @throws NullPointerException si rooms es null
+     */
+    public TimetableSolver(Collection<Room> rooms) {
+        this(rooms, DEFAULT_STEP_MINUTES, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Crea un resolutor.
+     *
+     * @param rooms Aulas disponibles
+     * @param stepMinutes Separación entre las horas de inicio candidatas
+     * @param parallelism Número de días resueltos a la vez (1 para resolverlos en el hilo actual)
+     * @param maxIterations Número máximo de iteraciones de búsqueda local por día
+     * @throws NullPointerException si rooms es null
+     * @throws IllegalArgumentException si algún parámetro numérico no es positivo
+     */
+    public TimetableSolver(Collection<Room> rooms, int stepMinutes, int parallelism, int maxIterations) {
+        Objects.requireNonNull(rooms, "Las aulas no pueden ser null");
+        if (stepMinutes < 1 || parallelism < 1 || maxIterations < 1) {
+            throw new IllegalArgumentException("El paso, el paralelismo y las iteraciones deben ser positivos");
+        }
+        List<Room> sorted = new ArrayList<>(rooms);
+        sorted.sort(Comparator.comparingInt(Room::getId));
+        this.rooms = Collections.unmodifiableList(sorted);
+        this.stepMinutes = stepMinutes;
+        this.parallelism = parallelism;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Resuelve un conjunto de asignaciones, construyendo antes su grafo de conflictos.
+     *
+     * @param assignments Asignaciones del horario
+     * @return Resultado con el horario resuelto
+     * @throws NullPointerException si assignments es null
+     */
+    public Result solve(Collection<Assignment> assignments) {
+        Objects.requireNonNull(assignments, "Las asignaciones no pueden ser null");
+        ConflictGraphLoader loader = new ConflictGraphLoader();
+        loader.addAll(assignments);
+        return solve(loader.snapshot());
+    }
+
+    /**
+     * Resuelve el horario de una instantánea del grafo de conflictos.
+     * La instantánea no se modifica; el horario resuelto se devuelve en el resultado.
+     *
+     * @param snapshot Instantánea con el horario y sus conflictos
+     * @return Resultado con el horario resuelto
+     * @throws NullPointerException si snapshot es null
+     */
+    public Result solve(ConflictGraphSnapshot snapshot) {
+        Objects.requireNonNull(snapshot, "La instantánea no puede ser null");
+        long startNanos = System.nanoTime();
+
+        List<Assignment> assignments = snapshot.getAssignments();
+        Map<DayOfWeek, DaySchedule> days = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            days.put(day, new DaySchedule(day));
+        }
+        List<Session> sessions = new ArrayList<>(assignments.size());
+        for (Assignment assignment : assignments) {
+            Session session = new Session(assignment, hardDegree(snapshot, assignment.getId()), compatibleRooms(assignment));
+            sessions.add(session);
+            days.get(assignment.getDayOfWeek()).sessions.add(session);
+        }
+
+        solveDays(days);
+
+        // Las sesiones sin hueco en su día se reubican en el día de menor coste
+        List<Assignment> unresolved = new ArrayList<>();
+        for (DaySchedule schedule : days.values()) {
+            for (Session session : schedule.unresolved) {
+                Candidate best = null;
+                DaySchedule bestDay = null;
+                for (DaySchedule other : days.values()) {
+                    Candidate candidate = other == schedule ? null : other.findBest(session);
+                    if (candidate != null && (best == null || candidate.cost < best.cost)) {
+                        best = candidate;
+                        bestDay = other;
+                    }
+                }
+                if (bestDay != null) {
+                    bestDay.commit(session, best.start, best.room);
+                } else {
+                    unresolved.add(session.assignment);
+                }
+            }
+        }
+
+        List<Assignment> solved = new ArrayList<>(sessions.size());
+        int moved = 0;
+        for (Session session : sessions) {
+            Assignment result = session.toAssignment();
+            if (result != session.assignment) {
+                moved++;
+            }
+            solved.add(result);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Horario resuelto: {} sesiones, {} movidas, {} sin resolver en {} ms",
+                   sessions.size(), moved, unresolved.size(), elapsedMillis);
+        return new Result(solved, unresolved, moved, elapsedMillis);
+    }
+
+    /**
+     * Resuelve cada día con sesiones, en paralelo si el paralelismo lo permite. Los días
+     * no comparten estado, de modo que cada tarea trabaja sin sincronización.
+     */
+    private void solveDays(Map<DayOfWeek, DaySchedule> days) {
+        List<DaySchedule> pending = new ArrayList<>();
+        for (DaySchedule schedule : days.values()) {
+            if (!schedule.sessions.isEmpty()) {
+                pending.add(schedule);
+            }
+        }
+        if (parallelism <= 1 || pending.size() <= 1) {
+            pending.forEach(DaySchedule::solve);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, pending.size()));
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(pending.size());
+            for (DaySchedule schedule : pending) {
+                tasks.add(pool.submit(schedule::solve));
+            }
+            tasks.forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int hardDegree(ConflictGraphSnapshot snapshot, int assignmentId) {
+        int hardMask = ConflictType.PROFESSOR.mask() | ConflictType.ROOM.mask() | ConflictType.GROUP.mask();
+        int[] degree = new int[1];
+        snapshot.forEachConflictOf(assignmentId, edge -> {
+            if ((edge.getMask() & hardMask) != 0) {
+                degree[0]++;
+            }
+        });
+        return degree[0];
+    }
+
+    private List<Room> compatibleRooms(Assignment assignment) {
+        List<Room> result = new ArrayList<>();
+        for (Room room : rooms) {
+            if (room.hasCapacityFor(assignment.getEnrolledStudents())
+                    && room.isCompatibleWithLabRequirement(assignment.isRequiresLab())) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sesión a colocar y su colocación actual en la solución.
+     */
+    private static final class Session {
+        final Assignment assignment;
+        final int duration;
+        final int degree;
+        final List<Room> rooms;
+
+        DayOfWeek day;
+        int start = -1;
+        Room room;
+        int tabuUntil;
+
+        Session(Assignment assignment, int degree, List<Room> rooms) {
+            this.assignment = assignment;
+            this.duration = assignment.getEndMinute() - assignment.getStartMinute();
+            this.degree = degree;
+            this.rooms = rooms;
+        }
+
+        int end() {
+            return start + duration;
+        }
+
+        boolean isPlaced() {
+            return start >= 0;
+        }
+
+        /**
+         * @return La asignación original si no se ha movido o no se pudo colocar, o una
+         *         copia con el nuevo día, horario y aula
+         */
+        Assignment toAssignment() {
+            if (!isPlaced() || (day == assignment.getDayOfWeek() && start == assignment.getStartMinute()
+                    && room.getId() == assignment.getRoomId())) {
+                return assignment;
+            }
+            String dayName = day == assignment.getDayOfWeek()
+                ? assignment.getDay() : TimeSlot.getDayName(day, Locale.ENGLISH);
+            return new Assignment.Builder()
+                .id(assignment.getId())
+                .assignmentDate(assignment.getAssignmentDate())
+                .professor(assignment.getProfessor())
+                .room(room)
+                .subject(assignment.getSubject())
+                .groupId(assignment.getGroupId())
+                .groupName(assignment.getGroupName())
+                .day(dayName)
+                .startTime(LocalTime.of(start / 60, start % 60))
+                .endTime(LocalTime.of(end() / 60, end() % 60))
+                .sessionType(assignment.getSessionType())
+                .enrolledStudents(assignment.getEnrolledStudents())
+                .build();
+        }
+    }
+
+    /**
+     * Colocación posible de una sesión en un día.
+     */
+    private static final class Candidate {
+        final int start;
+        final Room room;
+        final long cost;
+        final List<Session> blockers;
+
+        Candidate(int start, Room room, long cost, List<Session> blockers) {
+            this.start = start;
+            this.room = room;
+            this.cost = cost;
+            this.blockers = blockers;
+        }
+    }
+
+    /**
+     * Estado de la solución de un día: ocupación de aulas, profesores y grupos y las
+     * sesiones colocadas en cada recurso.
+     */
+    private final class DaySchedule {
+        final DayOfWeek day;
+        final int dayOrdinal;
+        final List<TimeSlot.TimeRange> validRanges;
+        final List<Session> sessions = new ArrayList<>();
+        final List<Session> unresolved = new ArrayList<>();
+
+        final Map<Integer, OccupancyIndex.Occupancy> roomBusy = new HashMap<>();
+        final Map<Integer, OccupancyIndex.Occupancy> professorBusy = new HashMap<>();
+        final Map<Integer, OccupancyIndex.Occupancy> groupBusy = new HashMap<>();
+        final Map<Integer, List<Session>> byRoom = new HashMap<>();
+        final Map<Integer, List<Session>> byProfessor = new HashMap<>();
+        final Map<Integer, List<Session>> byGroup = new HashMap<>();
+
+        DaySchedule(DayOfWeek day) {
+            this.day = day;
+            this.dayOrdinal = day.ordinal();
+            this.validRanges = TimeSlot.getValidTimeSlots(day);
+        }
+
+        void solve() {
+            long startNanos = System.nanoTime();
+
+            // Las sesiones sin conflictos no se mueven; solo se colorean las demás
+            List<Session> conflicted = new ArrayList<>();
+            for (Session session : sessions) {
+                if (!keepOriginal(session)) {
+                    conflicted.add(session);
+                }
+            }
+            conflicted.sort(Comparator.<Session>comparingInt(s -> -s.degree)
+                .thenComparingInt(s -> s.rooms.size())
+                .thenComparingInt(s -> -s.duration)
+                .thenComparingInt(s -> s.assignment.getId()));
+
+            Deque<Session> pending = new ArrayDeque<>();
+            for (Session session : conflicted) {
+                Candidate best = findBest(session);
+                if (best != null) {
+                    commit(session, best.start, best.room);
+                } else {
+                    pending.add(session);
+                }
+            }
+            int greedyMisses = pending.size();
+
+            int iteration = 0;
+            while (!pending.isEmpty() && iteration < maxIterations) {
+                iteration++;
+                Session session = pending.poll();
+                Candidate best = findBest(session);
+                if (best == null) {
+                    best = findEjection(session, iteration);
+                }
+                if (best == null) {
+                    unresolved.add(session);
+                    continue;
+                }
+                for (Session blocker : best.blockers) {
+                    release(blocker);
+                    pending.add(blocker);
+                }
+                commit(session, best.start, best.room);
+                session.tabuUntil = iteration + TABU_TENURE;
+            }
+            unresolved.addAll(pending);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("{}: {} sesiones, {} con conflictos, {} sin hueco tras el coloreado, {} sin resolver tras {} iteraciones en {} ms",
+                           day, sessions.size(), conflicted.size(), greedyMisses, unresolved.size(), iteration,
+                           (System.nanoTime() - startNanos) / 1_000_000);
+            }
+        }
+
+        /**
+         * Fija una sesión en su hora y aula originales si no tiene conflictos duros en el grafo,
+         * su hora es admisible, su aula es compatible y la colocación está libre. Se comprueba
+         * la ocupación porque un grafo cargado fuera de orden de ID puede no tener todas las aristas.
+         *
+         * @return true si la sesión quedó colocada
+         */
+        private boolean keepOriginal(Session session) {
+            Assignment assignment = session.assignment;
+            if (session.degree != 0 || !isAdmissibleOriginal(session)) {
+                return false;
+            }
+            Room room = null;
+            for (Room candidate : session.rooms) {
+                if (candidate.getId() == assignment.getRoomId()) {
+                    room = candidate;
+                }
+            }
+            int start = assignment.getStartMinute();
+            int end = start + session.duration;
+            if (room == null
+                    || !isFree(professorBusy, assignment.getProfessorId(), start, end)
+                    || !isFree(groupBusy, assignment.getGroupId(), start, end)
+                    || !isFree(roomBusy, room.getId(), start, end)) {
+                return false;
+            }
+            commit(session, start, room);
+            return true;
+        }
+
+        private boolean isFree(Map<Integer, OccupancyIndex.Occupancy> busy, int id, int start, int end) {
+            OccupancyIndex.Occupancy occupancy = busy.get(id);
+            return occupancy == null || occupancy.isFree(dayOrdinal, start, end);
+        }
+
+        /**
+         * Busca la colocación libre de menor coste para una sesión.
+         *
+         * @return Colocación sin expulsiones, o null si no hay hueco
+         */
+        Candidate findBest(Session session) {
+            OccupancyIndex.Occupancy professor = professorBusy.get(session.assignment.getProfessorId());
+            OccupancyIndex.Occupancy group = groupBusy.get(session.assignment.getGroupId());
+            Candidate[] best = new Candidate[1];
+            forEachStart(session, start -> {
+                int end = start + session.duration;
+                if ((professor != null && !professor.isFree(dayOrdinal, start, end))
+                        || (group != null && !group.isFree(dayOrdinal, start, end))) {
+                    return;
+                }
+                for (Room room : session.rooms) {
+                    OccupancyIndex.Occupancy busy = roomBusy.get(room.getId());
+                    if (busy == null || busy.isFree(dayOrdinal, start, end)) {
+                        long cost = cost(session, start, room);
+                        if (best[0] == null || cost < best[0].cost) {
+                            best[0] = new Candidate(start, room, cost, Collections.emptyList());
+                        }
+                    }
+                }
+            });
+            return best[0];
+        }
+
+        /**
+         * Busca la colocación que obliga a desplazar menos sesiones no protegidas.
+         *
+         * @return Colocación con las sesiones a desplazar, o null si ninguna es admisible
+         */
+        Candidate findEjection(Session session, int iteration) {
+            Candidate[] best = new Candidate[1];
+            forEachStart(session, start -> {
+                int end = start + session.duration;
+                List<Session> shared = new ArrayList<>();
+                if (!collectBlockers(byProfessor.get(session.assignment.getProfessorId()), start, end, iteration, shared)
+                        || !collectBlockers(byGroup.get(session.assignment.getGroupId()), start, end, iteration, shared)) {
+                    return;
+                }
+                for (Room room : session.rooms) {
+                    List<Session> blockers = new ArrayList<>(shared);
+                    if (!collectBlockers(byRoom.get(room.getId()), start, end, iteration, blockers)
+                            || blockers.isEmpty()) {
+                        continue;
+                    }
+                    long cost = (long) blockers.size() * EJECTION_COST + cost(session, start, room);
+                    if (best[0] == null || cost < best[0].cost) {
+                        best[0] = new Candidate(start, room, cost, blockers);
+                    }
+                }
+            });
+            return best[0];
+        }
+
+        /**
+         * Añade a blockers las sesiones colocadas que se solapan con el rango.
+         *
+         * @return false si alguna está protegida o se supera el máximo de expulsiones
+         */
+        private boolean collectBlockers(List<Session> placed, int start, int end, int iteration, List<Session> blockers) {
+            if (placed == null) {
+                return true;
+            }
+            for (Session other : placed) {
+                if (TimeSlot.overlapsMinutes(other.start, other.end(), start, end) && !blockers.contains(other)) {
+                    if (other.tabuUntil > iteration || blockers.size() == MAX_EJECTIONS) {
+                        return false;
+                    }
+                    blockers.add(other);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Recorre las horas de inicio válidas de una sesión en este día: su hora original
+         * (si la sesión es de este día y cae en una franja válida) y las de cada franja a
+         * intervalos de stepMinutes. Omite las que chocan con franjas bloqueadas.
+         */
+        private void forEachStart(Session session, IntConsumer action) {
+            Assignment assignment = session.assignment;
+            int original = assignment.getDayOfWeek() == day ? assignment.getStartMinute() : -1;
+            if (isAdmissibleOriginal(session)) {
+                action.accept(original);
+            }
+            for (TimeSlot.TimeRange range : validRanges) {
+                int rangeEnd = TimeSlot.toMinuteOfDay(range.getEnd());
+                for (int start = TimeSlot.toMinuteOfDay(range.getStart()); start + session.duration <= rangeEnd; start += stepMinutes) {
+                    if (start != original
+                            && !assignment.getProfessor().hasBlockedSlotConflict(dayOrdinal, start, start + session.duration)) {
+                        action.accept(start);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indica si la hora original de la sesión es una hora de inicio admisible en este día:
+         * la sesión es de este día, cabe en una franja válida y no choca con franjas bloqueadas.
+         */
+        private boolean isAdmissibleOriginal(Session session) {
+            Assignment assignment = session.assignment;
+            if (assignment.getDayOfWeek() != day) {
+                return false;
+            }
+            int original = assignment.getStartMinute();
+            for (TimeSlot.TimeRange range : validRanges) {
+                if (original >= TimeSlot.toMinuteOfDay(range.getStart())
+                        && original + session.duration <= TimeSlot.toMinuteOfDay(range.getEnd())) {
+                    return !assignment.getProfessor().hasBlockedSlotConflict(dayOrdinal, original, original + session.duration);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Coste de una colocación: distancia a la hora original, cambio de aula y asientos
+         * sobrantes. A igual coste se conserva la primera encontrada (hora original,
+         * después horas crecientes y aulas por ID).
+         */
+        private long cost(Session session, int start, Room room) {
+            Assignment assignment = session.assignment;
+            return Math.abs(start - assignment.getStartMinute())
+                + (room.getId() == assignment.getRoomId() ? 0 : ROOM_CHANGE_COST)
+                + room.getCapacity() - assignment.getEnrolledStudents();
+        }
+
+        void commit(Session session, int start, Room room) {
+            session.day = day;
+            session.start = start;
+            session.room = room;
+            Assignment assignment = session.assignment;
+            occupancy(roomBusy, room.getId()).add(dayOrdinal, start, session.end());
+            occupancy(professorBusy, assignment.getProfessorId()).add(dayOrdinal, start, session.end());
+            occupancy(groupBusy, assignment.getGroupId()).add(dayOrdinal, start, session.end());
+            byRoom.computeIfAbsent(room.getId(), k -> new ArrayList<>()).add(session);
+            byProfessor.computeIfAbsent(assignment.getProfessorId(), k -> new ArrayList<>()).add(session);
+            byGroup.computeIfAbsent(assignment.getGroupId(), k -> new ArrayList<>()).add(session);
+        }
+
+        void release(Session session) {
+            Assignment assignment = session.assignment;
+            roomBusy.get(session.room.getId()).remove(dayOrdinal, session.start, session.end());
+            professorBusy.get(assignment.getProfessorId()).remove(dayOrdinal, session.start, session.end());
+            groupBusy.get(assignment.getGroupId()).remove(dayOrdinal, session.start, session.end());
+            byRoom.get(session.room.getId()).remove(session);
+            byProfessor.get(assignment.getProfessorId()).remove(session);
+            byGroup.get(assignment.getGroupId()).remove(session);
+            session.day = null;
+            session.start = -1;
+            session.room = null;
+        }
+
+        private OccupancyIndex.Occupancy occupancy(Map<Integer, OccupancyIndex.Occupancy> busy, int id) {
+            return busy.computeIfAbsent(id, k -> new OccupancyIndex.Occupancy(SLOT_MINUTES));
+        }
+    }
+
+    /**
+     * Resultado de una resolución. Inmutable.
+     */
+    public static final class Result {
+        private final List<Assignment> assignments;
+        private final List<Assignment> unresolved;
+        private final int movedCount;
+        private final long elapsedMillis;
+
+        Result(List<Assignment> assignments, List<Assignment> unresolved, int movedCount, long elapsedMillis) {
+            this.assignments = Collections.unmodifiableList(assignments);
+            this.unresolved = Collections.unmodifiableList(unresolved);
+            this.movedCount = movedCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * @return Horario resuelto, en el orden de la instantánea; las asignaciones movidas
+         *         son copias con el mismo ID
+         */
+        public List<Assignment> getAssignments() { return assignments; }
+
+        /**
+         * @return Asignaciones que no se pudieron colocar sin conflictos duros y conservan
+         *         su posición original
+         */
+        public List<Assignment> getUnresolved() { return unresolved; }
+
+        public int getMovedCount() { return movedCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /**
+         * @return true si todas las sesiones quedaron sin conflictos duros
+         */
+        public boolean isConflictFree() { return unresolved.isEmpty(); }
+
+        @Override
+        public String toString() {
+            return "TimetableSolver.Result[sesiones=" + assignments.size() + ", movidas=" + movedCount
+                + ", sinResolver=" + unresolved.size() + ", ms=" + elapsedMillis + "]";
+        }
+    }
+}
@@ -1079,7 +1079,7 @@ private JPanel createJsonPanel() {
                             Assignment a2 = createdAssignments.get(j);
                             
                             // Solo verificar si hay solapamiento temporal
-                            if (a1.getDay().equals(a2.getDay()) && a1.overlapsTimeWith(a2)) {
+                            if (a1.overlapsTimeWith(a2)) {
                                 // Verificar conflicto de profesor
                                 if (a1.getProfessorId() == a2.getProfessorId()) {
                                     conflicts.add(String.format(
@@ -1,5 +1,6 @@
 package com.example.miapp.ui.main;
 
+import com.example.miapp.service.BinaryGraphFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mxgraph.layout.mxFastOrganicLayout;
@@ -18,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -28,8 +30,8 @@ import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
 /**
- * Panel que muestra un grafo importado desde graph.json,
- * con diseño avanzado, toolbar y leyenda.
+ * Panel que muestra un grafo importado desde graph.json o desde su formato binario
+ * compacto ({@link BinaryGraphFile}), con diseño avanzado, toolbar y leyenda.
  */
 public class GraphViewerPanel extends JPanel {
 
@@ -157,8 +159,9 @@ public class GraphViewerPanel extends JPanel {
         }
 
         JFileChooser chooser = new JFileChooser(dataDir); // Establece el directorio de inicio
-        chooser.setDialogTitle("Selecciona graph.json");
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("JSON Files", "json");
+        chooser.setDialogTitle("Selecciona graph.json o su versión binaria");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("Grafos (JSON o binario)",
+                "json", BinaryGraphFile.FILE_EXTENSION.substring(1));
         chooser.setFileFilter(filter);
 
         if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
@@ -166,6 +169,10 @@ public class GraphViewerPanel extends JPanel {
         }
 
         File file = chooser.getSelectedFile();
+        if (file.getName().endsWith(BinaryGraphFile.FILE_EXTENSION)) {
+            onLoadBinary(file);
+            return;
+        }
         try {
             JsonNode root = objectMapper.readTree(file);
             jsonTextArea.setText(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
@@ -178,6 +185,58 @@ public class GraphViewerPanel extends JPanel {
         }
     }
 
+    /**
+     * Carga un grafo en formato binario. El archivo se mapea en memoria sin parseo; en la
+     * pestaña de texto se muestra un resumen en lugar del contenido.
+     */
+    private void onLoadBinary(File file) {
+        try {
+            BinaryGraphFile graph = BinaryGraphFile.open(file.toPath());
+            jsonTextArea.setText("Grafo binario: " + file.getAbsolutePath() + "\n"
+                    + graph.getNodeCount() + " nodos, " + graph.getEdgeCount() + " aristas\n");
+            jsonTextArea.setCaretPosition(0);
+            showGraph(graph);
+            tabbedPane.setSelectedIndex(1);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error al leer el grafo binario:\n" + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void showGraph(BinaryGraphFile graph) {
+        mx = new mxGraph();
+        applyStyles(mx.getStylesheet());
+        Object parent = mx.getDefaultParent();
+        mx.getModel().beginUpdate();
+
+        mxCell[] cells = new mxCell[graph.getNodeCount()];
+        try {
+            for (int i = 0; i < cells.length; i++) {
+                String label = graph.getId(i) + ": " + graph.getGroupName(i) + " (" + graph.getGroupId(i) + ")";
+                cells[i] = (mxCell) mx.insertVertex(parent, null, label, 0, 0, 180, 60, "NODE");
+            }
+            for (int i = 0; i < cells.length; i++) {
+                int end = graph.getEdgeStart(i + 1);
+                for (int edge = graph.getEdgeStart(i); edge < end; edge++) {
+                    int mask = graph.getEdgeMask(edge);
+                    StringBuilder label = new StringBuilder();
+                    for (int bits = mask; bits != 0; bits &= bits - 1) {
+                        if (label.length() > 0) {
+                            label.append(", ");
+                        }
+                        label.append(graph.getConflictLabel(Integer.numberOfTrailingZeros(bits)));
+                    }
+                    mx.insertEdge(parent, null, label.toString(), cells[i], cells[graph.getEdgeTarget(edge)],
+                            "EDGE;strokeWidth=" + (1 + Integer.bitCount(mask)));
+                }
+            }
+        } finally {
+            mx.getModel().endUpdate();
+        }
+
+        displayGraph(parent, cell -> getTooltipText(cell, graph));
+    }
+
     private void showGraph(JsonNode root) {
         JsonNode nodes = root.path("nodes"), edges = root.path("edges");
         if (!nodes.isArray() || !edges.isArray()) {
@@ -219,6 +278,10 @@ public class GraphViewerPanel extends JPanel {
             mx.getModel().endUpdate();
         }
 
+        displayGraph(parent, cell -> getTooltipText(cell, root));
+    }
+
+    private void displayGraph(Object parent, Function<mxCell, String> tooltips) {
         mxFastOrganicLayout layout = new mxFastOrganicLayout(mx);
         layout.setForceConstant(100);
         layout.execute(parent);
@@ -231,7 +294,7 @@ public class GraphViewerPanel extends JPanel {
             public void mouseMoved(MouseEvent e) {
                 Object cell = graphComponent.getCellAt(e.getX(), e.getY());
                 if (cell instanceof mxCell) {
-                    String tooltip = getTooltipText((mxCell) cell, root);
+                    String tooltip = tooltips.apply((mxCell) cell);
                     graphComponent.setToolTipText(tooltip);
                 } else {
                     graphComponent.setToolTipText(null);
@@ -247,6 +310,25 @@ public class GraphViewerPanel extends JPanel {
         updateLegend(mx);
     }
 
+    private String getTooltipText(mxCell cell, BinaryGraphFile graph) {
+        if (cell.isVertex()) {
+            int id = Integer.parseInt(cell.getValue().toString().split(":")[0].trim());
+            int node = graph.indexOf(id);
+            if (node >= 0) {
+                return "<html><b>Nodo:</b> " + id + "<br><b>Grupo:</b> " + graph.getGroupName(node)
+                        + "<br><b>ID Grupo:</b> " + graph.getGroupId(node)
+                        + "<br><b>Profesor:</b> " + graph.getProfessorName(node)
+                        + "<br><b>Aula:</b> " + graph.getRoomName(node) + "</html>";
+            }
+        } else if (cell.isEdge()) {
+            String conflicts = cell.getValue().toString();
+            int conflictCount = conflicts.isEmpty() ? 0 : conflicts.split(", ").length;
+            return "<html><b>Arista</b><br><b>Conflictos:</b> " + conflictCount + "<br><b>Detalles:</b> "
+                    + (conflictCount > 0 ? conflicts : "Ninguno") + "</html>";
+        }
+        return "Información no disponible";
+    }
+
     private String getTooltipText(mxCell cell, JsonNode root) {
         if (cell.isVertex()) {
             int id = Integer.parseInt(cell.getValue().toString().split(":")[0].trim());
@@ -481,7 +481,7 @@ public class MainUI extends JFrame {
                     Professor p1 = profs.get(i), p2 = profs.get(j);
                     for (BlockedSlot bs1 : p1.getBlockedSlots()) {
                         for (BlockedSlot bs2 : p2.getBlockedSlots()) {
-                            if (bs1.getDay().equals(bs2.getDay()) &&
+                            if (bs1.getDayOfWeek() == bs2.getDayOfWeek() &&
                                 bs1.getStartTime().isBefore(bs2.getEndTime()) &&
                                 bs2.getStartTime().isBefore(bs1.getEndTime())) {
                                 ObjectNode edge = mapper.createObjectNode();
@@ -505,8 +505,7 @@ public class MainUI extends JFrame {
                     Assignment a2 = assignments.get(j);
                     
                     // Verificar si hay solapamiento de tiempo
-                    if (a1.getDay().equals(a2.getDay()) && 
-                        a1.overlapsTimeWith(a2)) {
+                    if (a1.overlapsTimeWith(a2)) {
                         
                         // Verificar diferentes tipos de conflictos
                         if (a1.getProfessorId() == a2.getProfessorId()) {
@@ -471,7 +471,7 @@ public class AssignmentBuilder {
      */
     public static boolean hasWorkloadConflict(Assignment a1, Assignment a2) {
         // Solo verificar si son el mismo día y del mismo profesor
-        if (!a1.getDay().equals(a2.getDay()) || a1.getProfessorId() != a2.getProfessorId()) {
+        if (a1.getDayOfWeek() != a2.getDayOfWeek() || a1.getProfessorId() != a2.getProfessorId()) {
             return false;
         }
         
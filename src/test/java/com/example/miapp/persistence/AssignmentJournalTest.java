@@ -0,0 +1,182 @@
+package com.example.miapp.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de reaplicación, recuperación y compactación de {@link AssignmentJournal}.
+ */
+class AssignmentJournalTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private ObjectNode node(int id, String groupName) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", id);
+        node.put("groupName", groupName);
+        return node;
+    }
+
+    private void writeData(Path dataFile, ObjectNode... assignments) throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("version", 1);
+        root.putArray("assignments").addAll(List.of(assignments));
+        mapper.writeValue(dataFile.toFile(), root);
+    }
+
+    private List<Integer> dataFileIds(Path dataFile) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        mapper.readTree(dataFile.toFile()).path("assignments").forEach(n -> ids.add(n.path("id").asInt()));
+        return ids;
+    }
+
+    private List<Integer> liveIds(AssignmentJournal journal) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        journal.forEach(n -> ids.add(n.path("id").asInt()));
+        return ids;
+    }
+
+    @Test
+    void replaysPendingRecordsOnReopen() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        writeData(dataFile, node(1, "A"), node(2, "B"));
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            journal.put(3, node(3, "C"));
+            journal.put(1, node(1, "A2"));
+            assertTrue(journal.remove(2));
+            assertFalse(journal.remove(99));
+        }
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            assertEquals(3, journal.getRecordCount());
+            assertEquals("A2", journal.find(1).orElseThrow().path("groupName").asText());
+            assertTrue(journal.find(2).isEmpty());
+            assertTrue(journal.contains(3));
+            assertFalse(journal.contains(2));
+            assertEquals(List.of(3, 1), liveIds(journal));
+        }
+        // El archivo de datos no se ha tocado
+        assertEquals(List.of(1, 2), dataFileIds(dataFile));
+    }
+
+    @Test
+    void truncatesTornLastRecord() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        writeData(dataFile, node(1, "A"));
+        Path journalFile = dir.resolve("data.json.journal");
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            journal.put(2, node(2, "B"));
+        }
+        long validSize = Files.size(journalFile);
+        Files.write(journalFile, "{\"op\":\"put\",\"id\":3,\"da".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            assertEquals(1, journal.getRecordCount());
+            assertEquals(validSize, Files.size(journalFile));
+            assertTrue(journal.find(3).isEmpty());
+            journal.put(4, node(4, "D"));
+        }
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            assertEquals(List.of(1, 2, 4), liveIds(journal));
+        }
+    }
+
+    @Test
+    void completesLastRecordWithoutNewline() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        writeData(dataFile);
+        Path journalFile = dir.resolve("data.json.journal");
+        Files.write(journalFile, "{\"op\":\"put\",\"id\":5,\"data\":{\"id\":5}}".getBytes(StandardCharsets.UTF_8));
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            journal.put(6, node(6, "F"));
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            assertEquals(List.of(5, 6), liveIds(journal));
+        }
+    }
+
+    @Test
+    void compactFoldsRecordsIntoDataFile() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        writeData(dataFile, node(1, "A"), node(2, "B"));
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            journal.put(2, node(2, "B2"));
+            journal.put(3, node(3, "C"));
+            journal.remove(1);
+            journal.compact();
+            assertEquals(0, journal.getRecordCount());
+        }
+
+        assertEquals(List.of(2, 3), dataFileIds(dataFile));
+        JsonNode root = mapper.readTree(dataFile.toFile());
+        assertEquals(1, root.path("version").asInt());
+        assertEquals("B2", root.path("assignments").get(0).path("groupName").asText());
+        assertEquals(0, Files.size(dir.resolve("data.json.journal")));
+        assertFalse(Files.exists(dir.resolve("data.json.journal.compacting")));
+    }
+
+    @Test
+    void failedCompactionKeepsRecordsAcrossRetries() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        Path compactingFile = dir.resolve("data.json.journal.compacting");
+        // Archivo de datos no válido: la compactación falla al recorrerlo
+        Files.writeString(dataFile, "[]");
+
+        AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true);
+        journal.put(1, node(1, "A"));
+        assertThrows(IOException.class, journal::compact);
+        assertTrue(Files.exists(compactingFile));
+
+        // La segunda compactación fallida no debe sustituir el archivo de compactación
+        journal.put(2, node(2, "B"));
+        assertThrows(IOException.class, journal::compact);
+        journal.close();
+
+        // Reinicio con el archivo de datos reparado: se completa la compactación interrumpida
+        writeData(dataFile);
+        try (AssignmentJournal reopened = new AssignmentJournal(dataFile, mapper, true)) {
+            assertEquals(List.of(1, 2), liveIds(reopened));
+        }
+        assertEquals(List.of(1, 2), dataFileIds(dataFile));
+        assertFalse(Files.exists(compactingFile));
+    }
+
+    @Test
+    void replaceDataFileDiscardsJournal() throws IOException {
+        Path dataFile = dir.resolve("data.json");
+        writeData(dataFile, node(1, "A"));
+
+        try (AssignmentJournal journal = new AssignmentJournal(dataFile, mapper, true)) {
+            journal.put(2, node(2, "B"));
+            journal.replaceDataFile(file -> writeData(file, node(7, "G")));
+            assertEquals(0, journal.getRecordCount());
+
+            // Sin registros pendientes, una compactación posterior no cambia el archivo
+            journal.compact();
+            assertEquals(List.of(7), liveIds(journal));
+        }
+        assertEquals(List.of(7), dataFileIds(dataFile));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.miapp.persistence;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.repository.DataManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la carga en streaming del formato plano de {@link DataManagerPersistence}.
+ */
+class DataManagerPersistenceTest {
+
+    private static final int PROFESSOR_ID = 9001;
+    private static final int ROOM_ID = 9001;
+
+    private final DataManager dataManager = DataManager.getInstance();
+    private final DataManagerPersistence persistence = new DataManagerPersistence();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataManager.clearAll();
+
+        Subject ownSubject = new Subject("TST900", "Materia de prueba", "", 3, false);
+        dataManager.addSubject(ownSubject);
+        Room room = new Room(ROOM_ID, "Aula de prueba", 60, false);
+        dataManager.addRoom(room);
+        Professor professor = new Professor(PROFESSOR_ID, "Profesor de prueba", "Sistemas", "prueba@example.com");
+        professor.assignSubject(ownSubject);
+        dataManager.addProfessor(professor);
+
+        TimeSlot.TimeRange slot = TimeSlot.getValidTimeSlots(DayOfWeek.MONDAY).get(0);
+        // Una asignación con materia propia, otra con materia por defecto y otra sin materia
+        Subject[] subjects = {ownSubject, dataManager.getSubject("ALGLIN"), null};
+        for (int i = 0; i < subjects.length; i++) {
+            dataManager.addAssignment(new Assignment.Builder()
+                .id(i + 1)
+                .assignmentDate(LocalDate.of(2025, 3, 3))
+                .professor(professor)
+                .room(room)
+                .subject(subjects[i])
+                .day("Monday")
+                .startTime(slot.getStart())
+                .endTime(slot.getStart().plusMinutes(30))
+                .groupId(i + 1)
+                .groupName("G" + (i + 1))
+                .sessionType("D")
+                .enrolledStudents(20)
+                .build());
+        }
+
+        file = dir.resolve("data.json");
+        persistence.saveToJson(file.toString());
+    }
+
+    private ObjectNode readRoot() throws IOException {
+        return (ObjectNode) mapper.readTree(file.toFile());
+    }
+
+    /**
+     * Reescribe el archivo con sus colecciones en el orden indicado; las no indicadas se omiten.
+     */
+    private void rewrite(ObjectNode root, String... order) throws IOException {
+        ObjectNode reordered = mapper.createObjectNode();
+        for (String field : order) {
+            reordered.set(field, root.get(field));
+        }
+        mapper.writeValue(file.toFile(), reordered);
+    }
+
+    private void assertLoadedState() {
+        assertEquals(List.of(1, 2, 3), dataManager.getAllAssignments().stream()
+            .map(Assignment::getId).sorted().toList());
+        Professor professor = dataManager.getProfessor(PROFESSOR_ID);
+        assertNotNull(professor);
+        assertTrue(professor.getSubjects().stream().anyMatch(s -> s.getCode().equals("TST900")));
+        assertSame(professor, dataManager.getAssignment(1).getProfessor());
+        assertSame(dataManager.getRoom(ROOM_ID), dataManager.getAssignment(1).getRoom());
+    }
+
+    @Test
+    void loadsSavedFile() throws IOException {
+        persistence.loadFromJson(file.toString());
+        assertLoadedState();
+    }
+
+    @Test
+    void loadsCollectionsInAnyOrder() throws IOException {
+        rewrite(readRoot(), "assignments", "professors", "rooms", "subjects");
+        persistence.loadFromJson(file.toString());
+        assertLoadedState();
+    }
+
+    @Test
+    void resolvesMissingCollectionAgainstDefaults() throws IOException {
+        // Sin colección de materias: solo se resuelven las materias por defecto
+        rewrite(readRoot(), "rooms", "professors", "assignments");
+        persistence.loadFromJson(file.toString());
+
+        assertNull(dataManager.getSubject("TST900"));
+        assertEquals(List.of(2, 3), dataManager.getAllAssignments().stream()
+            .map(Assignment::getId).sorted().toList());
+        assertEquals("ALGLIN", dataManager.getAssignment(2).getSubject().getCode());
+    }
+
+    @Test
+    void loadsAssignmentsWhenACollectionIsEmpty() throws IOException {
+        ObjectNode root = readRoot();
+        root.putArray("subjects");
+        rewrite(root, "subjects", "rooms", "professors", "assignments");
+        persistence.loadFromJson(file.toString());
+
+        assertEquals(List.of(2, 3), dataManager.getAllAssignments().stream()
+            .map(Assignment::getId).sorted().toList());
+    }
+
+    @Test
+    void malformedFileLeavesStateIntact() throws IOException {
+        persistence.loadFromJson(file.toString());
+        String json = Files.readString(file);
+        Files.writeString(file, json.substring(0, json.length() / 2));
+
+        assertThrows(IOException.class, () -> persistence.loadFromJson(file.toString()));
+        assertLoadedState();
+    }
+
+    @Test
+    void malformedNestedFileLeavesStateIntact() throws IOException {
+        Path nested = dir.resolve("nested.json");
+        persistence.saveToNestedJson(nested.toString());
+        String json = Files.readString(nested);
+        Files.writeString(nested, json.substring(0, json.length() / 2));
+
+        assertThrows(IOException.class, () -> persistence.loadFromNestedJson(nested.toString()));
+        assertLoadedState();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.miapp.persistence;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.BlockedSlot;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.repository.DataManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de ida y vuelta y de rechazo de archivos dañados de {@link DataManagerSnapshot}.
+ */
+class DataManagerSnapshotTest {
+
+    private final DataManager dataManager = DataManager.getInstance();
+    private final DataManagerPersistence persistence = new DataManagerPersistence();
+    private final DataManagerSnapshot snapshot = new DataManagerSnapshot();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private Path jsonFile;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataManager.clearAll();
+
+        Subject lab = new Subject("TSTLAB", "Laboratorio de prueba", "Con descripción ñ", 4, true);
+        dataManager.addSubject(lab);
+        dataManager.addRoom(new Room(9101, "Laboratorio 9101", 30, true));
+        Professor professor = new Professor(9101, "Profesora de prueba", "Sistemas", "prueba@example.com");
+        professor.assignSubject(lab);
+        professor.assignSubject(dataManager.getSubject("ALGLIN"));
+        professor.addBlockedSlot("Tuesday", LocalTime.of(10, 0), LocalTime.of(12, 30));
+        professor.addBlockedSlot("Friday", LocalTime.of(7, 0), LocalTime.of(8, 0));
+        dataManager.addProfessor(professor);
+
+        // Asignaciones aleatorias sobre profesores, aulas y materias propias y por defecto
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+        List<Subject> subjects = dataManager.getAllSubjects();
+        String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+        Random random = new Random(23);
+        for (int id = 1; id <= 300; id++) {
+            String day = days[random.nextInt(days.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            LocalTime start = slot.getStart().plusMinutes(30L * random.nextInt(2));
+            dataManager.addAssignment(new Assignment.Builder()
+                .id(id)
+                .assignmentDate(LocalDate.of(2025, 1, 1).plusDays(random.nextInt(200)))
+                .professor(professors.get(random.nextInt(professors.size())))
+                .room(rooms.get(random.nextInt(rooms.size())))
+                .subject(random.nextInt(10) == 0 ? null : subjects.get(random.nextInt(subjects.size())))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .groupId(random.nextInt(40))
+                .groupName("Grupo " + random.nextInt(40))
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(40))
+                .build());
+        }
+
+        jsonFile = dir.resolve("data.json");
+        snapshotFile = dir.resolve("data.json" + DataManagerSnapshot.FILE_EXTENSION);
+        persistence.saveToJson(jsonFile.toString());
+    }
+
+    /**
+     * Estado del DataManager campo a campo, por entidad, con las referencias por clave.
+     */
+    private Map<String, List<Object>> captureState() {
+        Map<String, List<Object>> state = new TreeMap<>();
+        for (Subject s : dataManager.getAllSubjects()) {
+            state.put("subject:" + s.getCode(),
+                      List.of(s.getName(), s.getDescription(), s.getCredits(), s.requiresLab()));
+        }
+        for (Room r : dataManager.getAllRooms()) {
+            state.put("room:" + r.getId(), List.of(r.getName(), r.getCapacity(), r.isLab()));
+        }
+        for (Professor p : dataManager.getAllProfessors()) {
+            List<Object> fields = new ArrayList<>(List.of(p.getName(), p.getDepartment(), p.getEmail()));
+            p.getSubjects().forEach(s -> fields.add("subject:" + s.getCode()));
+            for (BlockedSlot slot : p.getBlockedSlots()) {
+                fields.add(List.of(slot.getDay(), slot.getStartTime(), slot.getEndTime()));
+            }
+            state.put("professor:" + p.getId(), fields);
+        }
+        for (Assignment a : dataManager.getAllAssignments()) {
+            state.put("assignment:" + a.getId(), Arrays.asList(
+                a.getAssignmentDate(), a.getDay(), a.getStartTime(), a.getEndTime(),
+                a.getProfessorId(), a.getRoomId(), a.getSubject() == null ? null : a.getSubject().getCode(),
+                a.getGroupId(), a.getGroupName(), a.getSessionType(), a.getEnrolledStudents()));
+        }
+        return state;
+    }
+
+    @Test
+    void jsonRoundTripThroughSnapshot() throws IOException {
+        persistence.loadFromJson(jsonFile.toString());
+        Map<String, List<Object>> expected = captureState();
+        Path expectedJson = dir.resolve("expected.json");
+        persistence.saveToJson(expectedJson.toString());
+
+        snapshot.save(snapshotFile.toString());
+        dataManager.clearAll();
+        snapshot.load(snapshotFile.toString());
+
+        assertEquals(expected, captureState());
+
+        // Las referencias apuntan a las entidades registradas, no a copias
+        for (Assignment a : dataManager.getAllAssignments()) {
+            assertSame(dataManager.getProfessor(a.getProfessorId()), a.getProfessor());
+            assertSame(dataManager.getRoom(a.getRoomId()), a.getRoom());
+            if (a.getSubject() != null) {
+                assertSame(dataManager.getSubject(a.getSubject().getCode()), a.getSubject());
+            }
+        }
+
+        // Exportar el estado cargado del snapshot produce el mismo JSON que el estado cargado del JSON
+        Path reexported = dir.resolve("reexported.json");
+        persistence.saveToJson(reexported.toString());
+        assertEquals(mapper.readTree(expectedJson.toFile()), mapper.readTree(reexported.toFile()));
+    }
+
+    @Test
+    void isUpToDateComparesWithSource() throws IOException {
+        assertFalse(DataManagerSnapshot.isUpToDate(snapshotFile, jsonFile));
+        snapshot.save(snapshotFile.toString());
+        assertTrue(DataManagerSnapshot.isUpToDate(snapshotFile, jsonFile));
+
+        Files.setLastModifiedTime(jsonFile, FileTime.fromMillis(
+            Files.getLastModifiedTime(snapshotFile).toMillis() + 60_000));
+        assertFalse(DataManagerSnapshot.isUpToDate(snapshotFile, jsonFile));
+    }
+
+    /**
+     * Guarda un snapshot válido, lo daña y comprueba que la carga se rechaza sin tocar el estado.
+     */
+    private void assertRejected(UnaryOperator<byte[]> damage) throws IOException {
+        snapshot.save(snapshotFile.toString());
+        Files.write(snapshotFile, damage.apply(Files.readAllBytes(snapshotFile)));
+
+        persistence.loadFromJson(jsonFile.toString());
+        Map<String, List<Object>> before = captureState();
+
+        assertThrows(IOException.class, () -> snapshot.load(snapshotFile.toString()));
+        assertEquals(before, captureState());
+    }
+
+    @Test
+    void rejectsBadMagic() throws IOException {
+        assertRejected(bytes -> {
+            bytes[0] = 'X';
+            return bytes;
+        });
+        assertFalse(DataManagerSnapshot.isUpToDate(snapshotFile, jsonFile));
+    }
+
+    @Test
+    void rejectsWrongVersion() throws IOException {
+        assertRejected(bytes -> {
+            bytes[5] = (byte) (DataManagerSnapshot.FORMAT_VERSION + 1);
+            return bytes;
+        });
+        assertFalse(DataManagerSnapshot.isUpToDate(snapshotFile, jsonFile));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        assertRejected(bytes -> Arrays.copyOf(bytes, bytes.length - 7));
+    }
+
+    @Test
+    void rejectsTruncatedHeader() throws IOException {
+        assertRejected(bytes -> Arrays.copyOf(bytes, 10));
+    }
+
+    @Test
+    void rejectsChecksumMismatch() throws IOException {
+        assertRejected(bytes -> {
+            bytes[bytes.length / 2] ^= 0x40;
+            return bytes;
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.miapp.repository;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los índices de asignaciones por día, del índice de ocupación y de la
+ * clasificación de aulas de {@link DataManager}.
+ */
+class DataManagerIndexTest {
+
+    // Resultado de aula, profesor y grupo libres u ocupados a la vez
+    private static final List<Boolean> FREE = List.of(true, true, true);
+    private static final List<Boolean> BUSY = List.of(false, false, false);
+
+    private final DataManager dataManager = DataManager.getInstance();
+
+    @BeforeEach
+    void setUp() {
+        dataManager.clearAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataManager.clearAll();
+    }
+
+    private Assignment assignment(int id, String day) {
+        Professor professor = dataManager.getAllProfessors().get(0);
+        return new Assignment.Builder()
+            .id(id)
+            .assignmentDate(LocalDate.of(2025, 3, 3))
+            .professor(professor)
+            .room(dataManager.getAllRooms().get(0))
+            .day(day)
+            .startTime(LocalTime.of(8, 0))
+            .endTime(LocalTime.of(8, 30))
+            .groupId(id)
+            .groupName("G" + id)
+            .sessionType("D")
+            .enrolledStudents(10)
+            .build();
+    }
+
+    private Assignment assignment(int id, LocalTime start, LocalTime end) {
+        return new Assignment.Builder()
+            .id(id)
+            .assignmentDate(LocalDate.of(2025, 3, 3))
+            .professor(dataManager.getAllProfessors().get(0))
+            .room(dataManager.getAllRooms().get(0))
+            .day("Monday")
+            .startTime(start)
+            .endTime(end)
+            .groupId(500)
+            .groupName("G500")
+            .sessionType("D")
+            .enrolledStudents(10)
+            .build();
+    }
+
+    // Ocupación del aula, el profesor y el grupo de las asignaciones de prueba en un rango del lunes
+    private List<Boolean> freedom(LocalTime start, LocalTime end) {
+        int professorId = dataManager.getAllProfessors().get(0).getId();
+        int roomId = dataManager.getAllRooms().get(0).getId();
+        return List.of(dataManager.isRoomFree(roomId, DayOfWeek.MONDAY, start, end),
+                       dataManager.isProfessorFree(professorId, DayOfWeek.MONDAY, start, end),
+                       dataManager.isGroupFree(500, DayOfWeek.MONDAY, start, end));
+    }
+
+    private static List<Integer> ids(List<Assignment> assignments) {
+        return assignments.stream().map(Assignment::getId).sorted().toList();
+    }
+
+    @Test
+    void indexesAssignmentsByDayOfWeek() {
+        dataManager.addAssignment(assignment(1, "Monday"));
+        dataManager.addAssignment(assignment(2, "Lunes"));
+        dataManager.addAssignment(assignment(3, "Tuesday"));
+
+        assertEquals(List.of(1, 2), ids(dataManager.getAssignmentsByDay("Monday")));
+        assertEquals(List.of(1, 2), ids(dataManager.getAssignmentsByDay("lunes")));
+        assertEquals(List.of(1, 2), ids(dataManager.getAssignmentsByDay(DayOfWeek.MONDAY)));
+        assertEquals(List.of(3), ids(dataManager.getAssignmentsByDay("Martes")));
+        assertTrue(dataManager.getAssignmentsByDay(DayOfWeek.WEDNESDAY).isEmpty());
+        assertThrows(DomainException.class, () -> dataManager.getAssignmentsByDay("Someday"));
+
+        // Reemplazar una asignación la mueve de día
+        dataManager.addAssignment(assignment(2, "Tuesday"));
+        assertEquals(List.of(1), ids(dataManager.getAssignmentsByDay(DayOfWeek.MONDAY)));
+        assertEquals(List.of(2, 3), ids(dataManager.getAssignmentsByDay(DayOfWeek.TUESDAY)));
+        assertTrue(dataManager.removeAssignment(1));
+        assertTrue(dataManager.getAssignmentsByDay(DayOfWeek.MONDAY).isEmpty());
+    }
+
+    @Test
+    void occupancyIsSymmetricUnderAddAndRemove() {
+        LocalTime[][] probes = {
+            {LocalTime.of(8, 0), LocalTime.of(8, 30)},
+            {LocalTime.of(9, 0), LocalTime.of(9, 45)},
+            {LocalTime.of(10, 15), LocalTime.of(10, 20)},
+            {LocalTime.of(11, 30), LocalTime.of(12, 0)},
+            {LocalTime.of(14, 0), LocalTime.of(16, 0)}
+        };
+        for (LocalTime[] probe : probes) {
+            assertEquals(FREE, freedom(probe[0], probe[1]));
+        }
+
+        dataManager.addAssignment(assignment(1, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        dataManager.addAssignment(assignment(2, LocalTime.of(10, 0), LocalTime.of(10, 30)));
+        assertEquals(BUSY, freedom(LocalTime.of(10, 15), LocalTime.of(10, 20)));
+        assertEquals(FREE, freedom(LocalTime.of(11, 30), LocalTime.of(12, 0)));
+
+        // Las asignaciones solapadas se liberan por separado
+        assertTrue(dataManager.removeAssignment(1));
+        assertEquals(BUSY, freedom(LocalTime.of(10, 15), LocalTime.of(10, 20)));
+        assertEquals(FREE, freedom(LocalTime.of(9, 0), LocalTime.of(9, 45)));
+
+        // Reemplazar una asignación libera su rango anterior
+        dataManager.addAssignment(assignment(2, LocalTime.of(11, 30), LocalTime.of(12, 0)));
+        assertEquals(FREE, freedom(LocalTime.of(10, 15), LocalTime.of(10, 20)));
+        assertEquals(BUSY, freedom(LocalTime.of(11, 30), LocalTime.of(12, 0)));
+
+        assertTrue(dataManager.removeAssignment(2));
+        for (LocalTime[] probe : probes) {
+            assertEquals(FREE, freedom(probe[0], probe[1]));
+        }
+    }
+
+    @Test
+    void offGridTimesAreConservative() {
+        dataManager.addAssignment(assignment(1, LocalTime.of(10, 2), LocalTime.of(10, 58)));
+
+        // Comparten la franja de 10:55 sin solaparse: se indica ocupado, nunca libre de más
+        assertEquals(BUSY, freedom(LocalTime.of(10, 59), LocalTime.of(11, 30)));
+        assertEquals(BUSY, freedom(LocalTime.of(9, 30), LocalTime.of(10, 1)));
+        assertEquals(BUSY, freedom(LocalTime.of(10, 58), LocalTime.of(11, 30)));
+        assertEquals(BUSY, freedom(LocalTime.of(10, 30), LocalTime.of(10, 31)));
+
+        // Fuera de las franjas de la asignación sí está libre
+        assertEquals(FREE, freedom(LocalTime.of(11, 0), LocalTime.of(11, 30)));
+        assertEquals(FREE, freedom(LocalTime.of(9, 30), LocalTime.of(9, 59)));
+    }
+
+    @Test
+    void touchingRangesOverlapInclusively() {
+        dataManager.addAssignment(assignment(1, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+
+        assertEquals(BUSY, freedom(LocalTime.of(12, 0), LocalTime.of(14, 0)));
+        assertEquals(BUSY, freedom(LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        assertEquals(FREE, freedom(LocalTime.of(12, 5), LocalTime.of(14, 0)));
+        assertEquals(FREE, freedom(LocalTime.of(8, 0), LocalTime.of(9, 55)));
+    }
+
+    @Test
+    void roomTypeChangesAreVisible() {
+        Room room = new Room(9301, "Aula 9301", 30, false);
+        dataManager.addRoom(room);
+        assertTrue(dataManager.getAllNonLabs().contains(room));
+        assertFalse(dataManager.getAllLabs().contains(room));
+
+        room.setLab(true);
+        assertTrue(dataManager.getAllLabs().contains(room));
+        assertFalse(dataManager.getAllNonLabs().contains(room));
+
+        assertTrue(dataManager.removeRoom(9301));
+        assertFalse(dataManager.getAllLabs().contains(room));
+        assertEquals(dataManager.getAllRooms().size(),
+                     dataManager.getAllLabs().size() + dataManager.getAllNonLabs().size());
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.miapp.repository;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de reapertura, reconstrucción del índice y traslado desde el DataManager de
+ * {@link MappedAssignmentStore}.
+ */
+class MappedAssignmentStoreTest {
+
+    private final DataManager dataManager = DataManager.getInstance();
+
+    @TempDir
+    Path dir;
+
+    private Professor professor;
+    private Room room;
+    private Subject subject;
+
+    @BeforeEach
+    void setUp() {
+        dataManager.clearAll();
+        professor = dataManager.getAllProfessors().get(0);
+        room = dataManager.getAllRooms().get(0);
+        subject = dataManager.getSubject("ALGLIN");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dataManager.closeAssignmentStore();
+        dataManager.clearAll();
+    }
+
+    private Assignment assignment(int id, String day, int hour, Subject subject, String groupName) {
+        return new Assignment.Builder()
+            .id(id)
+            .assignmentDate(LocalDate.of(2025, 2, 3).plusDays(id))
+            .professor(professor)
+            .room(room)
+            .subject(subject)
+            .day(day)
+            .startTime(LocalTime.of(hour, 0))
+            .endTime(LocalTime.of(hour, 30))
+            .groupId(100 + id)
+            .groupName(groupName)
+            .sessionType(id % 2 == 0 ? "D" : "N")
+            .enrolledStudents(20 + id)
+            .build();
+    }
+
+    private static List<Object> fields(Assignment a) {
+        return Arrays.asList(a.getId(), a.getAssignmentDate(), a.getDay(), a.getStartTime(), a.getEndTime(),
+            a.getProfessorId(), a.getRoomId(), a.getSubject() == null ? null : a.getSubject().getCode(),
+            a.getGroupId(), a.getGroupName(), a.getSessionType(), a.getEnrolledStudents());
+    }
+
+    private static List<Integer> ids(MappedAssignmentStore store) {
+        List<Integer> ids = new ArrayList<>();
+        store.forEach(a -> ids.add(a.getId()));
+        return ids;
+    }
+
+    @Test
+    void reopensClosedStore() throws IOException {
+        Assignment first = assignment(1, "Monday", 8, subject, "Grupo ñ");
+        Assignment second = assignment(2, "Tuesday", 9, null, "Grupo B");
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            store.put(first);
+            store.put(second);
+            store.put(assignment(3, "Wednesday", 10, subject, "Grupo C"));
+            assertTrue(store.remove(3));
+            assertFalse(store.remove(3));
+        }
+
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            assertEquals(3, store.getRowCount());
+            assertEquals(2, store.size());
+            assertFalse(store.contains(3));
+            assertEquals(fields(first), fields(store.get(1).orElseThrow()));
+            assertEquals(fields(second), fields(store.get(2).orElseThrow()));
+            assertEquals("ALGLIN", store.getSubjectCode(0));
+            assertNull(store.getSubjectCode(1));
+            assertEquals(List.of(1, 2), ids(store));
+
+            // Los códigos de cadena se reutilizan tras reabrir
+            store.put(assignment(4, "Monday", 11, subject, "Grupo ñ"));
+            assertEquals("Grupo ñ", store.get(4).orElseThrow().getGroupName());
+        }
+    }
+
+    @Test
+    void rebuildsIndexOfStoreNotClosed() throws IOException {
+        MappedAssignmentStore crashed = new MappedAssignmentStore(dir);
+        crashed.put(assignment(1, "Monday", 8, subject, "A"));
+        crashed.put(assignment(2, "Tuesday", 9, subject, "B"));
+        crashed.put(assignment(3, "Friday", 10, null, "C"));
+        crashed.remove(1);
+        Assignment updated = assignment(2, "Thursday", 14, null, "B2");
+        crashed.put(updated);
+        crashed.force();
+        crashed.put(assignment(5, "Saturday", 15, subject, "E"));
+
+        // Sin cierre y sin índice de IDs: la reapertura debe reconstruirlo desde las columnas
+        Files.delete(dir.resolve("id.idx"));
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            assertEquals(3, store.size());
+            assertFalse(store.contains(1));
+            assertEquals(fields(updated), fields(store.get(2).orElseThrow()));
+            assertEquals(List.of(3, 2, 5), ids(store));
+        }
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            assertEquals(List.of(3, 2, 5), ids(store));
+        }
+    }
+
+    @Test
+    void movedAssignmentsRemainVisibleAndAreSaved() throws IOException {
+        dataManager.addAssignment(assignment(1, "Monday", 8, subject, "A"));
+        dataManager.addAssignment(assignment(2, "Tuesday", 9, null, "B"));
+        dataManager.openAssignmentStore(dir.resolve("store"));
+        assertEquals(2, dataManager.moveAssignmentsToStore());
+        dataManager.addAssignment(assignment(3, "Monday", 10, subject, "C"));
+
+        assertEquals(List.of(1, 2, 3), dataManager.getAllAssignments().stream()
+            .map(Assignment::getId).sorted().toList());
+        assertEquals(3, dataManager.getAssignmentsByProfessor(professor.getId()).size());
+        assertEquals(3, dataManager.getAssignmentsByRoom(room.getId()).size());
+        assertEquals(List.of(1, 3), dataManager.getAssignmentsByDay("Monday").stream()
+            .map(Assignment::getId).sorted().toList());
+        assertFalse(dataManager.isRoomFree(room.getId(), DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 0)));
+        assertFalse(dataManager.isGroupFree(102, DayOfWeek.TUESDAY, LocalTime.of(9, 15), LocalTime.of(9, 20)));
+        assertTrue(dataManager.isProfessorFree(professor.getId(), DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(9, 30)));
+
+        // La copia en memoria prevalece sobre la del almacén
+        Assignment replaced = assignment(2, "Wednesday", 10, null, "B2");
+        dataManager.addAssignment(replaced);
+        assertEquals(3, dataManager.getAllAssignments().size());
+        assertTrue(dataManager.isGroupFree(102, DayOfWeek.TUESDAY, LocalTime.of(9, 15), LocalTime.of(9, 20)));
+
+        Path json = dir.resolve("data.json");
+        dataManager.saveToJson(json.toString());
+        List<Integer> saved = new ArrayList<>();
+        new ObjectMapper().readTree(json.toFile()).path("assignments")
+            .forEach(node -> saved.add(node.path("id").asInt()));
+        assertEquals(List.of(1, 2, 3), saved.stream().sorted().toList());
+    }
+
+    private static List<Integer> ids(MappedAssignmentStore store, MappedAssignmentStore.IndexedColumn column,
+                                     int value) {
+        List<Integer> ids = new ArrayList<>();
+        store.forEachRow(column, value, row -> ids.add(store.getId(row)));
+        return ids;
+    }
+
+    @Test
+    void indexesLiveRowsByResource() throws IOException {
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            store.put(assignment(1, "Monday", 8, subject, "A"));
+            store.put(assignment(2, "Monday", 9, null, "B"));
+            store.put(assignment(3, "Tuesday", 10, subject, "C"));
+            store.put(assignment(2, "Friday", 11, null, "B2"));
+            assertTrue(store.remove(1));
+
+            assertEquals(List.of(), ids(store, MappedAssignmentStore.IndexedColumn.DAY, DayOfWeek.MONDAY.ordinal()));
+            assertEquals(List.of(2), ids(store, MappedAssignmentStore.IndexedColumn.DAY, DayOfWeek.FRIDAY.ordinal()));
+            assertEquals(List.of(3, 2), ids(store, MappedAssignmentStore.IndexedColumn.ROOM, room.getId()));
+            assertEquals(List.of(3), ids(store, MappedAssignmentStore.IndexedColumn.GROUP, 103));
+
+            // La acción puede detener el recorrido
+            assertFalse(store.forEachRow(MappedAssignmentStore.IndexedColumn.PROFESSOR, professor.getId(), row -> false));
+        }
+
+        // El índice se reconstruye al reabrir
+        try (MappedAssignmentStore store = new MappedAssignmentStore(dir)) {
+            assertEquals(List.of(3, 2), ids(store, MappedAssignmentStore.IndexedColumn.PROFESSOR, professor.getId()));
+            assertEquals(List.of(2), ids(store, MappedAssignmentStore.IndexedColumn.GROUP, 102));
+            store.clear();
+            assertEquals(List.of(), ids(store, MappedAssignmentStore.IndexedColumn.ROOM, room.getId()));
+        }
+    }
+
+    @Test
+    void removesMovedAssignments() throws IOException {
+        dataManager.addAssignment(assignment(1, "Monday", 8, subject, "A"));
+        dataManager.addAssignment(assignment(2, "Tuesday", 9, null, "B"));
+        dataManager.openAssignmentStore(dir.resolve("store"));
+        assertEquals(2, dataManager.moveAssignmentsToStore());
+
+        assertTrue(dataManager.removeAssignment(1));
+        assertNull(dataManager.getAssignment(1));
+        assertFalse(dataManager.removeAssignment(1));
+        assertEquals(List.of(2), dataManager.getAllAssignments().stream().map(Assignment::getId).toList());
+        assertTrue(dataManager.isRoomFree(room.getId(), DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 0)));
+
+        // Una copia en memoria que sombrea la del almacén se elimina junto con ella
+        dataManager.addAssignment(assignment(2, "Wednesday", 10, null, "B2"));
+        assertTrue(dataManager.removeAssignment(2));
+        assertNull(dataManager.getAssignment(2));
+        assertTrue(dataManager.getAllAssignments().isEmpty());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.DataManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de ida y vuelta y de rechazo de archivos dañados de {@link BinaryGraphFile}.
+ */
+class BinaryGraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    private ConflictGraphSnapshot snapshot;
+    private Map<Integer, Assignment> byId;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DataManager dataManager = DataManager.getInstance();
+        dataManager.clearAll();
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+        List<Subject> subjects = dataManager.getAllSubjects();
+        String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+
+        // Pocos profesores, aulas y grupos para que haya solapamientos; las materias al azar
+        // producen autoconflictos de autorización y de compatibilidad de aula
+        Random random = new Random(25);
+        List<Assignment> assignments = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            String day = days[random.nextInt(days.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            LocalTime start = slot.getStart().plusMinutes(30L * random.nextInt(2));
+            assignments.add(new Assignment.Builder()
+                .id(id * 3)
+                .assignmentDate(LocalDate.of(2025, 1, 1).plusDays(random.nextInt(200)))
+                .professor(professors.get(random.nextInt(4)))
+                .room(rooms.get(random.nextInt(4)))
+                .subject(random.nextInt(8) == 0 ? null : subjects.get(random.nextInt(subjects.size())))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .groupId(random.nextInt(10))
+                .groupName("Grupo ñ" + random.nextInt(10))
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(60))
+                .build());
+        }
+        ConflictGraphLoader loader = new ConflictGraphLoader();
+        loader.addAll(assignments);
+        snapshot = loader.snapshot();
+        byId = new HashMap<>();
+        assignments.forEach(a -> byId.put(a.getId(), a));
+
+        file = dir.resolve("graph" + BinaryGraphFile.FILE_EXTENSION);
+        long size = BinaryGraphFile.write(snapshot, file);
+        assertEquals(Files.size(file), size);
+    }
+
+    private static List<Object> fields(Assignment a) {
+        return Arrays.asList(a.getId(), a.getDay(), a.getStartTime(), a.getEndTime(), a.getGroupId(),
+            a.getGroupName(), a.getSessionType(), a.getEnrolledStudents(), a.getProfessorId(),
+            a.getProfessorName(), a.getRoomId(), a.getRoomName(),
+            a.getSubject() == null ? null : a.getSubject().getCode(),
+            a.getSubject() == null ? null : a.getSubject().getName(), a.getAssignmentDate());
+    }
+
+    private static List<Object> fields(BinaryGraphFile graph, int node) {
+        return Arrays.asList(graph.getId(node), graph.getDay(node), graph.getStartTime(node),
+            graph.getEndTime(node), graph.getGroupId(node), graph.getGroupName(node),
+            graph.getSessionType(node), graph.getEnrolledStudents(node), graph.getProfessorId(node),
+            graph.getProfessorName(node), graph.getRoomId(node), graph.getRoomName(node),
+            graph.getSubjectCode(node), graph.getSubjectName(node), graph.getAssignmentDate(node));
+    }
+
+    @Test
+    void roundTripsNodes() throws IOException {
+        BinaryGraphFile graph = BinaryGraphFile.open(file);
+        assertEquals(byId.size(), graph.getNodeCount());
+
+        int withoutSubject = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (node > 0) {
+                assertTrue(graph.getId(node - 1) < graph.getId(node));
+            }
+            Assignment expected = byId.get(graph.getId(node));
+            assertEquals(fields(expected), fields(graph, node));
+            assertEquals(node, graph.indexOf(graph.getId(node)));
+            if (expected.getSubject() == null) {
+                assertEquals(BinaryGraphFile.NO_STRING, graph.getColumn(node, BinaryGraphFile.COL_SUBJECT_CODE));
+                assertEquals(BinaryGraphFile.NO_STRING, graph.getColumn(node, BinaryGraphFile.COL_SUBJECT_NAME));
+                withoutSubject++;
+            }
+        }
+        assertTrue(withoutSubject > 0);
+        assertEquals(-1, graph.indexOf(1));
+    }
+
+    @Test
+    void roundTripsEdgesAsCsr() throws IOException {
+        BinaryGraphFile graph = BinaryGraphFile.open(file);
+        assertEquals(snapshot.getEdgeCount(), graph.getEdgeCount());
+        assertEquals(0, graph.getEdgeStart(0));
+        assertEquals(graph.getEdgeCount(), graph.getEdgeStart(graph.getNodeCount()));
+
+        Set<List<Integer>> fromFile = new HashSet<>();
+        int selfLoops = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            int start = graph.getEdgeStart(node);
+            int end = graph.getEdgeStart(node + 1);
+            assertTrue(start <= end);
+            for (int edge = start; edge < end; edge++) {
+                int target = graph.getEdgeTarget(edge);
+                // Cada arista desde su extremo de menor id, con destinos crecientes
+                assertTrue(target >= node);
+                if (edge > start) {
+                    assertTrue(graph.getEdgeTarget(edge - 1) < target);
+                }
+                if (target == node) {
+                    selfLoops++;
+                }
+                assertTrue(fromFile.add(List.of(graph.getId(node), graph.getId(target), graph.getEdgeMask(edge))));
+            }
+        }
+        assertTrue(selfLoops > 0);
+        assertTrue(fromFile.size() > selfLoops);
+
+        Set<List<Integer>> expected = new HashSet<>();
+        snapshot.forEachEdge(e -> expected.add(List.of(Math.min(e.getSourceId(), e.getTargetId()),
+            Math.max(e.getSourceId(), e.getTargetId()), e.getMask())));
+        assertEquals(expected, fromFile);
+
+        Set<List<Integer>> visited = new HashSet<>();
+        graph.forEachEdge(e -> visited.add(List.of(e.getSourceId(), e.getTargetId(), e.getMask())));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void storesConflictLabelsByOrdinal() throws IOException {
+        BinaryGraphFile graph = BinaryGraphFile.open(file);
+        for (ConflictType type : ConflictType.values()) {
+            assertEquals(type.getLabel(), graph.getConflictLabel(type.ordinal()));
+        }
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> graph.getConflictLabel(ConflictType.values().length));
+    }
+
+    @Test
+    void writesEmptyGraph() throws IOException {
+        Path empty = dir.resolve("empty" + BinaryGraphFile.FILE_EXTENSION);
+        BinaryGraphFile.write(new ConflictGraphLoader().snapshot(), empty);
+        BinaryGraphFile graph = BinaryGraphFile.open(empty);
+        assertEquals(0, graph.getNodeCount());
+        assertEquals(0, graph.getEdgeCount());
+        assertEquals(0, graph.getEdgeStart(0));
+    }
+
+    private void assertRejected(UnaryOperator<byte[]> damage) throws IOException {
+        Files.write(file, damage.apply(Files.readAllBytes(file)));
+        assertThrows(IOException.class, () -> BinaryGraphFile.open(file));
+    }
+
+    @Test
+    void rejectsChecksumMismatch() throws IOException {
+        assertRejected(bytes -> {
+            bytes[bytes.length - 5] ^= 0x01;
+            return bytes;
+        });
+    }
+
+    @Test
+    void rejectsBadMagic() throws IOException {
+        assertRejected(bytes -> {
+            bytes[0] = 'X';
+            return bytes;
+        });
+    }
+
+    @Test
+    void rejectsWrongVersion() throws IOException {
+        assertRejected(bytes -> {
+            bytes[5] = (byte) (BinaryGraphFile.FORMAT_VERSION + 1);
+            return bytes;
+        });
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        assertRejected(bytes -> Arrays.copyOf(bytes, bytes.length - 4));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.ConflictGraphLoader.ConcurrencyMode;
+import com.example.miapp.service.ConflictGraphLoader.ScanStrategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de equivalencia entre la carga en bloque ({@link ConflictGraphLoader#bulkLoad},
+ * {@link ConflictGraphLoader#addAll}), la inserción una a una con
+ * {@link ConflictGraphLoader#addAssignment} y la edición con
+ * {@link ConflictGraphLoader#updateAssignment}, para cada estrategia y modo de concurrencia.
+ */
+class ConflictGraphLoaderBatchTest {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+
+    @BeforeAll
+    static void resetData() {
+        DataManager.getInstance().clearAll();
+    }
+
+    static Stream<Arguments> configurations() {
+        List<Arguments> result = new ArrayList<>();
+        for (ScanStrategy strategy : ScanStrategy.values()) {
+            for (ConcurrencyMode mode : ConcurrencyMode.values()) {
+                for (long seed = 1; seed <= 3; seed++) {
+                    result.add(Arguments.of(strategy, mode, seed));
+                }
+            }
+        }
+        return result.stream();
+    }
+
+    /**
+     * Genera un horario aleatorio sobre pocos profesores, aulas y grupos. Los inicios y las
+     * duraciones son múltiplos de 30 minutos, de modo que abundan los rangos que solo se tocan
+     * en un extremo (solapamiento inclusivo); las materias al azar producen autoconflictos.
+     */
+    private static List<Assignment> schedule(long seed, int count) {
+        DataManager dataManager = DataManager.getInstance();
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+        List<Subject> subjects = dataManager.getAllSubjects();
+        Random random = new Random(seed);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String day = DAYS[random.nextInt(DAYS.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            int halfHours = (int) Duration.between(slot.getStart(), slot.getEnd()).toMinutes() / 30;
+            int offset = random.nextInt(halfHours);
+            int length = 1 + random.nextInt(Math.min(3, halfHours - offset));
+            LocalTime start = slot.getStart().plusMinutes(30L * offset);
+            assignments.add(new Assignment.Builder()
+                // IDs desordenados respecto al orden de llegada
+                .id(1 + (i * 7919) % 10_007)
+                .assignmentDate(LocalDate.of(2025, 1, 1))
+                .professor(professors.get(random.nextInt(3)))
+                .room(rooms.get(random.nextInt(3)))
+                .subject(random.nextInt(6) == 0 ? null : subjects.get(random.nextInt(subjects.size())))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30L * length))
+                .groupId(random.nextInt(5))
+                .groupName("G")
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(60))
+                .build());
+        }
+        return assignments;
+    }
+
+    private static Set<List<Integer>> edges(ConflictGraphLoader loader) {
+        Set<List<Integer>> edges = new HashSet<>();
+        loader.forEachEdge(e -> assertTrue(edges.add(List.of(
+            Math.min(e.getSourceId(), e.getTargetId()), Math.max(e.getSourceId(), e.getTargetId()), e.getMask()))));
+        return edges;
+    }
+
+    private static Set<Integer> conflictFree(ConflictGraphLoader loader) {
+        Set<Integer> ids = new TreeSet<>();
+        loader.getConflictFreeAssignments().forEach(a -> ids.add(a.getId()));
+        return ids;
+    }
+
+    private static void assertSameGraph(ConflictGraphLoader expected, ConflictGraphLoader actual, String method) {
+        Set<List<Integer>> expectedEdges = edges(expected);
+        assertEquals(expectedEdges, edges(actual), method);
+        assertEquals(conflictFree(expected), conflictFree(actual), method);
+        assertEquals(expected.getTotalConflictsCount(), actual.getTotalConflictsCount(), method);
+        assertEquals(expected.getAllAssignments().size(), actual.getAllAssignments().size(), method);
+    }
+
+    @ParameterizedTest(name = "{0} {1} semilla {2}")
+    @MethodSource("configurations")
+    void batchLoadsMatchOneByOne(ScanStrategy strategy, ConcurrencyMode mode, long seed) {
+        List<Assignment> assignments = schedule(seed, 240);
+
+        ConflictGraphLoader oneByOne = new ConflictGraphLoader(strategy, 1, mode);
+        assignments.forEach(oneByOne::addAssignment);
+
+        // La referencia usa la estrategia original; los autoconflictos y los rangos que se tocan deben aparecer
+        ConflictGraphLoader reference = new ConflictGraphLoader(ScanStrategy.LINEAR, 1, ConcurrencyMode.GLOBAL_LOCK);
+        assignments.forEach(reference::addAssignment);
+        assertSameGraph(reference, oneByOne, "addAssignment");
+        assertTrue(edges(reference).stream().anyMatch(e -> e.get(0).equals(e.get(1))));
+        assertTrue(edges(reference).stream().anyMatch(e -> !e.get(0).equals(e.get(1))));
+
+        ConflictGraphLoader bulk = new ConflictGraphLoader(strategy, 4, mode);
+        bulk.addAssignment(schedule(seed + 100, 1).get(0));
+        bulk.bulkLoad(assignments);
+        assertSameGraph(reference, bulk, "bulkLoad");
+
+        ConflictGraphLoader batch = new ConflictGraphLoader(strategy, 4, mode);
+        batch.addAll(assignments);
+        assertSameGraph(reference, batch, "addAll");
+
+        // Un lote grande seguido de otro pequeño recorre los dos caminos de applyBatch
+        ConflictGraphLoader split = new ConflictGraphLoader(strategy, 4, mode);
+        int cut = assignments.size() * 3 / 4;
+        split.addAll(assignments.subList(0, cut));
+        split.addAll(assignments.subList(cut, assignments.size()));
+        assertSameGraph(reference, split, "addAll en dos lotes");
+    }
+
+    @ParameterizedTest(name = "{0} {1} semilla {2}")
+    @MethodSource("configurations")
+    void updatesMatchFullReload(ScanStrategy strategy, ConcurrencyMode mode, long seed) {
+        // Cargadas en orden de ID se comparan todos los pares, igual que en updateAssignment
+        List<Assignment> current = new ArrayList<>(schedule(seed, 240));
+        ConflictGraphLoader loader = new ConflictGraphLoader(strategy, 1, mode);
+        current.stream().sorted(Comparator.comparingInt(Assignment::getId)).forEach(loader::addAssignment);
+
+        // El mismo generador con otra semilla repite los IDs con otro día, horario y recursos
+        List<Assignment> moved = schedule(seed + 50, 240);
+        Random random = new Random(seed);
+        for (int n = 0; n < 60; n++) {
+            int i = random.nextInt(current.size());
+            ConflictGraphDelta delta = loader.updateAssignment(current.get(i), moved.get(i));
+            assertEquals(loader.snapshot().getVersion(), delta.getVersion());
+            current.set(i, moved.get(i));
+        }
+
+        ConflictGraphLoader reference = new ConflictGraphLoader(ScanStrategy.LINEAR, 1, ConcurrencyMode.GLOBAL_LOCK);
+        current.stream().sorted(Comparator.comparingInt(Assignment::getId)).forEach(reference::addAssignment);
+        assertSameGraph(reference, loader, "updateAssignment");
+    }
+}
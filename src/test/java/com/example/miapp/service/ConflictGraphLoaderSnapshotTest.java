@@ -0,0 +1,129 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.ConflictGraphLoader.ConcurrencyMode;
+import com.example.miapp.service.ConflictGraphLoader.ScanStrategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de aislamiento y versionado de las instantáneas de {@link ConflictGraphLoader}.
+ */
+class ConflictGraphLoaderSnapshotTest {
+
+    private static Professor professor;
+    private static Room room;
+
+    @BeforeAll
+    static void resetData() {
+        DataManager dataManager = DataManager.getInstance();
+        dataManager.clearAll();
+        professor = dataManager.getAllProfessors().get(0);
+        room = dataManager.getAllRooms().get(0);
+    }
+
+    private static Assignment assignment(int id, String day, int hour) {
+        return new Assignment.Builder()
+            .id(id)
+            .assignmentDate(LocalDate.of(2025, 1, 1))
+            .professor(professor)
+            .room(room)
+            .day(day)
+            .startTime(LocalTime.of(hour, 0))
+            .endTime(LocalTime.of(hour, 30))
+            .groupId(id)
+            .groupName("G" + id)
+            .sessionType(id % 2 == 0 ? "D" : "N")
+            .enrolledStudents(10)
+            .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConcurrencyMode.class)
+    void snapshotsAreIsolatedFromLaterWrites(ConcurrencyMode mode) {
+        ConflictGraphLoader loader = new ConflictGraphLoader(ScanStrategy.INTERVAL_INDEX, 1, mode);
+        loader.addAssignment(assignment(1, "Monday", 8));
+        ConflictGraphSnapshot first = loader.snapshot();
+        assertSame(first, loader.snapshot());
+        int firstEdges = first.getEdgeCount();
+
+        // Varias escrituras seguidas sobre el mismo día, sin instantáneas intermedias
+        loader.addAssignment(assignment(2, "Monday", 8));
+        loader.addAssignment(assignment(3, "Monday", 8));
+        assertTrue(loader.removeAssignment(assignment(1, "Monday", 8)));
+
+        assertEquals(1, first.getAssignmentCount());
+        assertEquals(firstEdges, first.getEdgeCount());
+
+        // Las lecturas ven las escrituras anteriores
+        assertEquals(2, loader.getAllAssignments().size());
+        ConflictGraphSnapshot second = loader.snapshot();
+        assertEquals(first.getVersion() + 3, second.getVersion());
+        assertEquals(2, second.getAssignments(DayOfWeek.MONDAY).size());
+        List<Integer> neighbors = new ArrayList<>();
+        second.forEachConflictOf(2, edge -> neighbors.add(edge.getTargetId()));
+        assertTrue(neighbors.contains(3));
+        assertFalse(neighbors.contains(1));
+        first.forEachConflictOf(2, edge -> fail("La instantánea anterior no conoce la asignación 2"));
+
+        long version = loader.addAll(List.of(assignment(4, "Tuesday", 8), assignment(5, "Monday", 10)));
+        assertEquals(version, loader.snapshot().getVersion());
+        assertEquals(2, second.getAssignmentCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConcurrencyMode.class)
+    void concurrentWritersAndReadersSeeConsistentVersions(ConcurrencyMode mode) throws Exception {
+        ConflictGraphLoader loader = new ConflictGraphLoader(ScanStrategy.INTERVAL_INDEX, 1, mode);
+        String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+        int perDay = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(days.length + 1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int d = 0; d < days.length; d++) {
+                String day = days[d];
+                int base = d * perDay;
+                writers.add(executor.submit(() -> {
+                    for (int i = 1; i <= perDay; i++) {
+                        loader.addAssignment(assignment(base + i, day, 8 + i % 4));
+                    }
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                long previousVersion = -1;
+                int previousCount = -1;
+                while (previousCount < days.length * perDay) {
+                    ConflictGraphSnapshot snapshot = loader.snapshot();
+                    // Cada alta avanza la versión en uno: la versión determina el contenido
+                    assertEquals(snapshot.getVersion(), snapshot.getAssignmentCount());
+                    assertTrue(snapshot.getVersion() >= previousVersion);
+                    previousVersion = snapshot.getVersion();
+                    previousCount = snapshot.getAssignmentCount();
+                }
+            });
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(days.length * perDay, loader.snapshot().getAssignmentCount());
+    }
+}
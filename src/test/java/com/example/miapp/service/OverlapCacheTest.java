@@ -0,0 +1,107 @@
+package com.example.miapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del orden LRU, la expulsión y los contadores de {@link OverlapCache}.
+ */
+class OverlapCacheTest {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Claves distintas que caen en el mismo segmento que la primera.
+     */
+    private static List<Long> keysOfOneSegment(int count) {
+        List<Long> keys = new ArrayList<>();
+        int segment = OverlapCache.segmentIndex(OverlapCache.key(0, 0, 0, 0));
+        for (int start = 0; keys.size() < count; start++) {
+            long key = OverlapCache.key(start % 1440, start / 1440, 0, 0);
+            if (OverlapCache.segmentIndex(key) == segment) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        // Dos entradas por segmento
+        OverlapCache cache = new OverlapCache(2 * SEGMENTS);
+        List<Long> keys = keysOfOneSegment(3);
+
+        cache.put(keys.get(0), true);
+        cache.put(keys.get(1), false);
+        assertEquals(Boolean.TRUE, cache.get(keys.get(0)));
+        cache.put(keys.get(2), true);
+
+        assertNull(cache.get(keys.get(1)));
+        assertEquals(Boolean.TRUE, cache.get(keys.get(0)));
+        assertEquals(Boolean.TRUE, cache.get(keys.get(2)));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(3, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+
+        // Actualizar un valor no expulsa nada
+        cache.put(keys.get(0), false);
+        assertEquals(Boolean.FALSE, cache.get(keys.get(0)));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+
+        // lookup no altera los contadores
+        assertEquals(Boolean.TRUE, cache.lookup(keys.get(2)));
+        assertEquals(4, cache.stats().getHits());
+
+        assertEquals(2, cache.clear());
+        assertNull(cache.get(keys.get(0)));
+        cache.put(keys.get(1), true);
+        assertEquals(Boolean.TRUE, cache.get(keys.get(1)));
+    }
+
+    @Test
+    void matchesReferenceLruUnderRandomOperations() {
+        int perSegment = 40;
+        OverlapCache cache = new OverlapCache(perSegment * SEGMENTS);
+        Random random = new Random(8);
+        long[] pool = new long[3000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = OverlapCache.key(random.nextInt(1440), random.nextInt(1440),
+                                       random.nextInt(1440), random.nextInt(1440));
+        }
+
+        // Un LinkedHashMap en orden de acceso por segmento como referencia
+        List<Map<Long, Boolean>> references = new ArrayList<>();
+        for (int i = 0; i < SEGMENTS; i++) {
+            references.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                    return size() > perSegment;
+                }
+            });
+        }
+
+        for (int step = 0; step < 200_000; step++) {
+            long key = pool[random.nextInt(pool.length)];
+            Map<Long, Boolean> reference = references.get(OverlapCache.segmentIndex(key));
+            if (random.nextBoolean()) {
+                boolean value = random.nextBoolean();
+                cache.put(key, value);
+                reference.put(key, value);
+            } else {
+                assertEquals(reference.get(key), cache.get(key));
+            }
+        }
+        assertEquals(references.stream().mapToInt(Map::size).sum(), cache.size());
+        for (long key : pool) {
+            assertEquals(references.get(OverlapCache.segmentIndex(key)).get(key), cache.lookup(key));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.miapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link PersistentIntMap} frente a un {@link TreeMap}, incluida la independencia
+ * de las versiones anteriores.
+ */
+class PersistentIntMapTest {
+
+    private static List<Integer> values(PersistentIntMap<Integer> map) {
+        List<Integer> result = new ArrayList<>();
+        map.forEach(result::add);
+        return result;
+    }
+
+    @Test
+    void matchesTreeMapAndKeepsOlderVersions() {
+        Random random = new Random(7);
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        List<PersistentIntMap<Integer>> versions = new ArrayList<>();
+        List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            // Claves pequeñas y alguna grande para que el trie crezca y vuelva a encoger
+            int key = random.nextInt(10) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(600);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                map = map.put(key, key);
+                expected.put(key, key);
+            }
+            if (step % 500 == 0) {
+                versions.add(map);
+                expectedVersions.add(new TreeMap<>(expected));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), values(map));
+        for (int key = 0; key < 600; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(new ArrayList<>(expectedVersions.get(i).values()), values(versions.get(i)));
+        }
+    }
+
+    @Test
+    void unchangedOperationsReturnSameMap() {
+        Integer value = 5;
+        PersistentIntMap<Integer> map = PersistentIntMap.<Integer>empty().put(3, value);
+        assertSame(map, map.put(3, value));
+        assertSame(map, map.remove(4));
+        assertSame(map, map.remove(1 << 20));
+        assertTrue(map.remove(3).isEmpty());
+
+        // Las claves negativas se ordenan como enteros sin signo
+        PersistentIntMap<Integer> mixed = map.put(-1, -1).put(0, 0);
+        assertEquals(List.of(0, 5, -1), values(mixed));
+        assertEquals(-1, mixed.get(-1));
+        assertNull(mixed.get(-2));
+    }
+}
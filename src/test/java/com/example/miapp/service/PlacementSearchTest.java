@@ -0,0 +1,203 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.Subject;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.DataManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link PlacementSearch}: cada colocación devuelta se valida con
+ * {@link ConflictDetector} y el resultado se compara con una búsqueda exhaustiva.
+ */
+class PlacementSearchTest {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+    private static final int DURATION = 90;
+    private static final int STEP = 30;
+
+    private static DataManager dataManager;
+    private static Professor professor;
+    private static Subject subject;
+
+    @BeforeAll
+    static void resetData() {
+        dataManager = DataManager.getInstance();
+        dataManager.clearAll();
+        professor = professors().get(0);
+        subject = dataManager.getSubject("ALGLIN");
+        dataManager.assignSubjectToProfessor(professor.getId(), subject.getCode());
+    }
+
+    // Profesores y aulas en orden de ID, para que el horario generado no dependa del orden de los mapas
+    private static List<Professor> professors() {
+        List<Professor> professors = dataManager.getAllProfessors();
+        professors.sort(Comparator.comparingInt(Professor::getId));
+        return professors;
+    }
+
+    private static List<Room> rooms() {
+        List<Room> rooms = dataManager.getAllRooms();
+        rooms.sort(Comparator.comparingInt(Room::getId));
+        return rooms;
+    }
+
+    /**
+     * Genera un horario que incluye al profesor y al grupo de la petición, para que haya horas
+     * y aulas ocupadas en todos los días.
+     */
+    private static List<Assignment> schedule(long seed, int count) {
+        List<Professor> professors = professors();
+        List<Room> rooms = rooms();
+        Random random = new Random(seed);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String day = DAYS[random.nextInt(DAYS.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            int steps = (int) Duration.between(slot.getStart(), slot.getEnd()).toMinutes() / 15;
+            int offset = random.nextInt(steps);
+            LocalTime start = slot.getStart().plusMinutes(15L * offset);
+            assignments.add(new Assignment.Builder()
+                .id(i + 1)
+                .assignmentDate(LocalDate.of(2025, 1, 1))
+                .professor(professors.get(random.nextInt(4)))
+                .room(rooms.get(random.nextInt(rooms.size())))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(15L * (1 + random.nextInt(steps - offset))))
+                .groupId(random.nextInt(8))
+                .groupName("G")
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(20))
+                .build());
+        }
+        return assignments;
+    }
+
+    private static PlacementRequest.Builder request() {
+        PlacementRequest.Builder builder = new PlacementRequest.Builder()
+            .professor(professor)
+            .subject(subject)
+            .groupId(2)
+            .enrolledStudents(30)
+            .sessionType("D")
+            .durationMinutes(DURATION)
+            .stepMinutes(STEP)
+            .preferredStart(LocalTime.of(10, 0));
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SATURDAY)) {
+            builder.day(day);
+        }
+        return builder;
+    }
+
+    private static Assignment place(DayOfWeek day, int startMinute, Room room) {
+        LocalTime start = LocalTime.of(startMinute / 60, startMinute % 60);
+        return new Assignment.Builder()
+            .id(10_000)
+            .assignmentDate(LocalDate.of(2025, 1, 1))
+            .professor(professor)
+            .room(room)
+            .subject(subject)
+            .day(day.getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+            .startTime(start)
+            .endTime(start.plusMinutes(DURATION))
+            .groupId(2)
+            .groupName("G")
+            .sessionType("D")
+            .enrolledStudents(30)
+            .build();
+    }
+
+    /**
+     * @return true si ConflictDetector no encuentra conflictos duros de la sesión colocada
+     */
+    private static boolean isFeasible(ConflictDetector detector, List<Assignment> schedule, Assignment candidate) {
+        if (!detector.validateAssignment(candidate).isEmpty()) {
+            return false;
+        }
+        for (Assignment existing : schedule) {
+            if (!detector.areCompatible(existing, candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String key(DayOfWeek day, int startMinute, Room room) {
+        return day + "@" + startMinute + "#" + room.getId();
+    }
+
+    @Test
+    void placementsAreFeasibleAndComplete() {
+        List<Assignment> schedule = schedule(3, 150);
+        ConflictDetector detector = new ConflictDetector();
+        PlacementSearch search = new PlacementSearch(schedule, rooms());
+
+        List<PlacementSearch.Placement> all = search.search(request().build());
+        assertFalse(all.isEmpty());
+        Set<String> returned = new HashSet<>();
+        for (PlacementSearch.Placement placement : all) {
+            Assignment candidate = place(placement.getDay(), placement.getStartMinute(), placement.getRoom());
+            assertTrue(isFeasible(detector, schedule, candidate), placement.toString());
+
+            boolean sameSessionType = schedule.stream().anyMatch(existing ->
+                existing.getDayOfWeek() == placement.getDay() && detector.timeOverlaps(existing, candidate)
+                    && existing.getSessionType().equals("D"));
+            assertEquals(sameSessionType, placement.getSoftConflicts().contains(ConflictType.SESSION_TYPE));
+            assertTrue(returned.add(key(placement.getDay(), placement.getStartMinute(), placement.getRoom())));
+        }
+
+        // Búsqueda exhaustiva sobre la misma rejilla de horas y aulas
+        Set<String> expected = new HashSet<>();
+        for (DayOfWeek day : request().build().getDays()) {
+            for (TimeSlot.TimeRange range : TimeSlot.getValidTimeSlots(day)) {
+                int rangeEnd = TimeSlot.toMinuteOfDay(range.getEnd());
+                for (int start = TimeSlot.toMinuteOfDay(range.getStart()); start + DURATION <= rangeEnd; start += STEP) {
+                    for (Room room : rooms()) {
+                        if (isFeasible(detector, schedule, place(day, start, room))) {
+                            expected.add(key(day, start, room));
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(expected, returned);
+    }
+
+    @Test
+    void boundedSearchReturnsBestPlacementsInOrder() {
+        List<Assignment> schedule = schedule(8, 150);
+        PlacementSearch search = new PlacementSearch(schedule, rooms());
+
+        List<PlacementSearch.Placement> all = search.search(request().build());
+        assertTrue(all.size() > 10);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getCost() <= all.get(i).getCost());
+        }
+        for (int max : new int[] {1, 7, all.size(), all.size() + 5}) {
+            List<PlacementSearch.Placement> top = search.search(request().maxResults(max).build());
+            assertEquals(all.subList(0, Math.min(max, all.size())).toString(), top.toString());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.ConflictGraphLoader.ConcurrencyMode;
+import com.example.miapp.service.ConflictGraphLoader.ScanStrategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de reproducibilidad y de ausencia de conflictos duros de {@link ScheduleOptimizer}.
+ */
+class ScheduleOptimizerTest {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+
+    private static final int HARD_MASK = ConflictType.PROFESSOR.mask() | ConflictType.ROOM.mask()
+        | ConflictType.GROUP.mask() | ConflictType.PROFESSOR_BLOCKED.mask();
+
+    @BeforeAll
+    static void resetData() {
+        DataManager.getInstance().clearAll();
+    }
+
+    /**
+     * Genera un horario aleatorio en franjas válidas y lo deja sin conflictos duros con
+     * {@link TimetableSolver}, como punto de partida del optimizador.
+     */
+    private static List<Assignment> feasibleSchedule(long seed, int count) {
+        DataManager dataManager = DataManager.getInstance();
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+        Random random = new Random(seed);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String day = DAYS[random.nextInt(DAYS.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            int halfHours = (int) Duration.between(slot.getStart(), slot.getEnd()).toMinutes() / 30;
+            int offset = random.nextInt(halfHours);
+            int length = 1 + random.nextInt(Math.min(3, halfHours - offset));
+            LocalTime start = slot.getStart().plusMinutes(30L * offset);
+            assignments.add(new Assignment.Builder()
+                .id(i + 1)
+                .assignmentDate(LocalDate.of(2025, 1, 1))
+                .professor(professors.get(random.nextInt(8)))
+                .room(rooms.get(random.nextInt(6)))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30L * length))
+                .groupId(random.nextInt(10))
+                .groupName("G")
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(20))
+                .build());
+        }
+
+        TimetableSolver.Result solved = new TimetableSolver(rooms, 30, 1, TimetableSolver.DEFAULT_MAX_ITERATIONS)
+            .solve(graph(assignments).snapshot());
+        assertTrue(solved.isConflictFree(), solved.toString());
+        return solved.getAssignments();
+    }
+
+    private static ConflictGraphLoader graph(Collection<Assignment> assignments) {
+        ConflictGraphLoader loader = new ConflictGraphLoader(ScanStrategy.LINEAR, 1, ConcurrencyMode.GLOBAL_LOCK);
+        assignments.stream().sorted(Comparator.comparingInt(Assignment::getId)).forEach(loader::addAssignment);
+        return loader;
+    }
+
+    private static List<List<Object>> placements(List<Assignment> assignments) {
+        List<List<Object>> result = new ArrayList<>();
+        for (Assignment a : assignments) {
+            result.add(Arrays.asList(a.getId(), a.getDay(), a.getStartTime(), a.getEndTime(), a.getRoomId()));
+        }
+        return result;
+    }
+
+    @Test
+    void sameSeedAndWorkersGiveSameConflictFreeResult() {
+        List<Assignment> schedule = feasibleSchedule(11, 60);
+        List<Room> rooms = DataManager.getInstance().getAllRooms();
+
+        ScheduleOptimizer.Result first = new ScheduleOptimizer(rooms, 30, 3, 20_000, 42).optimize(schedule);
+        ScheduleOptimizer.Result second = new ScheduleOptimizer(rooms, 30, 3, 20_000, 42).optimize(schedule);
+
+        assertEquals(placements(first.getAssignments()), placements(second.getAssignments()));
+        assertEquals(first.getPenalty(), second.getPenalty());
+        assertEquals(first.getMovedCount(), second.getMovedCount());
+        assertTrue(first.getPenalty() <= first.getInitialPenalty(), first.toString());
+        assertTrue(first.getMovedCount() > 0, first.toString());
+        assertEquals(schedule.size(), first.getAssignments().size());
+
+        int[] hardEdges = new int[1];
+        graph(first.getAssignments()).forEachEdge(edge -> {
+            if ((edge.getMask() & HARD_MASK) != 0) {
+                hardEdges[0]++;
+            }
+        });
+        assertEquals(0, hardEdges[0]);
+    }
+}
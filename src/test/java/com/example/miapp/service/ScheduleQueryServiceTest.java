@@ -0,0 +1,191 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictEdgeView;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.ConflictGraphLoader.ConcurrencyMode;
+import com.example.miapp.service.ConflictGraphLoader.ScanStrategy;
+import com.example.miapp.service.ScheduleQueryService.LatencyHistogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link ScheduleQueryService} frente a la comparación por pares de
+ * {@link ConflictDetector}, del pool de hilos de plataforma y del histograma de latencias.
+ */
+class ScheduleQueryServiceTest {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+
+    private static final int COMPATIBILITY_MASK = ConflictType.PROFESSOR.mask() | ConflictType.ROOM.mask()
+        | ConflictType.GROUP.mask() | ConflictType.PROFESSOR_WORKLOAD.mask();
+
+    @BeforeAll
+    static void resetData() {
+        DataManager.getInstance().clearAll();
+    }
+
+    /**
+     * Genera asignaciones en horas de cinco minutos dentro de las franjas válidas, con pocos
+     * profesores, aulas y grupos para que abunden los conflictos.
+     */
+    private static List<Assignment> schedule(Random random, int firstId, int count) {
+        DataManager dataManager = DataManager.getInstance();
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String day = DAYS[random.nextInt(DAYS.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            int steps = (int) Duration.between(slot.getStart(), slot.getEnd()).toMinutes() / 5;
+            int offset = random.nextInt(steps);
+            LocalTime start = slot.getStart().plusMinutes(5L * offset);
+            assignments.add(new Assignment.Builder()
+                .id(firstId + i)
+                .assignmentDate(LocalDate.of(2025, 1, 1))
+                .professor(professors.get(random.nextInt(5)))
+                .room(rooms.get(random.nextInt(5)))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(5L * (1 + random.nextInt(Math.min(36, steps - offset)))))
+                .groupId(random.nextInt(6))
+                .groupName("G")
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(40))
+                .build());
+        }
+        return assignments;
+    }
+
+    private static ConflictGraphSnapshot snapshot(List<Assignment> assignments) {
+        ConflictGraphLoader loader = new ConflictGraphLoader(ScanStrategy.INTERVAL_INDEX, 1, ConcurrencyMode.DAY_STRIPED);
+        loader.bulkLoad(assignments);
+        return loader.snapshot();
+    }
+
+    /**
+     * Conflictos esperados de una candidata comparándola con cada asignación del horario.
+     */
+    private static Map<Integer, Integer> pairwise(ConflictDetector detector, List<Assignment> schedule,
+                                                  Assignment candidate) {
+        Map<Integer, Integer> expected = new TreeMap<>();
+        for (Assignment existing : schedule) {
+            if (existing.getId() == candidate.getId()) {
+                continue;
+            }
+            int mask = existing.getDayOfWeek() == candidate.getDayOfWeek() && detector.timeOverlaps(existing, candidate)
+                ? existing.pairConflictMask(candidate) : 0;
+            assertEquals((mask & COMPATIBILITY_MASK) == 0, detector.areCompatible(existing, candidate),
+                         existing + " / " + candidate);
+            if (mask != 0) {
+                expected.put(existing.getId(), mask);
+            }
+        }
+        return expected;
+    }
+
+    private static Map<Integer, Integer> probed(ScheduleQueryService.ProbeResult result) {
+        Map<Integer, Integer> actual = new TreeMap<>();
+        for (ConflictEdgeView edge : result.getConflicts()) {
+            assertEquals(result.getCandidate().getId(), edge.getSourceId());
+            assertNull(actual.put(edge.getTargetId(), edge.getMask()), "Conflicto repetido: " + edge);
+        }
+        return actual;
+    }
+
+    @Test
+    void probesMatchPairwiseDetector() {
+        Random random = new Random(21);
+        List<Assignment> schedule = schedule(random, 1, 300);
+        // Candidatas nuevas y otras que reutilizan IDs del horario (su nueva posición)
+        List<Assignment> candidates = schedule(random, 250, 120);
+        ConflictDetector detector = new ConflictDetector();
+
+        try (ScheduleQueryService service = new ScheduleQueryService(snapshot(schedule), detector)) {
+            for (Assignment candidate : candidates) {
+                ScheduleQueryService.ProbeResult result = service.probe(candidate);
+                assertEquals(pairwise(detector, schedule, candidate), probed(result), candidate.toString());
+                assertEquals(detector.validateAssignment(candidate), result.getSelfConflicts());
+            }
+            assertEquals(candidates.size(), service.getLatencyStats().getCount());
+        }
+    }
+
+    @Test
+    void platformPoolMatchesSingleProbes() {
+        Random random = new Random(5);
+        List<Assignment> schedule = schedule(random, 1, 200);
+        List<Assignment> candidates = schedule(random, 1_000, 150);
+        ConflictGraphSnapshot snapshot = snapshot(schedule);
+        ConflictDetector detector = new ConflictDetector();
+
+        try (ScheduleQueryService service = new ScheduleQueryService(snapshot, detector, false)) {
+            assertFalse(service.usesVirtualThreads());
+            List<ScheduleQueryService.ProbeResult> results = service.probeAll(candidates);
+            assertEquals(candidates.size(), results.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                assertSame(candidates.get(i), results.get(i).getCandidate());
+                assertEquals(pairwise(detector, schedule, candidates.get(i)), probed(results.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void latencyBucketsBoundValuesWithinRelativeError() {
+        List<Long> values = new ArrayList<>();
+        for (long value = 0; value < 5_000; value++) {
+            values.add(value);
+        }
+        for (int exponent = 4; exponent < 63; exponent++) {
+            values.add((1L << exponent) - 1);
+            values.add(1L << exponent);
+            values.add((1L << exponent) + 1);
+            values.add((1L << exponent) + (1L << (exponent - 1)));
+        }
+        values.add(Long.MAX_VALUE);
+        values.sort(Comparator.naturalOrder());
+
+        int previous = -1;
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(bucket >= previous, "Cubos no monótonos en " + value);
+            assertTrue(upper >= value, "Cota inferior al valor " + value);
+            assertTrue(upper - value <= value / 8, "Error relativo mayor del 12,5% en " + value);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            if (upper < Long.MAX_VALUE) {
+                assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+            }
+            previous = bucket;
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+        ScheduleQueryService.LatencyStats stats = histogram.stats();
+        assertEquals(100, stats.getCount());
+        assertEquals(100_000, stats.getMaxNanos());
+        assertEquals(50_500, stats.getMeanNanos());
+        assertTrue(stats.getP50Nanos() >= 50_000 && stats.getP50Nanos() <= 50_000 * 9 / 8, stats.toString());
+        assertTrue(stats.getP99Nanos() >= 99_000 && stats.getP99Nanos() <= 100_000, stats.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.miapp.service;
+
+import com.example.miapp.domain.Assignment;
+import com.example.miapp.domain.Professor;
+import com.example.miapp.domain.Room;
+import com.example.miapp.domain.TimeSlot;
+import com.example.miapp.domain.conflict.ConflictType;
+import com.example.miapp.repository.DataManager;
+import com.example.miapp.service.ConflictGraphLoader.ConcurrencyMode;
+import com.example.miapp.service.ConflictGraphLoader.ScanStrategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link TimetableSolver} sobre horarios aleatorios con conflictos duros.
+ */
+class TimetableSolverTest {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+
+    private static final int HARD_MASK = ConflictType.PROFESSOR.mask() | ConflictType.ROOM.mask()
+        | ConflictType.GROUP.mask() | ConflictType.PROFESSOR_BLOCKED.mask();
+
+    @BeforeAll
+    static void resetData() {
+        DataManager.getInstance().clearAll();
+    }
+
+    /**
+     * Genera un horario con pocos profesores, aulas y grupos, de modo que abundan los
+     * solapamientos, y con las franjas bloqueadas de los profesores por defecto.
+     */
+    private static List<Assignment> schedule(long seed, int count) {
+        DataManager dataManager = DataManager.getInstance();
+        List<Professor> professors = dataManager.getAllProfessors();
+        List<Room> rooms = dataManager.getAllRooms();
+        Random random = new Random(seed);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String day = DAYS[random.nextInt(DAYS.length)];
+            List<TimeSlot.TimeRange> slots = TimeSlot.getValidTimeSlots(TimeSlot.parseDayOfWeek(day));
+            TimeSlot.TimeRange slot = slots.get(random.nextInt(slots.size()));
+            int halfHours = (int) Duration.between(slot.getStart(), slot.getEnd()).toMinutes() / 30;
+            int offset = random.nextInt(halfHours);
+            int length = 1 + random.nextInt(Math.min(3, halfHours - offset));
+            LocalTime start = slot.getStart().plusMinutes(30L * offset);
+            assignments.add(new Assignment.Builder()
+                .id(i + 1)
+                .assignmentDate(LocalDate.of(2025, 1, 1))
+                .professor(professors.get(random.nextInt(6)))
+                .room(rooms.get(random.nextInt(4)))
+                .day(day)
+                .startTime(start)
+                .endTime(start.plusMinutes(30L * length))
+                .groupId(random.nextInt(8))
+                .groupName("G")
+                .sessionType(random.nextBoolean() ? "D" : "N")
+                .enrolledStudents(10 + random.nextInt(20))
+                .build());
+        }
+        return assignments;
+    }
+
+    /**
+     * Construye el grafo completo insertando en orden de ID, de modo que se comparan todos los pares.
+     */
+    private static ConflictGraphLoader graph(Collection<Assignment> assignments) {
+        ConflictGraphLoader loader = new ConflictGraphLoader(ScanStrategy.LINEAR, 1, ConcurrencyMode.GLOBAL_LOCK);
+        assignments.stream().sorted(Comparator.comparingInt(Assignment::getId)).forEach(loader::addAssignment);
+        return loader;
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3})
+    void resolvesHardConflictsAndKeepsConflictFreeSessions(long seed) {
+        List<Assignment> assignments = schedule(seed, 60);
+        ConflictGraphLoader original = graph(assignments);
+
+        // Sesiones con algún conflicto duro, de pares o consigo mismas
+        Set<Integer> conflicted = new HashSet<>();
+        original.forEachEdge(edge -> {
+            if ((edge.getMask() & HARD_MASK) != 0) {
+                conflicted.add(edge.getSourceId());
+                conflicted.add(edge.getTargetId());
+            }
+        });
+        assertFalse(conflicted.isEmpty(), "El horario de partida debe tener conflictos duros");
+
+        TimetableSolver solver = new TimetableSolver(DataManager.getInstance().getAllRooms(), 30, 1,
+                                                     TimetableSolver.DEFAULT_MAX_ITERATIONS);
+        TimetableSolver.Result result = solver.solve(original.snapshot());
+        assertTrue(result.isConflictFree(), result.toString());
+        assertEquals(assignments.size(), result.getAssignments().size());
+
+        int[] hardEdges = new int[1];
+        graph(result.getAssignments()).forEachEdge(edge -> {
+            if ((edge.getMask() & HARD_MASK) != 0) {
+                hardEdges[0]++;
+            }
+        });
+        assertEquals(0, hardEdges[0]);
+
+        // Las sesiones sin conflictos duros conservan su colocación original
+        Map<Integer, Assignment> solved = new HashMap<>();
+        result.getAssignments().forEach(a -> solved.put(a.getId(), a));
+        for (Assignment assignment : assignments) {
+            if (!conflicted.contains(assignment.getId())) {
+                assertSame(assignment, solved.get(assignment.getId()), assignment.toString());
+            }
+        }
+        assertTrue(result.getMovedCount() <= conflicted.size());
+    }
+}